@@ -1,6 +1,7 @@
 package domcast.finalprojbackend.bean;
 
 import domcast.finalprojbackend.bean.project.ProjectBean;
+import domcast.finalprojbackend.bean.user.SignedTokenBean;
 import domcast.finalprojbackend.dao.*;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
@@ -34,6 +35,9 @@ public class AuthenticationAndAuthorization {
     @EJB
     private PersonalMessageDao personalMessageDao;
 
+    @EJB
+    private SignedTokenBean signedTokenBean;
+
     /**
      * Checks if the password is correct
      * @param plainPassword the plain password
@@ -59,6 +63,14 @@ public class AuthenticationAndAuthorization {
     public boolean isTokenActiveAndFromUserId(String token, int userId) {
         logger.info("Checking if token is active and from user id");
         try {
+            // Signed tokens are verified in memory, the others in the database
+            SignedTokenBean.Verification verification = signedTokenBean.verify(token);
+            if (verification.isValid()) {
+                return verification.claims().userId() == userId;
+            }
+            if (verification.isRejected()) {
+                return false;
+            }
             return sessionTokenDao.isTokenActiveAndFromUserId(token, userId);
         } catch (Exception e) {
             logger.error("Error while checking if token is active and from user id: {}", e.getMessage());
@@ -66,6 +78,29 @@ public class AuthenticationAndAuthorization {
         }
     }
 
+    /**
+     * Checks if the session token is active, whatever its user
+     * @param token the token to be checked
+     * @return boolean value indicating if the token is active
+     */
+    public boolean isSessionTokenActive(String token) {
+        logger.info("Checking if session token is active");
+        try {
+            // Signed tokens are verified in memory, the others in the database
+            SignedTokenBean.Verification verification = signedTokenBean.verify(token);
+            if (verification.isValid()) {
+                return true;
+            }
+            if (verification.isRejected()) {
+                return false;
+            }
+            return sessionTokenDao.isTokenActive(token);
+        } catch (Exception e) {
+            logger.error("Error while checking if session token is active: {}", e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Checks if the user is an admin
      * @param sessionToken the session token of the user
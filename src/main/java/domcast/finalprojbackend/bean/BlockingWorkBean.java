@@ -0,0 +1,244 @@
+package domcast.finalprojbackend.bean;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.core.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Singleton bean that runs the blocking work of the requests and of the websocket messages, like JPA calls,
+ * password hashing or sending emails. The execution mode is chosen at startup with the domcast.execution.mode
+ * system property:
+ * - platform (default): the work runs in the calling container thread, as before.
+ * - managed: the work is handed to the container's ManagedExecutorService, so the calling container threads are
+ *   freed and the number of requests in flight is no longer capped by their pool. The executor is managed by the
+ *   server, which propagates the naming and security context. It only runs the work in virtual threads if the
+ *   server configures it so (Jakarta Concurrency 3.1 virtual = true, on JDK 21 or later); this is checked at
+ *   startup, and a warning is logged when it runs platform threads.
+ * In the managed mode, the work holds one of the permits of the domcast.datasource.permits system property
+ * (default 20, the size of the connection pool), so the offloaded work queues here instead of overrunning the pool.
+ * Work the executor refuses is not run outside the permits: requests are answered with a 503, and websocket work
+ * runs in the calling thread holding a permit.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Singleton
+@Startup
+@Lock(LockType.READ)
+public class BlockingWorkBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(BlockingWorkBean.class);
+
+    public static final String MODE_PROPERTY = "domcast.execution.mode";
+    public static final String PERMITS_PROPERTY = "domcast.datasource.permits";
+    public static final String MANAGED = "managed";
+
+    // Time a request waits for a datasource permit before being refused
+    private static final long PERMIT_TIMEOUT_SECONDS = 30;
+
+    // Time the startup check waits for the managed executor to run a task
+    private static final long PROBE_TIMEOUT_SECONDS = 5;
+
+    @Resource
+    private transient ManagedExecutorService managedExecutor;
+
+    // The managed executor while the managed mode is active, null in the platform mode
+    private transient ExecutorService executor;
+    private transient Semaphore datasourcePermits;
+    private boolean virtualThreads;
+
+    /**
+     * Default constructor
+     */
+    public BlockingWorkBean() {
+    }
+
+    /**
+     * Selects the execution mode configured for this node
+     */
+    @PostConstruct
+    public void init() {
+        executor = null;
+        virtualThreads = false;
+        datasourcePermits = new Semaphore(Math.max(1, Integer.getInteger(PERMITS_PROPERTY, 20)), true);
+
+        if (MANAGED.equalsIgnoreCase(System.getProperty(MODE_PROPERTY))) {
+            if (managedExecutor != null) {
+                executor = managedExecutor;
+                virtualThreads = probeVirtualThreads();
+                if (!virtualThreads) {
+                    logger.warn("The managed executor runs platform threads, so the requests in flight are capped by its pool; "
+                            + "configure it with virtual threads on JDK 21 or later");
+                }
+            } else {
+                logger.warn("No managed executor available, blocking work stays in the calling threads");
+            }
+        }
+
+        logger.info("Blocking work runs in {} threads, with {} datasource permits",
+                executor == null ? "calling" : virtualThreads ? "managed virtual" : "managed platform", datasourcePermits.availablePermits());
+    }
+
+    /**
+     * Checks if the blocking work is handed to the managed executor
+     * @return true in the managed mode
+     */
+    public boolean isOffloaded() {
+        return executor != null;
+    }
+
+    /**
+     * Checks if the managed executor was found to run the blocking work in virtual threads
+     * @return true if the work runs in virtual threads
+     */
+    public boolean runsOnVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Runs a task in the managed executor to check if its threads are virtual.
+     * Thread.isVirtual is looked up by reflection, so the check also runs on JDKs without virtual threads.
+     * @return true if the task ran in a virtual thread
+     */
+    private boolean probeVirtualThreads() {
+        Method isVirtual;
+        try {
+            isVirtual = Thread.class.getMethod("isVirtual");
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+
+        CompletableFuture<Boolean> probe = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    probe.complete((Boolean) isVirtual.invoke(Thread.currentThread()));
+                } catch (ReflectiveOperationException e) {
+                    probe.complete(false);
+                }
+            });
+            return probe.get(PROBE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException | RejectedExecutionException e) {
+            logger.warn("Could not check the threads of the managed executor: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Computes the response of a suspended request, in the managed executor or in the calling thread
+     * @param asyncResponse the suspended request
+     * @param work the blocking work that builds the response
+     */
+    public void respond(AsyncResponse asyncResponse, Supplier<Response> work) {
+        if (executor == null) {
+            asyncResponse.resume(work.get());
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    asyncResponse.resume(withDatasourcePermit(work::get));
+                } catch (TimeoutException e) {
+                    logger.warn("No datasource permit available, request refused");
+                    asyncResponse.resume(Response.status(503).entity("Server busy, try again later").build());
+                } catch (Exception e) {
+                    logger.error("Error running request in the managed executor", e);
+                    asyncResponse.resume(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Running it here would skip the datasource permits, which are what protects the pool under overload
+            logger.warn("Managed executor refused the request, request refused");
+            asyncResponse.resume(Response.status(503).entity("Server busy, try again later").build());
+        }
+    }
+
+    /**
+     * Runs blocking work without a result, like handling a websocket message
+     * @param work the blocking work
+     */
+    public void execute(Runnable work) {
+        if (executor == null) {
+            work.run();
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    withDatasourcePermit(() -> {
+                        work.run();
+                        return null;
+                    });
+                } catch (Exception e) {
+                    logger.error("Error running work in the managed executor", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Websocket work cannot be answered with a 503, so it runs here, still holding a permit
+            try {
+                withDatasourcePermit(() -> {
+                    work.run();
+                    return null;
+                });
+            } catch (Exception workException) {
+                logger.error("Error running work refused by the managed executor", workException);
+            }
+        }
+    }
+
+    /**
+     * Runs a read made outside the work handed to the managed executor, like the next pages of a streamed
+     * response, which are read as the body is written. In the managed mode it holds a datasource permit,
+     * like the rest of the blocking work.
+     * @param read the read
+     * @return the result of the read
+     * @throws IllegalStateException if no permit is released in time
+     */
+    public <T> T read(Supplier<T> read) {
+        if (executor == null) {
+            return read.get();
+        }
+
+        try {
+            return withDatasourcePermit(read::get);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.warn("No datasource permit available for a streamed read");
+            throw new IllegalStateException("No datasource permit available", e);
+        }
+    }
+
+    /**
+     * Runs work holding a datasource permit
+     * @param work the work
+     * @return the result of the work
+     * @throws TimeoutException if no permit is released in time
+     */
+    <T> T withDatasourcePermit(Callable<T> work) throws Exception {
+        if (!datasourcePermits.tryAcquire(PERMIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            throw new TimeoutException("No datasource permit available");
+        }
+
+        try {
+            return work.call();
+        } finally {
+            datasourcePermits.release();
+        }
+    }
+}
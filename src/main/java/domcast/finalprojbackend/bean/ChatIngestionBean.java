@@ -0,0 +1,167 @@
+package domcast.finalprojbackend.bean;
+
+import domcast.finalprojbackend.dto.messageDto.ProjectMessage;
+import domcast.finalprojbackend.dto.userDto.MessageUser;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Singleton bean that ingests the messages written in the project chats.
+ * Incoming messages are queued and group-committed: every message received within a short window
+ * is persisted in one transaction and then broadcast to the sessions open for its project, on every application node.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Singleton
+@Lock(LockType.READ)
+public class ChatIngestionBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(ChatIngestionBean.class);
+
+    // Time a message may wait for others before the batch is persisted
+    private static final long FLUSH_WINDOW_MILLIS = 100;
+
+    // Maximum number of messages persisted in a single transaction
+    private static final int MAX_BATCH_SIZE = 200;
+
+    @EJB
+    private MessageBean messageBean;
+
+    @EJB
+    private JsonSerializationBean jsonSerializationBean;
+
+    @Resource
+    private TimerService timerService;
+
+    private final ConcurrentLinkedQueue<ProjectMessage> pendingMessages = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    /**
+     * Default constructor
+     */
+    public ChatIngestionBean() {
+    }
+
+    /**
+     * Queues a message for a project chat. It is persisted and broadcast by the next flush.
+     * @param projectId the id of the project
+     * @param sender the sender of the message, as cached on the websocket session
+     * @param content the content of the message
+     */
+    public void enqueue(int projectId, MessageUser sender, String content) {
+
+        if (sender == null) {
+            logger.error("Chat message not queued, sender is null");
+            throw new IllegalArgumentException("Sender is null");
+        }
+
+        if (content == null || content.isBlank()) {
+            logger.error("Chat message not queued for project {}, content is null or empty", projectId);
+            throw new IllegalArgumentException("Content is null or empty");
+        }
+
+        ProjectMessage message = new ProjectMessage();
+        message.setContent(content);
+        message.setSender(sender);
+        message.setProjectId(projectId);
+        message.setTimestamp(LocalDateTime.now());
+
+        pendingMessages.add(message);
+
+        if (flushScheduled.compareAndSet(false, true)) {
+            timerService.createSingleActionTimer(FLUSH_WINDOW_MILLIS, new TimerConfig(null, false));
+        }
+    }
+
+    /**
+     * Drains the queue, persisting the messages in batches and broadcasting them once committed.
+     * It runs without a transaction, so each batch is committed by MessageBean before it is broadcast.
+     * @param timer the timer that triggered the flush
+     */
+    @Timeout
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void flush(Timer timer) {
+        // The flag stays set while draining, so no other flush runs alongside this one and reorders the broadcasts.
+        // It is reset only once the queue is empty, and a message queued in between is drained here,
+        // unless its own enqueue already scheduled the next flush
+        do {
+            drain();
+            flushScheduled.set(false);
+        } while (!pendingMessages.isEmpty() && flushScheduled.compareAndSet(false, true));
+    }
+
+    /**
+     * Persists and broadcasts the queued messages, in batches, until the queue is empty
+     */
+    private void drain() {
+        List<ProjectMessage> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        ProjectMessage message;
+
+        while ((message = pendingMessages.poll()) != null) {
+            batch.add(message);
+            if (batch.size() == MAX_BATCH_SIZE) {
+                persistAndBroadcast(batch);
+                batch = new ArrayList<>(MAX_BATCH_SIZE);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            persistAndBroadcast(batch);
+        }
+    }
+
+    /**
+     * Persists a batch of messages and broadcasts the persisted ones.
+     * If the batch fails as a whole, the messages are persisted one by one, so a single bad message does not drop the others.
+     * @param batch the messages to be persisted
+     */
+    private void persistAndBroadcast(List<ProjectMessage> batch) {
+        List<ProjectMessage> persisted;
+
+        try {
+            persisted = messageBean.persistGroupMessages(batch);
+        } catch (Exception e) {
+            logger.error("Error persisting batch of {} chat messages, retrying one by one", batch.size(), e);
+            persisted = new ArrayList<>();
+            for (ProjectMessage message : batch) {
+                try {
+                    persisted.addAll(messageBean.persistGroupMessages(new ArrayList<>(List.of(message))));
+                } catch (Exception ex) {
+                    logger.error("Chat message from user {} not persisted for project {}", message.getSender().getId(), message.getProjectId(), ex);
+                }
+            }
+        }
+
+        Map<Integer, List<ProjectMessage>> messagesByProject = persisted.stream()
+                .collect(Collectors.groupingBy(ProjectMessage::getProjectId));
+
+        messagesByProject.forEach((projectId, messages) -> {
+            for (ProjectMessage persistedMessage : messages) {
+                String jsonMessage;
+                try {
+                    jsonMessage = jsonSerializationBean.writeProjectMessage(persistedMessage);
+                } catch (Exception e) {
+                    logger.error("Error serializing chat message for project {}", projectId, e);
+                    continue;
+                }
+                try {
+                    messageBean.sendToProject(projectId, jsonMessage);
+                } catch (Exception e) {
+                    logger.error("Error broadcasting chat message to project {}", projectId, e);
+                }
+            }
+        });
+    }
+}
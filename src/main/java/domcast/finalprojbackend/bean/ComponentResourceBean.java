@@ -11,6 +11,7 @@ import domcast.finalprojbackend.entity.ComponentResourceEntity;
 import domcast.finalprojbackend.entity.M2MComponentProject;
 import domcast.finalprojbackend.entity.ProjectEntity;
 import domcast.finalprojbackend.enums.ComponentResourceEnum;
+import domcast.finalprojbackend.enums.TypeaheadCategoryEnum;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.PersistenceException;
@@ -50,6 +51,9 @@ public class ComponentResourceBean implements Serializable {
     @EJB
     private M2MComponentProjectDao m2MComponentProjectDao;
 
+    @EJB
+    private TypeaheadBean typeaheadBean;
+
     // Default constructor
     public ComponentResourceBean() {
     }
@@ -165,6 +169,7 @@ public ComponentResourceEntity registerData(DetailedCR detailedCR, Integer proje
     try {
         componentResourceDao.persist(componentResourceEntity);
         componentResourceDao.flush();
+        typeaheadBean.add(TypeaheadCategoryEnum.COMPONENT, componentResourceEntity.getName());
     } catch (PersistenceException e) {
         logger.error("Error persisting entity: {}", e.getMessage());
         return null;
@@ -403,6 +408,7 @@ public ComponentResourceEntity registerData(DetailedCR detailedCR, Integer proje
         }
 
         if (detailedCR.getName() != null && !detailedCR.getName().isBlank()) {
+            typeaheadBean.rename(TypeaheadCategoryEnum.COMPONENT, componentResourceEntity.getName(), detailedCR.getName());
             componentResourceEntity.setName(detailedCR.getName());
         }
 
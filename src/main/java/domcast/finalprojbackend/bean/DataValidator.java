@@ -1,6 +1,7 @@
 package domcast.finalprojbackend.bean;
 
 import domcast.finalprojbackend.bean.user.PasswordBean;
+import domcast.finalprojbackend.bean.user.SignedTokenBean;
 import domcast.finalprojbackend.dao.M2MProjectUserDao;
 import domcast.finalprojbackend.dao.ProjectDao;
 import domcast.finalprojbackend.dao.SessionTokenDao;
@@ -53,6 +54,9 @@ public class DataValidator {
     @EJB
     private SessionTokenDao sessionTokenDao;
 
+    @EJB
+    private SignedTokenBean signedTokenBean;
+
     @EJB
     private ProjectDao projectDao;
 
@@ -620,6 +624,22 @@ public class DataValidator {
     public boolean availablePlacesInProject(int projectId) {
         logger.info("Checking if there are available places in the project");
 
+        if (remainingPlacesInProject(projectId) <= 0) {
+            logger.error("There are no available places in the project");
+            return false;
+        }
+
+        logger.info("There are available places in the project");
+        return true;
+    }
+
+    /**
+     * Counts the places left in the project, so the capacity is checked once for many new members
+     *
+     * @param projectId the id of the project to be checked
+     * @return the number of users that may still join the project, 0 if it is full or the count fails
+     */
+    public int remainingPlacesInProject(int projectId) {
         if (!isIdValid(projectId)) {
             logger.error("Invalid project id while checking available places in the project");
             throw new IllegalArgumentException("Invalid project id");
@@ -632,23 +652,17 @@ public class DataValidator {
             numberOfActiveUsers = m2MProjectUserDao.getNumberOfActiveUsersInProject(projectId);
         } catch (Exception e) {
             logger.error("Error while getting number of active users in project: {}", e.getMessage());
-            return false;
+            return 0;
         }
 
         try {
             maxUsers = systemBean.getProjectMaxUsers();
         } catch (Exception e) {
             logger.error("Error while getting project max users: {}", e.getMessage());
-            return false;
+            return 0;
         }
 
-        if (numberOfActiveUsers >= maxUsers) {
-            logger.error("There are no available places in the project");
-            return false;
-        }
-
-        logger.info("There are available places in the project");
-        return true;
+        return Math.max(0, maxUsers - numberOfActiveUsers);
     }
 
     /**
@@ -673,7 +687,10 @@ public class DataValidator {
 
         boolean isTokenActive;
         try {
-            isTokenActive = sessionTokenDao.isTokenActive(token);
+            // Signed tokens are verified in memory, the others in the database
+            SignedTokenBean.Verification verification = signedTokenBean.verify(token);
+            isTokenActive = verification.isValid()
+                    || (!verification.isRejected() && sessionTokenDao.isTokenActive(token));
         } catch (Exception e) {
             logger.error("Error while checking if token is active: {}", e.getMessage());
             return false;
@@ -0,0 +1,69 @@
+package domcast.finalprojbackend.bean;
+
+import domcast.finalprojbackend.dao.ProjectChangeDao;
+import domcast.finalprojbackend.dao.UserDao;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Stateless;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+
+/**
+ * Bean that builds the entity tags of the projects and of the public profiles, from the versions increased
+ * with every change to them, so an unchanged copy is recognized with a single query instead of being built again.
+ * A project tag changes with the change version of the project and with the profiles of its users,
+ * a profile tag with the profile version of the user.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Stateless
+public class EntityTagBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(EntityTagBean.class);
+
+    @EJB
+    private ProjectChangeDao projectChangeDao;
+
+    @EJB
+    private UserDao userDao;
+
+    /**
+     * Default constructor
+     */
+    public EntityTagBean() {
+    }
+
+    /**
+     * Builds the entity tag of a project, shared by its private and public copies and by its tasks
+     * @param projectId the id of the project
+     * @return the entity tag, or null if the project does not exist
+     */
+    public String projectTag(int projectId) {
+        long[] versions = projectChangeDao.findTagVersions(projectId);
+
+        if (versions == null) {
+            logger.info("No entity tag for project with id {}, not found", projectId);
+            return null;
+        }
+
+        return "p" + projectId + "-" + versions[0] + "-" + versions[1];
+    }
+
+    /**
+     * Builds the entity tag of the public profile of a user
+     * @param userId the id of the user
+     * @return the entity tag, or null if the user does not exist
+     */
+    public String profileTag(int userId) {
+        long version = userDao.findProfileVersion(userId);
+
+        if (version < 0) {
+            logger.info("No entity tag for the profile of user with id {}, not found", userId);
+            return null;
+        }
+
+        return "u" + userId + "-" + version;
+    }
+}
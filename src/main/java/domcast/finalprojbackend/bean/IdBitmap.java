@@ -0,0 +1,243 @@
+package domcast.finalprojbackend.bean;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed bitmap of ids, split like a Roaring bitmap in chunks of 65536 ids by their high 16 bits.
+ * A chunk holds its ids in a sorted array while it has up to 4096 of them, and in a bitmap of 8 KB once it has more,
+ * so a rare skill costs a few bytes per user and a common one never more than a bit per user.
+ * Not thread safe, the owner guards it.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+public final class IdBitmap {
+
+    // Largest number of ids of a chunk held in a sorted array, beyond which a bitmap is smaller
+    private static final int ARRAY_MAX = 4096;
+
+    private final TreeMap<Integer, Chunk> chunks = new TreeMap<>();
+    private int cardinality = 0;
+
+    /**
+     * Builds a bitmap with the given ids
+     * @param ids the ids, not negative
+     * @return the bitmap
+     */
+    public static IdBitmap of(int... ids) {
+        IdBitmap bitmap = new IdBitmap();
+        for (int id : ids) {
+            bitmap.add(id);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Adds an id
+     * @param id the id, not negative
+     * @return true if the id was not in the bitmap
+     */
+    public boolean add(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Ids in a bitmap cannot be negative: " + id);
+        }
+
+        boolean added = chunks.computeIfAbsent(id >>> 16, high -> new Chunk()).add((char) id);
+        if (added) {
+            cardinality++;
+        }
+        return added;
+    }
+
+    /**
+     * Removes an id
+     * @param id the id
+     * @return true if the id was in the bitmap
+     */
+    public boolean remove(int id) {
+        if (id < 0) {
+            return false;
+        }
+
+        Chunk chunk = chunks.get(id >>> 16);
+        if (chunk == null || !chunk.remove((char) id)) {
+            return false;
+        }
+
+        if (chunk.cardinality == 0) {
+            chunks.remove(id >>> 16);
+        }
+        cardinality--;
+        return true;
+    }
+
+    /**
+     * Checks if an id is in the bitmap
+     * @param id the id
+     * @return true if it is
+     */
+    public boolean contains(int id) {
+        if (id < 0) {
+            return false;
+        }
+
+        Chunk chunk = chunks.get(id >>> 16);
+        return chunk != null && chunk.contains((char) id);
+    }
+
+    /**
+     * Gets the number of ids in the bitmap
+     * @return the number of ids
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Checks if the bitmap has no ids
+     * @return true if it has none
+     */
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Passes every id to a consumer, in ascending order
+     * @param consumer the consumer of the ids
+     */
+    public void forEach(IntConsumer consumer) {
+        for (Map.Entry<Integer, Chunk> entry : chunks.entrySet()) {
+            entry.getValue().forEach(entry.getKey() << 16, consumer);
+        }
+    }
+
+    /**
+     * Gets the ids of the bitmap
+     * @return the ids, in ascending order
+     */
+    public int[] toArray() {
+        int[] ids = new int[cardinality];
+        int[] position = {0};
+        forEach(id -> ids[position[0]++] = id);
+        return ids;
+    }
+
+    /**
+     * The ids of a chunk, as the low 16 bits of the ids
+     */
+    private static final class Chunk {
+
+        // The sorted ids while the chunk is sparse, null once it is a bitmap
+        private char[] values = new char[4];
+
+        // The bitmap of the ids once the chunk is dense, null while it is an array
+        private long[] words;
+
+        private int cardinality;
+
+        boolean add(char low) {
+            if (words != null) {
+                long bit = 1L << low;
+                if ((words[low >>> 6] & bit) != 0) {
+                    return false;
+                }
+                words[low >>> 6] |= bit;
+                cardinality++;
+                return true;
+            }
+
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index >= 0) {
+                return false;
+            }
+
+            if (cardinality == ARRAY_MAX) {
+                toBitmap();
+                return add(low);
+            }
+
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, values.length * 2));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = low;
+            cardinality++;
+            return true;
+        }
+
+        boolean remove(char low) {
+            if (words != null) {
+                long bit = 1L << low;
+                if ((words[low >>> 6] & bit) == 0) {
+                    return false;
+                }
+                words[low >>> 6] &= ~bit;
+                cardinality--;
+
+                // Back to an array well below the limit, so ids added and removed at the limit do not convert each time
+                if (cardinality <= ARRAY_MAX / 2) {
+                    toArray();
+                }
+                return true;
+            }
+
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index < 0) {
+                return false;
+            }
+
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+            return true;
+        }
+
+        boolean contains(char low) {
+            if (words != null) {
+                return (words[low >>> 6] & (1L << low)) != 0;
+            }
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        void forEach(int base, IntConsumer consumer) {
+            if (words == null) {
+                for (int i = 0; i < cardinality; i++) {
+                    consumer.accept(base | values[i]);
+                }
+                return;
+            }
+
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    consumer.accept(base | (w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        private void toBitmap() {
+            words = new long[1024];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            values = null;
+        }
+
+        private void toArray() {
+            char[] sparse = new char[Math.max(4, cardinality)];
+            int i = 0;
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    sparse[i++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            values = sparse;
+            words = null;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import domcast.finalprojbackend.entity.InterestEntity;
 import domcast.finalprojbackend.entity.M2MUserInterest;
 import domcast.finalprojbackend.entity.UserEntity;
 import domcast.finalprojbackend.enums.InterestEnum;
+import domcast.finalprojbackend.enums.TypeaheadCategoryEnum;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.NoResultException;
@@ -33,6 +34,12 @@ public class InterestBean implements Serializable {
     @EJB
     private DataValidator dataValidator;
 
+    @EJB
+    private TypeaheadBean typeaheadBean;
+
+    @EJB
+    private MatchingBean matchingBean;
+
     /**
      * Default constructor for InterestBean.
      */
@@ -83,9 +90,13 @@ public class InterestBean implements Serializable {
                     InterestDto interestDto = interestsList.get(interestsNames.indexOf(interest));
                     newInterest.setType(convertTypeToEnum(interestDto.getType()));
                     interestDao.persist(newInterest);
+                    typeaheadBean.add(TypeaheadCategoryEnum.INTEREST, newInterest.getName());
                 }
             }
 
+            // The cached list of interests no longer matches the table
+            interestDao.evictFromCache();
+
             logger.info("Interests created");
 
             return true;
@@ -145,6 +156,7 @@ public class InterestBean implements Serializable {
             }
 
             userDao.merge(user);
+            matchingBean.userChanged(userId);
 
             logger.info("Interests added to user");
 
@@ -206,6 +218,7 @@ public class InterestBean implements Serializable {
             }
 
             userDao.merge(userEntity);
+            matchingBean.userChanged(userEntity.getId());
         }
         return userEntity;
     }
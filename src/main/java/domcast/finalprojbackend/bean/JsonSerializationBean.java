@@ -0,0 +1,356 @@
+package domcast.finalprojbackend.bean;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import domcast.finalprojbackend.dto.messageDto.PersonalMessage;
+import domcast.finalprojbackend.dto.messageDto.ProjectMessage;
+import domcast.finalprojbackend.dto.messageDto.ProjectNotification;
+import domcast.finalprojbackend.dto.messageDto.RealtimeEvent;
+import domcast.finalprojbackend.dto.projectDto.DetailedProject;
+import domcast.finalprojbackend.service.ObjectMapperContextResolver;
+import jakarta.annotation.PostConstruct;
+import jakarta.ejb.Lock;
+import jakarta.ejb.LockType;
+import jakarta.ejb.Singleton;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Singleton bean that serializes the DTOs pushed through the websockets.
+ * It reuses the shared object mapper and keeps one pre-built writer per DTO type,
+ * so the serializers are resolved once instead of once per message.
+ * For clients that read binary frames, values can also be serialized straight into a buffer kept by the calling
+ * thread, so no intermediate String nor byte array is created per message.
+ * It also builds the streamed bodies of the large list endpoints, written element by element as they are read,
+ * and reads large request arrays element by element.
+ * Writers are immutable and thread safe, so the bean allows concurrent access.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Singleton
+@Lock(LockType.READ)
+public class JsonSerializationBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(JsonSerializationBean.class);
+
+    // Buffers that grew above this size are dropped after use instead of being kept by the thread
+    private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_POOLED_BUFFER_SIZE = 2 * 1024;
+
+    private static final ThreadLocal<PooledByteArrayOutputStream> POOLED_BUFFER =
+            ThreadLocal.withInitial(() -> new PooledByteArrayOutputStream(INITIAL_POOLED_BUFFER_SIZE));
+
+    private transient ObjectMapper mapper;
+    private transient ObjectWriter personalMessageWriter;
+    private transient ObjectWriter projectMessageWriter;
+    private transient ObjectWriter projectNotificationWriter;
+    private transient ObjectWriter detailedProjectWriter;
+    private transient ObjectWriter realtimeEventWriter;
+
+    /**
+     * Default constructor
+     */
+    public JsonSerializationBean() {
+    }
+
+    /**
+     * Builds the writers for the DTOs sent through the websockets
+     */
+    @PostConstruct
+    public void init() {
+        logger.info("Building JSON writers for websocket messages");
+
+        mapper = ObjectMapperContextResolver.sharedMapper();
+        personalMessageWriter = mapper.writerFor(PersonalMessage.class);
+        projectMessageWriter = mapper.writerFor(ProjectMessage.class);
+        projectNotificationWriter = mapper.writerFor(ProjectNotification.class);
+        detailedProjectWriter = mapper.writerFor(DetailedProject.class);
+        realtimeEventWriter = mapper.writerFor(RealtimeEvent.class);
+    }
+
+    /**
+     * Serializes a personal message
+     * @param message the message to be serialized
+     * @return the JSON representation of the message
+     * @throws JsonProcessingException if the message cannot be serialized
+     */
+    public String writePersonalMessage(PersonalMessage message) throws JsonProcessingException {
+        return personalMessageWriter.writeValueAsString(message);
+    }
+
+    /**
+     * Serializes a project chat message
+     * @param message the message to be serialized
+     * @return the JSON representation of the message
+     * @throws JsonProcessingException if the message cannot be serialized
+     */
+    public String writeProjectMessage(ProjectMessage message) throws JsonProcessingException {
+        return projectMessageWriter.writeValueAsString(message);
+    }
+
+    /**
+     * Serializes a project notification
+     * @param notification the notification to be serialized
+     * @return the JSON representation of the notification
+     * @throws JsonProcessingException if the notification cannot be serialized
+     */
+    public String writeProjectNotification(ProjectNotification notification) throws JsonProcessingException {
+        return projectNotificationWriter.writeValueAsString(notification);
+    }
+
+    /**
+     * Serializes a detailed project
+     * @param project the project to be serialized
+     * @return the JSON representation of the project
+     * @throws JsonProcessingException if the project cannot be serialized
+     */
+    public String writeDetailedProject(DetailedProject project) throws JsonProcessingException {
+        return detailedProjectWriter.writeValueAsString(project);
+    }
+
+    /**
+     * Serializes an ephemeral websocket event
+     * @param event the event to be serialized
+     * @return the JSON representation of the event
+     * @throws JsonProcessingException if the event cannot be serialized
+     */
+    public String writeRealtimeEvent(RealtimeEvent event) throws JsonProcessingException {
+        return realtimeEventWriter.writeValueAsString(event);
+    }
+
+    /**
+     * Serializes a value straight into a buffer owned by the calling thread, without creating an intermediate String.
+     * The returned buffer is read only and is only valid until the next call on the same thread,
+     * so it must be sent synchronously (e.g. with getBasicRemote().sendBinary) before serializing anything else.
+     * @param value the value to be serialized
+     * @return a read only view over the serialized bytes
+     * @throws IOException if the value cannot be serialized
+     */
+    public ByteBuffer writeToPooledBuffer(Object value) throws IOException {
+        if (value == null) {
+            logger.error("Value to serialize into pooled buffer is null");
+            throw new IllegalArgumentException("Value is null");
+        }
+
+        PooledByteArrayOutputStream buffer = POOLED_BUFFER.get();
+        if (buffer.capacity() > MAX_POOLED_BUFFER_SIZE) {
+            buffer = new PooledByteArrayOutputStream(INITIAL_POOLED_BUFFER_SIZE);
+            POOLED_BUFFER.set(buffer);
+        }
+        buffer.reset();
+
+        writerFor(value).writeValue(buffer, value);
+
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Builds a response body that streams a JSON array read page by page, so the whole list is never held in memory.
+     * The first page is read by the caller before the response is built, so an invalid request or a failing database
+     * still gets an error status instead of a truncated body. The next pages are read as the body is written, each
+     * one after the last element of the previous one, until a page is not full.
+     * @param type the type of the elements
+     * @param firstPage the first page, already read
+     * @param pageSize the size of a full page
+     * @param nextPage the reader of the page after an element
+     * @return the streamed response body
+     */
+    public <T> StreamingOutput streamPages(Class<T> type, List<T> firstPage, int pageSize, Function<T, List<T>> nextPage) {
+        ObjectWriter writer = elementWriter(type);
+
+        return output -> writeStream(output, generator -> {
+            generator.writeStartArray();
+            writePages(writer, generator, firstPage, pageSize, nextPage);
+            generator.writeEndArray();
+        });
+    }
+
+    /**
+     * Builds a response body that streams a JSON object with some plain fields followed by an array field read
+     * page by page, like a page of projects with its total. As in streamPages, the first page is read by the caller
+     * before the response is built, and the next pages as the body is written.
+     * @param fields the plain fields, written before the array
+     * @param arrayField the name of the array field
+     * @param type the type of the elements of the array
+     * @param firstPage the first page, already read
+     * @param pageSize the size of a full page
+     * @param nextPage the reader of the page after an element
+     * @return the streamed response body
+     */
+    public <T> StreamingOutput streamObjectWithPages(Map<String, ?> fields, String arrayField, Class<T> type, List<T> firstPage, int pageSize, Function<T, List<T>> nextPage) {
+        ObjectWriter writer = elementWriter(type);
+
+        return output -> writeStream(output, generator -> {
+            generator.writeStartObject();
+            for (Map.Entry<String, ?> field : fields.entrySet()) {
+                generator.writeFieldName(field.getKey());
+                mapper.writeValue(generator, field.getValue());
+            }
+            generator.writeArrayFieldStart(arrayField);
+            writePages(writer, generator, firstPage, pageSize, nextPage);
+            generator.writeEndArray();
+            generator.writeEndObject();
+        });
+    }
+
+    /**
+     * Writes the elements of the first page, then reads and writes each next page, until a page is not full
+     * @param writer the writer of the elements
+     * @param generator the generator of the body
+     * @param firstPage the first page, already read
+     * @param pageSize the size of a full page
+     * @param nextPage the reader of the page after an element
+     */
+    private <T> void writePages(ObjectWriter writer, JsonGenerator generator, List<T> firstPage, int pageSize, Function<T, List<T>> nextPage) {
+        List<T> page = firstPage;
+        while (true) {
+            for (T element : page) {
+                writeElement(writer, generator, element);
+            }
+            if (page.size() < pageSize) {
+                break;
+            }
+            page = nextPage.apply(page.get(page.size() - 1));
+        }
+    }
+
+    /**
+     * Reads a JSON array from a request body element by element, passing each one to the consumer as soon as it is
+     * parsed, so the whole body is never held in memory. The consumer may stop the read by throwing.
+     * @param input the request body
+     * @param type the type of the elements
+     * @param consumer the consumer of the elements
+     * @return the number of elements read
+     * @throws IOException if the body is not a JSON array of elements of the type
+     */
+    public <T> int readArray(InputStream input, Class<T> type, Consumer<T> consumer) throws IOException {
+        ObjectReader reader = mapper.readerFor(type);
+        int count = 0;
+
+        try (JsonParser parser = mapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON array");
+            }
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                consumer.accept(reader.readValue(parser));
+                count++;
+            }
+
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Expected an object or the end of the array");
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Part of a streamed body written with a generator
+     */
+    @FunctionalInterface
+    private interface StreamBody {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    /**
+     * Writes a streamed body to the response output, leaving the output open for the container to close
+     * @param output the response output
+     * @param body the body to write
+     * @throws IOException if the body cannot be written
+     */
+    private void writeStream(OutputStream output, StreamBody body) throws IOException {
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(output)) {
+            // A failed stream must end as a broken body, not be closed into valid but truncated JSON
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            body.write(generator);
+        } catch (UncheckedIOException e) {
+            logger.error("Error writing streamed response: {}", e.getMessage());
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            logger.error("Error producing streamed response", e);
+            throw new IOException("Error producing streamed response", e);
+        }
+    }
+
+    /**
+     * Writes one element of a streamed array
+     */
+    private static <T> void writeElement(ObjectWriter writer, JsonGenerator generator, T element) {
+        try {
+            writer.writeValue(generator, element);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns a writer for the elements of a streamed array that does not flush after each one,
+     * so the generator sends them in buffer-sized blocks
+     * @param type the type of the elements
+     * @return the writer
+     */
+    private ObjectWriter elementWriter(Class<?> type) {
+        return mapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Returns the cached writer for the type of the value, falling back to the shared mapper for other types
+     * @param value the value to be serialized
+     * @return the writer for the value
+     */
+    private ObjectWriter writerFor(Object value) {
+        if (value instanceof ProjectNotification) {
+            return projectNotificationWriter;
+        } else if (value instanceof PersonalMessage) {
+            return personalMessageWriter;
+        } else if (value instanceof ProjectMessage) {
+            return projectMessageWriter;
+        } else if (value instanceof DetailedProject) {
+            return detailedProjectWriter;
+        } else if (value instanceof RealtimeEvent) {
+            return realtimeEventWriter;
+        }
+        return mapper.writer();
+    }
+
+    /**
+     * Byte array output stream that exposes its internal array, so it can be wrapped without copying
+     */
+    private static final class PooledByteArrayOutputStream extends ByteArrayOutputStream {
+
+        private PooledByteArrayOutputStream(int size) {
+            super(size);
+        }
+
+        private int capacity() {
+            return buf.length;
+        }
+
+        private ByteBuffer asReadOnlyBuffer() {
+            return ByteBuffer.wrap(buf, 0, count).asReadOnlyBuffer();
+        }
+    }
+}
@@ -7,6 +7,7 @@ import domcast.finalprojbackend.dto.KeywordDto;
 import domcast.finalprojbackend.entity.KeywordEntity;
 import domcast.finalprojbackend.entity.M2MKeyword;
 import domcast.finalprojbackend.entity.ProjectEntity;
+import domcast.finalprojbackend.enums.TypeaheadCategoryEnum;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.PersistenceException;
@@ -33,6 +34,9 @@ public class KeywordBean implements Serializable {
     @EJB
     private M2MKeywordDao m2MKeywordDao;
 
+    @EJB
+    private TypeaheadBean typeaheadBean;
+
     /**
      * Default constructor for KeywordBean.
      */
@@ -56,6 +60,8 @@ public class KeywordBean implements Serializable {
             return keywordEntities;
         }
 
+        boolean created = false;
+
         try {
             for (String keyword : keywords) {
 
@@ -65,6 +71,8 @@ public class KeywordBean implements Serializable {
                         keywordEntity = new KeywordEntity();
                         keywordEntity.setName(keyword);
                         keywordDao.persist(keywordEntity);
+                        typeaheadBean.add(TypeaheadCategoryEnum.KEYWORD, keyword);
+                        created = true;
                     }
                     keywordEntities.add(keywordEntity);
                 } catch (PersistenceException e) {
@@ -77,6 +85,11 @@ public class KeywordBean implements Serializable {
             throw new RuntimeException("Error creating or getting keywords", e);
         }
 
+        if (created) {
+            // The cached list of keywords no longer matches the table
+            keywordDao.evictFromCache();
+        }
+
         logger.info("Exiting createAndGetKeywords");
 
         return keywordEntities;
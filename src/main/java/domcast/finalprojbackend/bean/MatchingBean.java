@@ -0,0 +1,377 @@
+package domcast.finalprojbackend.bean;
+
+import domcast.finalprojbackend.dao.M2MProjectUserDao;
+import domcast.finalprojbackend.dao.ProjectDao;
+import domcast.finalprojbackend.dao.UserDao;
+import domcast.finalprojbackend.dto.MatchDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Singleton bean that suggests users to projects and projects to users, by their skills, the interests of the users
+ * against the keywords of the projects, and the lab, from indexes held in memory.
+ * The beans that change the skills, interests, keywords, state or lab of a user or project tell this bean, which
+ * reads the new values before the transaction completes and indexes them once it commits.
+ * The indexes are rebuilt from the database every hour, in ranges of ids, which also brings the changes made by
+ * other nodes.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Singleton
+@Startup
+@DependsOn("StartupBean")
+@Lock(LockType.READ)
+public class MatchingBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(MatchingBean.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    // Number of ids read by each query of a rebuild
+    private static final int RANGE = 5000;
+
+    // Key of the ids changed in a transaction, in the resources of the transaction
+    private static final String CHANGES_RESOURCE = MatchingBean.class.getName() + ".changes";
+
+    @EJB
+    private UserDao userDao;
+
+    @EJB
+    private ProjectDao projectDao;
+
+    @EJB
+    private M2MProjectUserDao m2MProjectUserDao;
+
+    @Resource
+    private TransactionSynchronizationRegistry transactionRegistry;
+
+    // Guards the engine, which is read by the matches and written by the changes
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private MatchingEngine engine = new MatchingEngine();
+
+    // The changes applied while a rebuild runs, applied again to the rebuilt engine, null when no rebuild runs
+    private List<Consumer<MatchingEngine>> replay;
+
+    /**
+     * Default constructor
+     */
+    public MatchingBean() {
+    }
+
+    /**
+     * Builds the indexes when the application starts
+     */
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the indexes from the database, keeping the previous ones to answer the matches meanwhile
+     */
+    @Schedule(minute = "0", hour = "*", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (replay != null) {
+                logger.info("Matching indexes already being rebuilt");
+                return;
+            }
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        MatchingEngine rebuilt = new MatchingEngine();
+        boolean built = false;
+        try {
+            int maxUserId = userDao.findMaxId();
+            for (int fromId = 1; fromId <= maxUserId; fromId += RANGE) {
+                loadUsers(fromId, Math.min(fromId + RANGE - 1, maxUserId), false).forEach(change -> change.accept(rebuilt));
+            }
+
+            int maxProjectId = projectDao.findMaxId();
+            for (int fromId = 1; fromId <= maxProjectId; fromId += RANGE) {
+                loadProjects(fromId, Math.min(fromId + RANGE - 1, maxProjectId), false).forEach(change -> change.accept(rebuilt));
+            }
+            built = true;
+        } catch (Exception e) {
+            logger.error("Error rebuilding the matching indexes, keeping the previous ones", e);
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                for (Consumer<MatchingEngine> change : replay) {
+                    change.accept(rebuilt);
+                }
+                engine = rebuilt;
+                logger.info("Matching indexes rebuilt with {} users and {} projects", rebuilt.userCount(), rebuilt.projectCount());
+            }
+            replay = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tells that the skills, interests, lab or visibility of a user changed in the current transaction
+     * @param userId the id of the user
+     */
+    public void userChanged(int userId) {
+        Changes changes = changesInTransaction();
+        if (changes == null) {
+            apply(read(Set.of(userId), Set.of()));
+        } else {
+            changes.users.add(userId);
+        }
+    }
+
+    /**
+     * Tells that the skills, keywords, lab or state of a project changed in the current transaction
+     * @param projectId the id of the project
+     */
+    public void projectChanged(int projectId) {
+        Changes changes = changesInTransaction();
+        if (changes == null) {
+            apply(read(Set.of(), Set.of(projectId)));
+        } else {
+            changes.projects.add(projectId);
+        }
+    }
+
+    /**
+     * Finds the users that best match a project, leaving out those that already have a relation to it
+     * @param projectId the id of the project
+     * @param limit the maximum number of users, between 1 and MAX_LIMIT
+     * @return the matching users, best first
+     */
+    public List<MatchDto> findUsersMatchingProject(int projectId, int limit) {
+        Set<Integer> excluded = m2MProjectUserDao.findAllUserIdsInProject(projectId);
+
+        lock.readLock().lock();
+        try {
+            return engine.usersMatchingProject(projectId, excluded, clampLimit(limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the projects that best match a user, leaving out those the user already has a relation to
+     * @param userId the id of the user
+     * @param limit the maximum number of projects, between 1 and MAX_LIMIT
+     * @return the matching projects, best first
+     */
+    public List<MatchDto> findProjectsMatchingUser(int userId, int limit) {
+        Set<Integer> excluded = m2MProjectUserDao.findAllProjectIdsOfUser(userId);
+
+        lock.readLock().lock();
+        try {
+            return engine.projectsMatchingUser(userId, excluded, clampLimit(limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the ids changed in the current transaction, registering the synchronization that reads them before
+     * the transaction completes and indexes them once it commits.
+     * @return the ids changed in the current transaction, null without a transaction
+     */
+    private Changes changesInTransaction() {
+        if (transactionRegistry == null || transactionRegistry.getTransactionKey() == null) {
+            return null;
+        }
+
+        Object current = transactionRegistry.getResource(CHANGES_RESOURCE);
+        if (current != null) {
+            return (Changes) current;
+        }
+
+        Changes changes = new Changes();
+        transactionRegistry.putResource(CHANGES_RESOURCE, changes);
+
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+                changes.read = read(changes.users, changes.projects);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    apply(changes.read);
+                }
+            }
+        });
+
+        return changes;
+    }
+
+    /**
+     * Applies changes to the indexes, and keeps them to apply again to the indexes being rebuilt
+     * @param changes the changes
+     */
+    private void apply(List<Consumer<MatchingEngine>> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Consumer<MatchingEngine> change : changes) {
+                change.accept(engine);
+            }
+            if (replay != null) {
+                replay.addAll(changes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the current values of changed users and projects.
+     * The indexes are an optimization, so failing to read them never fails the transaction, and the next rebuild
+     * brings what could not be read.
+     * @param userIds the ids of the changed users
+     * @param projectIds the ids of the changed projects
+     * @return the changes that index them
+     */
+    private List<Consumer<MatchingEngine>> read(Set<Integer> userIds, Set<Integer> projectIds) {
+        List<Consumer<MatchingEngine>> changes = new ArrayList<>();
+        try {
+            for (int userId : userIds) {
+                changes.addAll(loadUsers(userId, userId, true));
+            }
+            for (int projectId : projectIds) {
+                changes.addAll(loadProjects(projectId, projectId, true));
+            }
+        } catch (Exception e) {
+            logger.error("Error reading the changes to the matching indexes of users {} and projects {}", userIds, projectIds, e);
+            return new ArrayList<>();
+        }
+        return changes;
+    }
+
+    /**
+     * Reads the users in a range of ids
+     * @param fromId the first id of the range
+     * @param toId the last id of the range
+     * @param everyId true to return every id of the range, those without skills or interests included
+     * @return the change that indexes each user
+     */
+    private List<UserChange> loadUsers(int fromId, int toId, boolean everyId) {
+        Map<Integer, Integer> labs = userDao.findMatchableLabs(fromId, toId);
+        Map<Integer, Set<Integer>> skills = userDao.findSkillIds(fromId, toId);
+        Map<Integer, Set<String>> interests = userDao.findInterestNames(fromId, toId);
+
+        List<UserChange> users = new ArrayList<>();
+        for (int id : ids(fromId, toId, everyId, labs.keySet(), skills.keySet(), interests.keySet())) {
+            users.add(new UserChange(id, labs.containsKey(id), labs.getOrDefault(id, 0),
+                    skills.getOrDefault(id, Set.of()), interests.getOrDefault(id, Set.of())));
+        }
+        return users;
+    }
+
+    /**
+     * Reads the projects in a range of ids
+     * @param fromId the first id of the range
+     * @param toId the last id of the range
+     * @param everyId true to return every id of the range, those without skills or keywords included
+     * @return the change that indexes each project
+     */
+    private List<ProjectChange> loadProjects(int fromId, int toId, boolean everyId) {
+        Map<Integer, Integer> labs = projectDao.findMatchableLabs(fromId, toId);
+        Map<Integer, Set<Integer>> skills = projectDao.findSkillIds(fromId, toId);
+        Map<Integer, Set<String>> keywords = projectDao.findKeywordNames(fromId, toId);
+
+        List<ProjectChange> projects = new ArrayList<>();
+        for (int id : ids(fromId, toId, everyId, labs.keySet(), skills.keySet(), keywords.keySet())) {
+            projects.add(new ProjectChange(id, labs.containsKey(id), labs.getOrDefault(id, 0),
+                    skills.getOrDefault(id, Set.of()), keywords.getOrDefault(id, Set.of())));
+        }
+        return projects;
+    }
+
+    /**
+     * Gets the ids of a range to index
+     * @param fromId the first id of the range
+     * @param toId the last id of the range
+     * @param everyId true for every id of the range, false for the ids found
+     * @param found the ids found by each query
+     * @return the ids, in ascending order
+     */
+    @SafeVarargs
+    private static Collection<Integer> ids(int fromId, int toId, boolean everyId, Set<Integer>... found) {
+        Set<Integer> ids = new TreeSet<>();
+        if (everyId) {
+            for (int id = fromId; id <= toId; id++) {
+                ids.add(id);
+            }
+        }
+        for (Set<Integer> set : found) {
+            ids.addAll(set);
+        }
+        return ids;
+    }
+
+    /**
+     * Keeps a requested limit within the allowed range
+     * @param limit the requested limit, 0 for the default
+     * @return the limit to use
+     */
+    private static int clampLimit(int limit) {
+        if (limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * What a user has that is indexed
+     */
+    private record UserChange(int id, boolean eligible, int lab, Set<Integer> skillIds, Set<String> interests)
+            implements Consumer<MatchingEngine> {
+        @Override
+        public void accept(MatchingEngine target) {
+            target.putUser(id, eligible, lab, skillIds, interests);
+        }
+    }
+
+    /**
+     * What a project has that is indexed
+     */
+    private record ProjectChange(int id, boolean open, int lab, Set<Integer> skillIds, Set<String> keywords)
+            implements Consumer<MatchingEngine> {
+        @Override
+        public void accept(MatchingEngine target) {
+            target.putProject(id, open, lab, skillIds, keywords);
+        }
+    }
+
+    /**
+     * The ids of the users and projects changed in a transaction, and the changes read from them
+     */
+    private static final class Changes {
+        private final Set<Integer> users = new LinkedHashSet<>();
+        private final Set<Integer> projects = new LinkedHashSet<>();
+        private List<Consumer<MatchingEngine>> read = new ArrayList<>();
+    }
+}
@@ -0,0 +1,207 @@
+package domcast.finalprojbackend.bean;
+
+import domcast.finalprojbackend.dto.MatchDto;
+
+import java.util.*;
+
+/**
+ * Matches users and projects by their skills, the interests of the users against the keywords of the projects,
+ * and the lab, over inverted indexes of compressed bitmaps.
+ * The candidates of a match are the entities in the postings of its skills and terms, kept only if they are in the
+ * bitmap of eligible users or open projects, and ranked by a score of what they share.
+ * Interests and keywords are compared by their names, ignoring the case, so they share one dictionary of terms.
+ * Not thread safe, the owner guards it.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+public final class MatchingEngine {
+
+    public static final int SKILL_WEIGHT = 3;
+    public static final int TERM_WEIGHT = 2;
+    public static final int LAB_WEIGHT = 1;
+
+    // Best matches first, the lowest id first between equal scores
+    private static final Comparator<MatchDto> RANKING = Comparator.comparingInt(MatchDto::getScore).reversed()
+            .thenComparingInt(MatchDto::getId);
+
+    private final MatchingIndex userSkills = new MatchingIndex();
+    private final MatchingIndex userTerms = new MatchingIndex();
+    private final Map<Integer, Integer> userLabs = new HashMap<>();
+    private final IdBitmap eligibleUsers = new IdBitmap();
+
+    private final MatchingIndex projectSkills = new MatchingIndex();
+    private final MatchingIndex projectTerms = new MatchingIndex();
+    private final Map<Integer, Integer> projectLabs = new HashMap<>();
+    private final IdBitmap openProjects = new IdBitmap();
+
+    // The id of each interest or keyword name, in lower case
+    private final Map<String, Integer> terms = new HashMap<>();
+
+    /**
+     * Replaces what is indexed of a user
+     * @param userId the id of the user
+     * @param eligible if the user may be suggested to projects
+     * @param lab the id of the lab of the user, 0 if none
+     * @param skillIds the ids of the active skills of the user
+     * @param interests the names of the active interests of the user
+     */
+    public void putUser(int userId, boolean eligible, int lab, Collection<Integer> skillIds, Collection<String> interests) {
+        userSkills.put(userId, skillIds);
+        userTerms.put(userId, termIds(interests));
+        putLab(userLabs, userId, lab);
+        if (eligible) {
+            eligibleUsers.add(userId);
+        } else {
+            eligibleUsers.remove(userId);
+        }
+    }
+
+    /**
+     * Replaces what is indexed of a project
+     * @param projectId the id of the project
+     * @param open if the project may be suggested to users
+     * @param lab the id of the lab of the project, 0 if none
+     * @param skillIds the ids of the active skills of the project
+     * @param keywords the names of the active keywords of the project
+     */
+    public void putProject(int projectId, boolean open, int lab, Collection<Integer> skillIds, Collection<String> keywords) {
+        projectSkills.put(projectId, skillIds);
+        projectTerms.put(projectId, termIds(keywords));
+        putLab(projectLabs, projectId, lab);
+        if (open) {
+            openProjects.add(projectId);
+        } else {
+            openProjects.remove(projectId);
+        }
+    }
+
+    /**
+     * Finds the eligible users that best match an open project
+     * @param projectId the id of the project
+     * @param excluded the ids of the users not to suggest, such as the members of the project
+     * @param limit the maximum number of users
+     * @return the matching users, best first
+     */
+    public List<MatchDto> usersMatchingProject(int projectId, Set<Integer> excluded, int limit) {
+        if (!openProjects.contains(projectId)) {
+            return new ArrayList<>();
+        }
+
+        return rank(projectSkills.attributesOf(projectId), projectTerms.attributesOf(projectId), projectLabs.getOrDefault(projectId, 0),
+                userSkills, userTerms, userLabs, eligibleUsers, excluded, limit);
+    }
+
+    /**
+     * Finds the open projects that best match a user
+     * @param userId the id of the user
+     * @param excluded the ids of the projects not to suggest, such as those the user is already in
+     * @param limit the maximum number of projects
+     * @return the matching projects, best first
+     */
+    public List<MatchDto> projectsMatchingUser(int userId, Set<Integer> excluded, int limit) {
+        return rank(userSkills.attributesOf(userId), userTerms.attributesOf(userId), userLabs.getOrDefault(userId, 0),
+                projectSkills, projectTerms, projectLabs, openProjects, excluded, limit);
+    }
+
+    /**
+     * Gets the number of users indexed with skills or interests
+     * @return the number of users
+     */
+    public int userCount() {
+        return Math.max(userSkills.size(), userTerms.size());
+    }
+
+    /**
+     * Gets the number of projects indexed with skills or keywords
+     * @return the number of projects
+     */
+    public int projectCount() {
+        return Math.max(projectSkills.size(), projectTerms.size());
+    }
+
+    /**
+     * Ranks the candidates that share a skill or a term with the subject of the match
+     * @param skills the skills of the subject
+     * @param termIds the terms of the subject
+     * @param lab the lab of the subject, 0 if none
+     * @param skillIndex the skills of the candidates
+     * @param termIndex the terms of the candidates
+     * @param labs the labs of the candidates
+     * @param allowed the candidates that may be suggested
+     * @param excluded the candidates not to suggest
+     * @param limit the maximum number of matches
+     * @return the best matches, best first
+     */
+    private static List<MatchDto> rank(int[] skills, int[] termIds, int lab, MatchingIndex skillIndex, MatchingIndex termIndex,
+                                       Map<Integer, Integer> labs, IdBitmap allowed, Set<Integer> excluded, int limit) {
+        if (limit <= 0 || (skills.length == 0 && termIds.length == 0)) {
+            return new ArrayList<>();
+        }
+
+        // Shared skills and terms of each candidate
+        Map<Integer, int[]> shared = new HashMap<>();
+        for (int skillId : skills) {
+            skillIndex.forEachEntity(skillId, id -> {
+                if (allowed.contains(id)) {
+                    shared.computeIfAbsent(id, key -> new int[2])[0]++;
+                }
+            });
+        }
+        for (int termId : termIds) {
+            termIndex.forEachEntity(termId, id -> {
+                if (allowed.contains(id)) {
+                    shared.computeIfAbsent(id, key -> new int[2])[1]++;
+                }
+            });
+        }
+
+        // Keeps the best matches in a heap with the worst of them on top
+        PriorityQueue<MatchDto> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (Map.Entry<Integer, int[]> entry : shared.entrySet()) {
+            int id = entry.getKey();
+            if (excluded != null && excluded.contains(id)) {
+                continue;
+            }
+
+            int[] counts = entry.getValue();
+            boolean sameLab = lab != 0 && labs.getOrDefault(id, 0) == lab;
+            int score = counts[0] * SKILL_WEIGHT + counts[1] * TERM_WEIGHT + (sameLab ? LAB_WEIGHT : 0);
+
+            best.add(new MatchDto(id, score, counts[0], counts[1], sameLab));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<MatchDto> matches = new ArrayList<>(best);
+        matches.sort(RANKING);
+        return matches;
+    }
+
+    /**
+     * Gets the ids of interest or keyword names, adding the new ones to the dictionary
+     * @param names the names
+     * @return the ids of the names
+     */
+    private List<Integer> termIds(Collection<String> names) {
+        List<Integer> ids = new ArrayList<>();
+        if (names == null) {
+            return ids;
+        }
+
+        for (String name : names) {
+            if (name != null && !name.isBlank()) {
+                ids.add(terms.computeIfAbsent(name.trim().toLowerCase(Locale.ROOT), key -> terms.size() + 1));
+            }
+        }
+        return ids;
+    }
+
+    private static void putLab(Map<Integer, Integer> labs, int id, int lab) {
+        if (lab == 0) {
+            labs.remove(id);
+        } else {
+            labs.put(id, lab);
+        }
+    }
+}
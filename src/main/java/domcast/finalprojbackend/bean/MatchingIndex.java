@@ -0,0 +1,115 @@
+package domcast.finalprojbackend.bean;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Inverted index of one kind of attribute, such as the skills of the users, with a compressed bitmap of the ids
+ * of the entities that have each attribute, and the attributes of each entity to replace them when they change.
+ * Not thread safe, the owner guards it.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+public final class MatchingIndex {
+
+    private static final int[] NONE = new int[0];
+
+    // The entities that have each attribute, by attribute id
+    private final Map<Integer, IdBitmap> postings = new HashMap<>();
+
+    // The sorted attributes of each entity, by entity id
+    private final Map<Integer, int[]> attributes = new HashMap<>();
+
+    /**
+     * Replaces the attributes of an entity
+     * @param entityId the id of the entity
+     * @param attributeIds the attributes it now has, none to remove it from the index
+     */
+    public void put(int entityId, Collection<Integer> attributeIds) {
+        int[] previous = attributes.getOrDefault(entityId, NONE);
+        int[] current = attributeIds == null ? NONE : attributeIds.stream().mapToInt(Integer::intValue).distinct().sorted().toArray();
+
+        // Only the attributes that changed touch a bitmap
+        for (int attributeId : previous) {
+            if (Arrays.binarySearch(current, attributeId) < 0) {
+                IdBitmap posting = postings.get(attributeId);
+                if (posting != null) {
+                    posting.remove(entityId);
+                    if (posting.isEmpty()) {
+                        postings.remove(attributeId);
+                    }
+                }
+            }
+        }
+
+        for (int attributeId : current) {
+            if (Arrays.binarySearch(previous, attributeId) < 0) {
+                postings.computeIfAbsent(attributeId, id -> new IdBitmap()).add(entityId);
+            }
+        }
+
+        if (current.length == 0) {
+            attributes.remove(entityId);
+        } else {
+            attributes.put(entityId, current);
+        }
+    }
+
+    /**
+     * Removes an entity from the index
+     * @param entityId the id of the entity
+     */
+    public void remove(int entityId) {
+        put(entityId, null);
+    }
+
+    /**
+     * Gets the attributes of an entity
+     * @param entityId the id of the entity
+     * @return the sorted attribute ids, empty if it has none
+     */
+    public int[] attributesOf(int entityId) {
+        return attributes.getOrDefault(entityId, NONE);
+    }
+
+    /**
+     * Checks if an entity has an attribute
+     * @param attributeId the id of the attribute
+     * @param entityId the id of the entity
+     * @return true if it has
+     */
+    public boolean has(int attributeId, int entityId) {
+        IdBitmap posting = postings.get(attributeId);
+        return posting != null && posting.contains(entityId);
+    }
+
+    /**
+     * Passes the ids of the entities with an attribute to a consumer, in ascending order
+     * @param attributeId the id of the attribute
+     * @param consumer the consumer of the entity ids
+     */
+    public void forEachEntity(int attributeId, IntConsumer consumer) {
+        IdBitmap posting = postings.get(attributeId);
+        if (posting != null) {
+            posting.forEach(consumer);
+        }
+    }
+
+    /**
+     * Gets the number of entities with an attribute
+     * @param attributeId the id of the attribute
+     * @return the number of entities
+     */
+    public int frequency(int attributeId) {
+        IdBitmap posting = postings.get(attributeId);
+        return posting == null ? 0 : posting.cardinality();
+    }
+
+    /**
+     * Gets the number of entities with at least one attribute
+     * @return the number of entities
+     */
+    public int size() {
+        return attributes.size();
+    }
+}
@@ -1,10 +1,11 @@
 package domcast.finalprojbackend.bean;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import domcast.finalprojbackend.bean.broadcast.BroadcastBean;
 import domcast.finalprojbackend.bean.task.TaskBean;
 import domcast.finalprojbackend.bean.user.UserBean;
 import domcast.finalprojbackend.dao.*;
+import domcast.finalprojbackend.dto.messageDto.BroadcastMessage;
 import domcast.finalprojbackend.dto.messageDto.NewMessage;
 import domcast.finalprojbackend.dto.messageDto.PersonalMessage;
 import domcast.finalprojbackend.dto.messageDto.ProjectMessage;
@@ -13,15 +14,11 @@ import domcast.finalprojbackend.dto.userDto.MessageUser;
 import domcast.finalprojbackend.entity.*;
 import domcast.finalprojbackend.enums.MessageAndLogEnum;
 import domcast.finalprojbackend.enums.ProjectStateEnum;
-import domcast.finalprojbackend.service.ObjectMapperContextResolver;
 import domcast.finalprojbackend.websocket.NotificationWS;
 import domcast.finalprojbackend.websocket.PersonalMessageWS;
-import domcast.finalprojbackend.websocket.ProjectMessageWS;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
-import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceException;
-import jakarta.websocket.CloseReason;
 import jakarta.websocket.Session;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -54,15 +51,9 @@ public class MessageBean implements Serializable {
     @EJB
     private PersonalMessageWS personalMessageWS;
 
-    @EJB
-    private ProjectMessageWS projectMessageWS;
-
     @EJB
     private DataValidator dataValidator;
 
-    @EJB
-    private NotificationWS notificationWS;
-
     @EJB
     private M2MProjectUserDao m2MProjectUserDao;
 
@@ -75,6 +66,21 @@ public class MessageBean implements Serializable {
     @EJB
     private RecordDao recordDao;
 
+    @EJB
+    private JsonSerializationBean jsonSerializationBean;
+
+    @EJB
+    private ProjectDao projectDao;
+
+    @EJB
+    private BroadcastBean broadcastBean;
+
+    @EJB
+    private NotificationOutboxDao notificationOutboxDao;
+
+    @EJB
+    private NotificationDispatcherBean notificationDispatcherBean;
+
 
     private static final Logger logger = LogManager.getLogger(TaskBean.class);
 
@@ -146,55 +152,43 @@ public class MessageBean implements Serializable {
     }
 
     /**
-     * Persists a group message
-     * @param content the content of the message
-     * @param sender the sender of the message
-     * @param receiver the receiver of the message
-     * @return the persisted message
+     * Persists a batch of group messages in a single transaction
+     * The sender and the project are set by reference, so neither is loaded from the database
+     * @param pendingMessages the messages to be persisted, with sender, project id, content and timestamp set
+     * @return the same messages, with the ids generated by the database
      * @throws PersistenceException if an error occurs during the persist operation
      */
-    public ProjectMessage persistGroupMessage(String content, UserEntity sender, ProjectEntity receiver) {
+    public List<ProjectMessage> persistGroupMessages(List<ProjectMessage> pendingMessages) {
 
-        if (sender == null) {
-            logger.error("Group message not sent");
-            throw new IllegalArgumentException("Sender is null");
+        if (pendingMessages == null || pendingMessages.isEmpty()) {
+            logger.error("Group messages batch is null or empty");
+            throw new IllegalArgumentException("Group messages batch is null or empty");
         }
 
-        if (receiver == null) {
-            logger.error("Group message not sent to project.");
-            throw new IllegalArgumentException("Receiver is null");
-        }
+        List<ProjectMessageEntity> entities = new ArrayList<>(pendingMessages.size());
 
-        if (content == null || content.isEmpty()) {
-            logger.error("Group message not sent for project: {}", receiver.getName());
-            throw new IllegalArgumentException("Content is null or empty");
+        for (ProjectMessage pendingMessage : pendingMessages) {
+            ProjectMessageEntity messageEntity = new ProjectMessageEntity();
+            messageEntity.setContent(pendingMessage.getContent());
+            messageEntity.setSender(userDao.getReference(pendingMessage.getSender().getId()));
+            messageEntity.setProject(projectDao.getReference(pendingMessage.getProjectId()));
+            messageEntity.setTimestamp(pendingMessage.getTimestamp());
+            entities.add(messageEntity);
         }
 
-        logger.info("Sending group message from: {} to project: {}", sender.getFirstName() + sender.getLastName(), receiver.getName());
-
-        ProjectMessageEntity messageEntity = new ProjectMessageEntity();
-
-        messageEntity.setContent(content);
-        messageEntity.setSender(sender);
-        messageEntity.setProject(receiver);
-        messageEntity.setTimestamp(LocalDateTime.now());
-
-        ProjectMessageEntity persistedMessage;
-
         try {
-            persistedMessage = projectMessageDao.persistProjectMessage(messageEntity);
-            logger.info("Group message persisted for project: {}", receiver.getName());
+            projectMessageDao.persistProjectMessages(entities);
+            logger.info("Batch of {} group messages persisted", entities.size());
         } catch (PersistenceException e) {
-            logger.error("Group message not persisted for project: {}", receiver.getName());
-            throw new PersistenceException("Group message not persisted");
+            logger.error("Batch of {} group messages not persisted", entities.size());
+            throw new PersistenceException("Group messages not persisted");
         }
 
-        if (persistedMessage == null) {
-            logger.error("Group message not persisted for project: {}", receiver.getName());
-            throw new PersistenceException("Group message not persisted");
+        for (int i = 0; i < entities.size(); i++) {
+            pendingMessages.get(i).setId(entities.get(i).getId());
         }
 
-        return projectMessageEntityToDto(persistedMessage);
+        return pendingMessages;
     }
 
     /**
@@ -262,12 +256,11 @@ public class MessageBean implements Serializable {
     }
 
     /**
-     * Sends a message to a user
+     * Sends a message to the personal chat sessions of a user, on every application node
      * @param userId the id of the user to send the message to
      * @param jsonMessage the message to be sent
-     * @param sessions the active sessions
      */
-    public void sendToUser(int userId, String jsonMessage, HashMap<String, Session> sessions) {
+    public void sendToUser(int userId, String jsonMessage) {
 
         logger.info("Entering sendToUser method");
 
@@ -281,36 +274,15 @@ public class MessageBean implements Serializable {
             throw new IllegalArgumentException("Invalid message");
         }
 
-        if (sessions == null || sessions.isEmpty()) {
-            logger.error("No active sessions");
-            throw new IllegalArgumentException("No active sessions");
-        }
-        List<String> activeSessionTokens;
-        try {
-            activeSessionTokens = tokenDao.findActiveSessionTokensByUserId(userId);
-            for (String token : activeSessionTokens) {
-                Session session = sessions.get(token);
-                if (session != null) {
-                    personalMessageWS.send(token, jsonMessage);
-                }
-            }
-            if (activeSessionTokens.isEmpty()) {
-                logger.info("Message receiver is not online");
-            }
-        } catch (NoResultException e) {
-            logger.info("No session tokens found for user with id: {}", userId);
-        } catch (Exception e) {
-            logger.error("Error finding session tokens by user with id: {}", userId, e);
-        }
+        broadcastBean.publish(BroadcastMessage.toUser(userId, jsonMessage));
     }
 
     /**
-     * Sends a message to a project
+     * Sends a message to the chat sessions of a project, on every application node
      * @param projectId the id of the project to send the message to
      * @param jsonMessage the message to be sent
-     * @param sessions the active sessions
      */
-    public void sendToProject(int projectId, String jsonMessage, HashMap<String, Session> sessions) {
+    public void sendToProject(int projectId, String jsonMessage) {
 
         if (!dataValidator.isIdValid(projectId)) {
             logger.error("Invalid project id");
@@ -322,25 +294,57 @@ public class MessageBean implements Serializable {
             throw new IllegalArgumentException("Invalid message");
         }
 
-        if (sessions == null || sessions.isEmpty()) {
-            logger.error("No active project chat sessions");
-            throw new IllegalArgumentException("No active sessions");
+        broadcastBean.publish(BroadcastMessage.toProject(projectId, jsonMessage));
+    }
+
+    /**
+     * Sends an ephemeral event, like typing or a read receipt, to the personal chat sessions of a user on this node.
+     * Ephemeral events are not worth a row of the outbox, so with several nodes they only reach the sessions of the
+     * node the event was received on.
+     * @param userId the id of the user to send the event to
+     * @param jsonEvent the event to be sent
+     */
+    public void sendEventToUser(int userId, String jsonEvent) {
+
+        if (!dataValidator.isIdValid(userId)) {
+            logger.error("Invalid user id while sending event");
+            throw new IllegalArgumentException("Invalid user id");
         }
 
-        sessions.forEach((token, session) -> {
-            String sessionProjectId = session.getPathParameters().get("projectId");
-            if (sessionProjectId != null && Integer.parseInt(sessionProjectId) == projectId) {
-                projectMessageWS.send(token, jsonMessage);
-            }
-        });
+        if (jsonEvent == null || jsonEvent.isEmpty()) {
+            logger.error("Invalid event while sending event to user");
+            throw new IllegalArgumentException("Invalid event");
+        }
+
+        broadcastBean.publishLocal(BroadcastMessage.toUser(userId, jsonEvent));
+    }
+
+    /**
+     * Sends an ephemeral event, like typing, to the chat sessions of a project on this node
+     * @param projectId the id of the project to send the event to
+     * @param jsonEvent the event to be sent
+     * @see #sendEventToUser
+     */
+    public void sendEventToProject(int projectId, String jsonEvent) {
+
+        if (!dataValidator.isIdValid(projectId)) {
+            logger.error("Invalid project id while sending event");
+            throw new IllegalArgumentException("Invalid project id");
+        }
+
+        if (jsonEvent == null || jsonEvent.isEmpty()) {
+            logger.error("Invalid event while sending event to project");
+            throw new IllegalArgumentException("Invalid event");
+        }
+
+        broadcastBean.publishLocal(BroadcastMessage.toProject(projectId, jsonEvent));
     }
 
     /**
-     * Sends a notification to the user
+     * Sends a notification to the notification sessions of a user, on every application node
      * @param userId the id of the user to send the notification to
-     * @param sessions the active sessions
      */
-    public void sendNotification(int userId, HashMap<String, Session> sessions) {
+    public void sendNotification(int userId) {
 
         logger.info("Entering sendNotification method");
 
@@ -349,28 +353,7 @@ public class MessageBean implements Serializable {
             throw new IllegalArgumentException("Invalid user id");
         }
 
-        if (sessions == null || sessions.isEmpty()) {
-            logger.error("No active sessions while sending notification");
-            throw new IllegalArgumentException("No active sessions");
-        }
-
-        List<String> activeSessionTokens;
-        try {
-            activeSessionTokens = tokenDao.findActiveSessionTokensByUserId(userId);
-            for (String token : activeSessionTokens) {
-                Session session = sessions.get(token);
-                if (session != null) {
-                    notificationWS.send(token, NotificationWS.NOTIFICATION);
-                }
-            }
-            if (activeSessionTokens.isEmpty()) {
-                logger.info("Notification receiver is not online");
-            }
-        } catch (NoResultException e) {
-            logger.info("No session tokens found for user with id: {} while sending notification.", userId);
-        } catch (Exception e) {
-            logger.error("Error finding session tokens by user with id: {} while sending notification.", userId, e);
-        }
+        broadcastBean.publish(BroadcastMessage.toUserNotifications(userId, NotificationWS.NOTIFICATION));
     }
 
     /**
@@ -409,7 +392,7 @@ public class MessageBean implements Serializable {
         }
 
         if (unreadMessages > 0) {
-            notificationWS.send(token, NotificationWS.NOTIFICATION);
+            broadcastBean.publish(BroadcastMessage.toSessionNotifications(token, NotificationWS.NOTIFICATION));
             hasUnreadMessages = true;
         }
 
@@ -453,7 +436,7 @@ public class MessageBean implements Serializable {
         }
 
         if (unreadMessages > 0) {
-            notificationWS.send(token, NotificationWS.NOTIFICATION);
+            broadcastBean.publish(BroadcastMessage.toSessionNotifications(token, NotificationWS.NOTIFICATION));
             hasUnreadMessages = true;
         }
 
@@ -564,6 +547,66 @@ public class MessageBean implements Serializable {
                 .toList();
     }
 
+    /**
+     * Gets a page of the personal messages where the receiver is the user with the given id, newest first
+     * @param userId the id of the user
+     * @param after the last message of the previous page, or null for the first page
+     * @return the messages of the page, at most AbstractDao.STREAM_CHUNK_SIZE
+     */
+    public List<PersonalMessage> getPersonalMessagesWhereReceiverIsPage(int userId, PersonalMessage after) {
+
+        if (!dataValidator.isIdValid(userId)) {
+            logger.error("Invalid user id while getting a page of personal messages");
+            throw new IllegalArgumentException("Invalid user id");
+        }
+
+        return personalMessageDao.getPersonalMessagesWhereReceiverIsPage(userId,
+                        after == null ? null : after.getTimestamp(), after == null ? 0 : after.getId(), AbstractDao.STREAM_CHUNK_SIZE)
+                .stream()
+                .map(this::personalMessageEntityToDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets a page of the personal messages sent by the user with the given id, newest first
+     * @param userId the id of the user
+     * @param after the last message of the previous page, or null for the first page
+     * @return the messages of the page, at most AbstractDao.STREAM_CHUNK_SIZE
+     */
+    public List<PersonalMessage> getPersonalMessagesSentByUserPage(int userId, PersonalMessage after) {
+
+        if (!dataValidator.isIdValid(userId)) {
+            logger.error("Invalid user id while getting a page of personal sent messages");
+            throw new IllegalArgumentException("Invalid user id");
+        }
+
+        return personalMessageDao.getPersonalMessagesSentByUserPage(userId,
+                        after == null ? null : after.getTimestamp(), after == null ? 0 : after.getId(), AbstractDao.STREAM_CHUNK_SIZE)
+                .stream()
+                .map(this::personalMessageEntityToDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets a page of the project messages where the project is the one with the given id, newest first
+     * @param projectId the id of the project
+     * @param after the last message of the previous page, or null for the first page
+     * @return the messages of the page, at most AbstractDao.STREAM_CHUNK_SIZE
+     */
+    public List<ProjectMessage> getProjectMessagesWhereProjectIsPage(int projectId, ProjectMessage after) {
+
+        if (!dataValidator.isIdValid(projectId)) {
+            logger.error("Invalid project id while getting a page of project messages");
+            throw new IllegalArgumentException("Invalid project id");
+        }
+
+        return projectMessageDao.getProjectMessagesWhereProjectIsPage(projectId,
+                        after == null ? null : after.getTimestamp(), after == null ? 0 : after.getId(), AbstractDao.STREAM_CHUNK_SIZE)
+                .stream()
+                .map(this::projectMessageEntityToDto)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Marks a personal message as read
      * @param messageId the ID of the message
@@ -590,6 +633,67 @@ public class MessageBean implements Serializable {
         }
     }
 
+    /**
+     * Marks as read all the personal messages that a user received from another user, up to a given message
+     * Replaces one update per message with a single statement
+     * @param receiverId the id of the user who received the messages
+     * @param senderId the id of the user who sent the messages
+     * @param messageId the id of the last message read
+     * @return the number of messages marked as read
+     */
+    public int markConversationAsReadUpTo(int receiverId, int senderId, int messageId) {
+
+        logger.info("Entering markConversationAsReadUpTo method");
+
+        if (!dataValidator.isIdValid(receiverId) || !dataValidator.isIdValid(senderId) || !dataValidator.isIdValid(messageId)) {
+            logger.error("Invalid id while marking conversation as read");
+            throw new IllegalArgumentException("Invalid id");
+        }
+
+        int updated = personalMessageDao.markConversationAsReadUpTo(receiverId, senderId, messageId);
+
+        if (updated < 0) {
+            logger.error("Error marking conversation from user {} to user {} as read", senderId, receiverId);
+            throw new PersistenceException("Error marking conversation as read");
+        }
+
+        logger.info("{} personal messages from user {} to user {} marked as read", updated, senderId, receiverId);
+        return updated;
+    }
+
+    /**
+     * Finds, out of the given users, the ones a user may see the presence of:
+     * the ones with a conversation with the user, or active in a project the user is also active in
+     * @param userId the id of the user
+     * @param userIds the ids of the other users
+     * @return the ids of the users the user may see
+     */
+    public Set<Integer> findVisibleContacts(int userId, Collection<Integer> userIds) {
+
+        if (userIds == null || userIds.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        Set<Integer> visible = personalMessageDao.findConversationPartners(userId, userIds);
+
+        if (visible.size() < userIds.size()) {
+            List<Integer> others = userIds.stream().filter(id -> !visible.contains(id)).collect(Collectors.toList());
+            visible.addAll(m2MProjectUserDao.findTeammates(userId, others));
+        }
+
+        return visible;
+    }
+
+    /**
+     * Checks if two users exchanged personal messages
+     * @param userId the id of a user
+     * @param otherId the id of the other user
+     * @return boolean value indicating if the users have a conversation
+     */
+    public boolean hasConversation(int userId, int otherId) {
+        return !personalMessageDao.findConversationPartners(userId, List.of(otherId)).isEmpty();
+    }
+
     /**
      * Creates a notification for a user assotiated with a project
      * @param project the project
@@ -729,6 +833,10 @@ public class MessageBean implements Serializable {
                 subject = "Task" + taskName + "  deleted in project: '" + project.getName() + "'.";
                 content = sender.getFirstName() + " " + sender.getLastName() + " has deleted a task" + taskName + "  in project: " + project.getName();
             }
+            case TASKS_IMPORTED -> {
+                subject = "Tasks imported in project: '" + project.getName() + "'.";
+                content = sender.getFirstName() + " " + sender.getLastName() + " has imported " + state + " tasks in project: " + project.getName();
+            }
             case EMAIL -> {
                 subject = "Email notification";
                 content = "You have received an email notification";
@@ -834,6 +942,7 @@ public class MessageBean implements Serializable {
 
     /**
      * Sends a message to all users in a project
+     * The notifications are written to the notification outbox in the caller's transaction and sent after it commits
      * @param projectUsers the users to send the message to
      * @param project the project
      * @param action the action that was performed
@@ -882,40 +991,34 @@ public class MessageBean implements Serializable {
                 throw new RuntimeException(e);
             }
 
-            ObjectMapperContextResolver contextResolver = new ObjectMapperContextResolver();
-            ObjectMapper objectMapper = contextResolver.getContext(null);
+            // Sent by the NotificationDispatcherBean once the workflow commits
+            NotificationOutboxEntity outboxEntry = new NotificationOutboxEntity();
+            outboxEntry.setDedupId(UUID.randomUUID().toString());
+            outboxEntry.setReceiverId(projectUser.getUser().getId());
+            projectNotification.setDedupId(outboxEntry.getDedupId());
 
-            String jsonMessage;
             try {
-                jsonMessage = objectMapper.writeValueAsString(projectNotification);
+                outboxEntry.setPayload(jsonSerializationBean.writeProjectNotification(projectNotification));
             } catch (JsonProcessingException e) {
                 logger.error("Error serializing message", e);
-                jsonMessage = "You have been added to project " + project.getName();
+                outboxEntry.setPayload("You have been added to project " + project.getName());
             }
 
-            HashMap<String, Session> sessions = personalMessageWS.getSessions();
-
-
-            if (sessions != null && !sessions.isEmpty()) {
-                for (Map.Entry<String, Session> entry : sessions.entrySet()) {
-                    try {
-                        sendToUser(projectUser.getUser().getId(), jsonMessage, sessions);
-                    } catch (Exception e) {
-                        logger.error("Error sending project notification: {}", e.getMessage());
-                        throw new RuntimeException(e);
-                    }
-                }
+            if (!notificationOutboxDao.persist(outboxEntry)) {
+                logger.error("Error writing project notification to the outbox for user with ID: {}", outboxEntry.getReceiverId());
+                throw new RuntimeException("Error writing project notification to the outbox");
             }
         }
+
+        notificationDispatcherBean.requestDispatch();
     }
 
     /**
      * Sends a notification to a user which session token has already expired
-     * This forces the logout
+     * This forces the logout, on whichever application node the notification session is open
      * @param token the token of the user
-     * @param sessions the active sessions
      */
-    public void sendLogoutNotification(String token, HashMap<String, Session> sessions) {
+    public void sendLogoutNotification(String token) {
 
         logger.info("Entering sendLogoutNotification method");
 
@@ -924,28 +1027,7 @@ public class MessageBean implements Serializable {
             throw new IllegalArgumentException("Invalid token");
         }
 
-        if (sessions == null ) {
-            logger.error("No active sessions while sending logout notification");
-        }
-
-        try {
-            assert sessions != null;
-            for (Map.Entry<String, Session> entry : sessions.entrySet()) {
-                if (entry.getKey().equals(token)) {
-                    notificationWS.send(token, NotificationWS.LOGOUT);
-                    try {
-                        entry.getValue().close(new CloseReason(CloseReason.CloseCodes.NORMAL_CLOSURE, "Session expired"));
-                    } catch (
-                            IOException ioException) {
-                        logger.error("Error closing session due to expired token", ioException);
-                    }
-                }
-            }
-        } catch (NoResultException e) {
-            logger.info("No session tokens found for user with token: {} while sending logout notification.", token);
-        } catch (Exception e) {
-            logger.error("Error finding session tokens by user with token: {} while sending logout notification.", token, e);
-        }
+        broadcastBean.publish(BroadcastMessage.toSessionLogout(token, NotificationWS.LOGOUT));
     }
 
     public boolean sendMessage (NewMessage newMessage, int senderId, int receiverId) {
@@ -999,25 +1081,15 @@ public class MessageBean implements Serializable {
             throw new RuntimeException(e);
         }
 
-        ObjectMapperContextResolver contextResolver = new ObjectMapperContextResolver();
-        ObjectMapper objectMapper = contextResolver.getContext(null);
-
         String jsonMessage;
         try {
-            jsonMessage = objectMapper.writeValueAsString(personalMessage);
+            jsonMessage = jsonSerializationBean.writePersonalMessage(personalMessage);
         } catch (JsonProcessingException e) {
             logger.error("Error serializing message", e);
             return false;
         }
 
-        HashMap<String, Session> sessions = personalMessageWS.getSessions();
-
-        if (sessions == null || sessions.isEmpty()) {
-            logger.error("No active sessions while sending message");
-            return false;
-        }
-
-        sendToUser(receiverId, jsonMessage, sessions);
+        sendToUser(receiverId, jsonMessage);
 
         return true;
 
@@ -0,0 +1,193 @@
+package domcast.finalprojbackend.bean;
+
+import domcast.finalprojbackend.bean.broadcast.BroadcastBean;
+import domcast.finalprojbackend.dao.NotificationOutboxDao;
+import domcast.finalprojbackend.dto.messageDto.BroadcastMessage;
+import domcast.finalprojbackend.entity.NotificationOutboxEntity;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Singleton bean that sends the notifications written to the notification outbox.
+ * The workflows only write the outbox in their own transaction, so a rolled back workflow never notifies anyone.
+ * After the commit, the timer requested by the workflow drains the outbox in batches, and a periodic
+ * sweep picks up anything left behind. Delivery is at-least-once: each notification carries its dedupId.
+ * Each node claims the notifications it sends for a lease, so the nodes of a cluster never send the same batch.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Singleton
+@Lock(LockType.READ)
+public class NotificationDispatcherBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(NotificationDispatcherBean.class);
+
+    // Time a written notification may wait for others before the outbox is drained
+    private static final long DISPATCH_DELAY_MILLIS = 50;
+
+    // Maximum number of notifications sent by each batch
+    private static final int BATCH_SIZE = 200;
+
+    // Notifications that failed this many times are left in the outbox and no longer sent
+    private static final int MAX_ATTEMPTS = 5;
+
+    // Time a claimed notification is reserved to its node, after which another node may send it
+    private static final long CLAIM_LEASE_SECONDS = 60;
+
+    // Id of this node in the claims of the outbox
+    private static final String NODE_ID = System.getProperty("domcast.node.id", UUID.randomUUID().toString());
+
+    // Dispatched notifications are kept for this long before being deleted
+    private static final long RETENTION_HOURS = 24;
+
+    @EJB
+    private NotificationOutboxDao notificationOutboxDao;
+
+    @EJB
+    private BroadcastBean broadcastBean;
+
+    @Resource
+    private TimerService timerService;
+
+    @Resource
+    private TransactionSynchronizationRegistry transactionRegistry;
+
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean(false);
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    /**
+     * Default constructor
+     */
+    public NotificationDispatcherBean() {
+    }
+
+    /**
+     * Requests the outbox to be drained shortly. Called in the workflow's transaction,
+     * the timer only exists once that transaction commits, so the request is withdrawn if it does not.
+     */
+    public void requestDispatch() {
+        if (!dispatchScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            timerService.createSingleActionTimer(DISPATCH_DELAY_MILLIS, new TimerConfig(null, false));
+
+            if (transactionRegistry.getTransactionKey() != null) {
+                transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+                    @Override
+                    public void beforeCompletion() {
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status != Status.STATUS_COMMITTED) {
+                            dispatchScheduled.set(false);
+                        }
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            dispatchScheduled.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Drains the outbox when the requested timer expires
+     * @param timer the expired timer
+     */
+    @Timeout
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void onTimeout(Timer timer) {
+        drain();
+    }
+
+    /**
+     * Periodic sweep, for notifications whose timer was lost or whose delivery failed
+     */
+    @Schedule(second = "*/10", minute = "*", hour = "*", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void sweep() {
+        drain();
+    }
+
+    /**
+     * Deletes the notifications dispatched more than a day ago
+     */
+    @Schedule(minute = "0", hour = "*", persistent = false)
+    public void purge() {
+        int deleted = notificationOutboxDao.deleteDispatchedBefore(LocalDateTime.now().minusHours(RETENTION_HOURS));
+        logger.info("{} dispatched notifications deleted from the outbox", deleted);
+    }
+
+    /**
+     * Sends the pending notifications, batch after batch, until the outbox is empty
+     */
+    void drain() {
+        // Reset before reading, so a notification written during the drain requests a new one
+        dispatchScheduled.set(false);
+
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            List<NotificationOutboxEntity> batch;
+            do {
+                batch = notificationOutboxDao.claimPending(NODE_ID, MAX_ATTEMPTS, CLAIM_LEASE_SECONDS, BATCH_SIZE);
+                dispatch(batch);
+            } while (batch.size() == BATCH_SIZE);
+        } catch (Exception e) {
+            logger.error("Error draining the notification outbox", e);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    /**
+     * Sends a batch of notifications and records the outcome of each one
+     * @param batch the notifications to be sent
+     */
+    private void dispatch(List<NotificationOutboxEntity> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Long> dispatched = new ArrayList<>(batch.size());
+        List<Long> failed = new ArrayList<>();
+
+        for (NotificationOutboxEntity notification : batch) {
+            try {
+                broadcastBean.publish(BroadcastMessage.toUser(notification.getReceiverId(), notification.getPayload()));
+                dispatched.add(notification.getId());
+            } catch (Exception e) {
+                logger.error("Error dispatching notification {} to user {}", notification.getDedupId(), notification.getReceiverId(), e);
+                failed.add(notification.getId());
+            }
+        }
+
+        // If marking fails the batch is sent again once its claim expires, clients drop it by its dedupId
+        if (notificationOutboxDao.markDispatched(dispatched) < 0) {
+            logger.error("{} dispatched notifications could not be marked, they will be sent again", dispatched.size());
+            throw new IllegalStateException("Error marking notifications as dispatched");
+        }
+
+        notificationOutboxDao.incrementAttempts(failed);
+
+        logger.info("{} notifications dispatched, {} failed", dispatched.size(), failed.size());
+    }
+}
@@ -0,0 +1,310 @@
+package domcast.finalprojbackend.bean;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable index of names, searched by prefix with a binary search over sorted arrays.
+ * The names are matched ignoring case and accents, at their start or at the start of any of their words,
+ * so "home" completes "Smart Home Hub". Names matched at their start come first, in alphabetical order.
+ * Changes build a new index, so searches never lock and always see a consistent index.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+public final class PrefixIndex {
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+
+    private static final PrefixIndex EMPTY = new PrefixIndex(new String[0]);
+
+    // The indexed names, sorted and without duplicates
+    private final String[] names;
+
+    // Normalized names, sorted, and the position of their name in names
+    private final String[] startKeys;
+    private final int[] startOwners;
+
+    // Normalized suffixes starting at a word other than the first, sorted, and the position of their name in names
+    private final String[] wordKeys;
+    private final int[] wordOwners;
+
+    private PrefixIndex(String[] names, String[] startKeys, int[] startOwners, String[] wordKeys, int[] wordOwners) {
+        this.names = names;
+        this.startKeys = startKeys;
+        this.startOwners = startOwners;
+        this.wordKeys = wordKeys;
+        this.wordOwners = wordOwners;
+    }
+
+    private PrefixIndex(String[] names) {
+        this.names = names;
+
+        List<Entry> starts = new ArrayList<>(names.length);
+        List<Entry> words = new ArrayList<>();
+
+        for (int i = 0; i < names.length; i++) {
+            addEntries(names[i], i, starts, words);
+        }
+
+        starts.sort(null);
+        words.sort(null);
+
+        startKeys = new String[starts.size()];
+        startOwners = new int[starts.size()];
+        for (int i = 0; i < starts.size(); i++) {
+            startKeys[i] = starts.get(i).key;
+            startOwners[i] = starts.get(i).owner;
+        }
+
+        wordKeys = new String[words.size()];
+        wordOwners = new int[words.size()];
+        for (int i = 0; i < words.size(); i++) {
+            wordKeys[i] = words.get(i).key;
+            wordOwners[i] = words.get(i).owner;
+        }
+    }
+
+    /**
+     * Adds the keys of a name: the whole normalized name, and its suffixes starting at each other word
+     */
+    private static void addEntries(String name, int owner, List<Entry> starts, List<Entry> words) {
+        String key = normalize(name);
+        starts.add(new Entry(key, owner));
+
+        for (int position = 1; position < key.length(); position++) {
+            if (Character.isLetterOrDigit(key.charAt(position)) && !Character.isLetterOrDigit(key.charAt(position - 1))) {
+                words.add(new Entry(key.substring(position), owner));
+            }
+        }
+    }
+
+    /**
+     * Returns an empty index
+     * @return the empty index
+     */
+    public static PrefixIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds an index over the names, ignoring nulls, blanks and duplicates
+     * @param names the names to index
+     * @return the index
+     */
+    public static PrefixIndex of(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return EMPTY;
+        }
+
+        TreeSet<String> distinct = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (String name : names) {
+            if (name != null && !name.isBlank()) {
+                distinct.add(name.trim());
+            }
+        }
+
+        return new PrefixIndex(distinct.toArray(new String[0]));
+    }
+
+    /**
+     * Returns an index with a name added, copying the arrays with the new keys in place instead of sorting again
+     * @param name the name to add
+     * @return a new index, or this one if the name is already indexed
+     */
+    public PrefixIndex with(String name) {
+        if (name == null || name.isBlank()) {
+            return this;
+        }
+
+        String trimmed = name.trim();
+        int position = Arrays.binarySearch(names, trimmed, String.CASE_INSENSITIVE_ORDER);
+        if (position >= 0) {
+            return this;
+        }
+        position = -position - 1;
+
+        String[] newNames = new String[names.length + 1];
+        System.arraycopy(names, 0, newNames, 0, position);
+        newNames[position] = trimmed;
+        System.arraycopy(names, position, newNames, position + 1, names.length - position);
+
+        List<Entry> starts = new ArrayList<>(1);
+        List<Entry> words = new ArrayList<>();
+        addEntries(trimmed, position, starts, words);
+
+        KeyArrays newStarts = insert(startKeys, startOwners, position, starts);
+        KeyArrays newWords = insert(wordKeys, wordOwners, position, words);
+
+        return new PrefixIndex(newNames, newStarts.keys, newStarts.owners, newWords.keys, newWords.owners);
+    }
+
+    /**
+     * Returns an index with a name removed, copying the arrays without its keys
+     * @param name the name to remove
+     * @return a new index, or this one if the name is not indexed
+     */
+    public PrefixIndex without(String name) {
+        if (name == null) {
+            return this;
+        }
+
+        int position = Arrays.binarySearch(names, name.trim(), String.CASE_INSENSITIVE_ORDER);
+        if (position < 0) {
+            return this;
+        }
+
+        String[] newNames = new String[names.length - 1];
+        System.arraycopy(names, 0, newNames, 0, position);
+        System.arraycopy(names, position + 1, newNames, position, names.length - position - 1);
+
+        KeyArrays newStarts = remove(startKeys, startOwners, position);
+        KeyArrays newWords = remove(wordKeys, wordOwners, position);
+
+        return new PrefixIndex(newNames, newStarts.keys, newStarts.owners, newWords.keys, newWords.owners);
+    }
+
+    /**
+     * Copies sorted keys with new ones in their place, shifting the owners after the inserted name
+     */
+    private static KeyArrays insert(String[] keys, int[] owners, int insertedOwner, List<Entry> added) {
+        added.sort(null);
+
+        String[] newKeys = new String[keys.length + added.size()];
+        int[] newOwners = new int[newKeys.length];
+
+        int from = 0;
+        int to = 0;
+        for (Entry entry : added) {
+            int position = Arrays.binarySearch(keys, entry.key);
+            position = position < 0 ? -position - 1 : position;
+
+            for (; from < position; from++, to++) {
+                newKeys[to] = keys[from];
+                newOwners[to] = owners[from] >= insertedOwner ? owners[from] + 1 : owners[from];
+            }
+
+            newKeys[to] = entry.key;
+            newOwners[to] = entry.owner;
+            to++;
+        }
+
+        for (; from < keys.length; from++, to++) {
+            newKeys[to] = keys[from];
+            newOwners[to] = owners[from] >= insertedOwner ? owners[from] + 1 : owners[from];
+        }
+
+        return new KeyArrays(newKeys, newOwners);
+    }
+
+    /**
+     * Copies sorted keys without those of a removed name, shifting the owners after it
+     */
+    private static KeyArrays remove(String[] keys, int[] owners, int removedOwner) {
+        int removed = 0;
+        for (int owner : owners) {
+            if (owner == removedOwner) {
+                removed++;
+            }
+        }
+
+        String[] newKeys = new String[keys.length - removed];
+        int[] newOwners = new int[newKeys.length];
+
+        int to = 0;
+        for (int from = 0; from < keys.length; from++) {
+            if (owners[from] != removedOwner) {
+                newKeys[to] = keys[from];
+                newOwners[to] = owners[from] > removedOwner ? owners[from] - 1 : owners[from];
+                to++;
+            }
+        }
+
+        return new KeyArrays(newKeys, newOwners);
+    }
+
+    /**
+     * Returns the number of indexed names
+     * @return the number of names
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Finds the names that match a prefix, at their start first and then at the start of a word
+     * @param prefix the prefix typed by the user
+     * @param limit the maximum number of names to return
+     * @return the matching names, at most limit
+     */
+    public List<String> complete(String prefix, int limit) {
+        if (prefix == null || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        String key = normalize(prefix.trim());
+        if (key.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Integer> matched = new LinkedHashSet<>();
+        collect(startKeys, startOwners, key, limit, matched);
+        collect(wordKeys, wordOwners, key, limit, matched);
+
+        List<String> result = new ArrayList<>(matched.size());
+        for (int owner : matched) {
+            result.add(names[owner]);
+        }
+        return result;
+    }
+
+    /**
+     * Adds the owners of the keys that start with the prefix, until there are limit owners
+     */
+    private static void collect(String[] keys, int[] owners, String prefix, int limit, Set<Integer> matched) {
+        int position = Arrays.binarySearch(keys, prefix);
+        if (position < 0) {
+            position = -position - 1;
+        }
+
+        while (matched.size() < limit && position < keys.length && keys[position].startsWith(prefix)) {
+            matched.add(owners[position]);
+            position++;
+        }
+    }
+
+    /**
+     * Normalizes a name for matching: lower case and without accents
+     * @param name the name
+     * @return the normalized name
+     */
+    static String normalize(String name) {
+        boolean ascii = true;
+        for (int i = 0; i < name.length() && ascii; i++) {
+            ascii = name.charAt(i) < 128;
+        }
+        if (ascii) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        return ACCENTS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Keys of the index and the positions of their names
+     */
+    private record KeyArrays(String[] keys, int[] owners) {
+    }
+
+    /**
+     * Key of the index and the position of its name
+     */
+    private record Entry(String key, int owner) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : Integer.compare(owner, other.owner);
+        }
+    }
+}
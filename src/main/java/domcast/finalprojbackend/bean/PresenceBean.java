@@ -0,0 +1,119 @@
+package domcast.finalprojbackend.bean;
+
+import jakarta.ejb.Lock;
+import jakarta.ejb.LockType;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Singleton bean that keeps the ephemeral presence and typing state of the users.
+ * The state is held only in memory, with a time to live, and is never written to the database.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Singleton
+@Lock(LockType.READ)
+public class PresenceBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(PresenceBean.class);
+
+    // A user is online while heartbeats arrive within this time
+    static final long PRESENCE_TTL_MILLIS = 60_000;
+
+    // A typing state is not sent again while it is still alive
+    static final long TYPING_TTL_MILLIS = 5_000;
+
+    // User id -> time at which the presence expires
+    private final ConcurrentHashMap<Integer, Long> presence = new ConcurrentHashMap<>();
+
+    // "userId:conversation" -> time at which the typing state expires
+    private final ConcurrentHashMap<String, Long> typing = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor
+     */
+    public PresenceBean() {
+    }
+
+    /**
+     * Marks a user as online for the presence time to live
+     * @param userId the id of the user
+     */
+    public void touch(int userId) {
+        presence.put(userId, System.currentTimeMillis() + PRESENCE_TTL_MILLIS);
+    }
+
+    /**
+     * Marks a user as offline
+     * @param userId the id of the user
+     */
+    public void remove(int userId) {
+        presence.remove(userId);
+    }
+
+    /**
+     * Checks if a user is online
+     * @param userId the id of the user
+     * @return true if the presence of the user has not expired, false otherwise
+     */
+    public boolean isOnline(int userId) {
+        Long expiresAt = presence.get(userId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Filters the online users from a collection of user ids
+     * @param userIds the ids of the users
+     * @return the ids of the users that are online
+     */
+    public List<Integer> onlineUsers(Collection<Integer> userIds) {
+        List<Integer> online = new ArrayList<>();
+
+        if (userIds == null) {
+            return online;
+        }
+
+        for (Integer userId : userIds) {
+            if (userId != null && isOnline(userId)) {
+                online.add(userId);
+            }
+        }
+        return online;
+    }
+
+    /**
+     * Registers that a user is typing in a conversation
+     * @param userId the id of the user
+     * @param conversation the key of the conversation (e.g. "user:5" or "project:3")
+     * @return true if the typing state is new and must be sent, false if it is still alive from a previous event
+     */
+    public boolean startTyping(int userId, String conversation) {
+        long now = System.currentTimeMillis();
+        String key = userId + ":" + conversation;
+
+        Long previous = typing.put(key, now + TYPING_TTL_MILLIS);
+        return previous == null || previous <= now;
+    }
+
+    /**
+     * Removes the expired presence and typing states, so the maps do not grow with users that went away
+     */
+    @Schedule(second = "*/30", minute = "*", hour = "*", persistent = false)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+
+        presence.values().removeIf(expiresAt -> expiresAt <= now);
+        typing.values().removeIf(expiresAt -> expiresAt <= now);
+
+        logger.debug("Presence purge done, {} users online, {} typing states", presence.size(), typing.size());
+    }
+}
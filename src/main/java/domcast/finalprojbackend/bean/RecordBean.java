@@ -1,6 +1,7 @@
 package domcast.finalprojbackend.bean;
 
 import domcast.finalprojbackend.bean.project.ProjectBean;
+import domcast.finalprojbackend.bean.project.ProjectVersionBean;
 import domcast.finalprojbackend.bean.user.UserBean;
 import domcast.finalprojbackend.dao.ProjectDao;
 import domcast.finalprojbackend.dao.UserDao;
@@ -12,6 +13,7 @@ import domcast.finalprojbackend.entity.RecordEntity;
 import domcast.finalprojbackend.entity.TaskEntity;
 import domcast.finalprojbackend.entity.UserEntity;
 import domcast.finalprojbackend.enums.MessageAndLogEnum;
+import domcast.finalprojbackend.enums.ProjectChangeKindEnum;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import org.apache.logging.log4j.LogManager;
@@ -38,6 +40,9 @@ public class RecordBean implements Serializable {
     @EJB
     private ProjectBean projectBean;
 
+    @EJB
+    private ProjectVersionBean projectVersionBean;
+
     private static final Logger logger = LogManager.getLogger(RecordBean.class);
 
     private static final long serialVersionUID = 1L;
@@ -105,6 +110,7 @@ public class RecordBean implements Serializable {
             projectDao.persist(project);
             projectDao.flush();
             logger.info("Project persisted with new record");
+            projectVersionBean.recordChange(project.getId(), ProjectChangeKindEnum.RECORD, recordEntity.getId());
         } catch (Exception e) {
             logger.error("Error persisting project with new record");
         }
@@ -0,0 +1,178 @@
+package domcast.finalprojbackend.bean;
+
+import domcast.finalprojbackend.dao.PersonalMessageDao;
+import domcast.finalprojbackend.dao.ProjectChangeDao;
+import domcast.finalprojbackend.dao.SessionTokenDao;
+import domcast.finalprojbackend.dao.ValidationTokenDao;
+import jakarta.annotation.PostConstruct;
+import jakarta.ejb.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Singleton bean that deletes the rows kept past their retention: inactive or expired validation tokens,
+ * logged out sessions, old notifications and old project changes. Without it the tokens table, read by every authenticated request,
+ * only grows. The rows are deleted in chunks walked by ascending id, each chunk in its own short transaction,
+ * with a pause between chunks and a limit of chunks per run, so the purge never holds long locks.
+ * The retention is configured with system properties:
+ * - domcast.retention.tokens.days: days validation and session tokens are kept once unusable (default 30).
+ * - domcast.retention.notifications.days: days notifications are kept (default 90).
+ * - domcast.retention.changes.days: days project changes are kept, older ones are fetched whole (default 7).
+ * - domcast.purge.chunk.size: rows deleted by each chunk (default 500).
+ * - domcast.purge.pause.millis: pause between chunks (default 100).
+ * - domcast.purge.max.chunks: chunks deleted by each run, for each kind of row (default 200).
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Singleton
+@Lock(LockType.READ)
+public class RetentionPurgeBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(RetentionPurgeBean.class);
+
+    public static final String TOKENS_RETENTION_PROPERTY = "domcast.retention.tokens.days";
+    public static final String NOTIFICATIONS_RETENTION_PROPERTY = "domcast.retention.notifications.days";
+    public static final String CHANGES_RETENTION_PROPERTY = "domcast.retention.changes.days";
+    public static final String CHUNK_SIZE_PROPERTY = "domcast.purge.chunk.size";
+    public static final String PAUSE_PROPERTY = "domcast.purge.pause.millis";
+    public static final String MAX_CHUNKS_PROPERTY = "domcast.purge.max.chunks";
+
+    @EJB
+    private ValidationTokenDao validationTokenDao;
+
+    @EJB
+    private SessionTokenDao sessionTokenDao;
+
+    @EJB
+    private PersonalMessageDao personalMessageDao;
+
+    @EJB
+    private ProjectChangeDao projectChangeDao;
+
+    private int tokensRetentionDays = 30;
+    private int notificationsRetentionDays = 90;
+    private int changesRetentionDays = 7;
+    private int chunkSize = 500;
+    private long pauseMillis = 100;
+    private int maxChunks = 200;
+
+    private final AtomicBoolean purging = new AtomicBoolean(false);
+
+    /**
+     * Default constructor
+     */
+    public RetentionPurgeBean() {
+    }
+
+    /**
+     * Reads the retention policy from the system properties
+     */
+    @PostConstruct
+    public void init() {
+        tokensRetentionDays = Integer.getInteger(TOKENS_RETENTION_PROPERTY, tokensRetentionDays);
+        notificationsRetentionDays = Integer.getInteger(NOTIFICATIONS_RETENTION_PROPERTY, notificationsRetentionDays);
+        changesRetentionDays = Integer.getInteger(CHANGES_RETENTION_PROPERTY, changesRetentionDays);
+        chunkSize = Math.max(1, Integer.getInteger(CHUNK_SIZE_PROPERTY, chunkSize));
+        pauseMillis = Math.max(0, Long.getLong(PAUSE_PROPERTY, pauseMillis));
+        maxChunks = Math.max(1, Integer.getInteger(MAX_CHUNKS_PROPERTY, maxChunks));
+
+        logger.info("Tokens kept for {} days and notifications for {} days, purged in chunks of {}",
+                tokensRetentionDays, notificationsRetentionDays, chunkSize);
+    }
+
+    /**
+     * Deletes, every hour, the rows past their retention
+     */
+    @Schedule(minute = "15", hour = "*", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void purge() {
+        if (!purging.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime tokensCutoff = now.minusDays(tokensRetentionDays);
+            LocalDateTime notificationsCutoff = now.minusDays(notificationsRetentionDays);
+            LocalDateTime changesCutoff = now.minusDays(changesRetentionDays);
+
+            purgeInChunks("validation tokens",
+                    afterId -> validationTokenDao.findPurgeableValidationTokenIds(afterId, tokensCutoff, chunkSize),
+                    validationTokenDao::deleteTokensByIds);
+
+            purgeInChunks("session tokens",
+                    afterId -> sessionTokenDao.findPurgeableSessionIds(afterId, tokensCutoff, chunkSize),
+                    sessionTokenDao::deleteTokensByIds);
+
+            purgeInChunks("notifications",
+                    afterId -> personalMessageDao.findPurgeableNotificationIds(afterId, notificationsCutoff, chunkSize),
+                    personalMessageDao::deletePersonalMessagesByIds);
+
+            purgeInChunks("project changes",
+                    afterId -> projectChangeDao.findPurgeableChangeIds(afterId, changesCutoff, chunkSize),
+                    projectChangeDao::deleteChangesByIds);
+        } finally {
+            purging.set(false);
+        }
+    }
+
+    /**
+     * Deletes one kind of row in chunks, each chunk starting after the last id of the previous one
+     * @param name the name of the rows, for the logs
+     * @param findIds finds the ids of the next chunk, given the id it starts after
+     * @param delete deletes the rows of a chunk, returning the number deleted or -1 on error
+     * @return the number of rows deleted
+     */
+    int purgeInChunks(String name, Function<Integer, List<Integer>> findIds, Function<List<Integer>, Integer> delete) {
+        int deleted = 0;
+        int afterId = 0;
+
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            List<Integer> ids = findIds.apply(afterId);
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            int chunkDeleted = delete.apply(ids);
+            if (chunkDeleted < 0) {
+                logger.error("Error purging {}, stopped after {} rows", name, deleted);
+                return deleted;
+            }
+
+            deleted += chunkDeleted;
+            afterId = ids.get(ids.size() - 1);
+
+            if (ids.size() < chunkSize || !pause()) {
+                break;
+            }
+        }
+
+        logger.info("{} {} purged", deleted, name);
+        return deleted;
+    }
+
+    /**
+     * Waits between chunks, leaving the tables to the requests
+     * @return false if the wait was interrupted
+     */
+    private boolean pause() {
+        if (pauseMillis == 0) {
+            return true;
+        }
+
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import domcast.finalprojbackend.dto.skillDto.SkillToProject;
 import domcast.finalprojbackend.dto.userDto.UpdateUserDto;
 import domcast.finalprojbackend.entity.*;
 import domcast.finalprojbackend.enums.SkillTypeEnum;
+import domcast.finalprojbackend.enums.TypeaheadCategoryEnum;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.NoResultException;
@@ -42,6 +43,12 @@ public class SkillBean implements Serializable {
     @EJB
     private DataValidator dataValidator;
 
+    @EJB
+    private TypeaheadBean typeaheadBean;
+
+    @EJB
+    private MatchingBean matchingBean;
+
 
     /**
      * Creates new skills in the database based on a list of SkillDTOs passed as parameter
@@ -83,9 +90,13 @@ public class SkillBean implements Serializable {
                     SkillDto skillDto = skillsList.get(skillsNames.indexOf(skill));
                     newSkill.setType(convertTypeToEnum(skillDto.getType()));
                     skillDao.persist(newSkill);
+                    typeaheadBean.add(TypeaheadCategoryEnum.SKILL, newSkill.getName());
                 }
             }
 
+            // The cached list of skills no longer matches the table
+            skillDao.evictFromCache();
+
             logger.info("Skills created");
 
             return true;
@@ -145,6 +156,7 @@ public class SkillBean implements Serializable {
             }
 
             userDao.merge(user);
+            matchingBean.userChanged(userId);
 
             logger.info("Skills added to user");
 
@@ -208,6 +220,7 @@ public class SkillBean implements Serializable {
             }
 
             userDao.merge(userEntity);
+            matchingBean.userChanged(userEntity.getId());
         }
         return userEntity;
     }
@@ -1,23 +1,19 @@
 package domcast.finalprojbackend.bean;
 
 import domcast.finalprojbackend.bean.project.ProjectBean;
-import domcast.finalprojbackend.bean.user.TokenBean;
-import domcast.finalprojbackend.bean.user.UserBean;
+import domcast.finalprojbackend.bean.user.SessionExpiryBean;
 import domcast.finalprojbackend.dao.M2MProjectUserDao;
 import domcast.finalprojbackend.dao.ProjectDao;
 import domcast.finalprojbackend.dao.SystemDao;
 import domcast.finalprojbackend.dto.EnumDTO;
+import domcast.finalprojbackend.dto.statistics.CacheStatistics;
 import domcast.finalprojbackend.dto.statistics.ProjectStatistics;
 import domcast.finalprojbackend.dto.statistics.StatisticsPerLab;
 import domcast.finalprojbackend.entity.ProjectEntity;
-import domcast.finalprojbackend.entity.SessionTokenEntity;
 import domcast.finalprojbackend.enums.LabEnum;
 import domcast.finalprojbackend.enums.util.EnumUtil;
-import domcast.finalprojbackend.websocket.NotificationWS;
 import jakarta.ejb.EJB;
-import jakarta.ejb.Schedule;
 import jakarta.ejb.Stateless;
-import jakarta.websocket.Session;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -39,10 +35,7 @@ public class SystemBean implements Serializable {
     private SystemDao systemDao;
 
     @EJB
-    private TokenBean tokenBean;
-
-    @EJB
-    private UserBean userBean;
+    private SessionExpiryBean sessionExpiryBean;
 
     @EJB
     private ProjectDao projectDao;
@@ -53,12 +46,6 @@ public class SystemBean implements Serializable {
     @EJB
     private ProjectBean projectBean;
 
-    @EJB
-    private MessageBean messageBean;
-
-    @EJB
-    private NotificationWS notificationWS;
-
     /**
      * Default constructor for SystemBean.
      */
@@ -104,6 +91,8 @@ public class SystemBean implements Serializable {
         try {
             logger.info("Setting session timeout to {}", timeout);
             systemDao.setSessionTimeout(timeout);
+            systemDao.evictFromCache();
+            sessionExpiryBean.updateTimeout(timeout);
             return true;
         } catch (Exception e) {
             logger.error("Error setting session timeout", e);
@@ -142,6 +131,7 @@ public class SystemBean implements Serializable {
         try {
             logger.info("Setting project max users to {}", maxMembers);
             systemDao.setProjectMaxMembers(maxMembers);
+            systemDao.evictFromCache();
             return true;
         } catch (Exception e) {
             logger.error("Error setting project max users", e);
@@ -149,6 +139,15 @@ public class SystemBean implements Serializable {
         }
     }
 
+    /**
+     * Retrieves the hit statistics of the second-level cache.
+     *
+     * @return the statistics of each cache region.
+     */
+    public List<CacheStatistics> getCacheStatistics() {
+        return systemDao.getCacheStatistics();
+    }
+
     /**
      * Retrieves the number of system variables from the database.
      *
@@ -163,40 +162,6 @@ public class SystemBean implements Serializable {
         }
     }
 
-    /**
-     * Session timer that checks for active sessions that have exceeded the timeout every 30 seconds and logs them out.
-     */
-    @Schedule(second = "*/30", minute = "*", hour = "*") // this automatic timer is set to expire every 30 seconds
-    public void sessionTimer() throws Exception {
-        logger.info("Session timer started");
-
-        HashMap<String, Session> allSessions = notificationWS.getSessions();
-
-        try {
-            // Find active sessions that have exceeded the timeout
-            List<SessionTokenEntity> activeSessions = tokenBean.findActiveSessionsExceededTimeout(getSessionTimeout());
-
-            // Log out the active sessions that have exceeded the timeout
-            for (SessionTokenEntity session : activeSessions) {
-                logger.info("Session token {} has exceeded the timeout", session.getToken());
-
-                try {
-                    userBean.logout(session.getToken());
-                    messageBean.sendLogoutNotification(session.getToken(), allSessions);
-                    logger.info("Session token {} has been logged out", session.getToken());
-                } catch (Exception e) {
-                    logger.error("Error setting session token {} logout time to now", session.getToken(), e);
-                    throw e;
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Error in session timer", e);
-            throw e;
-        } finally {
-            logger.info("Session timer ended");
-        }
-    }
-
     public int totalProjectsPerLab(int labId) {
         logger.info("Getting the number of projects per lab");
 
@@ -0,0 +1,285 @@
+package domcast.finalprojbackend.bean;
+
+import domcast.finalprojbackend.dao.*;
+import domcast.finalprojbackend.entity.SkillEntity;
+import domcast.finalprojbackend.enums.TypeaheadCategoryEnum;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Singleton bean that completes the names typed by the users: project names, keywords, skills, interests
+ * and component names. Each category is held in memory in a prefix index, so a completion is a binary search
+ * instead of a query that loads every name.
+ * The indexes are updated when a name is created or renamed, once the transaction that does it commits, and rebuilt
+ * from the database every 10 minutes, which also brings the names created by other nodes or removed.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Singleton
+@Startup
+@DependsOn("StartupBean")
+@Lock(LockType.READ)
+public class TypeaheadBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(TypeaheadBean.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    // Key of the changes made in a transaction, in the resources of the transaction
+    private static final String CHANGES_RESOURCE = TypeaheadBean.class.getName() + ".changes";
+
+    @EJB
+    private ProjectDao projectDao;
+
+    @EJB
+    private KeywordDao keywordDao;
+
+    @EJB
+    private SkillDao skillDao;
+
+    @EJB
+    private InterestDao interestDao;
+
+    @EJB
+    private ComponentResourceDao componentResourceDao;
+
+    @Resource
+    private TransactionSynchronizationRegistry transactionRegistry;
+
+    // One immutable index per category, replaced as a whole on every change
+    private final Map<TypeaheadCategoryEnum, PrefixIndex> indexes = new ConcurrentHashMap<>();
+
+    // Guards the changes to the indexes, so a rebuild does not replace an index with one missing a change
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // The changes applied while a rebuild runs, applied again to the rebuilt indexes, null when no rebuild runs
+    private List<Consumer<Map<TypeaheadCategoryEnum, PrefixIndex>>> replay;
+
+    /**
+     * Default constructor
+     */
+    public TypeaheadBean() {
+    }
+
+    /**
+     * Builds the indexes when the application starts
+     */
+    @PostConstruct
+    public void init() {
+        for (TypeaheadCategoryEnum category : TypeaheadCategoryEnum.values()) {
+            indexes.put(category, PrefixIndex.empty());
+        }
+
+        rebuild();
+    }
+
+    /**
+     * Rebuilds every index from the names in the database, keeping the previous ones to answer the completions meanwhile
+     */
+    @Schedule(minute = "*/10", hour = "*", persistent = false)
+    public void rebuild() {
+        lock.lock();
+        try {
+            if (replay != null) {
+                logger.info("Typeahead indexes already being rebuilt");
+                return;
+            }
+            replay = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+
+        Map<TypeaheadCategoryEnum, PrefixIndex> rebuilt = new EnumMap<>(TypeaheadCategoryEnum.class);
+        for (TypeaheadCategoryEnum category : TypeaheadCategoryEnum.values()) {
+            try {
+                rebuilt.put(category, PrefixIndex.of(loadNames(category)));
+            } catch (Exception e) {
+                logger.error("Error rebuilding the typeahead index of {} names, keeping the previous one", category.getValue(), e);
+            }
+        }
+
+        lock.lock();
+        try {
+            // The names committed while the rebuild read may be missing from what it read
+            for (Consumer<Map<TypeaheadCategoryEnum, PrefixIndex>> change : replay) {
+                change.accept(rebuilt);
+            }
+            indexes.putAll(rebuilt);
+            replay = null;
+        } finally {
+            lock.unlock();
+        }
+
+        rebuilt.forEach((category, index) ->
+                logger.info("Typeahead index of {} names rebuilt with {} names", category.getValue(), index.size()));
+    }
+
+    /**
+     * Loads the names of a category from the database
+     * @param category the category
+     * @return the names
+     */
+    private List<String> loadNames(TypeaheadCategoryEnum category) {
+        return switch (category) {
+            case PROJECT -> projectDao.getProjectsNames();
+            case KEYWORD -> keywordDao.findAllKeywordsNames();
+            case SKILL -> skillDao.findAllSkills().stream().map(SkillEntity::getName).toList();
+            case INTEREST -> interestDao.findAllInterestsNames();
+            case COMPONENT -> componentResourceDao.findAllNames();
+        };
+    }
+
+    /**
+     * Adds a name created in a category
+     * @param category the category
+     * @param name the created name
+     */
+    public void add(TypeaheadCategoryEnum category, String name) {
+        if (category == null || name == null || name.isBlank()) {
+            return;
+        }
+
+        change(indexes -> indexes.computeIfPresent(category, (key, index) -> index.with(name)));
+    }
+
+    /**
+     * Replaces a renamed name in a category
+     * @param category the category
+     * @param oldName the previous name
+     * @param newName the new name
+     */
+    public void rename(TypeaheadCategoryEnum category, String oldName, String newName) {
+        if (category == null || newName == null || newName.isBlank() || newName.equals(oldName)) {
+            return;
+        }
+
+        change(indexes -> indexes.computeIfPresent(category, (key, index) -> index.without(oldName).with(newName)));
+    }
+
+    /**
+     * Applies a change to the indexes once the current transaction commits, or at once without a transaction,
+     * so a rolled back name never reaches the completions
+     * @param change the change
+     */
+    private void change(Consumer<Map<TypeaheadCategoryEnum, PrefixIndex>> change) {
+        List<Consumer<Map<TypeaheadCategoryEnum, PrefixIndex>>> changes = changesInTransaction();
+        if (changes == null) {
+            apply(List.of(change));
+        } else {
+            changes.add(change);
+        }
+    }
+
+    /**
+     * Finds the changes made in the current transaction, registering the synchronization that applies them once
+     * it commits.
+     * @return the changes made in the current transaction, null without a transaction
+     */
+    @SuppressWarnings("unchecked")
+    private List<Consumer<Map<TypeaheadCategoryEnum, PrefixIndex>>> changesInTransaction() {
+        if (transactionRegistry == null || transactionRegistry.getTransactionKey() == null) {
+            return null;
+        }
+
+        Object current = transactionRegistry.getResource(CHANGES_RESOURCE);
+        if (current != null) {
+            return (List<Consumer<Map<TypeaheadCategoryEnum, PrefixIndex>>>) current;
+        }
+
+        List<Consumer<Map<TypeaheadCategoryEnum, PrefixIndex>>> changes = new ArrayList<>();
+        transactionRegistry.putResource(CHANGES_RESOURCE, changes);
+
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    apply(changes);
+                }
+            }
+        });
+
+        return changes;
+    }
+
+    /**
+     * Applies changes to the indexes, and keeps them to apply again to the indexes being rebuilt
+     * @param changes the changes
+     */
+    private void apply(List<Consumer<Map<TypeaheadCategoryEnum, PrefixIndex>>> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            for (Consumer<Map<TypeaheadCategoryEnum, PrefixIndex>> change : changes) {
+                change.accept(indexes);
+            }
+            if (replay != null) {
+                replay.addAll(changes);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Completes a prefix with the names of a category
+     * @param category the category
+     * @param prefix the prefix typed by the user
+     * @param limit the maximum number of names, between 1 and MAX_LIMIT
+     * @return the matching names, those that start with the prefix first
+     */
+    public List<String> complete(TypeaheadCategoryEnum category, String prefix, int limit) {
+        PrefixIndex index = indexes.get(category);
+        if (index == null) {
+            return new ArrayList<>();
+        }
+
+        return index.complete(prefix, clampLimit(limit));
+    }
+
+    /**
+     * Completes a prefix with the names of every category
+     * @param prefix the prefix typed by the user
+     * @param limit the maximum number of names per category, between 1 and MAX_LIMIT
+     * @return the matching names of each category, by the value of the category
+     */
+    public Map<String, List<String>> completeAll(String prefix, int limit) {
+        Map<String, List<String>> completions = new LinkedHashMap<>();
+        for (TypeaheadCategoryEnum category : TypeaheadCategoryEnum.values()) {
+            completions.put(category.getValue(), complete(category, prefix, limit));
+        }
+        return completions;
+    }
+
+    /**
+     * Keeps a requested limit within the allowed range
+     * @param limit the requested limit, 0 for the default
+     * @return the limit to use
+     */
+    private static int clampLimit(int limit) {
+        if (limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
@@ -0,0 +1,89 @@
+package domcast.finalprojbackend.bean.broadcast;
+
+import domcast.finalprojbackend.dto.messageDto.BroadcastMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.ejb.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+
+/**
+ * Entry point for sending websocket frames that may have to reach sessions on other application nodes.
+ * The transport is chosen at startup with the domcast.broadcast.bus system property:
+ * - local (default): in-JVM delivery, for a single node.
+ * - outbox: delivery through the broadcast_outbox table, polled by every node.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Singleton
+@Startup
+@Lock(LockType.READ)
+public class BroadcastBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(BroadcastBean.class);
+
+    public static final String BUS_PROPERTY = "domcast.broadcast.bus";
+
+    @EJB
+    private LocalBroadcastBus localBroadcastBus;
+
+    @EJB
+    private OutboxBroadcastBus outboxBroadcastBus;
+
+    private BroadcastBus bus;
+
+    /**
+     * Default constructor
+     */
+    public BroadcastBean() {
+    }
+
+    /**
+     * Selects the broadcast bus configured for this node
+     */
+    @PostConstruct
+    public void init() {
+        String configured = System.getProperty(BUS_PROPERTY, LocalBroadcastBus.NAME);
+
+        if (OutboxBroadcastBus.NAME.equalsIgnoreCase(configured)) {
+            outboxBroadcastBus.activate();
+            bus = outboxBroadcastBus;
+        } else {
+            if (!LocalBroadcastBus.NAME.equalsIgnoreCase(configured)) {
+                logger.warn("Unknown broadcast bus {}, using {}", configured, LocalBroadcastBus.NAME);
+            }
+            bus = localBroadcastBus;
+        }
+
+        logger.info("Websocket frames are broadcast through the {} bus", bus.name());
+    }
+
+    /**
+     * Publishes a frame through the configured bus
+     * @param message the frame to be published
+     */
+    public void publish(BroadcastMessage message) {
+        if (message == null || message.getChannel() == null || message.getPayload() == null || message.getPayload().isEmpty()) {
+            logger.error("Invalid broadcast message, not published");
+            throw new IllegalArgumentException("Invalid broadcast message");
+        }
+
+        bus.publish(message);
+    }
+
+    /**
+     * Delivers a frame to the sessions of this node only, whatever the configured bus.
+     * For ephemeral events, which are not worth persisting and are useless if late.
+     * @param message the frame to be delivered
+     */
+    public void publishLocal(BroadcastMessage message) {
+        if (message == null || message.getChannel() == null || message.getPayload() == null || message.getPayload().isEmpty()) {
+            logger.error("Invalid local broadcast message, not delivered");
+            throw new IllegalArgumentException("Invalid broadcast message");
+        }
+
+        localBroadcastBus.publish(message);
+    }
+}
@@ -0,0 +1,25 @@
+package domcast.finalprojbackend.bean.broadcast;
+
+import domcast.finalprojbackend.dto.messageDto.BroadcastMessage;
+
+/**
+ * Transport used to deliver websocket frames to every application node.
+ * Each implementation makes sure every node receives the frame, and each node
+ * only delivers it to the websocket sessions it holds, through the LocalDeliveryBean.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+public interface BroadcastBus {
+
+    /**
+     * Publishes a frame to all the nodes
+     * @param message the frame to be published
+     */
+    void publish(BroadcastMessage message);
+
+    /**
+     * Name of the bus, as used in the domcast.broadcast.bus system property
+     * @return the name of the bus
+     */
+    String name();
+}
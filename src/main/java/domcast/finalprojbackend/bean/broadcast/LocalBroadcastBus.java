@@ -0,0 +1,43 @@
+package domcast.finalprojbackend.bean.broadcast;
+
+import domcast.finalprojbackend.dto.messageDto.BroadcastMessage;
+import jakarta.ejb.EJB;
+import jakarta.ejb.LocalBean;
+import jakarta.ejb.Stateless;
+
+import java.io.Serializable;
+
+/**
+ * In-JVM broadcast bus, for a single application node.
+ * Frames are delivered straight to the sessions of this node.
+ * It is a LocalBean, so BroadcastBean can inject it by its class.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Stateless
+@LocalBean
+public class LocalBroadcastBus implements BroadcastBus, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String NAME = "local";
+
+    @EJB
+    private LocalDeliveryBean localDeliveryBean;
+
+    /**
+     * Default constructor
+     */
+    public LocalBroadcastBus() {
+    }
+
+    @Override
+    public void publish(BroadcastMessage message) {
+        localDeliveryBean.deliver(message);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+}
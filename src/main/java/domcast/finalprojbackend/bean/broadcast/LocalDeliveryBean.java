@@ -0,0 +1,73 @@
+package domcast.finalprojbackend.bean.broadcast;
+
+import domcast.finalprojbackend.dao.SessionTokenDao;
+import domcast.finalprojbackend.dto.messageDto.BroadcastMessage;
+import domcast.finalprojbackend.websocket.NotificationWS;
+import domcast.finalprojbackend.websocket.PersonalMessageWS;
+import domcast.finalprojbackend.websocket.ProjectMessageWS;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Stateless;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Bean that delivers a broadcast frame to the websocket sessions held by this node.
+ * Sessions held by other nodes are ignored, they are reached by the bus on those nodes.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Stateless
+public class LocalDeliveryBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(LocalDeliveryBean.class);
+
+    @EJB
+    private PersonalMessageWS personalMessageWS;
+
+    @EJB
+    private ProjectMessageWS projectMessageWS;
+
+    @EJB
+    private NotificationWS notificationWS;
+
+    @EJB
+    private SessionTokenDao sessionTokenDao;
+
+    /**
+     * Default constructor
+     */
+    public LocalDeliveryBean() {
+    }
+
+    /**
+     * Delivers a frame to the matching sessions open on this node
+     * @param message the frame to be delivered
+     */
+    public void deliver(BroadcastMessage message) {
+
+        if (message == null || message.getChannel() == null || message.getPayload() == null) {
+            logger.error("Invalid broadcast message, not delivered");
+            return;
+        }
+
+        switch (message.getChannel()) {
+            case USER -> personalMessageWS.sendToUserSessions(message.getTargetId(), message.getPayload());
+            case PROJECT -> projectMessageWS.broadcastToProject(message.getTargetId(), message.getPayload());
+            case NOTIFICATION -> {
+                // The notification sessions are indexed by token, so the active tokens of the user are looked up
+                List<String> tokens = sessionTokenDao.findActiveSessionTokensByUserId(message.getTargetId());
+                for (String token : tokens) {
+                    if (notificationWS.getSessions().containsKey(token)) {
+                        notificationWS.send(token, message.getPayload());
+                    }
+                }
+            }
+            case SESSION_NOTIFICATION -> notificationWS.send(message.getToken(), message.getPayload());
+            case SESSION_LOGOUT -> notificationWS.logout(message.getToken(), message.getPayload());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package domcast.finalprojbackend.bean.broadcast;
+
+import domcast.finalprojbackend.dao.BroadcastOutboxDao;
+import domcast.finalprojbackend.dto.messageDto.BroadcastMessage;
+import domcast.finalprojbackend.entity.BroadcastOutboxEntity;
+import jakarta.ejb.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Broadcast bus backed by the broadcast_outbox table, for several application nodes sharing the database.
+ * Publishing inserts a row, in the caller's transaction, so frames of rolled back transactions are never sent.
+ * Every node polls the table every second and delivers the new rows to the sessions it holds.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Singleton
+@LocalBean
+@Lock(LockType.READ)
+public class OutboxBroadcastBus implements BroadcastBus, Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(OutboxBroadcastBus.class);
+
+    public static final String NAME = "outbox";
+
+    // Maximum number of rows delivered by each poll
+    private static final int POLL_BATCH_SIZE = 500;
+
+    // Time a skipped id is waited for, longer than any transaction publishing a frame
+    private static final long GAP_TIMEOUT_MILLIS = 60_000;
+
+    // Largest number of skipped ids waited for, the oldest are given up beyond it
+    private static final int MAX_GAPS = 2_000;
+
+    // Rows older than this were seen by every live node and are deleted
+    private static final long RETENTION_MINUTES = 10;
+
+    // Identifies the rows published by this node in the logs
+    private static final String NODE_ID = System.getProperty("domcast.node.id", UUID.randomUUID().toString());
+
+    @EJB
+    private BroadcastOutboxDao broadcastOutboxDao;
+
+    @EJB
+    private LocalDeliveryBean localDeliveryBean;
+
+    private final AtomicBoolean active = new AtomicBoolean(false);
+    private final AtomicBoolean polling = new AtomicBoolean(false);
+
+    private volatile long lastSeenId;
+
+    // Ids skipped by the poll, with the time they were skipped at, in id order
+    private final Map<Long, Long> gaps = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            return size() > MAX_GAPS;
+        }
+    });
+
+    /**
+     * Default constructor
+     */
+    public OutboxBroadcastBus() {
+    }
+
+    /**
+     * Starts polling, from the last row currently in the table, so older frames are not replayed
+     */
+    public void activate() {
+        lastSeenId = broadcastOutboxDao.findMaxId();
+        active.set(true);
+        logger.info("Outbox broadcast bus active on node {}, starting after frame {}", NODE_ID, lastSeenId);
+    }
+
+    @Override
+    public void publish(BroadcastMessage message) {
+        BroadcastOutboxEntity entity = new BroadcastOutboxEntity();
+        entity.setChannel(message.getChannel());
+        entity.setTargetId(message.getTargetId());
+        entity.setToken(message.getToken());
+        entity.setPayload(message.getPayload());
+        entity.setOriginNode(NODE_ID);
+
+        if (!broadcastOutboxDao.persist(entity)) {
+            logger.error("Broadcast frame for {} {} not published", message.getChannel(), message.getTargetId());
+        }
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * Delivers the frames published since the last poll to the sessions of this node
+     */
+    @Schedule(second = "*", minute = "*", hour = "*", persistent = false)
+    public void poll() {
+        if (!active.get() || !polling.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            long now = System.currentTimeMillis();
+
+            // Rows of the gaps committed since the last poll, then the new rows
+            List<BroadcastOutboxEntity> rows = new ArrayList<>();
+            synchronized (gaps) {
+                gaps.values().removeIf(skippedAt -> now - skippedAt > GAP_TIMEOUT_MILLIS);
+                if (!gaps.isEmpty()) {
+                    rows.addAll(broadcastOutboxDao.findByIds(new ArrayList<>(gaps.keySet())));
+                }
+            }
+            rows.addAll(broadcastOutboxDao.findAfterId(lastSeenId, POLL_BATCH_SIZE));
+
+            for (BroadcastOutboxEntity row : rows) {
+                long id = row.getId();
+
+                if (id > lastSeenId) {
+                    for (long skipped = Math.max(lastSeenId + 1, id - MAX_GAPS); skipped < id; skipped++) {
+                        gaps.put(skipped, now);
+                    }
+                    lastSeenId = id;
+                } else if (gaps.remove(id) == null) {
+                    continue;
+                }
+
+                try {
+                    localDeliveryBean.deliver(new BroadcastMessage(row.getChannel(), row.getTargetId(), row.getToken(), row.getPayload()));
+                } catch (Exception e) {
+                    logger.error("Error delivering broadcast frame {} from node {}", id, row.getOriginNode(), e);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error polling the broadcast outbox", e);
+        } finally {
+            polling.set(false);
+        }
+    }
+
+    /**
+     * Deletes the frames every live node has already polled
+     */
+    @Schedule(minute = "*/5", hour = "*", persistent = false)
+    public void purge() {
+        if (!active.get()) {
+            return;
+        }
+
+        int deleted = broadcastOutboxDao.deleteOlderThan(LocalDateTime.now().minusMinutes(RETENTION_MINUTES));
+        logger.info("{} old broadcast frames deleted", deleted);
+    }
+}
@@ -18,8 +18,10 @@ import domcast.finalprojbackend.dto.userDto.ProjectUser;
 import domcast.finalprojbackend.entity.*;
 import domcast.finalprojbackend.enums.LabEnum;
 import domcast.finalprojbackend.enums.MessageAndLogEnum;
+import domcast.finalprojbackend.enums.ProjectChangeKindEnum;
 import domcast.finalprojbackend.enums.ProjectStateEnum;
 import domcast.finalprojbackend.enums.ProjectUserEnum;
+import domcast.finalprojbackend.enums.TypeaheadCategoryEnum;
 import domcast.finalprojbackend.service.ObjectMapperContextResolver;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
@@ -41,6 +43,9 @@ public class ProjectBean implements Serializable {
     private static final long serialVersionUID = 1L;
     private static final Logger logger = LogManager.getLogger(UserBean.class);
 
+    // Pages of projects larger than this are streamed instead of built in memory
+    private static final int STREAMED_PAGE_SIZE = 100;
+
     @EJB
     private ProjectDao projectDao;
 
@@ -95,6 +100,21 @@ public class ProjectBean implements Serializable {
     @EJB
     private PersonalMessageDao personalMessageDao;
 
+    @EJB
+    private TypeaheadBean typeaheadBean;
+
+    @EJB
+    private ProjectVersionBean projectVersionBean;
+
+    @EJB
+    private ProjectChangeDao projectChangeDao;
+
+    @EJB
+    private TaskDao taskDao;
+
+    @EJB
+    private MatchingBean matchingBean;
+
     /**
      * Default constructor for ProjectBean.
      */
@@ -224,6 +244,9 @@ public class ProjectBean implements Serializable {
             throw e;
         }
 
+        typeaheadBean.add(TypeaheadCategoryEnum.PROJECT, projectEntity.getName());
+        matchingBean.projectChanged(projectEntity.getId());
+
         boolean presentationTask;
         try {
             presentationTask = taskBean.presentationTask(responsibleUserId, projectEntity);
@@ -804,6 +827,20 @@ public class ProjectBean implements Serializable {
             // Rethrow the exception to the caller method
             throw e;
         }
+        matchingBean.projectChanged(projectId);
+
+        if (editProject != null) {
+            projectVersionBean.recordChange(projectId, ProjectChangeKindEnum.INFO);
+        }
+        if (newSkillsIds != null && !newSkillsIds.isEmpty()) {
+            projectVersionBean.recordChange(projectId, ProjectChangeKindEnum.SKILLS);
+        }
+        if (componentResources != null && !componentResources.isEmpty()) {
+            projectVersionBean.recordChange(projectId, ProjectChangeKindEnum.RESOURCES);
+        }
+        if (keywordEntities != null && !keywordEntities.isEmpty()) {
+            projectVersionBean.recordChange(projectId, ProjectChangeKindEnum.KEYWORDS);
+        }
 
         DetailedProject detailedProject = entityToDetailedProject(projectEntity);
 
@@ -828,6 +865,7 @@ public class ProjectBean implements Serializable {
         logger.info("Updating basic info for project with ID {}", projectEntity.getId());
 
         if (editProject.getName() != null) {
+            typeaheadBean.rename(TypeaheadCategoryEnum.PROJECT, projectEntity.getName(), editProject.getName());
             projectEntity.setName(editProject.getName());
         }
 
@@ -954,6 +992,7 @@ public class ProjectBean implements Serializable {
             // Rethrow the exception to the caller method
             throw e;
         }
+        matchingBean.projectChanged(projectId);
 
         DetailedProject detailedProject = entityToDetailedProject(projectEntity);
 
@@ -963,6 +1002,7 @@ public class ProjectBean implements Serializable {
         }
 
         logger.info("Successfully edited state of project with ID {}", projectId);
+        projectVersionBean.recordChange(projectId, ProjectChangeKindEnum.INFO);
 
         Set<M2MProjectUser> projectUsers = projectEntity.getProjectUsers();
 
@@ -1045,8 +1085,10 @@ public class ProjectBean implements Serializable {
             // Rethrow the exception to the caller method
             throw e;
         }
+        matchingBean.projectChanged(projectId);
 
         logger.info("Successfully approved project with ID {}", projectId);
+        projectVersionBean.recordChange(projectId, ProjectChangeKindEnum.INFO);
 
         Set<M2MProjectUser> projectManagers = getProjectManagers(projectEntity);
 
@@ -1065,6 +1107,101 @@ public class ProjectBean implements Serializable {
 
     public ProjectPreviewsList getProjectsByCriteria (Integer userId, String name, int lab, int state, String keyword, int skill, String orderBy, boolean orderAsc, int pageNumber, int pageSize) {
 
+        String keywordTrimmed = validateProjectsCriteria(userId, name, lab, skill, keyword, orderBy, pageNumber, pageSize);
+        int maxUsers = getMaxUsersForCriteria();
+
+        logger.info("Getting projects by criteria");
+
+        ProjectPreviewsList projectPreviewsList;
+
+        try {
+            projectPreviewsList = projectDao.getProjectsByCriteria(userId, name, lab, state, keywordTrimmed, skill, maxUsers, orderBy, orderAsc, pageNumber, pageSize);
+            if (projectPreviewsList == null || projectPreviewsList.getProjects().isEmpty() || projectPreviewsList.getTotalProjects() == 0) {
+                logger.warn("No projects found by criteria");
+                throw new IllegalArgumentException("No projects found by criteria");
+            }
+        } catch (PersistenceException e) {
+            logger.error("Error getting projects by criteria: {}", e.getMessage());
+            throw new RuntimeException(e);
+        }
+
+        logger.info("Successfully got {} projects by criteria", projectPreviewsList.getTotalProjects());
+
+        addTeamsToProjectPreviews(projectPreviewsList.getProjects());
+
+        logger.info("Successfully got projects by criteria");
+
+        return projectPreviewsList;
+    }
+
+    /**
+     * Checks if a page of projects is large enough to be streamed instead of built in memory.
+     * @param pageSize the page size
+     * @return true if the page is streamed
+     */
+    public boolean isPageStreamed(int pageSize) {
+        return pageSize > STREAMED_PAGE_SIZE;
+    }
+
+    /**
+     * Validates the criteria and counts the projects that match them, before a page is streamed.
+     * @return the number of projects that match the criteria
+     * @throws IllegalArgumentException if the criteria are invalid or no project matches them
+     */
+    public long countProjectsByCriteria (Integer userId, String name, int lab, int state, String keyword, int skill, String orderBy, int pageNumber, int pageSize) {
+
+        String keywordTrimmed = validateProjectsCriteria(userId, name, lab, skill, keyword, orderBy, pageNumber, pageSize);
+
+        long totalProjects = projectDao.countProjectsByCriteria(userId, name, lab, state, keywordTrimmed, skill);
+
+        if (totalProjects == 0) {
+            logger.warn("No projects found by criteria");
+            throw new IllegalArgumentException("No projects found by criteria");
+        }
+
+        logger.info("Found {} projects by criteria", totalProjects);
+        return totalProjects;
+    }
+
+    /**
+     * Gets a chunk of a page of the projects that match the criteria, with their teams,
+     * so large pages are read a chunk at a time and never all held in memory.
+     * @param offset the position of the first project of the chunk, within the page
+     * @return the previews of the chunk, at most AbstractDao.STREAM_CHUNK_SIZE, and none past the end of the page
+     * @throws IllegalArgumentException if the criteria are invalid
+     */
+    public List<ProjectPreview> getProjectsByCriteriaChunk (Integer userId, String name, int lab, int state, String keyword, int skill, String orderBy, boolean orderAsc, int pageNumber, int pageSize, int offset) {
+
+        String keywordTrimmed = validateProjectsCriteria(userId, name, lab, skill, keyword, orderBy, pageNumber, pageSize);
+
+        int chunkSize = Math.min(AbstractDao.STREAM_CHUNK_SIZE, pageSize - offset);
+        if (chunkSize <= 0) {
+            return new ArrayList<>();
+        }
+
+        int maxUsers = getMaxUsersForCriteria();
+
+        List<ProjectPreview> projectPreviews;
+        try {
+            projectPreviews = projectDao.getProjectPreviewsChunk(userId, name, lab, state, keywordTrimmed, skill, maxUsers, orderBy, orderAsc,
+                    (pageNumber - 1) * pageSize + offset, chunkSize);
+        } catch (PersistenceException e) {
+            logger.error("Error getting a chunk of projects by criteria: {}", e.getMessage());
+            throw new RuntimeException(e);
+        }
+
+        addTeamsToProjectPreviews(projectPreviews);
+
+        logger.info("Got {} projects by criteria, from position {} of the page", projectPreviews.size(), offset);
+        return projectPreviews;
+    }
+
+    /**
+     * Validates the criteria of a project search.
+     * @return the keyword to search, reduced to its first word
+     * @throws IllegalArgumentException if a criterion is invalid
+     */
+    private String validateProjectsCriteria (Integer userId, String name, int lab, int skill, String keyword, String orderBy, int pageNumber, int pageSize) {
         if (userId != 0) {
             if (!dataValidator.isIdValid(userId)) {
                 logger.error("Invalid user ID while getting projects by criteria");
@@ -1108,6 +1245,14 @@ public class ProjectBean implements Serializable {
             }
         }
 
+        return keywordTrimmed;
+    }
+
+    /**
+     * Gets the maximum number of users per project, used to order projects by available places.
+     * @return the maximum number of users per project
+     */
+    private int getMaxUsersForCriteria () {
         int maxUsers;
 
         try {
@@ -1117,39 +1262,7 @@ public class ProjectBean implements Serializable {
             throw new RuntimeException(e);
         }
 
-        logger.info("Getting projects by criteria");
-
-        ProjectEntitiesList projects;
-
-        try {
-            projects = projectDao.getProjectsByCriteria(userId, name, lab, state, keywordTrimmed, skill, maxUsers, orderBy, orderAsc, pageNumber, pageSize);
-            if (projects == null || projects.getProjects().isEmpty() || projects.getTotalProjects() == 0) {
-                logger.warn("No projects found by criteria");
-                throw new IllegalArgumentException("No projects found by criteria");
-            }
-        } catch (PersistenceException e) {
-            logger.error("Error getting projects by criteria: {}", e.getMessage());
-            throw new RuntimeException(e);
-        }
-
-        logger.info("Successfully got {} projects by criteria", projects.getTotalProjects());
-
-        List<ProjectPreview> projectPreviews = new ArrayList<>();
-
-        for (ProjectEntity project : projects.getProjects()) {
-            try {
-                ProjectPreview projectPreview = projectEntityToProjectPreview(project);
-                projectPreviews.add(projectPreview);
-            } catch (RuntimeException e) {
-                logger.error("Error converting project entity to project preview while getting projects by criteria: {}", e.getMessage());
-            }
-        }
-
-        ProjectPreviewsList projectPreviewsList = new ProjectPreviewsList(projectPreviews, projects.getTotalProjects());
-
-        logger.info("Successfully got projects by criteria");
-
-        return projectPreviewsList;
+        return maxUsers;
     }
 
     public ProjectPreview projectEntityToProjectPreview(ProjectEntity projectEntity) {
@@ -1204,6 +1317,28 @@ public class ProjectBean implements Serializable {
         return projectPreview;
     }
 
+    /**
+     * Adds the team of each project to a page of project previews, fetched with a single query for the whole page
+     * @param projectPreviews the project previews, as projected by the project DAO
+     */
+    private void addTeamsToProjectPreviews(List<ProjectPreview> projectPreviews) {
+        List<Integer> projectIds = new ArrayList<>(projectPreviews.size());
+        for (ProjectPreview projectPreview : projectPreviews) {
+            projectIds.add(projectPreview.getId());
+        }
+
+        Map<Integer, Set<ProjectUser>> teams = m2MProjectUserDao.findTeamsOfProjects(projectIds);
+
+        for (ProjectPreview projectPreview : projectPreviews) {
+            Set<ProjectUser> projectUsers = teams.get(projectPreview.getId());
+            if (projectUsers != null && !projectUsers.isEmpty()) {
+                projectPreview.setProjectUsers(projectUsers);
+            }
+        }
+
+        logger.info("Added the teams of {} projects to their previews", teams.size());
+    }
+
     public DetailedProject removeUserFromProject (int projectId, int userId, boolean removed) {
 
         if (!dataValidator.isIdValid(projectId) || !dataValidator.isIdValid(userId)) {
@@ -1278,9 +1413,12 @@ public class ProjectBean implements Serializable {
             throw new IllegalArgumentException("Main manager not found with ID " + mainManagerId + " while removing user from project");
         }
 
+        Set<Integer> reassignedTasks = new HashSet<>();
+
         for (TaskEntity task : projectEntity.getTasks()) {
             if (task.getResponsible().getId() == userId) {
                 task.setResponsible(mainManager);
+                reassignedTasks.add(task.getId());
                 logger.info("Changed responsible user for task with ID {} to project's main manager with ID {}", task.getId(), mainManagerId);
             }
         }
@@ -1306,6 +1444,9 @@ public class ProjectBean implements Serializable {
 
         logger.info("Successfully removed user with ID {} from project with ID {}", userId, projectId);
 
+        projectVersionBean.recordChange(projectId, ProjectChangeKindEnum.MEMBER, userId);
+        projectVersionBean.recordChanges(projectId, ProjectChangeKindEnum.TASK, reassignedTasks);
+
         Set<M2MProjectUser> projectManagers = getProjectManagers(projectEntity);
 
         String action = removed ? MessageAndLogEnum.REMOVED.name() : MessageAndLogEnum.LEFT_PROJECT.name();
@@ -1422,6 +1563,8 @@ public class ProjectBean implements Serializable {
             invited = true;
         }
 
+        projectVersionBean.recordChange(projectId, ProjectChangeKindEnum.MEMBER, userId);
+
         int sender;
         Set<M2MProjectUser> projectUsers = new HashSet<>();
         M2MProjectUser userInvited;
@@ -1567,6 +1710,8 @@ public class ProjectBean implements Serializable {
             throw new RuntimeException(e);
         }
 
+        projectVersionBean.recordChange(projectId, ProjectChangeKindEnum.MEMBER, userId);
+
         Set<M2MProjectUser> projectUsers;
         int senderId = 0;
         String action;
@@ -1612,6 +1757,285 @@ public class ProjectBean implements Serializable {
         return true;
     }
 
+    /**
+     * Invites many users to a project at once, all with the same role.
+     * The project, its places and the users are checked once for the whole batch, the new invitations are persisted
+     * together, and each invited user gets a single notification.
+     * The users already invited, or who applied, keep their pending invitation or application, as in inviteToProject.
+     *
+     * @param projectId the id of the project
+     * @param userIds   the ids of the users to invite
+     * @param role      the role of the users in the project
+     * @param inviterId the id of the manager inviting the users
+     * @return the ids of the users invited
+     * @throws IllegalArgumentException if the batch is not valid, before any user is invited
+     */
+    public Set<Integer> inviteUsersToProject(int projectId, Set<Integer> userIds, int role, int inviterId) {
+
+        if (!dataValidator.isIdValid(projectId) || !dataValidator.isIdValid(inviterId)) {
+            logger.error("Invalid project ID or inviter ID while inviting users to project");
+            throw new IllegalArgumentException("Invalid project ID or inviter ID while inviting users to project");
+        }
+
+        if (userIds == null || userIds.isEmpty()) {
+            logger.error("No users to invite to project with ID {}", projectId);
+            throw new IllegalArgumentException("No users to invite to project");
+        }
+
+        for (Integer userId : userIds) {
+            if (userId == null || !dataValidator.isIdValid(userId)) {
+                logger.error("Invalid user ID {} while inviting users to project", userId);
+                throw new IllegalArgumentException("Invalid user ID " + userId + " while inviting users to project");
+            }
+        }
+
+        if (!ProjectUserEnum.containsId(role)) {
+            logger.error("Invalid role while inviting users to project");
+            throw new IllegalArgumentException("Invalid role while inviting users to project");
+        }
+
+        logger.info("Inviting {} users to project with ID {}", userIds.size(), projectId);
+
+        ProjectEntity projectEntity;
+
+        try {
+            projectEntity = projectDao.findProjectById(projectId);
+        } catch (PersistenceException e) {
+            logger.error("Error finding project with ID {} while inviting users to project", projectId, e);
+            throw new RuntimeException(e);
+        }
+
+        if (projectEntity == null) {
+            logger.error("Project not found with ID {} while inviting users to project", projectId);
+            throw new IllegalArgumentException("Project not found with ID " + projectId + " while inviting users to project");
+        }
+
+        if (!dataValidator.availablePlacesInProject(projectId)) {
+            logger.error("Project with ID {} is full while inviting users to project", projectId);
+            throw new IllegalArgumentException("Project with ID " + projectId + " is full while inviting users to project");
+        }
+
+        List<M2MProjectUser> existingProjectUsers;
+
+        try {
+            existingProjectUsers = m2MProjectUserDao.findProjectUsersByUserIds(projectId, userIds);
+        } catch (PersistenceException e) {
+            logger.error("Error finding the users of project with ID {} while inviting users to project", projectId, e);
+            throw new RuntimeException(e);
+        }
+
+        Set<M2MProjectUser> invitedUsers = new HashSet<>();
+        Set<Integer> newUserIds = new HashSet<>(userIds);
+
+        for (M2MProjectUser existingProjectUser : existingProjectUsers) {
+            int userId = existingProjectUser.getUser().getId();
+
+            if (existingProjectUser.isActive()) {
+                logger.error("User with ID {} is already part of project with ID {} while inviting users to project", userId, projectId);
+                throw new IllegalArgumentException("User with ID " + userId + " is already part of project with ID " + projectId + " while inviting users to project");
+            }
+
+            invitedUsers.add(existingProjectUser);
+            newUserIds.remove(userId);
+        }
+
+        List<UserEntity> newUsers;
+
+        try {
+            newUsers = userDao.findUsersByIds(newUserIds);
+        } catch (PersistenceException e) {
+            logger.error("Error finding users with IDs {} while inviting users to project", newUserIds, e);
+            throw new RuntimeException(e);
+        }
+
+        if (newUsers.size() != newUserIds.size()) {
+            for (UserEntity userEntity : newUsers) {
+                newUserIds.remove(userEntity.getId());
+            }
+            logger.error("Users not found with IDs {} while inviting users to project", newUserIds);
+            throw new IllegalArgumentException("Users not found with IDs " + newUserIds + " while inviting users to project");
+        }
+
+        ProjectUserEnum projectUserEnum = ProjectUserEnum.fromId(role);
+
+        for (UserEntity userEntity : newUsers) {
+            M2MProjectUser m2MProjectUser = userBean.createProjectUser(new M2MProjectUser(), userEntity, projectEntity, projectUserEnum, inviterId);
+
+            try {
+                if (!m2MProjectUserDao.persist(m2MProjectUser)) {
+                    logger.error("Error inviting new user with ID {} to project with ID {}", userEntity.getId(), projectId);
+                    throw new RuntimeException("Error inviting users to project");
+                }
+            } catch (PersistenceException e) {
+                logger.error("Error inviting new user with ID {} to project with ID {}: {}", userEntity.getId(), projectId, e.getMessage());
+                throw new RuntimeException(e);
+            }
+
+            invitedUsers.add(m2MProjectUser);
+        }
+
+        projectVersionBean.recordChanges(projectId, ProjectChangeKindEnum.MEMBER, userIds);
+
+        messageBean.sendMessageToProjectUsers(
+                invitedUsers,
+                projectEntity,
+                MessageAndLogEnum.INVITED.name(),
+                "",
+                inviterId,
+                MessageAndLogEnum.INVITED,
+                null
+        );
+
+        logger.info("Successfully invited {} users to project with ID {}", userIds.size(), projectId);
+
+        return new HashSet<>(userIds);
+    }
+
+    /**
+     * Answers many applications to a project at once.
+     * The places of the project are checked once for all the accepted applicants, the accepted ones join
+     * the project together and the rejected ones are removed with a single statement.
+     * Each applicant gets a single notification with the answer to their application.
+     *
+     * @param projectId the id of the project
+     * @param accepted  the ids of the users whose applications are accepted
+     * @param rejected  the ids of the users whose applications are rejected
+     * @return the number of applications answered
+     * @throws IllegalArgumentException if the batch is not valid, before any application is answered
+     */
+    public int answerApplications(int projectId, Set<Integer> accepted, Set<Integer> rejected) {
+
+        logger.info("Answering applications to project with ID {}", projectId);
+
+        if (!dataValidator.isIdValid(projectId)) {
+            logger.error("Invalid project ID while answering applications to project");
+            throw new IllegalArgumentException("Invalid project ID while answering applications to project");
+        }
+
+        Set<Integer> acceptedIds = accepted != null ? accepted : Set.of();
+        Set<Integer> rejectedIds = rejected != null ? rejected : Set.of();
+
+        if (acceptedIds.isEmpty() && rejectedIds.isEmpty()) {
+            logger.error("No applications to answer in project with ID {}", projectId);
+            throw new IllegalArgumentException("No applications to answer in project");
+        }
+
+        Set<Integer> userIds = new HashSet<>(acceptedIds);
+        for (Integer userId : rejectedIds) {
+            if (!userIds.add(userId)) {
+                logger.error("User with ID {} is both accepted and rejected in project with ID {}", userId, projectId);
+                throw new IllegalArgumentException("User with ID " + userId + " is both accepted and rejected in project");
+            }
+        }
+
+        ProjectEntity projectEntity;
+
+        try {
+            projectEntity = projectDao.findProjectById(projectId);
+        } catch (PersistenceException e) {
+            logger.error("Error finding project with ID {} while answering applications to project", projectId, e);
+            throw new RuntimeException(e);
+        }
+
+        if (projectEntity == null) {
+            logger.error("Project not found with ID {} while answering applications to project", projectId);
+            throw new IllegalArgumentException("Project not found with ID " + projectId + " while answering applications to project");
+        }
+
+        List<M2MProjectUser> projectUsers;
+
+        try {
+            projectUsers = m2MProjectUserDao.findProjectUsersByUserIds(projectId, userIds);
+        } catch (PersistenceException e) {
+            logger.error("Error finding the users of project with ID {} while answering applications to project", projectId, e);
+            throw new RuntimeException(e);
+        }
+
+        Set<Integer> pendingIds = new HashSet<>(userIds);
+
+        for (M2MProjectUser projectUser : projectUsers) {
+            if (projectUser.isActive()) {
+                logger.error("User with ID {} is already part of project with ID {} while answering applications to project", projectUser.getUser().getId(), projectId);
+                throw new IllegalArgumentException("User with ID " + projectUser.getUser().getId() + " is already part of project with ID " + projectId);
+            }
+            // Only the invited user can answer an invitation, never a manager on their behalf
+            if (projectUser.isInvited()) {
+                logger.error("User with ID {} was invited to project with ID {}, the invitation is not an application", projectUser.getUser().getId(), projectId);
+                throw new IllegalArgumentException("User with ID " + projectUser.getUser().getId() + " was invited to project with ID " + projectId + " and did not apply");
+            }
+            pendingIds.remove(projectUser.getUser().getId());
+        }
+
+        if (!pendingIds.isEmpty()) {
+            logger.error("Users with IDs {} did not apply to project with ID {}", pendingIds, projectId);
+            throw new IllegalArgumentException("Users with IDs " + pendingIds + " did not apply to project with ID " + projectId);
+        }
+
+        if (!acceptedIds.isEmpty()) {
+            int remainingPlaces = dataValidator.remainingPlacesInProject(projectId);
+
+            if (acceptedIds.size() > remainingPlaces) {
+                logger.error("Project with ID {} has {} places left for {} accepted applications", projectId, remainingPlaces, acceptedIds.size());
+                throw new IllegalArgumentException("Project with ID " + projectId + " has only " + remainingPlaces + " places left");
+            }
+        }
+
+        Set<M2MProjectUser> acceptedUsers = new HashSet<>();
+        Set<M2MProjectUser> rejectedUsers = new HashSet<>();
+
+        // The accepted users are managed, so they are updated together when the transaction commits
+        for (M2MProjectUser projectUser : projectUsers) {
+            if (acceptedIds.contains(projectUser.getUser().getId())) {
+                projectUser.setActive(true);
+                projectUser.setApproved(true);
+                projectUser.setInvited(false);
+                projectUser.setRole(ProjectUserEnum.PARTICIPANT);
+                acceptedUsers.add(projectUser);
+            } else {
+                rejectedUsers.add(projectUser);
+            }
+        }
+
+        try {
+            m2MProjectUserDao.removePendingProjectUsers(rejectedIds, projectId);
+        } catch (PersistenceException e) {
+            logger.error("Error removing the rejected applications to project with ID {}: {}", projectId, e.getMessage());
+            throw new RuntimeException(e);
+        }
+
+        personalMessageDao.setInvitedToNullForReceivers(userIds, projectId);
+
+        projectVersionBean.recordChanges(projectId, ProjectChangeKindEnum.MEMBER, userIds);
+
+        if (!acceptedUsers.isEmpty()) {
+            messageBean.sendMessageToProjectUsers(
+                    acceptedUsers,
+                    projectEntity,
+                    MessageAndLogEnum.APPLICATION_ACCEPTED.name(),
+                    "",
+                    0,
+                    MessageAndLogEnum.APPLICATION_ACCEPTED,
+                    null
+            );
+        }
+
+        if (!rejectedUsers.isEmpty()) {
+            messageBean.sendMessageToProjectUsers(
+                    rejectedUsers,
+                    projectEntity,
+                    MessageAndLogEnum.APPLICATION_REJECTED.name(),
+                    "",
+                    0,
+                    MessageAndLogEnum.APPLICATION_REJECTED,
+                    null
+            );
+        }
+
+        logger.info("Answered {} applications to project with ID {}: {} accepted, {} rejected", userIds.size(), projectId, acceptedIds.size(), rejectedIds.size());
+
+        return userIds.size();
+    }
+
     /**
      * Method to apply to a project.
      * @param projectId The ID of the project to apply to.
@@ -1681,6 +2105,158 @@ public class ProjectBean implements Serializable {
         return detailedProject;
     }
 
+    /**
+     * Gets what changed in a project since a change version, instead of the whole project.
+     * The tasks, members and records are found by the ids changed, and the basic information and the relations
+     * are only read if they changed. If the changes since the version were purged, or the version is newer than
+     * the one of the project, the client is told to fetch the whole project.
+     *
+     * @param projectId the id of the project
+     * @param since the change version the client has
+     * @return the changes since the version
+     */
+    public ProjectChanges getChangesSince(int projectId, long since) {
+
+        if (!dataValidator.isIdValid(projectId)) {
+            logger.error("Invalid project ID while getting project changes");
+            throw new IllegalArgumentException("Invalid project ID while getting project changes");
+        }
+
+        long version = projectChangeDao.findChangeVersion(projectId);
+
+        if (version < 0) {
+            logger.error("Project not found while getting project changes: {}", projectId);
+            throw new IllegalArgumentException("Project not found with ID " + projectId);
+        }
+
+        ProjectChanges changes = new ProjectChanges(projectId, version);
+
+        if (since == version) {
+            return changes;
+        }
+
+        Long oldestVersion = projectChangeDao.findOldestVersion(projectId);
+
+        if (since < 0 || since > version || oldestVersion == null || oldestVersion > since + 1) {
+            logger.info("Changes of project with ID {} since version {} are not available, full refresh needed", projectId, since);
+            changes.setFullRefresh(true);
+            return changes;
+        }
+
+        Map<ProjectChangeKindEnum, Set<Integer>> changedIds = projectChangeDao.findChangesSince(projectId, since);
+
+        for (ProjectChangeKindEnum kind : changedIds.keySet()) {
+            changes.getChanged().add(kind.getValue());
+        }
+
+        if (changedIds.containsKey(ProjectChangeKindEnum.TASK)) {
+            addChangedTasks(projectId, changedIds.get(ProjectChangeKindEnum.TASK), changes);
+        }
+
+        if (changedIds.containsKey(ProjectChangeKindEnum.MEMBER)) {
+            addChangedMembers(projectId, changedIds.get(ProjectChangeKindEnum.MEMBER), changes);
+        }
+
+        if (changedIds.containsKey(ProjectChangeKindEnum.RECORD)) {
+            for (RecordEntity record : recordDao.findRecordsByIdsAndProject(changedIds.get(ProjectChangeKindEnum.RECORD), projectId)) {
+                changes.getRecords().add(recordBean.entityToRecordDto(record));
+            }
+        }
+
+        if (changedIds.containsKey(ProjectChangeKindEnum.INFO) || changedIds.containsKey(ProjectChangeKindEnum.SKILLS)
+                || changedIds.containsKey(ProjectChangeKindEnum.KEYWORDS) || changedIds.containsKey(ProjectChangeKindEnum.RESOURCES)) {
+            addChangedInfoAndRelations(projectDao.findProjectById(projectId), changedIds.keySet(), changes);
+        }
+
+        logger.info("Got {} kinds of changes of project with ID {} since version {}", changedIds.size(), projectId, since);
+        return changes;
+    }
+
+    /**
+     * Adds the changed tasks to the changes of a project, the deleted ones by id.
+     *
+     * @param projectId the id of the project
+     * @param taskIds the ids of the changed tasks
+     * @param changes the changes of the project
+     */
+    private void addChangedTasks(int projectId, Set<Integer> taskIds, ProjectChanges changes) {
+        Set<Integer> removed = new HashSet<>(taskIds);
+
+        for (TaskEntity task : taskDao.findTasksByIdsAndProjectId(taskIds, projectId)) {
+            if (task.isActive()) {
+                ChartTask chartTask = taskBean.entityToChartTask(task);
+                if (chartTask != null) {
+                    changes.getTasks().add(chartTask);
+                    removed.remove(task.getId());
+                }
+            }
+        }
+
+        changes.getRemovedTasks().addAll(removed);
+    }
+
+    /**
+     * Adds the users whose place in the project changed to the changes of a project,
+     * as members, invited or candidates, and the ones no longer in it by id.
+     *
+     * @param projectId the id of the project
+     * @param userIds the ids of the changed users
+     * @param changes the changes of the project
+     */
+    private void addChangedMembers(int projectId, Set<Integer> userIds, ProjectChanges changes) {
+        Set<Integer> removed = new HashSet<>(userIds);
+        List<M2MProjectUser> invited = new ArrayList<>();
+        List<M2MProjectUser> candidates = new ArrayList<>();
+
+        for (M2MProjectUser projectUser : m2MProjectUserDao.findProjectUsersByUserIds(projectId, userIds)) {
+            if (projectUser.isInvited()) {
+                invited.add(projectUser);
+            } else if (projectUser.getRole() == ProjectUserEnum.CANDIDATE) {
+                candidates.add(projectUser);
+            } else if (projectUser.isActive()) {
+                changes.getMembers().add(userBean.projectUserToProjectUserDto(projectUser));
+            } else {
+                continue;
+            }
+            removed.remove(projectUser.getUser().getId());
+        }
+
+        changes.getInvited().addAll(userBean.entityToInvitedOrCandidate(invited));
+        changes.getCandidates().addAll(userBean.entityToInvitedOrCandidate(candidates));
+        changes.getRemovedMembers().addAll(removed);
+    }
+
+    /**
+     * Adds the basic information and the whole relations that changed to the changes of a project.
+     *
+     * @param projectEntity the project
+     * @param kinds the kinds of changes made to the project
+     * @param changes the changes of the project
+     */
+    private void addChangedInfoAndRelations(ProjectEntity projectEntity, Set<ProjectChangeKindEnum> kinds, ProjectChanges changes) {
+        if (kinds.contains(ProjectChangeKindEnum.INFO)) {
+            changes.setName(projectEntity.getName());
+            changes.setDescription(projectEntity.getDescription());
+            changes.setLabId(projectEntity.getLab().getCity().getId());
+            changes.setState(ProjectStateEnum.getProjectStateValue(projectEntity.getState()));
+            changes.setProjectedStartDate(projectEntity.getProjectedStartDate());
+            changes.setDeadline(projectEntity.getDeadline());
+            changes.setMaxMembers(projectEntity.getMaxMembers());
+        }
+
+        if (kinds.contains(ProjectChangeKindEnum.KEYWORDS)) {
+            changes.setKeywords(keywordBean.m2mToKeywordDto(projectEntity.getKeywords()));
+        }
+
+        if (kinds.contains(ProjectChangeKindEnum.SKILLS)) {
+            changes.setSkills(skillBean.projectSkillToDto(projectEntity.getSkills()));
+        }
+
+        if (kinds.contains(ProjectChangeKindEnum.RESOURCES)) {
+            changes.setResources(componentResourceBean.componentProjectToCRPreview(projectEntity.getComponentResources()));
+        }
+    }
+
     public DetailedProject changeRole(int projectId, int userId, int role) {
 
         if (!dataValidator.isIdValid(projectId) || !dataValidator.isIdValid(userId)) {
@@ -1752,6 +2328,8 @@ public class ProjectBean implements Serializable {
             throw new RuntimeException(e);
         }
 
+        projectVersionBean.recordChange(projectId, ProjectChangeKindEnum.MEMBER, userId);
+
         ////////////////// SEND MESSAGE TO USER //////////////////
 
         ////////////////// Create log in project //////////////////
@@ -1811,6 +2389,22 @@ public class ProjectBean implements Serializable {
         return projectsNames;
     }
 
+    /**
+     * Gets a page of the names of all projects, in alphabetical order.
+     * @param after the last name of the previous page, or null for the first page
+     * @return the names of the page, at most AbstractDao.STREAM_CHUNK_SIZE
+     */
+    public List<String> getProjectsNamesPage(String after) {
+        logger.info("Getting a page of projects names");
+
+        try {
+            return projectDao.getProjectsNamesPage(after, AbstractDao.STREAM_CHUNK_SIZE);
+        } catch (PersistenceException e) {
+            logger.error("Error getting a page of projects names: {}", e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Gets the public project with the given ID.
      * @param projectId The ID of the project to get.
@@ -1964,6 +2558,7 @@ public class ProjectBean implements Serializable {
             try {
                 project.setMaxMembers(maxMembers);
                 projectDao.merge(project);
+                projectVersionBean.recordChange(project.getId(), ProjectChangeKindEnum.INFO);
             } catch (Exception e) {
                 logger.error("Error setting project max users", e);
                 return false;
@@ -2030,6 +2625,7 @@ public class ProjectBean implements Serializable {
         }
 
         logger.info("Successfully updated project with ID {} max members to {}", projectId, maxMembers);
+        projectVersionBean.recordChange(projectId, ProjectChangeKindEnum.INFO);
         return true;
     }
 
@@ -2069,30 +2665,21 @@ public class ProjectBean implements Serializable {
     public List<ProjectPreview> findAllReadyProjects() {
         logger.info("Finding all ready projects");
 
-        List<ProjectEntity> projects;
+        List<ProjectPreview> projectPreviews;
 
         try {
-            projects = projectDao.getReadyProjects();
+            projectPreviews = projectDao.getReadyProjectPreviews();
         } catch (PersistenceException e) {
             logger.error("Error finding all ready projects: {}", e.getMessage());
             throw new RuntimeException(e);
         }
 
-        if (projects == null || projects.isEmpty()) {
+        if (projectPreviews == null || projectPreviews.isEmpty()) {
             logger.warn("No ready projects found");
             return new ArrayList<>();
         }
 
-        List<ProjectPreview> projectPreviews = new ArrayList<>();
-
-        for (ProjectEntity project : projects) {
-            try {
-                ProjectPreview projectPreview = projectEntityToProjectPreview(project);
-                projectPreviews.add(projectPreview);
-            } catch (RuntimeException e) {
-                logger.error("Error converting project entity to project preview while finding all ready projects: {}", e.getMessage());
-            }
-        }
+        addTeamsToProjectPreviews(projectPreviews);
 
         logger.info("Successfully found all ready projects");
 
@@ -0,0 +1,378 @@
+package domcast.finalprojbackend.bean.project;
+
+import domcast.finalprojbackend.bean.*;
+import domcast.finalprojbackend.dao.*;
+import domcast.finalprojbackend.dto.componentResourceDto.CRQuantity;
+import domcast.finalprojbackend.dto.componentResourceDto.DetailedCR;
+import domcast.finalprojbackend.dto.projectDto.EditProject;
+import domcast.finalprojbackend.dto.projectDto.ProjectDelta;
+import domcast.finalprojbackend.dto.skillDto.SkillDto;
+import domcast.finalprojbackend.entity.LabEntity;
+import domcast.finalprojbackend.entity.ProjectEntity;
+import domcast.finalprojbackend.enums.LabEnum;
+import domcast.finalprojbackend.enums.ProjectChangeKindEnum;
+import domcast.finalprojbackend.enums.TypeaheadCategoryEnum;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Stateless;
+import jakarta.persistence.PersistenceException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Bean for editing projects by difference: only the basic fields that changed are written, and the skills,
+ * keywords and component resources of the project are compared with the requested ones and updated with a few
+ * bulk statements, without loading the relations as entities or merging the project.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Stateless
+public class ProjectEditBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(ProjectEditBean.class);
+
+    // Changed fields of the relations, and the kind of change recorded for each
+    private static final Map<String, ProjectChangeKindEnum> RELATION_FIELDS = Map.of(
+            "skills", ProjectChangeKindEnum.SKILLS,
+            "keywords", ProjectChangeKindEnum.KEYWORDS,
+            "resources", ProjectChangeKindEnum.RESOURCES);
+
+    @EJB
+    private ProjectDao projectDao;
+
+    @EJB
+    private DataValidator dataValidator;
+
+    @EJB
+    private LabDao labDao;
+
+    @EJB
+    private SkillBean skillBean;
+
+    @EJB
+    private KeywordBean keywordBean;
+
+    @EJB
+    private ComponentResourceBean componentResourceBean;
+
+    @EJB
+    private TypeaheadBean typeaheadBean;
+
+    @EJB
+    private M2MProjectSkillDao m2MProjectSkillDao;
+
+    @EJB
+    private M2MKeywordDao m2MKeywordDao;
+
+    @EJB
+    private M2MComponentProjectDao m2MComponentProjectDao;
+
+    @EJB
+    private ProjectVersionBean projectVersionBean;
+
+    @EJB
+    private MatchingBean matchingBean;
+
+    // Default constructor
+    public ProjectEditBean() {
+    }
+
+    /**
+     * Edits a project with the given information, writing only what changed.
+     * As in the full edit, absent or empty skills, keywords and resources leave the ones of the project unchanged.
+     *
+     * @param editProject The information to edit the project with.
+     * @param projectId The ID of the project to edit.
+     * @param cRDtos The new component resources to create and add to the project.
+     * @param newSkills The new skills to add to the project.
+     * @return The changes made to the project.
+     */
+    public ProjectDelta editProject(EditProject editProject, int projectId, Set<DetailedCR> cRDtos, ArrayList<SkillDto> newSkills) {
+
+        if (!dataValidator.isIdValid(projectId)) {
+            logger.error("Project ID is invalid");
+            throw new IllegalArgumentException("Project ID is invalid");
+        }
+
+        logger.info("Editing project with ID {} by difference", projectId);
+
+        ProjectEntity projectEntity;
+
+        try {
+            // Only the row of the project, its relations are lazy and never loaded
+            projectEntity = projectDao.findProjectById(projectId);
+        } catch (PersistenceException e) {
+            logger.error("Error finding project with ID {}", projectId, e);
+            throw new RuntimeException(e);
+        }
+
+        if (projectEntity == null) {
+            logger.error("Project not found with ID {}", projectId);
+            throw new IllegalArgumentException("Project not found with ID " + projectId);
+        }
+
+        ProjectDelta delta = new ProjectDelta(projectId);
+
+        Set<Integer> requestedSkills = new HashSet<>();
+        Set<String> requestedKeywords = new HashSet<>();
+        Map<Integer, Integer> requestedResources = new HashMap<>();
+
+        if (cRDtos != null && !cRDtos.isEmpty()) {
+            requestedResources.putAll(createComponentResources(cRDtos));
+        }
+
+        if (newSkills != null && !newSkills.isEmpty()) {
+            requestedSkills.addAll(createSkills(newSkills));
+        }
+
+        if (editProject != null) {
+            updateBasicInfo(editProject, projectEntity, delta);
+
+            if (editProject.getSkills() != null) {
+                requestedSkills.addAll(editProject.getSkills());
+            }
+
+            if (editProject.getKeywords() != null) {
+                requestedKeywords.addAll(editProject.getKeywords());
+            }
+
+            if (editProject.getResources() != null) {
+                for (CRQuantity crQuantity : editProject.getResources()) {
+                    requestedResources.put(crQuantity.getId(), crQuantity.getQuantity());
+                }
+            }
+        }
+
+        try {
+            if (!requestedSkills.isEmpty()) {
+                updateSkills(projectId, requestedSkills, delta);
+            }
+
+            if (!requestedKeywords.isEmpty()) {
+                updateKeywords(projectId, requestedKeywords, delta);
+            }
+
+            if (!requestedResources.isEmpty()) {
+                updateComponentResources(projectId, requestedResources, delta);
+            }
+        } catch (PersistenceException e) {
+            logger.error("Error updating the relations of project with ID {}: {}", projectId, e.getMessage());
+            // Rethrow the exception to the caller method
+            throw e;
+        }
+
+        recordChanges(projectId, delta);
+        matchingBean.projectChanged(projectId);
+
+        logger.info("Successfully edited project with ID {}, changed fields: {}", projectId, delta.getChangedFields());
+        return delta;
+    }
+
+    /**
+     * Records the changes made to the project with its change version.
+     *
+     * @param projectId The ID of the project.
+     * @param delta The changes made to the project.
+     */
+    private void recordChanges(int projectId, ProjectDelta delta) {
+        Set<String> basicFields = new HashSet<>(delta.getChangedFields());
+        basicFields.removeAll(RELATION_FIELDS.keySet());
+
+        if (!basicFields.isEmpty()) {
+            projectVersionBean.recordChange(projectId, ProjectChangeKindEnum.INFO);
+        }
+
+        RELATION_FIELDS.forEach((field, kind) -> {
+            if (delta.getChangedFields().contains(field)) {
+                projectVersionBean.recordChange(projectId, kind);
+            }
+        });
+    }
+
+    /**
+     * Sets the basic fields that differ from the ones of the project, written when the transaction commits.
+     *
+     * @param editProject The information to edit the project with.
+     * @param projectEntity The project to edit.
+     * @param delta The changes made to the project, where the changed fields are added.
+     */
+    void updateBasicInfo(EditProject editProject, ProjectEntity projectEntity, ProjectDelta delta) {
+
+        if (editProject.getName() != null && !editProject.getName().equals(projectEntity.getName())) {
+            typeaheadBean.rename(TypeaheadCategoryEnum.PROJECT, projectEntity.getName(), editProject.getName());
+            projectEntity.setName(editProject.getName());
+            delta.setName(editProject.getName());
+            delta.getChangedFields().add("name");
+        }
+
+        if (editProject.getDescription() != null && !editProject.getDescription().equals(projectEntity.getDescription())) {
+            projectEntity.setDescription(editProject.getDescription());
+            delta.setDescription(editProject.getDescription());
+            delta.getChangedFields().add("description");
+        }
+
+        if (editProject.getLabId() != 0
+                && (projectEntity.getLab() == null || projectEntity.getLab().getCity().getId() != editProject.getLabId())) {
+            try {
+                LabEntity labEntity = labDao.findLabByCity(LabEnum.fromId(editProject.getLabId()).getValue());
+                if (labEntity != null) {
+                    projectEntity.setLab(labEntity);
+                    delta.setLabId(editProject.getLabId());
+                    delta.getChangedFields().add("lab");
+                } else {
+                    logger.error("Lab not found with ID: {}", editProject.getLabId());
+                }
+            } catch (RuntimeException e) {
+                logger.error("Error finding lab by city while updating basic info: {}", e.getMessage());
+            }
+        }
+
+        if (editProject.getProjectedStartDate() != null
+                && !editProject.getProjectedStartDate().equals(projectEntity.getProjectedStartDate())) {
+            projectEntity.setProjectedStartDate(editProject.getProjectedStartDate());
+            delta.setProjectedStartDate(editProject.getProjectedStartDate());
+            delta.getChangedFields().add("projectedStartDate");
+        }
+
+        if (editProject.getDeadline() != null && !editProject.getDeadline().equals(projectEntity.getDeadline())) {
+            projectEntity.setDeadline(editProject.getDeadline());
+            delta.setDeadline(editProject.getDeadline());
+            delta.getChangedFields().add("deadline");
+        }
+    }
+
+    /**
+     * Creates the new component resources and finds their ids.
+     *
+     * @param cRDtos The new component resources.
+     * @return The quantity of each component resource, by id.
+     */
+    private Map<Integer, Integer> createComponentResources(Set<DetailedCR> cRDtos) {
+        try {
+            for (DetailedCR detailedCR : cRDtos) {
+                componentResourceBean.createComponentResource(detailedCR);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Error creating component resources while editing project: {}", e.getMessage());
+            // Rethrow the exception to the caller method
+            throw e;
+        }
+
+        Map<Integer, Integer> componentResources = componentResourceBean.findEntityAndSetQuantity(cRDtos);
+
+        if (componentResources == null) {
+            logger.error("Error finding component resources while editing project");
+            throw new IllegalArgumentException("Component resources not found");
+        }
+
+        return componentResources;
+    }
+
+    /**
+     * Creates the new skills and finds their ids.
+     *
+     * @param newSkills The new skills.
+     * @return The ids of the skills.
+     */
+    private Set<Integer> createSkills(ArrayList<SkillDto> newSkills) {
+        if (!skillBean.createSkills(newSkills)) {
+            logger.error("Error creating new skills while editing project");
+            throw new RuntimeException("Error creating new skills");
+        }
+
+        Set<String> newSkillsNames = new HashSet<>();
+        for (SkillDto skill : newSkills) {
+            newSkillsNames.add(skill.getName());
+        }
+
+        return skillBean.findSkillsIdsByListOfNames(newSkillsNames);
+    }
+
+    /**
+     * Updates the skills of the project to the requested ones.
+     *
+     * @param projectId The ID of the project.
+     * @param requested The ids of the requested skills.
+     * @param delta The changes made to the project, where the added and removed skills are added.
+     */
+    private void updateSkills(int projectId, Set<Integer> requested, ProjectDelta delta) {
+        RelationDiff<Integer> diff = RelationDiff.of(m2MProjectSkillDao.findSkillStatesForProject(projectId), requested);
+
+        if (diff.isEmpty()) {
+            return;
+        }
+
+        m2MProjectSkillDao.insertSkillsForProject(projectId, diff.getInserted().keySet());
+        m2MProjectSkillDao.setSkillsActiveForProject(projectId, diff.getReactivated().keySet(), true);
+        m2MProjectSkillDao.setSkillsActiveForProject(projectId, diff.getRemoved(), false);
+
+        delta.getAddedSkills().addAll(diff.getAdded().keySet());
+        delta.getRemovedSkills().addAll(diff.getRemoved());
+        delta.getChangedFields().add("skills");
+    }
+
+    /**
+     * Updates the keywords of the project to the requested ones, creating the keywords that do not exist.
+     *
+     * @param projectId The ID of the project.
+     * @param requested The names of the requested keywords.
+     * @param delta The changes made to the project, where the added and removed keywords are added.
+     */
+    private void updateKeywords(int projectId, Set<String> requested, ProjectDelta delta) {
+        RelationDiff<String> diff = RelationDiff.of(m2MKeywordDao.findKeywordStatesByProject(projectId), requested);
+
+        if (diff.isEmpty()) {
+            return;
+        }
+
+        Set<String> inserted = diff.getInserted().keySet();
+        if (!inserted.isEmpty()) {
+            keywordBean.createAndGetKeywords(new HashSet<>(inserted));
+            m2MKeywordDao.insertKeywordsForProject(projectId, inserted);
+        }
+
+        m2MKeywordDao.setKeywordsActiveForProject(projectId, diff.getReactivated().keySet(), true);
+        m2MKeywordDao.setKeywordsActiveForProject(projectId, diff.getRemoved(), false);
+
+        delta.getAddedKeywords().addAll(diff.getAdded().keySet());
+        delta.getRemovedKeywords().addAll(diff.getRemoved());
+        delta.getChangedFields().add("keywords");
+    }
+
+    /**
+     * Updates the component resources of the project to the requested ones, with one statement per quantity.
+     *
+     * @param projectId The ID of the project.
+     * @param requested The quantity of each requested component resource, by id.
+     * @param delta The changes made to the project, where the added, changed and removed resources are added.
+     */
+    private void updateComponentResources(int projectId, Map<Integer, Integer> requested, ProjectDelta delta) {
+        Map<Integer, Integer> active = new HashMap<>();
+        Set<Integer> inactive = new HashSet<>();
+        m2MComponentProjectDao.findComponentStatesByProjectId(projectId, active, inactive);
+
+        RelationDiff<Integer> diff = RelationDiff.of(active, inactive, requested);
+
+        if (diff.isEmpty()) {
+            return;
+        }
+
+        RelationDiff.byQuantity(diff.getInserted()).forEach((quantity, ids) ->
+                m2MComponentProjectDao.insertForProject(projectId, ids, quantity));
+
+        Map<Integer, Integer> activated = new HashMap<>(diff.getReactivated());
+        activated.putAll(diff.getChanged());
+        RelationDiff.byQuantity(activated).forEach((quantity, ids) ->
+                m2MComponentProjectDao.setActiveWithQuantityByComponentIdsAndProjectId(projectId, ids, quantity));
+
+        m2MComponentProjectDao.setInactiveByComponentIdsAndProjectId(projectId, diff.getRemoved());
+
+        diff.getAdded().forEach((id, quantity) -> delta.getAddedResources().add(new CRQuantity(id, quantity)));
+        diff.getChanged().forEach((id, quantity) -> delta.getChangedResources().add(new CRQuantity(id, quantity)));
+        delta.getRemovedResources().addAll(diff.getRemoved());
+        delta.getChangedFields().add("resources");
+    }
+}
@@ -0,0 +1,159 @@
+package domcast.finalprojbackend.bean.project;
+
+import domcast.finalprojbackend.bean.JsonSerializationBean;
+import domcast.finalprojbackend.bean.broadcast.BroadcastBean;
+import domcast.finalprojbackend.dao.ProjectChangeDao;
+import domcast.finalprojbackend.dto.messageDto.BroadcastMessage;
+import domcast.finalprojbackend.dto.messageDto.RealtimeEvent;
+import domcast.finalprojbackend.enums.ProjectChangeKindEnum;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.persistence.PersistenceException;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bean that keeps the change version of the projects, increased by every change to a project, its tasks, members,
+ * records or relations, and records what changed at each version so the clients fetch only the changes since the
+ * version they have.
+ * The version is increased once per transaction and project, and the changes of the transaction share it.
+ * When the transaction commits, a version hint is sent to the chat sessions of the project.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Stateless
+public class ProjectVersionBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(ProjectVersionBean.class);
+
+    // Prefix of the key of the version of a project in the resources of the transaction
+    private static final String VERSION_RESOURCE = ProjectVersionBean.class.getName() + ".version.";
+
+    // Entity id of the changes to the basic information and the relations, which are sent whole
+    private static final List<Integer> WHOLE = List.of(0);
+
+    @EJB
+    private ProjectChangeDao projectChangeDao;
+
+    @EJB
+    private BroadcastBean broadcastBean;
+
+    @EJB
+    private JsonSerializationBean jsonSerializationBean;
+
+    @Resource
+    private TransactionSynchronizationRegistry transactionRegistry;
+
+    @Resource
+    private SessionContext sessionContext;
+
+    // Default constructor
+    public ProjectVersionBean() {
+    }
+
+    /**
+     * Records a change to the basic information or to a relation of a project
+     * @param projectId the id of the project
+     * @param kind what changed
+     * @return the change version of the project the change was made at
+     * @throws PersistenceException if the change cannot be recorded
+     */
+    public long recordChange(int projectId, ProjectChangeKindEnum kind) throws PersistenceException {
+        return recordChanges(projectId, kind, WHOLE);
+    }
+
+    /**
+     * Records a change to a task, a member or a record of a project
+     * @param projectId the id of the project
+     * @param kind what changed
+     * @param entityId the id of the task, user or record changed
+     * @return the change version of the project the change was made at
+     * @throws PersistenceException if the change cannot be recorded
+     */
+    public long recordChange(int projectId, ProjectChangeKindEnum kind, int entityId) throws PersistenceException {
+        return recordChanges(projectId, kind, List.of(entityId));
+    }
+
+    /**
+     * Records changes to tasks, members or records of a project
+     * @param projectId the id of the project
+     * @param kind what changed
+     * @param entityIds the ids of the tasks, users or records changed
+     * @return the change version of the project the changes were made at
+     * @throws PersistenceException if the changes cannot be recorded
+     */
+    public long recordChanges(int projectId, ProjectChangeKindEnum kind, Collection<Integer> entityIds) throws PersistenceException {
+        if (entityIds == null || entityIds.isEmpty()) {
+            return -1;
+        }
+
+        long version = versionInTransaction(projectId);
+        projectChangeDao.persistChanges(projectId, version, kind, entityIds);
+
+        logger.info("Recorded {} {} changes of project {} at version {}", entityIds.size(), kind, projectId, version);
+        return version;
+    }
+
+    /**
+     * Finds the change version of a project for the current transaction, increasing it on the first change
+     * @param projectId the id of the project
+     * @return the change version
+     */
+    private long versionInTransaction(int projectId) {
+        String key = VERSION_RESOURCE + projectId;
+
+        Object current = transactionRegistry.getResource(key);
+        if (current != null) {
+            return (Long) current;
+        }
+
+        long version = projectChangeDao.incrementChangeVersion(projectId);
+        transactionRegistry.putResource(key, version);
+
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+                // Nothing to do, the transaction may still roll back
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                // Only a committed version is announced, through the business object so it runs in its own transaction
+                if (status == Status.STATUS_COMMITTED) {
+                    sessionContext.getBusinessObject(ProjectVersionBean.class).sendVersionHint(projectId, version);
+                }
+            }
+        });
+
+        return version;
+    }
+
+    /**
+     * Sends the new change version to the chat sessions of a project, so the clients fetch the changes.
+     * Sent asynchronously once the transaction of the change has committed, in a transaction of its own.
+     * The hint is an optimization, so failing to send it is only logged.
+     * @param projectId the id of the project
+     * @param version the new change version
+     */
+    @Asynchronous
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void sendVersionHint(int projectId, long version) {
+        RealtimeEvent event = new RealtimeEvent(RealtimeEvent.VERSION, 0);
+        event.setProjectId(projectId);
+        event.setVersion(version);
+
+        try {
+            broadcastBean.publish(BroadcastMessage.toProject(projectId, jsonSerializationBean.writeRealtimeEvent(event)));
+        } catch (Exception e) {
+            logger.error("Error sending the version hint of project {}: {}", projectId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package domcast.finalprojbackend.bean.project;
+
+import java.util.*;
+
+/**
+ * Difference between the relations of a project and the ones requested in an edit, such as its skills, keywords
+ * or component resources. The relations are never deleted, only set inactive, so a requested relation is either
+ * inserted, if the project never had it, reactivated, or kept with a changed quantity.
+ * The relations without a quantity use the same quantity for all of them.
+ * @param <K> the type of the key of the related entity
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+public final class RelationDiff<K> {
+
+    private final Map<K, Integer> inserted = new LinkedHashMap<>();
+    private final Map<K, Integer> reactivated = new LinkedHashMap<>();
+    private final Map<K, Integer> changed = new LinkedHashMap<>();
+    private final Set<K> removed = new LinkedHashSet<>();
+
+    private RelationDiff() {
+    }
+
+    /**
+     * Computes the difference between the current and the requested relations
+     * @param active the quantity of each active relation
+     * @param inactive the keys of the inactive relations
+     * @param requested the quantity of each requested relation
+     * @param <K> the type of the key of the related entity
+     * @return the difference
+     */
+    public static <K> RelationDiff<K> of(Map<K, Integer> active, Set<K> inactive, Map<K, Integer> requested) {
+        RelationDiff<K> diff = new RelationDiff<>();
+
+        for (Map.Entry<K, Integer> entry : requested.entrySet()) {
+            K key = entry.getKey();
+            Integer current = active.get(key);
+
+            if (current == null && inactive.contains(key)) {
+                diff.reactivated.put(key, entry.getValue());
+            } else if (current == null) {
+                diff.inserted.put(key, entry.getValue());
+            } else if (!current.equals(entry.getValue())) {
+                diff.changed.put(key, entry.getValue());
+            }
+        }
+
+        for (K key : active.keySet()) {
+            if (!requested.containsKey(key)) {
+                diff.removed.add(key);
+            }
+        }
+
+        return diff;
+    }
+
+    /**
+     * Computes the difference between the current and the requested relations without a quantity
+     * @param states whether each current relation is active, by key
+     * @param requested the keys of the requested relations
+     * @param <K> the type of the key of the related entity
+     * @return the difference
+     */
+    public static <K> RelationDiff<K> of(Map<K, Boolean> states, Set<K> requested) {
+        Map<K, Integer> active = new LinkedHashMap<>();
+        Set<K> inactive = new LinkedHashSet<>();
+        states.forEach((key, isActive) -> {
+            if (isActive) {
+                active.put(key, 1);
+            } else {
+                inactive.add(key);
+            }
+        });
+
+        Map<K, Integer> quantities = new LinkedHashMap<>();
+        for (K key : requested) {
+            quantities.put(key, 1);
+        }
+
+        return of(active, inactive, quantities);
+    }
+
+    /**
+     * Groups relations by quantity, so each group is written in a single statement
+     * @param relations the quantity of each relation
+     * @param <K> the type of the key of the related entity
+     * @return the keys of the relations, by quantity
+     */
+    public static <K> Map<Integer, Set<K>> byQuantity(Map<K, Integer> relations) {
+        Map<Integer, Set<K>> groups = new TreeMap<>();
+        relations.forEach((key, quantity) -> groups.computeIfAbsent(quantity, q -> new LinkedHashSet<>()).add(key));
+        return groups;
+    }
+
+    /**
+     * Returns the relations the project never had, to be inserted
+     * @return the quantity of each relation to be inserted
+     */
+    public Map<K, Integer> getInserted() {
+        return inserted;
+    }
+
+    /**
+     * Returns the inactive relations requested again, to be set active
+     * @return the quantity of each relation to be set active
+     */
+    public Map<K, Integer> getReactivated() {
+        return reactivated;
+    }
+
+    /**
+     * Returns the active relations requested with another quantity
+     * @return the new quantity of each changed relation
+     */
+    public Map<K, Integer> getChanged() {
+        return changed;
+    }
+
+    /**
+     * Returns the active relations not requested, to be set inactive
+     * @return the keys of the relations to be set inactive
+     */
+    public Set<K> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Returns the relations added to the project, inserted or reactivated
+     * @return the quantity of each added relation
+     */
+    public Map<K, Integer> getAdded() {
+        Map<K, Integer> added = new LinkedHashMap<>(inserted);
+        added.putAll(reactivated);
+        return added;
+    }
+
+    /**
+     * Checks if the relations are unchanged
+     * @return true if nothing is to be written
+     */
+    public boolean isEmpty() {
+        return inserted.isEmpty() && reactivated.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+}
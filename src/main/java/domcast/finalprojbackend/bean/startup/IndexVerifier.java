@@ -0,0 +1,145 @@
+package domcast.finalprojbackend.bean.startup;
+
+import jakarta.ejb.Stateless;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Index;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
+
+import java.io.Serializable;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Bean that checks, at startup, that the indexes declared in the entities exist in the database.
+ * The schema is not always generated by the application, so a missing index is only reported with a warning,
+ * naming the statement that creates it.
+ */
+@Stateless
+public class IndexVerifier implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(IndexVerifier.class);
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Compares the indexes declared in the entities with the indexes found in the database
+     * @return the number of declared indexes missing in the database
+     */
+    public int verify() {
+        List<Class<?>> entityClasses = new ArrayList<>();
+        for (EntityType<?> entityType : em.getMetamodel().getEntities()) {
+            entityClasses.add(entityType.getJavaType());
+        }
+
+        Map<String, List<Index>> declaredIndexes = declaredIndexes(entityClasses);
+        int[] missing = {0};
+
+        try {
+            em.unwrap(Session.class).doWork(connection -> {
+                DatabaseMetaData metaData = connection.getMetaData();
+
+                for (Map.Entry<String, List<Index>> table : declaredIndexes.entrySet()) {
+                    Collection<List<String>> existingIndexes = existingIndexes(metaData, connection.getCatalog(), table.getKey());
+
+                    for (Index index : table.getValue()) {
+                        List<String> columns = columns(index);
+                        if (existingIndexes.stream().noneMatch(existing -> startsWith(existing, columns))) {
+                            missing[0]++;
+                            logger.warn("Missing index {} on {}: CREATE INDEX {} ON {} ({})",
+                                    index.name(), table.getKey(), index.name(), table.getKey(), index.columnList());
+                        }
+                    }
+                }
+            });
+        } catch (Exception e) {
+            logger.error("Error verifying the database indexes", e);
+            return -1;
+        }
+
+        if (missing[0] == 0) {
+            logger.info("All {} declared indexes exist in the database", declaredIndexes.values().stream().mapToInt(List::size).sum());
+        }
+
+        return missing[0];
+    }
+
+    /**
+     * Collects the indexes declared in the @Table annotation of a set of entities
+     * @param entityClasses the entity classes
+     * @return the declared indexes, by table name
+     */
+    public static Map<String, List<Index>> declaredIndexes(Collection<Class<?>> entityClasses) {
+        Map<String, List<Index>> declaredIndexes = new TreeMap<>();
+
+        for (Class<?> entityClass : entityClasses) {
+            Table table = entityClass.getAnnotation(Table.class);
+            if (table != null && table.indexes().length > 0) {
+                declaredIndexes.computeIfAbsent(table.name(), name -> new ArrayList<>()).addAll(Arrays.asList(table.indexes()));
+            }
+        }
+
+        return declaredIndexes;
+    }
+
+    /**
+     * Splits the column list of an index in normalized column names
+     * @param index the index
+     * @return the columns of the index, in order
+     */
+    public static List<String> columns(Index index) {
+        List<String> columns = new ArrayList<>();
+        for (String column : index.columnList().split(",")) {
+            columns.add(normalize(column));
+        }
+        return columns;
+    }
+
+    /**
+     * Reads the indexes of a table from the database metadata, trying the table name as declared, in lower and in upper case
+     * @return the columns of each index of the table, in order
+     */
+    private Collection<List<String>> existingIndexes(DatabaseMetaData metaData, String catalog, String table) throws SQLException {
+        for (String tableName : new LinkedHashSet<>(List.of(table, table.toLowerCase(), table.toUpperCase()))) {
+            Map<String, TreeMap<Short, String>> indexes = new HashMap<>();
+
+            try (ResultSet resultSet = metaData.getIndexInfo(catalog, null, tableName, false, true)) {
+                while (resultSet.next()) {
+                    String indexName = resultSet.getString("INDEX_NAME");
+                    String column = resultSet.getString("COLUMN_NAME");
+                    if (indexName != null && column != null) {
+                        indexes.computeIfAbsent(indexName, name -> new TreeMap<>())
+                                .put(resultSet.getShort("ORDINAL_POSITION"), normalize(column));
+                    }
+                }
+            }
+
+            if (!indexes.isEmpty()) {
+                List<List<String>> existingIndexes = new ArrayList<>();
+                indexes.values().forEach(columns -> existingIndexes.add(new ArrayList<>(columns.values())));
+                return existingIndexes;
+            }
+        }
+
+        return Collections.emptyList();
+    }
+
+    /**
+     * Checks if an existing index can serve a declared one, that is, if it starts with the same columns
+     */
+    private static boolean startsWith(List<String> existing, List<String> declared) {
+        return existing.size() >= declared.size() && existing.subList(0, declared.size()).equals(declared);
+    }
+
+    private static String normalize(String column) {
+        return column.trim().replace("'", "").replace("`", "").replace("\"", "").toLowerCase();
+    }
+}
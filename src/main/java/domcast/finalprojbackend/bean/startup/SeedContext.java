@@ -0,0 +1,253 @@
+package domcast.finalprojbackend.bean.startup;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * What the SyntheticDataGenerator needs to write any unit of any table on its own: the plan, the ids of the
+ * vocabulary already in the database, and the id after which each table is filled.
+ * Every choice of a unit comes from a random generator seeded by the plan, the table and the unit, so a unit is
+ * the same whatever the chunk, the thread or the order it is written in, and the tables agree with each other,
+ * such as the tasks of a project being assigned to its members.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+public final class SeedContext implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Date from which every synthetic date is counted, so the dataset does not depend on the day it is generated
+    public static final LocalDateTime ORIGIN = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    // Largest number of skills, interests or keywords of a user or project
+    public static final int MAX_TAGS = 3;
+
+    private final SeedPlan plan;
+    private final int maxMembers;
+    private final Map<SeedTable, Integer> lastIds;
+    private final int[] labIds;
+    private final int[] skillIds;
+    private final int[] interestIds;
+    private final int[] keywordIds;
+    private final String passwordHash;
+
+    /**
+     * Constructor with all the attributes
+     * @param plan the plan of the dataset
+     * @param maxMembers the maximum number of members of a project
+     * @param lastIds the highest id of each table before the dataset is written
+     * @param labIds the ids of the labs
+     * @param skillIds the ids of the skills
+     * @param interestIds the ids of the interests
+     * @param keywordIds the ids of the keywords
+     * @param passwordHash the hash of the password of every synthetic user
+     */
+    public SeedContext(SeedPlan plan, int maxMembers, Map<SeedTable, Integer> lastIds, int[] labIds, int[] skillIds,
+                       int[] interestIds, int[] keywordIds, String passwordHash) {
+        if (labIds.length == 0 || skillIds.length == 0 || interestIds.length == 0 || keywordIds.length == 0) {
+            throw new IllegalArgumentException("The labs, skills, interests and keywords must exist before the synthetic dataset");
+        }
+
+        this.plan = plan;
+        this.maxMembers = Math.max(1, maxMembers);
+        this.lastIds = new EnumMap<>(SeedTable.class);
+        this.lastIds.putAll(lastIds);
+        this.labIds = labIds.clone();
+        this.skillIds = skillIds.clone();
+        this.interestIds = interestIds.clone();
+        this.keywordIds = keywordIds.clone();
+        this.passwordHash = passwordHash;
+    }
+
+    // Getters
+
+    public SeedPlan getPlan() {
+        return plan;
+    }
+
+    public int getMaxMembers() {
+        return maxMembers;
+    }
+
+    public String getPasswordHash() {
+        return passwordHash;
+    }
+
+    /**
+     * Gets the random generator of a unit of a table
+     * @param table the table
+     * @param unit the index of the unit
+     * @return a generator that always gives the same values for the same seed, table and unit
+     */
+    public SplittableRandom random(SeedTable table, long unit) {
+        long seed = plan.seed() * 0x9E3779B97F4A7C15L + table.ordinal();
+        return new SplittableRandom(seed * 0xBF58476D1CE4E5B9L + unit);
+    }
+
+    /**
+     * Gets the number of units of a table
+     * @param table the table
+     * @return the number of users, projects, messages or records of the table
+     */
+    public int units(SeedTable table) {
+        return switch (table) {
+            case USER, USER_SKILL, USER_INTEREST -> plan.users();
+            case PROJECT, PROJECT_SKILL, PROJECT_KEYWORD, PROJECT_USER, TASK -> plan.projects();
+            case MESSAGE -> plan.messages();
+            case RECORD -> plan.records();
+        };
+    }
+
+    /**
+     * Gets the largest number of rows of a unit of a table
+     * @param table the table
+     * @return the number of rows
+     */
+    public int rowsPerUnit(SeedTable table) {
+        return switch (table) {
+            case USER_SKILL, USER_INTEREST, PROJECT_SKILL, PROJECT_KEYWORD -> MAX_TAGS;
+            case PROJECT_USER -> maxMembers;
+            case TASK -> plan.tasksPerProject();
+            default -> 1;
+        };
+    }
+
+    /**
+     * Gets the id of a row of a unit, after the ids already in the table
+     * @param table the table
+     * @param unit the index of the unit
+     * @param row the index of the row in the unit
+     * @return the id of the row
+     */
+    public int id(SeedTable table, int unit, int row) {
+        return lastIds.getOrDefault(table, 0) + unit * rowsPerUnit(table) + row + 1;
+    }
+
+    public int userId(int user) {
+        return id(SeedTable.USER, user, 0);
+    }
+
+    public int projectId(int project) {
+        return id(SeedTable.PROJECT, project, 0);
+    }
+
+    public int taskId(int project, int task) {
+        return id(SeedTable.TASK, project, task);
+    }
+
+    /**
+     * Creation date, start date and end date of a synthetic project or task
+     * @param creation the creation date
+     * @param start the projected start date
+     * @param end the deadline
+     */
+    public record Dates(LocalDateTime creation, LocalDateTime start, LocalDateTime end) implements Serializable {
+    }
+
+    /**
+     * Gets the dates of a synthetic project, drawn first from the generator of the project, so the projects and
+     * their tasks agree on them
+     * @param project the index of the project
+     * @return the dates of the project
+     */
+    public Dates projectDates(int project) {
+        return projectDates(random(SeedTable.PROJECT, project));
+    }
+
+    /**
+     * Draws the dates of a synthetic project from the generator of the project, before any other value of it
+     * @param random the generator of the project
+     * @return the dates of the project
+     */
+    public static Dates projectDates(SplittableRandom random) {
+        LocalDateTime creation = ORIGIN.plusMinutes(random.nextInt(2 * 365 * 24 * 60));
+        LocalDateTime start = creation.plusDays(1 + random.nextInt(30));
+        return new Dates(creation, start, start.plusDays(30 + random.nextInt(150)));
+    }
+
+    /**
+     * Gets the dates of a task of a synthetic project, within the dates of the project.
+     * The last task is the presentation, at the deadline of the project, and each other task starts in its own
+     * slot of the project and ends before the next slot, so before the presentation.
+     * @param random the generator of the tasks of the project
+     * @param project the dates of the project
+     * @param row the index of the task in the project
+     * @return the dates of the task
+     */
+    public Dates taskDates(SplittableRandom random, Dates project, int row) {
+        int tasks = plan.tasksPerProject();
+
+        if (row == tasks - 1) {
+            return new Dates(project.creation(), project.end(), project.end());
+        }
+
+        long slotMinutes = Duration.between(project.start(), project.end()).toMinutes() / (tasks - 1);
+        LocalDateTime start = project.start().plusMinutes(slotMinutes * row);
+        return new Dates(project.creation(), start, start.plusMinutes(1 + random.nextLong(Math.max(1, slotMinutes - 1))));
+    }
+
+    /**
+     * Chooses a value of a vocabulary
+     * @param random the generator of the unit
+     * @param values the vocabulary
+     * @return one of the values
+     */
+    public static <T> T pick(SplittableRandom random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    public int lab(SplittableRandom random) {
+        return labIds[random.nextInt(labIds.length)];
+    }
+
+    /**
+     * Chooses up to MAX_TAGS different skills, interests or keywords
+     * @param random the generator of the unit
+     * @param table the table of the relation
+     * @return the ids chosen
+     */
+    public int[] tags(SplittableRandom random, SeedTable table) {
+        int[] ids = switch (table) {
+            case USER_SKILL, PROJECT_SKILL -> skillIds;
+            case USER_INTEREST -> interestIds;
+            case PROJECT_KEYWORD -> keywordIds;
+            default -> throw new IllegalArgumentException("Table without tags: " + table);
+        };
+
+        // Consecutive ids from a random start are different without keeping the chosen ones
+        int count = 1 + random.nextInt(Math.min(MAX_TAGS, ids.length));
+        int start = random.nextInt(ids.length);
+        int[] tags = new int[count];
+        for (int i = 0; i < count; i++) {
+            tags[i] = ids[(start + i) % ids.length];
+        }
+        return tags;
+    }
+
+    /**
+     * Gets the members of a synthetic project, the first of them its main manager.
+     * Every table that needs the members of a project, the members themselves, the tasks, the messages and the
+     * records, asks this method, so they agree without reading each other.
+     * @param project the index of the project
+     * @return the ids of the members
+     */
+    public int[] members(int project) {
+        SplittableRandom random = random(SeedTable.PROJECT_USER, project);
+        int count = 1 + random.nextInt(Math.min(maxMembers, plan.users()));
+
+        int[] members = new int[count];
+        int found = 0;
+        while (found < count) {
+            int userId = userId(random.nextInt(plan.users()));
+            if (Arrays.stream(members, 0, found).noneMatch(id -> id == userId)) {
+                members[found++] = userId;
+            }
+        }
+        return members;
+    }
+}
@@ -0,0 +1,56 @@
+package domcast.finalprojbackend.bean.startup;
+
+import java.io.Serializable;
+
+/**
+ * Size and seed of the data created when the application starts on an empty database, read from system properties.
+ * The domcast.seed.mode system property selects the data:
+ * - default (default): the handful of default users and projects of the StartupCreator.
+ * - load: the default data plus a synthetic dataset of the sizes below, to run benchmarks against realistic volumes.
+ * The same seed and sizes always generate the same dataset.
+ * @param seed the seed of every random choice, domcast.seed.seed
+ * @param users the number of synthetic users, domcast.seed.users
+ * @param projects the number of synthetic projects, domcast.seed.projects
+ * @param tasksPerProject the number of tasks of each synthetic project, domcast.seed.tasksPerProject
+ * @param messages the number of synthetic personal and project messages, domcast.seed.messages
+ * @param records the number of synthetic project records, domcast.seed.records
+ * @param batchSize the number of rows sent to the database in each JDBC batch, domcast.seed.batchSize
+ * @param chunkSize the number of rows written in each transaction, domcast.seed.chunkSize
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+public record SeedPlan(long seed, int users, int projects, int tasksPerProject, int messages, int records,
+                       int batchSize, int chunkSize) implements Serializable {
+
+    public static final String MODE_PROPERTY = "domcast.seed.mode";
+    public static final String SEED_PROPERTY = "domcast.seed.seed";
+    public static final String LOAD = "load";
+
+    public static final long DEFAULT_SEED = 42L;
+
+    private static final String PREFIX = "domcast.seed.";
+
+    /**
+     * Checks if the synthetic dataset was asked for
+     * @return true if the seed mode is load
+     */
+    public static boolean isLoadMode() {
+        return LOAD.equalsIgnoreCase(System.getProperty(MODE_PROPERTY));
+    }
+
+    /**
+     * Reads the plan from the system properties, with production-like volumes by default
+     * @return the plan
+     */
+    public static SeedPlan fromSystemProperties() {
+        return new SeedPlan(
+                Long.getLong(SEED_PROPERTY, DEFAULT_SEED),
+                Math.max(2, Integer.getInteger(PREFIX + "users", 100_000)),
+                Math.max(1, Integer.getInteger(PREFIX + "projects", 50_000)),
+                Math.max(1, Integer.getInteger(PREFIX + "tasksPerProject", 5)),
+                Math.max(0, Integer.getInteger(PREFIX + "messages", 1_000_000)),
+                Math.max(0, Integer.getInteger(PREFIX + "records", 1_000_000)),
+                Math.max(1, Integer.getInteger(PREFIX + "batchSize", 500)),
+                Math.max(1, Integer.getInteger(PREFIX + "chunkSize", 10_000)));
+    }
+}
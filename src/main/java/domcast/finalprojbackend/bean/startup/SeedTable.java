@@ -0,0 +1,39 @@
+package domcast.finalprojbackend.bean.startup;
+
+/**
+ * Tables filled by the SyntheticDataGenerator.
+ * The tables of a layer only reference the tables of the previous layers, so they are written in parallel.
+ * Each table is written in units, a user, a project, a message or a record, of one or more rows.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+public enum SeedTable {
+
+    USER (0),
+    PROJECT (0),
+    USER_SKILL (1),
+    USER_INTEREST (1),
+    PROJECT_SKILL (1),
+    PROJECT_KEYWORD (1),
+    PROJECT_USER (1),
+    TASK (1),
+    MESSAGE (1),
+    RECORD (2);
+
+    // Number of layers
+    public static final int LAYERS = 3;
+
+    // The layer of the table, written after every table of the previous layers
+    private final int layer;
+
+    // Constructor with parameters
+    SeedTable(int layer) {
+        this.layer = layer;
+    }
+
+    // Getter
+
+    public int getLayer() {
+        return layer;
+    }
+}
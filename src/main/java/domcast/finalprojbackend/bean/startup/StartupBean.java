@@ -1,33 +1,62 @@
 package domcast.finalprojbackend.bean.startup;
 
+import domcast.finalprojbackend.dao.SystemDao;
 import jakarta.annotation.PostConstruct;
-import jakarta.ejb.Singleton;
-import jakarta.ejb.Startup;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.io.Serializable;
 
 /**
- * Bean that creates the default labs and the default user
+ * Bean that creates the default labs and the default user, and the synthetic dataset when the seed mode is load
  */
 @Singleton
 @Startup
 public class StartupBean implements Serializable {
 
+    private static final Logger logger = LogManager.getLogger(StartupBean.class);
+
+    // Time after the startup before the synthetic dataset starts being generated
+    private static final long SYNTHETIC_DATA_DELAY_MILLIS = 1000;
+
     @Inject
     StartupCreator startupCreator;
 
+    @Inject
+    SyntheticDataGenerator syntheticDataGenerator;
+
+    @EJB
+    SystemDao systemDao;
+
+    @EJB
+    IndexVerifier indexVerifier;
+
     @PersistenceContext
     EntityManager em;
 
+    @Resource
+    TimerService timerService;
+
     /**
      * Creates the default labs, the default user and sets the default system variables
      */
     @PostConstruct
     public void init() {
+        // Count the second-level cache hits from the start
+        systemDao.enableCacheStatistics();
+
+        // Warn if the deployment does not enable the second-level cache the reference entities rely on
+        systemDao.verifyCacheConfiguration();
+
+        // Warn about the declared indexes missing in the database
+        indexVerifier.verify();
+
         // Check if the database is empty
         try {
             em.createQuery("SELECT 1 FROM LabEntity ").setMaxResults(1).getSingleResult();
@@ -44,5 +73,26 @@ public class StartupBean implements Serializable {
         startupCreator.createDefaultUsers();
         startupCreator.setDefaultSystemVariables();
         startupCreator.createDefaultProjects();
+
+        // Production-like volumes on top of the default data, to run benchmarks against. Generated by a timer,
+        // which only starts once the default data is committed, so the deployment is not held up by it
+        if (SeedPlan.isLoadMode()) {
+            timerService.createSingleActionTimer(SYNTHETIC_DATA_DELAY_MILLIS, new TimerConfig(SeedPlan.fromSystemProperties(), false));
+        }
+    }
+
+    /**
+     * Generates the synthetic dataset of the plan of the timer, outside of any transaction, as the generator writes
+     * each chunk in a transaction of its own
+     * @param timer the expired timer, with the plan of the dataset as its info
+     */
+    @Timeout
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void generateSyntheticData(Timer timer) {
+        try {
+            syntheticDataGenerator.generate((SeedPlan) timer.getInfo());
+        } catch (Exception e) {
+            logger.error("Error generating the synthetic dataset", e);
+        }
     }
 }
\ No newline at end of file
@@ -36,6 +36,55 @@ public class StartupCreator implements Serializable {
     private static final long serialVersionUID = 1L;
     private static final Logger logger = LogManager.getLogger(SystemBean.class);
 
+    // Vocabulary of the default data, also used by the SyntheticDataGenerator
+    static final String[] SKILL_NAMES = {"Java", "Python", "JavaScript", "C++", "HTML", "CSS", "SQL", "Ruby", "PHP", "Swift"};
+    static final String[] INTEREST_NAMES = {"Reading", "Traveling", "Cybersecurity", "Hiking", "Photography", "Music", "Art", "Gaming", "Coding", "Sports"};
+    static final String[] KEYWORD_NAMES = {"Climate", "AI", "Quantum", "Cancer", "Space", "Coding", "Autonomous", "Blockchain", "Cybersecurity", "Genetic", "Research", "Development", "Study", "Treatment", "Gaming", "Energy", "Vehicles", "Technology", "Enhancement", "Engineering"};
+    static final String[] FIRST_NAMES = {"John", "Admin", "Bob", "Alice", "Charlie", "Eve", "John", "Trent", "Oscar", "Peggy"};
+    static final String[] LAST_NAMES = {"Doe", "Admin", "Johnson", "Williams", "Brown", "Jones", "Miller", "Davis", "Garcia", "Rodriguez"};
+    static final String[] NICKNAMES = {"johnny", "admin", "bobby", "alice", "charlie", "eve", "mallory", "trent", "oscar", "peggy"};
+    static final String[] PROJECT_NAMES = {
+            "Climate Change Research",
+            "AI Development",
+            "Quantum Computing Study",
+            "Cancer Treatment Research",
+            "Space Exploration",
+            "Renewable Energy Development",
+            "Autonomous Vehicles",
+            "Blockchain Technology",
+            "Cybersecurity Enhancement",
+            "Genetic Engineering",
+            "Urban Sustainability Initiatives",
+            "Deep Learning Applications",
+            "Smart City Infrastructure",
+            "Advanced Robotics Engineering",
+            "Virtual Reality Experiences",
+            "Augmented Reality in Education",
+            "Internet of Things (IoT) Security",
+            "Biometric Authentication Technologies",
+            "Nanotechnology in Medicine",
+            "Renewable Resource Optimization",
+            "Wearable Health Monitors",
+            "3D Printing Innovations",
+            "Agricultural Drones and Automation",
+            "Clean Water Technologies",
+            "Waste Management Solutions",
+            "Solar Power Efficiency",
+            "Wind Energy Harvesting",
+            "Machine Learning in Finance",
+            "Neural Networks for Natural Language Processing",
+            "Bioinformatics and Genomic Sequencing"
+    };
+    static final String[] PROJECT_DESCRIPTIONS = {"Researching the effects of climate change", "Developing artificial intelligence algorithms", "Studying the principles of quantum computing", "Researching new cancer treatments", "Exploring outer space", "Developing renewable energy sources", "Creating autonomous vehicles", "Implementing blockchain technology", "Enhancing cybersecurity measures", "Engineering genetic modifications"};
+    static final String[] TASK_NAMES = {"Design Phase", "Development Phase", "Testing Phase", "Deployment Phase", "Maintenance Phase"};
+    static final String[] TASK_DESCRIPTIONS = {
+            "Design the architecture of the project",
+            "Develop the core features of the project",
+            "Test the project for any bugs or issues",
+            "Deploy the project in the production environment",
+            "Maintain the project after deployment"
+    };
+
     @PersistenceContext
     private EntityManager em;
 
@@ -87,12 +136,11 @@ public class StartupCreator implements Serializable {
     public void createDefaultSkills() {
         logger.info("Creating default skills");
 
-        String[] skillNames = {"Java", "Python", "JavaScript", "C++", "HTML", "CSS", "SQL", "Ruby", "PHP", "Swift"};
         SkillTypeEnum[] skillTypes = {SkillTypeEnum.HARDWARE, SkillTypeEnum.KNOWLEDGE, SkillTypeEnum.TOOLS, SkillTypeEnum.SOFTWARE,SkillTypeEnum.HARDWARE, SkillTypeEnum.KNOWLEDGE, SkillTypeEnum.TOOLS, SkillTypeEnum.SOFTWARE,SkillTypeEnum.HARDWARE, SkillTypeEnum.KNOWLEDGE};
 
         for (int i = 0; i < 10; i++) {
             SkillEntity skill = new SkillEntity();
-            skill.setName(skillNames[i]);
+            skill.setName(SKILL_NAMES[i]);
             skill.setType(skillTypes[i]);
             em.persist(skill);
         }
@@ -108,12 +156,11 @@ public class StartupCreator implements Serializable {
     public void createDefaultInterests() {
         logger.info("Creating default interests");
 
-        String[] interestNames = {"Reading", "Traveling", "Cybersecurity", "Hiking", "Photography", "Music", "Art", "Gaming", "Coding", "Sports"};
         InterestEnum[] interestTypes = {InterestEnum.KNOWLEDGE_AREA, InterestEnum.CAUSE, InterestEnum.THEME, InterestEnum.KNOWLEDGE_AREA, InterestEnum.CAUSE, InterestEnum.THEME, InterestEnum.KNOWLEDGE_AREA, InterestEnum.CAUSE, InterestEnum.THEME, InterestEnum.KNOWLEDGE_AREA};
 
         for (int i = 0; i < 10; i++) {
             InterestEntity interest = new InterestEntity();
-            interest.setName(interestNames[i]);
+            interest.setName(INTEREST_NAMES[i]);
             interest.setType(interestTypes[i]);
             em.persist(interest);
         }
@@ -129,9 +176,7 @@ public class StartupCreator implements Serializable {
     public void createDefaultKeywords() {
         logger.info("Creating default keywords");
 
-        String[] keywordNames = {"Climate", "AI", "Quantum", "Cancer", "Space", "Coding", "Autonomous", "Blockchain", "Cybersecurity", "Genetic", "Research", "Development", "Study", "Treatment", "Gaming", "Energy", "Vehicles", "Technology", "Enhancement", "Engineering"};
-
-        for (String keywordName : keywordNames) {
+        for (String keywordName : KEYWORD_NAMES) {
             KeywordEntity keyword = new KeywordEntity();
             keyword.setName(keywordName);
             em.persist(keyword);
@@ -148,9 +193,6 @@ public class StartupCreator implements Serializable {
     public void createDefaultUsers() {
         logger.info("Creating default users");
 
-        String[] firstNames = {"John", "Admin", "Bob", "Alice", "Charlie", "Eve", "John", "Trent", "Oscar", "Peggy"};
-        String[] lastNames = {"Doe", "Admin", "Johnson", "Williams", "Brown", "Jones", "Miller", "Davis", "Garcia", "Rodriguez"};
-        String[] nicknames = {"johnny", "admin", "bobby", "alice", "charlie", "eve", "mallory", "trent", "oscar", "peggy"};
         LabEnum[] labs = {LabEnum.LISBOA, LabEnum.COIMBRA, LabEnum.VISEU, LabEnum.PORTO, LabEnum.VILA_REAL, LabEnum.LISBOA, LabEnum.COIMBRA, LabEnum.VISEU, LabEnum.PORTO, LabEnum.VILA_REAL};
 
         for (int i = 0; i < 10; i++) {
@@ -161,9 +203,9 @@ public class StartupCreator implements Serializable {
                 user = new UserEntity();
                 user.setEmail("user" + (i+1) + "@mail.com");
                 user.setPassword(password);
-                user.setFirstName(firstNames[i]);
-                user.setLastName(lastNames[i]);
-                user.setNickname(nicknames[i]);
+                user.setFirstName(FIRST_NAMES[i]);
+                user.setLastName(LAST_NAMES[i]);
+                user.setNickname(NICKNAMES[i]);
                 user.setBiography("biography" + (i+1));
                 user.setType(TypeOfUserEnum.STANDARD);
 
@@ -214,57 +256,16 @@ public class StartupCreator implements Serializable {
             throw new RuntimeException("User with id 2 not found");
         }
 
-        // Create a Random instance
-        Random random = new Random();
+        // Create a Random instance, seeded so the default projects are the same on every run
+        Random random = new Random(Long.getLong(SeedPlan.SEED_PROPERTY, SeedPlan.DEFAULT_SEED));
 
         // Create a HashSet to store the already used componentResource names and brands
         Set<String> usedComponentResourceNamesAndBrands = new HashSet<>();
 
-        String[] projectNames = {
-                "Climate Change Research",
-                "AI Development",
-                "Quantum Computing Study",
-                "Cancer Treatment Research",
-                "Space Exploration",
-                "Renewable Energy Development",
-                "Autonomous Vehicles",
-                "Blockchain Technology",
-                "Cybersecurity Enhancement",
-                "Genetic Engineering",
-                "Urban Sustainability Initiatives",
-                "Deep Learning Applications",
-                "Smart City Infrastructure",
-                "Advanced Robotics Engineering",
-                "Virtual Reality Experiences",
-                "Augmented Reality in Education",
-                "Internet of Things (IoT) Security",
-                "Biometric Authentication Technologies",
-                "Nanotechnology in Medicine",
-                "Renewable Resource Optimization",
-                "Wearable Health Monitors",
-                "3D Printing Innovations",
-                "Agricultural Drones and Automation",
-                "Clean Water Technologies",
-                "Waste Management Solutions",
-                "Solar Power Efficiency",
-                "Wind Energy Harvesting",
-                "Machine Learning in Finance",
-                "Neural Networks for Natural Language Processing",
-                "Bioinformatics and Genomic Sequencing"
-        };
-        String[] projectDescriptions = {"Researching the effects of climate change", "Developing artificial intelligence algorithms", "Studying the principles of quantum computing", "Researching new cancer treatments", "Exploring outer space", "Developing renewable energy sources", "Creating autonomous vehicles", "Implementing blockchain technology", "Enhancing cybersecurity measures", "Engineering genetic modifications"};
         ProjectStateEnum[] projectStates = {ProjectStateEnum.PLANNING, ProjectStateEnum.READY, ProjectStateEnum.APPROVED, ProjectStateEnum.IN_PROGRESS, ProjectStateEnum.CANCELLED, ProjectStateEnum.FINISHED, ProjectStateEnum.PLANNING, ProjectStateEnum.READY, ProjectStateEnum.APPROVED, ProjectStateEnum.IN_PROGRESS};
         String[] componentResourceNames = { "Climate Data Analyzer", "AI Training Module", "Quantum Computer", "Cancer Cell Detector","Spacecraft", "Solar Panel", "Self-driving Car", "Blockchain Node", "Firewall", "DNA Sequencer"};
         String[] componentResourceBrands = { "ThinkPad", "Surface", "MacBook", "Galaxy", "Xperia", "Pavilion", "Inspiron", "Predator", "Omen", "Alienware" };
         String[] componentResourceSuppliers = { "Intel", "AMD", "Nvidia", "Microsoft", "Apple", "Samsung", "Sony", "LG", "Canon", "Dell" };
-        String[] taskNames = {"Design Phase", "Development Phase", "Testing Phase", "Deployment Phase", "Maintenance Phase"};
-        String[] taskDescriptions = {
-                "Design the architecture of the project",
-                "Develop the core features of the project",
-                "Test the project for any bugs or issues",
-                "Deploy the project in the production environment",
-                "Maintain the project after deployment"
-        };
 
         Set<String> observations = new HashSet<>(Arrays.asList(
                 "Requires regular maintenance",
@@ -307,18 +308,18 @@ public class StartupCreator implements Serializable {
         Set<Long> usedPartNumbers = new HashSet<>();
 
         // Shuffle the skills, interests, labs, and users list
-        Collections.shuffle(skills);
-        Collections.shuffle(interests);
-        Collections.shuffle(keywords);
-        Collections.shuffle(labs);
-        Collections.shuffle(users);
+        Collections.shuffle(skills, random);
+        Collections.shuffle(interests, random);
+        Collections.shuffle(keywords, random);
+        Collections.shuffle(labs, random);
+        Collections.shuffle(users, random);
 
         boolean isUser2MainManager = false;
 
         for (int i = 0; i < 20; i++) {
             ProjectEntity project = new ProjectEntity();
-            project.setName(projectNames[i]);
-            project.setDescription(projectDescriptions[i % projectDescriptions.length]);
+            project.setName(PROJECT_NAMES[i]);
+            project.setDescription(PROJECT_DESCRIPTIONS[i % PROJECT_DESCRIPTIONS.length]);
             project.setLab(labs.get(i % labs.size())); // Select a lab from the shuffled list
             project.setState(projectStates[i % projectStates.length]);
             project.setCreationDate(LocalDateTime.now());
@@ -396,7 +397,7 @@ public class StartupCreator implements Serializable {
                 if (random.nextBoolean()) {
                     // Generate a phone number as a string
                     long range = 9999999999L - 1000000000L + 1;
-                    long number = 1000000000L + (long)(Math.random() * range);
+                    long number = 1000000000L + (long)(random.nextDouble() * range);
                     supplierContact = String.valueOf(number); // Convert the phone number to String
                 } else {
                     // Generate an email address as a string (Example logic, adapt as necessary)
@@ -497,8 +498,8 @@ public class StartupCreator implements Serializable {
                 // Create a task
                 TaskEntity task = new TaskEntity();
                 // Set the task title and description based on the predefined task names and descriptions
-                task.setTitle(taskNames[j % taskNames.length]);
-                task.setDescription(taskDescriptions[j % taskDescriptions.length]);
+                task.setTitle(TASK_NAMES[j % TASK_NAMES.length]);
+                task.setDescription(TASK_DESCRIPTIONS[j % TASK_DESCRIPTIONS.length]);
                 task.setProjectedStartDate(project.getDeadline().minusDays(numTasks - j));
                 task.setDeadline(project.getDeadline().minusDays(numTasks - j - 1));
                 task.setProjectId(project);
@@ -543,7 +544,7 @@ public class StartupCreator implements Serializable {
                 // If it's the last task, it's the presentation of the project
                 if (j == numTasks - 1) {
                     task.setTitle("Presentation");
-                    task.setDescription("Presentation of the project " + projectNames[i % projectStates.length]);
+                    task.setDescription("Presentation of the project " + PROJECT_NAMES[i % projectStates.length]);
                     task.setRealStartDate(project.getDeadline());
                 }
 
@@ -574,7 +575,7 @@ public class StartupCreator implements Serializable {
             if (existingPresentationTasks.isEmpty()) {
                 TaskEntity presentationTask = new TaskEntity();
                 presentationTask.setTitle("Presentation");
-                presentationTask.setDescription("Presentation of the project " + projectNames[i % projectStates.length]);
+                presentationTask.setDescription("Presentation of the project " + PROJECT_NAMES[i % projectStates.length]);
 
                 // Set the projectedStartDate and deadline of the presentation task to the deadline of the project
                 presentationTask.setProjectedStartDate(project.getDeadline());
@@ -0,0 +1,129 @@
+package domcast.finalprojbackend.bean.startup;
+
+import domcast.finalprojbackend.bean.SystemBean;
+import domcast.finalprojbackend.bean.user.PasswordBean;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Bean that generates a synthetic dataset of production-like volumes, to run benchmarks offline: users with skills
+ * and interests, projects with skills, keywords, members and tasks, personal and project messages, and records.
+ * The dataset is built on the vocabulary of the StartupCreator and the labs, skills, interests and keywords it
+ * creates, and is the same for the same plan.
+ * The tables are written in layers, the tables of a layer in parallel, as they only reference the previous layers.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Stateless
+public class SyntheticDataGenerator implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(SyntheticDataGenerator.class);
+
+    // Entity of the rows of each table, to find the highest id before the dataset
+    private static final Map<SeedTable, String> ENTITIES = new EnumMap<>(Map.of(
+            SeedTable.USER, "UserEntity",
+            SeedTable.PROJECT, "ProjectEntity",
+            SeedTable.USER_SKILL, "M2MUserSkill",
+            SeedTable.USER_INTEREST, "M2MUserInterest",
+            SeedTable.PROJECT_SKILL, "M2MProjectSkill",
+            SeedTable.PROJECT_KEYWORD, "M2MKeyword",
+            SeedTable.PROJECT_USER, "M2MProjectUser",
+            SeedTable.TASK, "TaskEntity",
+            SeedTable.MESSAGE, "MessageEntity",
+            SeedTable.RECORD, "RecordEntity"));
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @EJB
+    private SyntheticDataWriter syntheticDataWriter;
+
+    @Inject
+    private SystemBean systemBean;
+
+    @Inject
+    private PasswordBean passwordBean;
+
+    // Default constructor
+    public SyntheticDataGenerator() {
+    }
+
+    /**
+     * Generates the synthetic dataset of a plan, after the default data
+     * @param plan the plan of the dataset
+     * @return the number of rows written
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public long generate(SeedPlan plan) {
+        logger.info("Generating the synthetic dataset: {}", plan);
+        long start = System.currentTimeMillis();
+
+        SeedContext context = loadContext(plan);
+        long rows = 0;
+
+        for (int layer = 0; layer < SeedTable.LAYERS; layer++) {
+            Map<SeedTable, Future<Long>> tables = new EnumMap<>(SeedTable.class);
+            for (SeedTable table : SeedTable.values()) {
+                if (table.getLayer() == layer) {
+                    tables.put(table, syntheticDataWriter.writeTable(table, context));
+                }
+            }
+
+            for (Map.Entry<SeedTable, Future<Long>> table : tables.entrySet()) {
+                try {
+                    rows += table.getValue().get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while writing the synthetic table " + table.getKey(), e);
+                } catch (ExecutionException e) {
+                    logger.error("Error writing the synthetic table {}", table.getKey(), e.getCause());
+                    throw new RuntimeException("Error writing the synthetic table " + table.getKey(), e.getCause());
+                }
+            }
+        }
+
+        logger.info("Synthetic dataset generated with {} rows in {} ms", rows, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    /**
+     * Reads what the dataset is built on: the vocabulary, the maximum number of members of a project and the
+     * highest id of each table
+     * @param plan the plan of the dataset
+     * @return the context of the dataset
+     */
+    private SeedContext loadContext(SeedPlan plan) {
+        Map<SeedTable, Integer> lastIds = new EnumMap<>(SeedTable.class);
+        for (Map.Entry<SeedTable, String> entity : ENTITIES.entrySet()) {
+            lastIds.put(entity.getKey(), em.createQuery("SELECT COALESCE(MAX(e.id), 0) FROM " + entity.getValue() + " e", Integer.class)
+                    .getSingleResult());
+        }
+
+        // Hashed once, as hashing is slow on purpose
+        String passwordHash = passwordBean.hashPassword("password");
+
+        return new SeedContext(plan, systemBean.getProjectMaxUsers(), lastIds,
+                ids("SELECT l.id FROM LabEntity l ORDER BY l.id"),
+                ids("SELECT s.id FROM SkillEntity s ORDER BY s.id"),
+                ids("SELECT i.id FROM InterestEntity i ORDER BY i.id"),
+                ids("SELECT k.id FROM KeywordEntity k ORDER BY k.id"),
+                passwordHash);
+    }
+
+    private int[] ids(String query) {
+        return em.createQuery(query, Integer.class).getResultList().stream().mapToInt(Integer::intValue).toArray();
+    }
+}
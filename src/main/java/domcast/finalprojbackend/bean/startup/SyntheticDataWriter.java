@@ -0,0 +1,390 @@
+package domcast.finalprojbackend.bean.startup;
+
+import domcast.finalprojbackend.entity.*;
+import domcast.finalprojbackend.enums.*;
+import domcast.finalprojbackend.enums.converters.*;
+import jakarta.annotation.Resource;
+import jakarta.ejb.*;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Future;
+
+/**
+ * Bean that writes the tables of the synthetic dataset with batched JDBC inserts.
+ * The ids are generated, not assigned by the database, so the rows of a table reference the rows of the others
+ * without reading them back, and the inserts are sent in batches, which the identity ids of the entities prevent
+ * when persisting them.
+ * The table and column names come from the mapping of the entities, so the statements follow the schema.
+ * A table is written in chunks, each in its own transaction, so neither the transaction nor the persistence
+ * context grow with the size of the dataset.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Stateless
+public class SyntheticDataWriter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(SyntheticDataWriter.class);
+
+    private static final TypeOfUserEnumConverter USER_TYPE = new TypeOfUserEnumConverter();
+    private static final ProjectStateEnumConverter PROJECT_STATE = new ProjectStateEnumConverter();
+    private static final ProjectUserEnumConverter PROJECT_ROLE = new ProjectUserEnumConverter();
+    private static final TaskStateEnumConverter TASK_STATE = new TaskStateEnumConverter();
+    private static final MessageAndLogEnumConverter MESSAGE_TYPE = new MessageAndLogEnumConverter();
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Resource
+    private SessionContext sessionContext;
+
+    // Default constructor
+    public SyntheticDataWriter() {
+    }
+
+    /**
+     * Writes a table in chunks, each in its own transaction, in a thread of its own
+     * @param table the table
+     * @param context the context of the dataset
+     * @return the number of rows written
+     */
+    @Asynchronous
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public Future<Long> writeTable(SeedTable table, SeedContext context) {
+        // Through the business object, so every chunk gets its own transaction
+        SyntheticDataWriter self = sessionContext.getBusinessObject(SyntheticDataWriter.class);
+
+        int units = context.units(table);
+        int unitsPerChunk = Math.max(1, context.getPlan().chunkSize() / context.rowsPerUnit(table));
+        long rows = 0;
+
+        for (int fromUnit = 0; fromUnit < units; fromUnit += unitsPerChunk) {
+            rows += self.writeChunk(table, context, fromUnit, Math.min(fromUnit + unitsPerChunk, units));
+        }
+
+        logger.info("Synthetic table {} written with {} rows", table, rows);
+        return new AsyncResult<>(rows);
+    }
+
+    /**
+     * Writes the units of a table in a range
+     * @param table the table
+     * @param context the context of the dataset
+     * @param fromUnit the first unit, included
+     * @param toUnit the last unit, excluded
+     * @return the number of rows written
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public long writeChunk(SeedTable table, SeedContext context, int fromUnit, int toUnit) {
+        long[] rows = {0};
+
+        em.unwrap(Session.class).doWork(connection -> {
+            int batchSize = context.getPlan().batchSize();
+            switch (table) {
+                case USER -> {
+                    try (Batch batch = new Batch(connection, insertSql(UserEntity.class, "email", "password", "firstName",
+                            "lastName", "nickname", "biography", "visible", "type", "workplace", "profileVersion"), batchSize)) {
+                        for (int unit = fromUnit; unit < toUnit; unit++) {
+                            writeUser(batch, context, unit);
+                        }
+                        rows[0] = batch.rows;
+                    }
+                }
+                case PROJECT -> {
+                    try (Batch batch = new Batch(connection, insertSql(ProjectEntity.class, "name", "lab", "description",
+                            "state", "maxMembers", "creationDate", "readyDate", "projectedStartDate", "realStartDate",
+                            "deadline", "realEndDate", "changeVersion"), batchSize)) {
+                        for (int unit = fromUnit; unit < toUnit; unit++) {
+                            writeProject(batch, context, unit);
+                        }
+                        rows[0] = batch.rows;
+                    }
+                }
+                case USER_SKILL, USER_INTEREST, PROJECT_SKILL, PROJECT_KEYWORD -> {
+                    try (Batch batch = new Batch(connection, tagSql(table), batchSize)) {
+                        for (int unit = fromUnit; unit < toUnit; unit++) {
+                            writeTags(batch, context, table, unit);
+                        }
+                        rows[0] = batch.rows;
+                    }
+                }
+                case PROJECT_USER -> {
+                    try (Batch batch = new Batch(connection, insertSql(M2MProjectUser.class, "project", "user", "role",
+                            "approved", "active", "invited"), batchSize)) {
+                        for (int unit = fromUnit; unit < toUnit; unit++) {
+                            writeMembers(batch, context, unit);
+                        }
+                        rows[0] = batch.rows;
+                    }
+                }
+                case TASK -> {
+                    try (Batch batch = new Batch(connection, insertSql(TaskEntity.class, "title", "description", "state",
+                            "active", "creationDate", "projectedStartDate", "deadline", "responsible", "projectId"), batchSize)) {
+                        for (int unit = fromUnit; unit < toUnit; unit++) {
+                            writeTasks(batch, context, unit);
+                        }
+                        rows[0] = batch.rows;
+                    }
+                }
+                case MESSAGE -> {
+                    try (Batch personal = new Batch(connection, insertSql(PersonalMessageEntity.class, "content", "sender",
+                            "timestamp", "read", "subject", "receiver", "type"), batchSize);
+                         Batch group = new Batch(connection, insertSql(ProjectMessageEntity.class, "content", "sender",
+                                 "timestamp", "read", "project"), batchSize)) {
+                        for (int unit = fromUnit; unit < toUnit; unit++) {
+                            writeMessage(personal, group, context, unit);
+                        }
+                        rows[0] = personal.rows + group.rows;
+                    }
+                }
+                case RECORD -> {
+                    try (Batch batch = new Batch(connection, insertSql(RecordEntity.class, "project", "author", "timestamp",
+                            "content", "type", "task"), batchSize)) {
+                        for (int unit = fromUnit; unit < toUnit; unit++) {
+                            writeRecord(batch, context, unit);
+                        }
+                        rows[0] = batch.rows;
+                    }
+                }
+            }
+        });
+
+        return rows[0];
+    }
+
+    private void writeUser(Batch batch, SeedContext context, int unit) throws SQLException {
+        SplittableRandom random = context.random(SeedTable.USER, unit);
+        int id = context.userId(unit);
+
+        batch.add(id,
+                "load" + id + "@mail.com",
+                context.getPasswordHash(),
+                SeedContext.pick(random, StartupCreator.FIRST_NAMES),
+                SeedContext.pick(random, StartupCreator.LAST_NAMES),
+                SeedContext.pick(random, StartupCreator.NICKNAMES) + id,
+                "biography" + id,
+                random.nextInt(4) != 0,
+                USER_TYPE.convertToDatabaseColumn(TypeOfUserEnum.STANDARD),
+                context.lab(random),
+                0L);
+    }
+
+    private void writeProject(Batch batch, SeedContext context, int unit) throws SQLException {
+        SplittableRandom random = context.random(SeedTable.PROJECT, unit);
+        int id = context.projectId(unit);
+
+        // Drawn first, as the tasks of the project draw them again
+        SeedContext.Dates dates = SeedContext.projectDates(random);
+        LocalDateTime creationDate = dates.creation();
+        LocalDateTime projectedStartDate = dates.start();
+        LocalDateTime deadline = dates.end();
+
+        ProjectStateEnum state = SeedContext.pick(random, ProjectStateEnum.values());
+        boolean started = state == ProjectStateEnum.IN_PROGRESS || state == ProjectStateEnum.FINISHED;
+
+        batch.add(id,
+                StartupCreator.PROJECT_NAMES[unit % StartupCreator.PROJECT_NAMES.length] + " " + id,
+                context.lab(random),
+                SeedContext.pick(random, StartupCreator.PROJECT_DESCRIPTIONS),
+                PROJECT_STATE.convertToDatabaseColumn(state),
+                context.getMaxMembers(),
+                creationDate,
+                state == ProjectStateEnum.PLANNING ? null : creationDate.plusDays(1),
+                projectedStartDate,
+                started ? projectedStartDate : null,
+                deadline,
+                state == ProjectStateEnum.FINISHED ? deadline : null,
+                0L);
+    }
+
+    private void writeTags(Batch batch, SeedContext context, SeedTable table, int unit) throws SQLException {
+        int[] tags = context.tags(context.random(table, unit), table);
+        boolean ofUser = table == SeedTable.USER_SKILL || table == SeedTable.USER_INTEREST;
+        int ownerId = ofUser ? context.userId(unit) : context.projectId(unit);
+
+        for (int row = 0; row < tags.length; row++) {
+            batch.add(context.id(table, unit, row), ownerId, tags[row], true);
+        }
+    }
+
+    private void writeMembers(Batch batch, SeedContext context, int unit) throws SQLException {
+        SplittableRandom random = context.random(SeedTable.PROJECT_USER, unit);
+        int[] members = context.members(unit);
+
+        for (int row = 0; row < members.length; row++) {
+            ProjectUserEnum role;
+            if (row == 0) {
+                role = ProjectUserEnum.MAIN_MANAGER;
+            } else {
+                role = random.nextBoolean() ? ProjectUserEnum.PARTICIPANT : ProjectUserEnum.MANAGER;
+            }
+
+            batch.add(context.id(SeedTable.PROJECT_USER, unit, row), context.projectId(unit), members[row],
+                    PROJECT_ROLE.convertToDatabaseColumn(role), true, true, false);
+        }
+    }
+
+    private void writeTasks(Batch batch, SeedContext context, int unit) throws SQLException {
+        SplittableRandom random = context.random(SeedTable.TASK, unit);
+        int[] members = context.members(unit);
+        int tasks = context.getPlan().tasksPerProject();
+        SeedContext.Dates project = context.projectDates(unit);
+
+        for (int row = 0; row < tasks; row++) {
+            boolean presentation = row == tasks - 1;
+            SeedContext.Dates dates = context.taskDates(random, project, row);
+
+            batch.add(context.taskId(unit, row),
+                    presentation ? "Presentation" : StartupCreator.TASK_NAMES[row % StartupCreator.TASK_NAMES.length],
+                    StartupCreator.TASK_DESCRIPTIONS[row % StartupCreator.TASK_DESCRIPTIONS.length],
+                    TASK_STATE.convertToDatabaseColumn(SeedContext.pick(random, TaskStateEnum.values())),
+                    true,
+                    dates.creation(),
+                    dates.start(),
+                    dates.end(),
+                    members[random.nextInt(members.length)],
+                    context.projectId(unit));
+        }
+    }
+
+    private void writeMessage(Batch personal, Batch group, SeedContext context, int unit) throws SQLException {
+        SplittableRandom random = context.random(SeedTable.MESSAGE, unit);
+        int id = context.id(SeedTable.MESSAGE, unit, 0);
+        LocalDateTime timestamp = SeedContext.ORIGIN.plusSeconds(random.nextLong(2L * 365 * 24 * 3600));
+        String content = "About " + SeedContext.pick(random, StartupCreator.KEYWORD_NAMES) + ": "
+                + SeedContext.pick(random, StartupCreator.TASK_DESCRIPTIONS);
+
+        if (random.nextBoolean()) {
+            int users = context.getPlan().users();
+            int sender = random.nextInt(users);
+            int receiver = (sender + 1 + random.nextInt(users - 1)) % users;
+
+            personal.add(id, content, context.userId(sender), timestamp, random.nextBoolean(), "Message " + id,
+                    context.userId(receiver), MESSAGE_TYPE.convertToDatabaseColumn(MessageAndLogEnum.EMAIL));
+        } else {
+            int project = random.nextInt(context.getPlan().projects());
+            int[] members = context.members(project);
+
+            group.add(id, content, members[random.nextInt(members.length)], timestamp, random.nextBoolean(),
+                    context.projectId(project));
+        }
+    }
+
+    private void writeRecord(Batch batch, SeedContext context, int unit) throws SQLException {
+        SplittableRandom random = context.random(SeedTable.RECORD, unit);
+        int project = random.nextInt(context.getPlan().projects());
+        int[] members = context.members(project);
+
+        batch.add(context.id(SeedTable.RECORD, unit, 0),
+                context.projectId(project),
+                members[random.nextInt(members.length)],
+                SeedContext.ORIGIN.plusSeconds(random.nextLong(2L * 365 * 24 * 3600)),
+                SeedContext.pick(random, StartupCreator.TASK_DESCRIPTIONS),
+                MESSAGE_TYPE.convertToDatabaseColumn(MessageAndLogEnum.ANNOTATION),
+                context.taskId(project, random.nextInt(context.getPlan().tasksPerProject())));
+    }
+
+    /**
+     * Builds the insert statement of the relation of a user or project with a skill, interest or keyword
+     * @param table the table of the relation
+     * @return the statement
+     */
+    private String tagSql(SeedTable table) {
+        return switch (table) {
+            case USER_SKILL -> insertSql(M2MUserSkill.class, "user", "skill", "active");
+            case USER_INTEREST -> insertSql(M2MUserInterest.class, "user", "interest", "active");
+            case PROJECT_SKILL -> insertSql(M2MProjectSkill.class, "project", "skill", "active");
+            case PROJECT_KEYWORD -> insertSql(M2MKeyword.class, "project", "keyword", "active");
+            default -> throw new IllegalArgumentException("Table without tags: " + table);
+        };
+    }
+
+    /**
+     * Builds the insert statement of an entity from its mapping, with the id first and then the given attributes.
+     * The discriminator of an entity that extends another one is added as a literal.
+     * @param entity the entity class
+     * @param attributes the attributes, in the order of the parameters
+     * @return the statement
+     */
+    private String insertSql(Class<?> entity, String... attributes) {
+        AbstractEntityPersister persister = (AbstractEntityPersister) em.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class).getMappingMetamodel().getEntityDescriptor(entity);
+
+        List<String> columns = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+
+        columns.add(persister.getIdentifierColumnNames()[0]);
+        values.add("?");
+        for (String attribute : attributes) {
+            columns.add(persister.getPropertyColumnNames(attribute)[0]);
+            values.add("?");
+        }
+
+        if (entity.getSuperclass().isAnnotationPresent(Entity.class)) {
+            columns.add(persister.getDiscriminatorColumnName());
+            values.add(persister.getDiscriminatorSQLValue());
+        }
+
+        return "INSERT INTO " + persister.getTableName() + " (" + String.join(", ", columns) + ") VALUES (" + String.join(", ", values) + ")";
+    }
+
+    /**
+     * An insert statement whose rows are sent to the database every batchSize rows, and the rest when closed
+     */
+    private static final class Batch implements AutoCloseable {
+
+        private final PreparedStatement statement;
+        private final int batchSize;
+        private int pending;
+        private long rows;
+
+        Batch(Connection connection, String sql, int batchSize) throws SQLException {
+            this.statement = connection.prepareStatement(sql);
+            this.batchSize = batchSize;
+        }
+
+        void add(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null) {
+                    statement.setNull(i + 1, Types.NULL);
+                } else {
+                    statement.setObject(i + 1, values[i]);
+                }
+            }
+            statement.addBatch();
+            rows++;
+
+            if (++pending == batchSize) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            } finally {
+                statement.close();
+            }
+        }
+    }
+}
@@ -1,14 +1,12 @@
 package domcast.finalprojbackend.bean.task;
 
 import domcast.finalprojbackend.dao.M2MTaskDependenciesDao;
-import domcast.finalprojbackend.entity.M2MTaskDependencies;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.Serializable;
-import java.util.Set;
 
 /**
  * Bean class for the task_dependencies table in the database.
@@ -31,28 +29,19 @@ public class M2MTaskDependenciesBean implements Serializable {
     public M2MTaskDependenciesBean() {
     }
 
-    public boolean removeTaskRelationship(Set<M2MTaskDependencies> relationships) {
-
-        if (relationships == null) {
-            logger.error("Error deleting task relationship: relationships is null");
-            throw new RuntimeException("Error deleting task relationship: relationships is null");
-        }
-
-        logger.info("Deleting task dependencies");
-
-        for (M2MTaskDependencies relationship : relationships) {
-            try {
-                if (!m2MTaskDependenciesDao.remove(relationship)) {
-                    logger.error("Error deleting task relationship");
-                    throw new RuntimeException("Error deleting task relationship");
-                }
-
-                logger.info("Task relationship with id {} deleted", relationship.getId());
-            } catch (Exception e) {
-                logger.error("Error deleting task relationship with id {}: {}", relationship.getId(), e.getMessage());
-                throw new RuntimeException("Error deleting task relationship.");
-            }
-        }
-        return true;
+    /**
+     * Removes a task from the graph of the tasks of its project, linking the tasks before it to the tasks after it
+     * and deleting its edges, with one statement each, whatever the number of edges.
+     * @param taskId the id of the task
+     * @return the number of edges deleted
+     */
+    public int removeTaskFromGraph(int taskId) {
+        logger.info("Removing task {} from the task graph", taskId);
+
+        int relinked = m2MTaskDependenciesDao.relinkAroundTask(taskId);
+        int deleted = m2MTaskDependenciesDao.deleteByTaskId(taskId);
+
+        logger.info("Task {} removed from the task graph: {} edges deleted, {} edges relinked", taskId, deleted, relinked);
+        return deleted;
     }
 }
@@ -0,0 +1,194 @@
+package domcast.finalprojbackend.bean.task;
+
+import domcast.finalprojbackend.dto.taskDto.PlanTask;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Reader of the project plans sent as CSV, one task per row, read row by row so the file is never held in memory.
+ * The first row names the columns, in any order: key, title, description, projectedStartDate, deadline,
+ * responsibleId, otherExecutors and dependencies. The executors and the dependencies are separated by ';',
+ * and the dates are ISO dates, with or without the time.
+ * Fields may be quoted, with "" for a quote, to hold commas, semicolons or line breaks.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+public final class PlanCsvReader {
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final String LIST_SEPARATOR = ";";
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("title", "projectedstartdate", "deadline", "responsibleid");
+
+    private final Reader reader;
+    private int next;
+    private int row = 0;
+
+    private PlanCsvReader(Reader reader) throws IOException {
+        this.reader = reader;
+        this.next = reader.read();
+    }
+
+    /**
+     * Reads the tasks of a plan, passing each one to the consumer as soon as its row is read
+     * @param reader the CSV
+     * @param consumer the consumer of the tasks, which may stop the read by throwing
+     * @return the number of tasks read
+     * @throws IOException if the CSV cannot be read
+     * @throws IllegalArgumentException if a row is not a valid task
+     */
+    public static int read(Reader reader, Consumer<PlanTask> consumer) throws IOException {
+        PlanCsvReader csv = new PlanCsvReader(reader);
+
+        List<String> header = csv.nextRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("The plan is empty");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // A byte order mark, written by some spreadsheets, is not part of the first column name
+            columns.put(header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("The plan has no " + column + " column");
+            }
+        }
+
+        int count = 0;
+        List<String> record;
+        while ((record = csv.nextRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            consumer.accept(toTask(record, columns, csv.row));
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Converts a row to a task
+     */
+    private static PlanTask toTask(List<String> record, Map<String, Integer> columns, int row) {
+        PlanTask task = new PlanTask();
+        task.setKey(field(record, columns, "key"));
+        task.setTitle(field(record, columns, "title"));
+        task.setDescription(field(record, columns, "description"));
+        task.setProjectedStartDate(parseDate(field(record, columns, "projectedstartdate"), "projectedStartDate", row));
+        task.setDeadline(parseDate(field(record, columns, "deadline"), "deadline", row));
+        task.setOtherExecutors(parseList(field(record, columns, "otherexecutors")));
+        task.setDependencies(parseList(field(record, columns, "dependencies")));
+
+        String responsibleId = field(record, columns, "responsibleid");
+        try {
+            task.setResponsibleId(responsibleId != null ? Integer.parseInt(responsibleId) : 0);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid responsibleId in row " + row + ": " + responsibleId);
+        }
+
+        return task;
+    }
+
+    /**
+     * Returns the trimmed value of a column, or null if it is missing or empty
+     */
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Parses an ISO date, with or without the time, a date alone being the start of the day
+     */
+    private static LocalDateTime parseDate(String value, String column, int row) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return value.length() <= 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + column + " in row " + row + ": " + value);
+        }
+    }
+
+    /**
+     * Parses a list separated by ';', ignoring empty elements
+     */
+    private static Set<String> parseList(String value) {
+        Set<String> values = new LinkedHashSet<>();
+        if (value == null) {
+            return values;
+        }
+
+        for (String element : value.split(LIST_SEPARATOR)) {
+            if (!element.isBlank()) {
+                values.add(element.trim());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads the next record, whose quoted fields may span many lines
+     * @return the fields of the record, or null at the end of the file
+     */
+    private List<String> nextRecord() throws IOException {
+        if (next == -1) {
+            return null;
+        }
+
+        row++;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (next != -1) {
+            char c = (char) next;
+            next = reader.read();
+
+            if (quoted) {
+                if (c == QUOTE && next == QUOTE) {
+                    field.append(QUOTE);
+                    next = reader.read();
+                } else if (c == QUOTE) {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field in row " + row);
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,405 @@
+package domcast.finalprojbackend.bean.task;
+
+import domcast.finalprojbackend.bean.DataValidator;
+import domcast.finalprojbackend.bean.JsonSerializationBean;
+import domcast.finalprojbackend.bean.MessageBean;
+import domcast.finalprojbackend.bean.project.ProjectBean;
+import domcast.finalprojbackend.bean.project.ProjectVersionBean;
+import domcast.finalprojbackend.dao.M2MProjectUserDao;
+import domcast.finalprojbackend.dao.ProjectDao;
+import domcast.finalprojbackend.dao.TaskDao;
+import domcast.finalprojbackend.dao.UserDao;
+import domcast.finalprojbackend.dto.taskDto.ChartTask;
+import domcast.finalprojbackend.dto.taskDto.ImportedPlan;
+import domcast.finalprojbackend.dto.taskDto.PlanTask;
+import domcast.finalprojbackend.entity.M2MProjectUser;
+import domcast.finalprojbackend.entity.ProjectEntity;
+import domcast.finalprojbackend.entity.TaskEntity;
+import domcast.finalprojbackend.entity.UserEntity;
+import domcast.finalprojbackend.enums.MessageAndLogEnum;
+import domcast.finalprojbackend.enums.ProjectChangeKindEnum;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Bean that imports a project plan, a list of new tasks whose dependencies name other tasks of the plan by key,
+ * as sent in a CSV or JSON file.
+ * The whole plan is checked in memory before anything is written, with one query for the members of the project
+ * and one for the titles already in use, so a plan is either imported whole or not at all.
+ * The tasks are then persisted in the order of their dependencies, in a single transaction,
+ * and the managers and the responsibles are told about the import with a single notification.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Stateless
+public class PlanImportBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(PlanImportBean.class);
+
+    // System property with the maximum number of tasks of a plan
+    public static final String MAX_TASKS_PROPERTY = "domcast.import.maxTasks";
+    private static final int DEFAULT_MAX_TASKS = 1000;
+
+    @EJB
+    private DataValidator dataValidator;
+
+    @EJB
+    private ProjectDao projectDao;
+
+    @EJB
+    private TaskDao taskDao;
+
+    @EJB
+    private UserDao userDao;
+
+    @EJB
+    private M2MProjectUserDao m2MProjectUserDao;
+
+    @EJB
+    private ProjectBean projectBean;
+
+    @EJB
+    private TaskBean taskBean;
+
+    @EJB
+    private MessageBean messageBean;
+
+    @EJB
+    private ProjectVersionBean projectVersionBean;
+
+    @EJB
+    private JsonSerializationBean jsonSerializationBean;
+
+    /**
+     * Default constructor
+     */
+    public PlanImportBean() {
+    }
+
+    /**
+     * Reads a plan as it is received, stopping as soon as it has more tasks than allowed.
+     * No transaction is held while the client sends the file.
+     * @param input the CSV or JSON file
+     * @param csv true if the file is a CSV, false if it is a JSON array of tasks
+     * @return the tasks of the plan, in the order of the file
+     * @throws IllegalArgumentException if the file is not a valid plan or has too many tasks
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public List<PlanTask> readPlan(InputStream input, boolean csv) {
+        if (input == null) {
+            throw new IllegalArgumentException("The plan is empty");
+        }
+
+        int maxTasks = maxTasks();
+        List<PlanTask> plan = new ArrayList<>();
+
+        Consumer<PlanTask> collector = task -> {
+            if (plan.size() >= maxTasks) {
+                throw new IllegalArgumentException("A plan cannot have more than " + maxTasks + " tasks");
+            }
+            plan.add(task);
+        };
+
+        try {
+            if (csv) {
+                PlanCsvReader.read(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), collector);
+            } else {
+                jsonSerializationBean.readArray(input, PlanTask.class, collector);
+            }
+        } catch (IOException e) {
+            logger.error("Error reading plan: {}", e.getMessage());
+            throw new IllegalArgumentException("Invalid plan: " + e.getMessage(), e);
+        }
+
+        logger.info("Read plan with {} tasks", plan.size());
+        return plan;
+    }
+
+    /**
+     * Imports a plan into a project.
+     * Every task is checked before any is persisted: the dates, the responsible, that the title is not in use
+     * by the same responsible, and that the dependencies name tasks of the plan without cycles.
+     * @param projectId the id of the project
+     * @param userId the id of the user importing the plan
+     * @param plan the tasks of the plan
+     * @return the ids given to the keys of the plan, and the new tasks
+     * @throws IllegalArgumentException if the plan is not valid, naming the first problem found
+     * @throws RuntimeException if the tasks cannot be persisted
+     */
+    public ImportedPlan importPlan(int projectId, int userId, List<PlanTask> plan) {
+        logger.info("User with id {} is importing a plan into project with id {}", userId, projectId);
+
+        if (!dataValidator.isIdValid(projectId)) {
+            throw new IllegalArgumentException("Invalid project id");
+        }
+
+        if (plan == null || plan.isEmpty()) {
+            throw new IllegalArgumentException("The plan has no tasks");
+        }
+
+        if (plan.size() > maxTasks()) {
+            throw new IllegalArgumentException("A plan cannot have more than " + maxTasks() + " tasks");
+        }
+
+        ProjectEntity project = projectDao.findProjectById(projectId);
+        if (project == null) {
+            throw new IllegalArgumentException("Project with id " + projectId + " not found");
+        }
+
+        TaskEntity presentationTask = taskDao.findPresentationTaskInProject(projectId);
+
+        Map<String, PlanTask> tasksByKey = validateTasks(plan, presentationTask);
+        validateResponsibles(projectId, plan);
+
+        Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+        for (Map.Entry<String, PlanTask> entry : tasksByKey.entrySet()) {
+            Set<String> taskDependencies = entry.getValue().getDependencies();
+            dependencies.put(entry.getKey(), taskDependencies != null ? taskDependencies : Set.of());
+        }
+
+        List<String> order = orderByDependencies(dependencies);
+        validateDependencyDates(tasksByKey, order);
+
+        Map<String, TaskEntity> created = new LinkedHashMap<>();
+        Map<Integer, UserEntity> responsibles = new HashMap<>();
+
+        for (String key : order) {
+            PlanTask planTask = tasksByKey.get(key);
+            TaskEntity taskEntity = new TaskEntity();
+
+            taskEntity.setTitle(planTask.getTitle().trim());
+            taskEntity.setDescription(planTask.getDescription());
+            taskEntity.setProjectedStartDate(planTask.getProjectedStartDate());
+            taskEntity.setDeadline(planTask.getDeadline());
+            taskEntity.setResponsible(responsibles.computeIfAbsent(planTask.getResponsibleId(), userDao::getReference));
+            taskEntity.setOtherExecutors(planTask.getOtherExecutors() != null && !planTask.getOtherExecutors().isEmpty() ? planTask.getOtherExecutors() : null);
+            taskEntity.setProjectId(project);
+
+            // The dependencies were persisted before, as the tasks follow the order of the dependencies
+            Set<TaskEntity> taskDependencies = new HashSet<>();
+            for (String dependency : dependencies.get(key)) {
+                taskDependencies.add(created.get(dependency));
+            }
+            taskBean.createTaskDependenciesRelationship(taskEntity, taskDependencies);
+
+            if (presentationTask != null) {
+                taskEntity.addDependentTask(taskBean.relatePresentationTask(presentationTask, taskEntity));
+            }
+
+            if (!taskDao.persist(taskEntity)) {
+                throw new RuntimeException("Error persisting task " + key + " of the plan");
+            }
+            created.put(key, taskEntity);
+        }
+
+        taskDao.flush();
+
+        Map<String, Integer> taskIds = new LinkedHashMap<>();
+        List<ChartTask> chartTasks = new ArrayList<>();
+        for (Map.Entry<String, TaskEntity> entry : created.entrySet()) {
+            TaskEntity taskEntity = entry.getValue();
+            taskIds.put(entry.getKey(), taskEntity.getId());
+            chartTasks.add(new ChartTask(taskEntity.getId(),
+                    taskEntity.getTitle(),
+                    taskEntity.getState().getId(),
+                    taskEntity.getProjectedStartDate(),
+                    taskEntity.getDeadline()));
+        }
+
+        projectVersionBean.recordChanges(projectId, ProjectChangeKindEnum.TASK, taskIds.values());
+
+        notifyImport(project, userId, responsibles.keySet(), created.size());
+
+        logger.info("User with id {} imported {} tasks into project with id {}", userId, created.size(), projectId);
+        return new ImportedPlan(projectId, taskIds, chartTasks);
+    }
+
+    /**
+     * Orders the tasks of a plan so every task comes after its dependencies, keeping the order of the plan
+     * where the dependencies allow it
+     * @param dependencies the keys of the dependencies of each task, by key
+     * @return the keys of the tasks in the order of their dependencies
+     * @throws IllegalArgumentException if a dependency is not in the plan, or the dependencies have a cycle
+     */
+    public static List<String> orderByDependencies(Map<String, Set<String>> dependencies) {
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+
+        for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+            String key = entry.getKey();
+            for (String dependency : entry.getValue()) {
+                if (dependency.equals(key)) {
+                    throw new IllegalArgumentException("Task " + key + " depends on itself");
+                }
+                if (!dependencies.containsKey(dependency)) {
+                    throw new IllegalArgumentException("Task " + key + " depends on " + dependency + ", which is not in the plan");
+                }
+                dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(key);
+            }
+            pending.put(key, entry.getValue().size());
+        }
+
+        Deque<String> ready = new ArrayDeque<>();
+        for (String key : dependencies.keySet()) {
+            if (pending.get(key) == 0) {
+                ready.add(key);
+            }
+        }
+
+        List<String> order = new ArrayList<>(dependencies.size());
+        while (!ready.isEmpty()) {
+            String key = ready.poll();
+            order.add(key);
+
+            for (String dependent : dependents.getOrDefault(key, List.of())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (order.size() < dependencies.size()) {
+            List<String> cycle = new ArrayList<>();
+            for (String key : dependencies.keySet()) {
+                if (pending.get(key) > 0) {
+                    cycle.add(key);
+                }
+            }
+            throw new IllegalArgumentException("The dependencies of the plan have a cycle between tasks " + cycle);
+        }
+
+        return order;
+    }
+
+    /**
+     * Checks the data of each task, with the same rules as a task created on its own, and that the keys are unique
+     * @param plan the tasks of the plan
+     * @param presentationTask the presentation task of the project, which every task must end before
+     * @return the tasks by key, in the order of the plan
+     * @see DataValidator#isTaskMandatoryDataValid
+     */
+    private Map<String, PlanTask> validateTasks(List<PlanTask> plan, TaskEntity presentationTask) {
+        Map<String, PlanTask> tasksByKey = new LinkedHashMap<>();
+        Set<String> titlesByResponsible = new HashSet<>();
+        LocalDateTime today = LocalDateTime.now().toLocalDate().atStartOfDay();
+
+        for (PlanTask task : plan) {
+            if (task == null || task.getTitle() == null || task.getTitle().isBlank()) {
+                throw new IllegalArgumentException("Every task of the plan must have a title");
+            }
+
+            String key = task.getKey();
+
+            if (task.getProjectedStartDate() == null || task.getDeadline() == null) {
+                throw new IllegalArgumentException("Task " + key + " must have a projected start date and a deadline");
+            }
+
+            if (task.getDescription() == null || task.getDescription().isBlank()) {
+                throw new IllegalArgumentException("Task " + key + " must have a description");
+            }
+
+            if (task.getProjectedStartDate().isBefore(today)) {
+                throw new IllegalArgumentException("Task " + key + " cannot start in the past");
+            }
+
+            if (!task.getDeadline().isAfter(task.getProjectedStartDate())) {
+                throw new IllegalArgumentException("Task " + key + " must end after it starts");
+            }
+
+            if (presentationTask != null && !task.getDeadline().isBefore(presentationTask.getProjectedStartDate())) {
+                throw new IllegalArgumentException("Task " + key + " must end before the presentation of the project");
+            }
+
+            if (tasksByKey.putIfAbsent(key, task) != null) {
+                throw new IllegalArgumentException("Task key " + key + " is used more than once");
+            }
+
+            if (!titlesByResponsible.add(task.getResponsibleId() + ":" + task.getTitle().trim())) {
+                throw new IllegalArgumentException("Task " + key + " has the same title and responsible as another task of the plan");
+            }
+        }
+
+        return tasksByKey;
+    }
+
+    /**
+     * Checks that the responsibles are approved and active members of the project,
+     * and that none of them already has a task with the same title in it
+     */
+    private void validateResponsibles(int projectId, List<PlanTask> plan) {
+        Set<Integer> members = m2MProjectUserDao.findActiveApprovedUserIds(projectId);
+
+        Set<String> titles = new HashSet<>();
+        for (PlanTask task : plan) {
+            if (!members.contains(task.getResponsibleId())) {
+                throw new IllegalArgumentException("The responsible of task " + task.getKey() + " is not an active member of the project");
+            }
+            titles.add(task.getTitle().trim());
+        }
+
+        Map<String, Set<Integer>> existing = taskDao.findResponsiblesByTitles(projectId, titles);
+        for (PlanTask task : plan) {
+            if (existing.getOrDefault(task.getTitle().trim(), Set.of()).contains(task.getResponsibleId())) {
+                throw new IllegalArgumentException("The responsible of task " + task.getKey() + " already has a task with the same title in the project");
+            }
+        }
+    }
+
+    /**
+     * Checks that no task starts before the deadline of one of its dependencies
+     */
+    private void validateDependencyDates(Map<String, PlanTask> tasksByKey, List<String> order) {
+        for (String key : order) {
+            PlanTask task = tasksByKey.get(key);
+            if (task.getDependencies() == null) {
+                continue;
+            }
+
+            for (String dependency : task.getDependencies()) {
+                if (task.getProjectedStartDate().isBefore(tasksByKey.get(dependency).getDeadline())) {
+                    throw new IllegalArgumentException("Task " + key + " starts before the deadline of its dependency " + dependency);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends a single notification about the import to the managers of the project and to the responsibles of the tasks
+     */
+    private void notifyImport(ProjectEntity project, int userId, Set<Integer> responsibleIds, int count) {
+        Set<M2MProjectUser> recipients = new HashSet<>(projectBean.getProjectManagers(project));
+        recipients.addAll(m2MProjectUserDao.findProjectUsersByUserIds(project.getId(), responsibleIds));
+
+        messageBean.sendMessageToProjectUsers(
+                recipients,
+                project,
+                MessageAndLogEnum.TASKS_IMPORTED.name(),
+                String.valueOf(count),
+                userId,
+                MessageAndLogEnum.TASKS_IMPORTED,
+                null
+        );
+    }
+
+    /**
+     * Gets the maximum number of tasks of a plan
+     */
+    private static int maxTasks() {
+        return Integer.getInteger(MAX_TASKS_PROPERTY, DEFAULT_MAX_TASKS);
+    }
+}
@@ -3,6 +3,8 @@ package domcast.finalprojbackend.bean.task;
 import domcast.finalprojbackend.bean.DataValidator;
 import domcast.finalprojbackend.bean.MessageBean;
 import domcast.finalprojbackend.bean.project.ProjectBean;
+import domcast.finalprojbackend.bean.project.ProjectVersionBean;
+import domcast.finalprojbackend.dao.AbstractDao;
 import domcast.finalprojbackend.dao.M2MProjectUserDao;
 import domcast.finalprojbackend.dao.ProjectDao;
 import domcast.finalprojbackend.dao.TaskDao;
@@ -13,6 +15,7 @@ import domcast.finalprojbackend.dto.taskDto.EditTask;
 import domcast.finalprojbackend.dto.taskDto.NewTask;
 import domcast.finalprojbackend.entity.*;
 import domcast.finalprojbackend.enums.MessageAndLogEnum;
+import domcast.finalprojbackend.enums.ProjectChangeKindEnum;
 import domcast.finalprojbackend.enums.TaskStateEnum;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
@@ -23,6 +26,7 @@ import org.apache.logging.log4j.Logger;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Bean class for the task entity.
@@ -60,6 +64,9 @@ public class TaskBean implements Serializable {
     @EJB
     private M2MProjectUserDao m2mProjectUserDao;
 
+    @EJB
+    private ProjectVersionBean projectVersionBean;
+
     // Default constructor
     public TaskBean() {
     }
@@ -124,6 +131,8 @@ public class TaskBean implements Serializable {
                 taskEntityFromDB.getDeadline()
         );
 
+        projectVersionBean.recordChange(newTask.getProjectId(), ProjectChangeKindEnum.TASK, taskEntityFromDB.getId());
+
         ProjectEntity project = taskEntityFromDB.getProjectId();
         Set<M2MProjectUser> projectManagers = projectBean.getProjectManagers(project);
         int sender = taskEntityFromDB.getResponsible().getId();
@@ -340,6 +349,7 @@ public class TaskBean implements Serializable {
             if (dependentTask.getProjectedStartDate().isBefore(newTaskDeadline)) {
                 dependentTask.setProjectedStartDate(newTaskDeadline);
                 taskDao.merge(dependentTask);
+                projectVersionBean.recordChange(dependentTask.getProjectId().getId(), ProjectChangeKindEnum.TASK, dependentTask.getId());
                 logger.info("Updated the start date of dependent task {} to {}", dependentTask.getId(), newTaskDeadline);
             } else if (dependentTask.getProjectedStartDate().isAfter(dependentTask.getDeadline())) {
                 throw new IllegalArgumentException("The projected start date of dependent task " + dependentTask.getTitle() + " is being set after its deadline");
@@ -531,6 +541,7 @@ public class TaskBean implements Serializable {
         // Merge the task entity
         taskDao.merge(taskEntity);
 
+        projectVersionBean.recordChange(taskEntity.getProjectId().getId(), ProjectChangeKindEnum.TASK, taskId);
 
         sendTaskNotification(taskEntity, MessageAndLogEnum.TASK_STATUS_CHANGED.name(), TaskStateEnum.fromId(stateId).name(), userId, MessageAndLogEnum.TASK_STATUS_CHANGED);
 
@@ -583,6 +594,27 @@ public class TaskBean implements Serializable {
         return chartTasks;
     }
 
+    /**
+     * Gets a page of the tasks of a project as chart tasks, in the order of their ids
+     * @param projectId the id of the project
+     * @param after the last task of the previous page, or null for the first page
+     * @return the chart tasks of the page, at most AbstractDao.STREAM_CHUNK_SIZE
+     */
+    public List<ChartTask> getTasksByProjectIdPage(int projectId, ChartTask after) {
+        logger.info("Getting a page of tasks by project id");
+
+        // Check if the project id is valid
+        if (!dataValidator.isIdValid(projectId)) {
+            logger.error("The project id is invalid");
+            throw new IllegalArgumentException("Invalid project id: " + projectId);
+        }
+
+        return taskDao.findTasksByProjectIdPage(projectId, after == null ? 0 : after.getId(), AbstractDao.STREAM_CHUNK_SIZE)
+                .stream()
+                .map(this::entityToChartTask)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Converts a task entity to a chart task
      * @param taskEntity the task entity
@@ -666,6 +698,8 @@ public class TaskBean implements Serializable {
             throw new RuntimeException("Error merging task: " + e.getMessage(), e);
         }
 
+        projectVersionBean.recordChange(taskEntity.getProjectId().getId(), ProjectChangeKindEnum.TASK, taskId);
+
         DetailedTask detailedTask= new DetailedTask(taskEntity.getTitle(),
                     taskEntity.getDescription(),
                     taskEntity.getProjectedStartDate(),
@@ -887,7 +921,8 @@ public class TaskBean implements Serializable {
      * Deletes a task.
      * Deleting a task is a soft delete, meaning that the task is not removed from the database,
      * but its active status is set to false.
-     * All the task's dependencies and dependent tasks are also deleted.
+     * All the task's dependencies and dependent tasks are also deleted,
+     * and the tasks before it are linked to the tasks after it, so their order is kept.
      * @param taskId the id of the task to be deleted
      * @return true if the task was deleted successfully
      */
@@ -911,30 +946,11 @@ public class TaskBean implements Serializable {
             throw new IllegalArgumentException("Task with id " + taskId + " is already finished");
         }
 
-        taskEntity.setActive(false);
-
-        Set<M2MTaskDependencies> dependencies = taskEntity.getDependencies();
-        Set<M2MTaskDependencies> dependentTasks = taskEntity.getDependentTasks();
-
-        Set<M2MTaskDependencies> relationshipsToDelete = new HashSet<>();
-        relationshipsToDelete.addAll(dependencies);
-        relationshipsToDelete.addAll(dependentTasks);
-
-        taskEntity.setDependentTasks(new HashSet<>());
-        taskEntity.setDependencies(new HashSet<>());
-
-        if (!relationshipsToDelete.isEmpty()) {
-            try {
-                m2MTaskDependenciesBean.removeTaskRelationship(relationshipsToDelete);
-            } catch (Exception e) {
-                logger.error("Error removing task dependencies", e);
-                throw new RuntimeException("Error removing task dependencies: " + e.getMessage(), e);
-            }
-        }
-
-
+        // The edges and the task are written in bulk, so the relationships of the task are never loaded,
+        // and the task is not changed in memory, which would write it again on flush
         try {
-            taskDao.merge(taskEntity);
+            m2MTaskDependenciesBean.removeTaskFromGraph(taskId);
+            taskDao.setTaskInactive(taskId);
         } catch (Exception e) {
             logger.error("Error deleting task", e);
             throw new RuntimeException("Error deleting task: " + e.getMessage(), e);
@@ -942,6 +958,8 @@ public class TaskBean implements Serializable {
 
         logger.info("Task with id {} deleted", taskId);
 
+        projectVersionBean.recordChange(taskEntity.getProjectId().getId(), ProjectChangeKindEnum.TASK, taskId);
+
         sendTaskNotification(taskEntity, MessageAndLogEnum.TASK_DELETED.name(), "", userId, MessageAndLogEnum.TASK_DELETED);
 
         return true;
@@ -0,0 +1,290 @@
+package domcast.finalprojbackend.bean.user;
+
+import domcast.finalprojbackend.bean.MessageBean;
+import domcast.finalprojbackend.dao.SessionTokenDao;
+import domcast.finalprojbackend.dao.SystemDao;
+import jakarta.annotation.PostConstruct;
+import jakarta.ejb.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Singleton bean that expires the idle sessions.
+ * Each active session has a deadline in an in-memory delay queue, pushed forward by the login and by every
+ * access made with the session token. Every second, the sessions whose deadline passed are logged out
+ * in one batched update. The last accesses are written to the database periodically, and the active sessions
+ * are reloaded from it, so sessions created by other nodes or before a restart are also expired.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Singleton
+@Startup
+@DependsOn("StartupBean")
+@Lock(LockType.READ)
+public class SessionExpiryBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(SessionExpiryBean.class);
+
+    // Maximum number of session tokens in each batched query
+    private static final int BATCH_SIZE = 500;
+
+    @EJB
+    private SessionTokenDao sessionTokenDao;
+
+    @EJB
+    private SystemDao systemDao;
+
+    @EJB
+    private MessageBean messageBean;
+
+    @EJB
+    private SignedTokenBean signedTokenBean;
+
+    // One deadline per tracked session, checked against its last access when it expires
+    private final DelayQueue<SessionDeadline> deadlines = new DelayQueue<>();
+
+    // Last access of each tracked session, in epoch milliseconds
+    private final Map<String, Long> lastAccesses = new ConcurrentHashMap<>();
+
+    // Sessions accessed since the last accesses were written to the database
+    private final Set<String> touched = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean expiring = new AtomicBoolean(false);
+
+    private volatile long timeoutMillis = TimeUnit.MINUTES.toMillis(30);
+
+    /**
+     * Default constructor
+     */
+    public SessionExpiryBean() {
+    }
+
+    /**
+     * Loads the session timeout and the active sessions from the database
+     */
+    @PostConstruct
+    public void init() {
+        Integer timeout = systemDao.getSessionTimeout();
+        if (timeout != null) {
+            timeoutMillis = TimeUnit.MINUTES.toMillis(timeout);
+        }
+
+        reconcile();
+    }
+
+    /**
+     * Registers an access made with a session token, pushing its deadline forward
+     * @param token the session token
+     */
+    public void touch(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        touched.add(token);
+
+        // Only a new session needs a deadline, the existing one is moved when it expires
+        if (lastAccesses.put(token, now) == null) {
+            deadlines.offer(new SessionDeadline(token, now + timeoutMillis));
+        }
+    }
+
+    /**
+     * Stops tracking a session token, after it was logged out
+     * @param token the session token
+     */
+    public void forget(String token) {
+        if (token == null) {
+            return;
+        }
+
+        lastAccesses.remove(token);
+        touched.remove(token);
+    }
+
+    /**
+     * Changes the session timeout, recomputing the deadline of every tracked session
+     * @param timeout the new session timeout, in minutes
+     */
+    public void updateTimeout(int timeout) {
+        logger.info("Updating the session timeout to {} minutes", timeout);
+        timeoutMillis = TimeUnit.MINUTES.toMillis(timeout);
+
+        deadlines.clear();
+        lastAccesses.forEach((token, lastAccess) -> deadlines.offer(new SessionDeadline(token, lastAccess + timeoutMillis)));
+    }
+
+    /**
+     * Logs out the sessions whose deadline passed
+     */
+    @Schedule(second = "*", minute = "*", hour = "*", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void expire() {
+        if (!expiring.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            long now = System.currentTimeMillis();
+            List<String> expired = new ArrayList<>();
+
+            SessionDeadline deadline;
+            while ((deadline = deadlines.poll()) != null) {
+                Long lastAccess = lastAccesses.get(deadline.token);
+                if (lastAccess == null) {
+                    continue;
+                }
+
+                // Accessed since the deadline was set, so it moves to the new one
+                if (lastAccess + timeoutMillis > now) {
+                    deadlines.offer(new SessionDeadline(deadline.token, lastAccess + timeoutMillis));
+                } else {
+                    expired.add(deadline.token);
+                }
+            }
+
+            if (!expired.isEmpty()) {
+                logoutExpired(expired, toLocalDateTime(now - timeoutMillis));
+            }
+        } catch (Exception e) {
+            logger.error("Error expiring sessions", e);
+        } finally {
+            expiring.set(false);
+        }
+    }
+
+    /**
+     * Writes the last accesses to the database and reloads the active sessions from it
+     */
+    @Schedule(minute = "*", hour = "*", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void reconcile() {
+        flushLastAccesses();
+
+        Map<String, LocalDateTime> activeSessions = sessionTokenDao.findActiveSessionsLastAccess();
+
+        // Sessions logged out elsewhere, kept if touched meanwhile as they may not be committed yet
+        lastAccesses.keySet().removeIf(token -> !activeSessions.containsKey(token) && !touched.contains(token));
+
+        // Sessions created by other nodes or before a restart
+        int added = 0;
+        for (Map.Entry<String, LocalDateTime> session : activeSessions.entrySet()) {
+            long lastAccess = toMillis(session.getValue());
+            if (lastAccesses.putIfAbsent(session.getKey(), lastAccess) == null) {
+                deadlines.offer(new SessionDeadline(session.getKey(), lastAccess + timeoutMillis));
+                added++;
+            }
+        }
+
+        logger.info("{} active sessions tracked, {} loaded from the database", lastAccesses.size(), added);
+    }
+
+    /**
+     * Logs out the expired sessions in batches and notifies their websocket sessions
+     * @param expired the expired session tokens
+     * @param idleSince the time since which the expired sessions were not accessed
+     */
+    private void logoutExpired(List<String> expired, LocalDateTime idleSince) {
+        for (int start = 0; start < expired.size(); start += BATCH_SIZE) {
+            List<String> batch = expired.subList(start, Math.min(start + BATCH_SIZE, expired.size()));
+
+            // Sessions accessed through another node are not idle in the database and are left to the next reload
+            List<String> idle = sessionTokenDao.findIdleSessionTokens(batch, idleSince);
+            batch.forEach(this::forget);
+
+            if (sessionTokenDao.logoutSessions(idle) < 0) {
+                logger.error("Error logging out {} expired sessions, they are left to the next reload", idle.size());
+                continue;
+            }
+
+            for (String token : idle) {
+                signedTokenBean.revoke(token);
+                try {
+                    messageBean.sendLogoutNotification(token);
+                } catch (Exception e) {
+                    logger.error("Error sending logout notification for session token {}", token, e);
+                }
+            }
+
+            logger.info("{} expired sessions logged out", idle.size());
+        }
+    }
+
+    /**
+     * Writes the last access of the touched sessions to the database, one update per minute of access
+     */
+    private void flushLastAccesses() {
+        if (touched.isEmpty()) {
+            return;
+        }
+
+        // Rounded down to the minute, so each update covers many sessions and never extends one
+        Map<LocalDateTime, List<String>> byMinute = new HashMap<>();
+        for (Iterator<String> iterator = touched.iterator(); iterator.hasNext(); ) {
+            String token = iterator.next();
+            iterator.remove();
+
+            Long lastAccess = lastAccesses.get(token);
+            if (lastAccess != null) {
+                byMinute.computeIfAbsent(toLocalDateTime(lastAccess).truncatedTo(ChronoUnit.MINUTES), minute -> new ArrayList<>())
+                        .add(token);
+            }
+        }
+
+        for (Map.Entry<LocalDateTime, List<String>> minute : byMinute.entrySet()) {
+            List<String> tokens = minute.getValue();
+            for (int start = 0; start < tokens.size(); start += BATCH_SIZE) {
+                List<String> batch = tokens.subList(start, Math.min(start + BATCH_SIZE, tokens.size()));
+                if (sessionTokenDao.setLastAccessForTokens(batch, minute.getKey()) < 0) {
+                    touched.addAll(batch);
+                }
+            }
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Deadline of a session in the delay queue
+     */
+    private static class SessionDeadline implements Delayed {
+
+        private final String token;
+        private final long deadline;
+
+        SessionDeadline(String token, long deadline) {
+            this.token = token;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadline, ((SessionDeadline) other).deadline);
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package domcast.finalprojbackend.bean.user;
+
+import domcast.finalprojbackend.dao.SessionTokenDao;
+import jakarta.annotation.PostConstruct;
+import jakarta.ejb.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Singleton bean that issues and verifies signed session tokens.
+ * A signed token carries the id and type of its user, its issue time and a random session id, followed by an HMAC
+ * of them, so it is verified in memory instead of with a query: s1.[key id].[payload].[mac], in base64url.
+ * The signing keys come from the domcast.token.keys property, as "id:base64 key" pairs separated by commas,
+ * the first one signing. Without it, each node generates its own key and rotates it, and the tokens signed by
+ * the other nodes are checked in the database.
+ * The logged out sessions are kept in a revocation set until their token is too old to be verified in memory,
+ * filled by the logouts of this node and synced from the database every 5 seconds for the other nodes.
+ * The opaque tokens, and the signed ones that cannot be verified here, are still checked in the database.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Singleton
+@Startup
+@DependsOn("StartupBean")
+@Lock(LockType.READ)
+public class SignedTokenBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(SignedTokenBean.class);
+
+    public static final String FORMAT_PROPERTY = "domcast.token.format";
+    public static final String KEYS_PROPERTY = "domcast.token.keys";
+    public static final String OPAQUE = "opaque";
+
+    public static final String PREFIX = "s1.";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Pattern KEY_ID = Pattern.compile("[A-Za-z0-9_-]{1,16}");
+    private static final int KEY_LENGTH = 32;
+    private static final int MAC_LENGTH = 16;
+    private static final int SESSION_ID_LENGTH = 16;
+    private static final int PAYLOAD_LENGTH = 16 + SESSION_ID_LENGTH;
+
+    // Age after which a token is checked in the database, so the revocation set only holds recent sessions
+    static final long MAX_AGE_SECONDS = TimeUnit.HOURS.toSeconds(24);
+
+    // Age after which a generated signing key is replaced by a new one
+    private static final long ROTATION_SECONDS = TimeUnit.HOURS.toSeconds(6);
+
+    // Clock difference tolerated between the nodes
+    private static final long CLOCK_SKEW_SECONDS = 60;
+
+    // Each sync reads again the logouts of the previous seconds, which may have been committed late
+    private static final long SYNC_OVERLAP_SECONDS = 30;
+
+    // Time without a successful sync after which the tokens are checked in the database again
+    private static final long MAX_SYNC_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @EJB
+    private SessionTokenDao sessionTokenDao;
+
+    // Keys able to verify a token, by id
+    private final transient Map<String, SigningKey> keys = new ConcurrentHashMap<>();
+
+    // Revoked session ids, and the epoch second after which their token is no longer verified in memory
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private transient volatile SigningKey signingKey;
+    private volatile boolean generatedKeys;
+    private volatile boolean issuing;
+
+    // Start of the last successful sync of the revocations, in epoch milliseconds
+    private volatile long lastSync;
+
+    /**
+     * Default constructor
+     */
+    public SignedTokenBean() {
+    }
+
+    /**
+     * Loads the signing keys and the sessions logged out while the tokens can be verified in memory
+     */
+    @PostConstruct
+    public void init() {
+        loadKeys(System.getProperty(KEYS_PROPERTY));
+        issuing = !OPAQUE.equalsIgnoreCase(System.getProperty(FORMAT_PROPERTY));
+
+        syncRevocations();
+
+        logger.info("Session tokens issued {}, verified with {} {} keys",
+                issuing ? "signed" : "opaque", keys.size(), generatedKeys ? "generated" : "configured");
+    }
+
+    /**
+     * Loads the configured signing keys, or generates one if there are none
+     * @param configured the configured keys, as "id:base64 key" pairs separated by commas
+     */
+    private void loadKeys(String configured) {
+        keys.clear();
+        signingKey = null;
+
+        if (configured != null) {
+            for (String pair : configured.split(",")) {
+                SigningKey key = parseKey(pair.trim());
+                if (key != null && keys.putIfAbsent(key.id, key) == null && signingKey == null) {
+                    signingKey = key;
+                }
+            }
+        }
+
+        generatedKeys = signingKey == null;
+        if (generatedKeys) {
+            rotateKeys();
+        }
+    }
+
+    /**
+     * Parses a configured signing key
+     * @param pair the key, as "id:base64 key"
+     * @return the key, or null if it is invalid
+     */
+    private static SigningKey parseKey(String pair) {
+        int separator = pair.indexOf(':');
+        if (separator < 0 || !KEY_ID.matcher(pair.substring(0, separator)).matches()) {
+            logger.error("Ignoring a session token key without a valid id");
+            return null;
+        }
+
+        String id = pair.substring(0, separator);
+        try {
+            byte[] secret = Base64.getDecoder().decode(pair.substring(separator + 1));
+            if (secret.length < KEY_LENGTH) {
+                logger.error("Ignoring the session token key {}, shorter than {} bytes", id, KEY_LENGTH);
+                return null;
+            }
+            return new SigningKey(id, secret, System.currentTimeMillis() / 1000);
+        } catch (IllegalArgumentException e) {
+            logger.error("Ignoring the session token key {}, not in base64", id);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the generated signing key when it is too old, and drops the keys whose tokens are all too old
+     */
+    @Schedule(minute = "*/10", hour = "*", persistent = false)
+    public void rotateKeys() {
+        if (!generatedKeys) {
+            return;
+        }
+
+        long now = System.currentTimeMillis() / 1000;
+        SigningKey current = signingKey;
+
+        if (current == null || now - current.createdAt >= ROTATION_SECONDS) {
+            byte[] id = new byte[6];
+            byte[] secret = new byte[KEY_LENGTH];
+            RANDOM.nextBytes(id);
+            RANDOM.nextBytes(secret);
+
+            current = new SigningKey(ENCODER.encodeToString(id), secret, now);
+            keys.put(current.id, current);
+            signingKey = current;
+            logger.info("Session token key {} generated", current.id);
+        }
+
+        SigningKey signing = current;
+        keys.values().removeIf(key -> key != signing && now - key.createdAt > ROTATION_SECONDS + MAX_AGE_SECONDS);
+    }
+
+    /**
+     * Checks if the new session tokens are signed
+     * @return true if the new session tokens are signed, false if they are opaque
+     */
+    public boolean isIssuing() {
+        return issuing && signingKey != null;
+    }
+
+    /**
+     * Issues a signed session token
+     * @param userId the id of the user
+     * @param userType the id of the type of the user
+     * @return the signed session token
+     */
+    public String issue(int userId, int userType) {
+        SigningKey key = signingKey;
+
+        byte[] sessionId = new byte[SESSION_ID_LENGTH];
+        RANDOM.nextBytes(sessionId);
+
+        ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_LENGTH)
+                .putInt(userId)
+                .putInt(userType)
+                .putLong(System.currentTimeMillis() / 1000)
+                .put(sessionId);
+
+        String signed = PREFIX + key.id + "." + ENCODER.encodeToString(payload.array());
+        return signed + "." + ENCODER.encodeToString(key.sign(signed));
+    }
+
+    /**
+     * Verifies a session token in memory
+     * @param token the session token
+     * @return the verification: valid with the claims of the token, rejected, or unverified if it must be checked in the database
+     */
+    public Verification verify(String token) {
+        if (token == null || !token.startsWith(PREFIX)) {
+            return Verification.UNVERIFIED;
+        }
+
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 4) {
+            return Verification.REJECTED;
+        }
+
+        // Signed by another node or by a dropped key
+        SigningKey key = keys.get(parts[1]);
+        if (key == null) {
+            return Verification.UNVERIFIED;
+        }
+
+        byte[] mac;
+        Claims claims;
+        try {
+            mac = DECODER.decode(parts[3]);
+            claims = decodeClaims(parts[2]);
+        } catch (IllegalArgumentException e) {
+            return Verification.REJECTED;
+        }
+
+        if (claims == null || !MessageDigest.isEqual(mac, key.sign(token.substring(0, token.lastIndexOf('.'))))) {
+            return Verification.REJECTED;
+        }
+
+        long now = System.currentTimeMillis();
+        long age = now / 1000 - claims.issuedAt();
+        if (age > MAX_AGE_SECONDS || age < -CLOCK_SKEW_SECONDS || now - lastSync > MAX_SYNC_DELAY_MILLIS) {
+            return Verification.UNVERIFIED;
+        }
+
+        if (revoked.containsKey(claims.sessionId())) {
+            return Verification.REJECTED;
+        }
+
+        return new Verification(Verification.Status.VALID, claims);
+    }
+
+    /**
+     * Revokes a logged out session token, ignoring the opaque ones
+     * @param token the session token
+     */
+    public void revoke(String token) {
+        if (token == null || !token.startsWith(PREFIX)) {
+            return;
+        }
+
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 4) {
+            return;
+        }
+
+        try {
+            Claims claims = decodeClaims(parts[2]);
+            if (claims != null) {
+                revoked.put(claims.sessionId(), claims.issuedAt() + MAX_AGE_SECONDS + CLOCK_SKEW_SECONDS);
+            }
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring the revocation of a malformed session token");
+        }
+    }
+
+    /**
+     * Revokes the signed session tokens logged out since the last sync, by any node,
+     * and forgets the revocations of tokens too old to be verified in memory
+     */
+    @Schedule(second = "*/5", minute = "*", hour = "*", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void syncRevocations() {
+        long start = System.currentTimeMillis();
+        LocalDateTime since = lastSync == 0
+                ? toLocalDateTime(start).minusSeconds(MAX_AGE_SECONDS + CLOCK_SKEW_SECONDS)
+                : toLocalDateTime(lastSync).minusSeconds(SYNC_OVERLAP_SECONDS);
+
+        try {
+            sessionTokenDao.findSignedTokensLoggedOutSince(PREFIX, since).forEach(this::revoke);
+            lastSync = start;
+        } catch (Exception e) {
+            logger.error("Error syncing the revoked session tokens, retrying in the next sync", e);
+        }
+
+        long now = start / 1000;
+        revoked.values().removeIf(expiry -> expiry < now);
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Decodes the claims of a token
+     * @param payload the payload of the token, in base64url
+     * @return the claims, or null if the payload has not the expected length
+     */
+    private static Claims decodeClaims(String payload) {
+        byte[] bytes = DECODER.decode(payload);
+        if (bytes.length != PAYLOAD_LENGTH) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int userId = buffer.getInt();
+        int userType = buffer.getInt();
+        long issuedAt = buffer.getLong();
+        String sessionId = ENCODER.encodeToString(Arrays.copyOfRange(bytes, buffer.position(), bytes.length));
+
+        return new Claims(userId, userType, issuedAt, sessionId);
+    }
+
+    /**
+     * Claims carried by a signed session token
+     * @param userId the id of the user
+     * @param userType the id of the type of the user when the token was issued
+     * @param issuedAt the issue time, in epoch seconds
+     * @param sessionId the random id of the session, in base64url
+     */
+    public record Claims(int userId, int userType, long issuedAt, String sessionId) {
+    }
+
+    /**
+     * Result of the in-memory verification of a session token
+     * @param status the status of the token
+     * @param claims the claims of the token, only when it is valid
+     */
+    public record Verification(Status status, Claims claims) {
+
+        public static final Verification REJECTED = new Verification(Status.REJECTED, null);
+        public static final Verification UNVERIFIED = new Verification(Status.UNVERIFIED, null);
+
+        public enum Status {
+            VALID,
+            REJECTED,
+            UNVERIFIED
+        }
+
+        public boolean isValid() {
+            return status == Status.VALID;
+        }
+
+        public boolean isRejected() {
+            return status == Status.REJECTED;
+        }
+    }
+
+    /**
+     * Key signing the tokens, with one MAC per thread as they are not thread-safe
+     */
+    private static final class SigningKey {
+
+        private final String id;
+        private final long createdAt;
+        private final ThreadLocal<Mac> mac;
+
+        SigningKey(String id, byte[] secret, long createdAt) {
+            this.id = id;
+            this.createdAt = createdAt;
+
+            SecretKeySpec spec = new SecretKeySpec(secret, ALGORITHM);
+            this.mac = ThreadLocal.withInitial(() -> {
+                try {
+                    Mac instance = Mac.getInstance(ALGORITHM);
+                    instance.init(spec);
+                    return instance;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("HmacSHA256 is not available", e);
+                }
+            });
+        }
+
+        byte[] sign(String signed) {
+            return Arrays.copyOf(mac.get().doFinal(signed.getBytes(StandardCharsets.US_ASCII)), MAC_LENGTH);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import domcast.finalprojbackend.dao.ValidationTokenDao;
 import domcast.finalprojbackend.entity.SessionTokenEntity;
 import domcast.finalprojbackend.entity.UserEntity;
 import domcast.finalprojbackend.entity.ValidationTokenEntity;
+import domcast.finalprojbackend.enums.TypeOfUserEnum;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import org.apache.logging.log4j.LogManager;
@@ -13,9 +14,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.Serializable;
 import java.security.SecureRandom;
-import java.time.LocalDateTime;
 import java.util.Base64;
-import java.util.List;
 
 /**
  * Bean for token operations
@@ -36,6 +35,13 @@ public class TokenBean implements Serializable {
     UserDao userDao;
     @EJB
     UserBean userBean;
+    @EJB
+    private SessionExpiryBean sessionExpiryBean;
+    @EJB
+    private SignedTokenBean signedTokenBean;
+
+    // Thread-safe and expensive to seed, so shared by every token
+    private static final SecureRandom RANDOM = new SecureRandom();
 
     // Default constructor
     public TokenBean() {
@@ -53,11 +59,7 @@ public class TokenBean implements Serializable {
 
         ValidationTokenEntity validationTokenEntity = new ValidationTokenEntity();
         try {
-            SecureRandom secureRandom = new SecureRandom(); //threadsafe instance of SecureRandom class for generating random numbers
-            Base64.Encoder base64Encoder = Base64.getUrlEncoder(); //threadsafe instance of Base64.Encoder class for encoding byte data
-            byte[] randomBytes = new byte[24];
-            secureRandom.nextBytes(randomBytes);
-            String token = base64Encoder.encodeToString(randomBytes);
+            String token = generateOpaqueToken();
 
             validationTokenEntity.setToken(token);
             validationTokenEntity.setUser(user);
@@ -79,30 +81,70 @@ public class TokenBean implements Serializable {
      * @return the generated session token
      */
     public SessionTokenEntity generateSessionToken(UserEntity user, String ipAddress) {
+        if (user == null || user.getType() == null) {
+            logger.error("An error occurred while generating the session token, the user or its type is null");
+            return new SessionTokenEntity();
+        }
+
+        return generateSessionToken(user, user.getId(), user.getType(), ipAddress);
+    }
+
+    /**
+     * Generates a session token for a user that was not loaded, referencing it by its id
+     * @param userId the id of the user for which the token is generated
+     * @param type the type of the user
+     * @param ipAddress the IP address from which the session was created
+     * @return the generated session token
+     */
+    public SessionTokenEntity generateSessionToken(int userId, TypeOfUserEnum type, String ipAddress) {
+        if (type == null) {
+            logger.error("An error occurred while generating the session token, the type of the user is null");
+            return new SessionTokenEntity();
+        }
+
+        return generateSessionToken(userDao.getReference(userId), userId, type, ipAddress);
+    }
+
+    /**
+     * Generates a session token for the user, signed with its id and type if signed tokens are issued
+     * @param user the user, or a reference to it, set in the token
+     * @param userId the id of the user
+     * @param type the type of the user
+     * @param ipAddress the IP address from which the session was created
+     * @return the generated session token
+     */
+    private SessionTokenEntity generateSessionToken(UserEntity user, int userId, TypeOfUserEnum type, String ipAddress) {
         logger.info("Generating session token");
 
         SessionTokenEntity sessionTokenEntity = new SessionTokenEntity();
-        try {
-            // Generate a random token
-            SecureRandom secureRandom = new SecureRandom(); //threadsafe instance of SecureRandom class for generating random numbers
-            Base64.Encoder base64Encoder = Base64.getUrlEncoder(); //threadsafe instance of Base64.Encoder class for encoding byte data
-            byte[] randomBytes = new byte[24];
-            secureRandom.nextBytes(randomBytes);
-            String token = base64Encoder.encodeToString(randomBytes);
-
-            // Set the session token entity properties
-            sessionTokenEntity.setToken(token);
-            sessionTokenEntity.setUser(user);
-            sessionTokenEntity.setIpAddress(ipAddress);
-
-            logger.info("Session token generated");
-        } catch (NullPointerException e) {
-            logger.error("An error occurred while generating the session token", e);
-        }
 
+        // Generate a signed token, verified without the database, or a random one
+        String token = signedTokenBean.isIssuing()
+                ? signedTokenBean.issue(userId, type.getId())
+                : generateOpaqueToken();
+
+        // Set the session token entity properties
+        sessionTokenEntity.setToken(token);
+        sessionTokenEntity.setUser(user);
+        sessionTokenEntity.setIpAddress(ipAddress);
+
+        // Start the idle deadline of the new session
+        sessionExpiryBean.touch(token);
+
+        logger.info("Session token generated");
         return sessionTokenEntity;
     }
 
+    /**
+     * Generates a random token, only checked in the database
+     * @return the generated token
+     */
+    private static String generateOpaqueToken() {
+        byte[] randomBytes = new byte[24];
+        RANDOM.nextBytes(randomBytes);
+        return Base64.getUrlEncoder().encodeToString(randomBytes);
+    }
+
     /**
      * Sets the validation token as inactive
      * @param token the token to be set as inactive
@@ -127,18 +169,11 @@ public class TokenBean implements Serializable {
      * @return boolean value indicating if the operation was successful
      */
     public boolean setSessionTokenLogoutToNow(String token) {
+        sessionExpiryBean.forget(token);
+        signedTokenBean.revoke(token);
         return sessionTokenDao.setSessionTokenLogoutToNow(token);
     }
 
-    /**
-     * Finds active sessions that have exceeded the timeout
-     * @param timeout the session timeout
-     * @return the list of session tokens that have exceeded the timeout
-     */
-    public List<SessionTokenEntity> findActiveSessionsExceededTimeout(int timeout) {
-        return sessionTokenDao.findActiveSessionsExceededTimeout(timeout, LocalDateTime.now());
-    }
-
     /**
      * Checks if the validation token is expired
      * @param token the validation token to be checked
@@ -170,6 +205,13 @@ public class TokenBean implements Serializable {
         logger.info("Finding user by token");
 
         try {
+            SignedTokenBean.Verification verification = signedTokenBean.verify(token);
+            if (verification.isRejected()) {
+                return null;
+            }
+            if (verification.isValid()) {
+                return userDao.find(verification.claims().userId());
+            }
             return sessionTokenDao.findUserByToken(token);
         } catch (Exception e) {
             logger.error("Error finding user by token", e);
@@ -185,9 +227,12 @@ public class TokenBean implements Serializable {
 
         if (token == null || token.isEmpty()) {
             logger.error("Token is null or empty. Cannot set last access to now");
+            return;
         }
 
         try {
+            // Kept in memory and written to the database in batches by the session expiry
+            sessionExpiryBean.touch(token);
             logger.info("Last access updated to now for token: {}", token);
         } catch (Exception e) {
             logger.error("Error setting last access to now", e);
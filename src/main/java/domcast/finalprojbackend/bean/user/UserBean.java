@@ -69,6 +69,8 @@ public class UserBean implements Serializable {
     private ValidationTokenDao validationTokenDao;
     @EJB
     private SessionTokenDao sessionTokenDao;
+    @EJB
+    private MatchingBean matchingBean;
 
     // Default constructor
     public UserBean() {}
@@ -207,6 +209,7 @@ public class UserBean implements Serializable {
             logger.error("Error while merging in user, during registration process: {}", userEntity.getEmail());
             return false;
         }
+        matchingBean.userChanged(userEntity.getId());
 
         return true;
     }
@@ -229,10 +232,10 @@ public class UserBean implements Serializable {
         logger.info("User input is valid");
         logger.info("Checking if login is valid");
 
-        // Check if the login is valid, if not, throws an exception
-        UserEntity user = userDao.findUserByEmail(login.getEmail());
+        // Loads only the credentials, as the user entity and its collections grow with the history of the account
+        LoginCredentials credentials = userDao.findLoginCredentials(login.getEmail());
 
-        if (user == null || user.getType() == TypeOfUserEnum.NOT_CONFIRMED) {
+        if (credentials == null || credentials.getType() == TypeOfUserEnum.NOT_CONFIRMED) {
             logger.error("User not found or not confirmed: {}", login.getEmail());
             throw new IllegalArgumentException("User not found or not confirmed");
         }
@@ -240,37 +243,34 @@ public class UserBean implements Serializable {
         logger.info("User found: {}", login.getEmail());
 
         // Check if the password is valid, if not, throws an exception
-        if (!authenticationAndAuthorization.checkPassword(login.getPassword(), user.getPassword())) {
+        if (!authenticationAndAuthorization.checkPassword(login.getPassword(), credentials.getPassword())) {
             logger.error("Invalid password for user: {}", login.getEmail());
             throw new IllegalArgumentException("Invalid password");
         }
 
         logger.info("Login attempt: Email and password are valid");
 
-        // Generate a session token for user
-        SessionTokenEntity sessionToken = tokenBean.generateSessionToken(user, ipAddress);
+        // Generate a session token for user, referencing it by its id
+        SessionTokenEntity sessionToken = tokenBean.generateSessionToken(credentials.getId(), credentials.getType(), ipAddress);
 
         // Checks if the session token is null, if so, throws an exception
-        if (sessionToken == null) {
+        if (sessionToken == null || sessionToken.getToken() == null) {
             logger.error("Error while generating session token");
             throw new IllegalArgumentException("Error while generating session token");
         }
 
-        // Adds the session token to the user
-        user.addSessionToken(sessionToken);
-
         logger.info("Session token generated");
 
-        // Merges the user
-        if (!userDao.merge(user)) {
+        // Inserts the session token, instead of merging the user with all its sessions
+        if (!sessionTokenDao.persist(sessionToken)) {
             logger.error("Error while logging in user: {}", login.getEmail());
             throw new IllegalArgumentException("Error while logging in user");
         }
 
         logger.info("User logged in: {}", login.getEmail());
 
-        // Converts the user entity to a logged user
-        LoggedUser loggedUser = convertUserEntityToLoggedUser(user, sessionToken.getToken());
+        // Builds the logged user from targeted queries
+        LoggedUser loggedUser = userDao.findLoggedUser(credentials.getId());
 
         // Checks if the logged user is null, if so, throws an exception
         if (loggedUser == null) {
@@ -278,6 +278,8 @@ public class UserBean implements Serializable {
             throw new IllegalArgumentException("Error while converting user to logged user");
         }
 
+        loggedUser.setSessionToken(sessionToken.getToken());
+
         // Returns the logged user
         return loggedUser;
     }
@@ -670,6 +672,8 @@ public class UserBean implements Serializable {
             userEntity = skillBean.updateUserSkillsIfChanged(userEntity, user);
 
             userDao.merge(userEntity);
+            userDao.incrementProfileVersion(userId);
+            matchingBean.userChanged(userId);
 
             LoggedUser loggedUser = convertUserEntityToLoggedUser(userEntity, token);
 
@@ -698,6 +702,7 @@ public class UserBean implements Serializable {
         try {
             userEntity.setPhoto(photoPath);
             userDao.merge(userEntity);
+            userDao.incrementProfileVersion(userEntity.getId());
             LoggedUser loggedUser = convertUserEntityToLoggedUser(userEntity, token);
 
             if (loggedUser == null) {
@@ -1,10 +1,9 @@
 package domcast.finalprojbackend.dao;
 
+import jakarta.ejb.EJB;
 import jakarta.ejb.TransactionAttribute;
 import jakarta.ejb.TransactionAttributeType;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.PersistenceException;
+import jakarta.persistence.*;
 import jakarta.persistence.criteria.CriteriaDelete;
 import jakarta.persistence.criteria.CriteriaQuery;
 import org.apache.logging.log4j.LogManager;
@@ -12,6 +11,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Abstract class that contains the basic CRUD operations for the database.
@@ -26,6 +26,8 @@ import java.util.List;
  * - findAll: finds all the entities of the type.
  * - deleteAll: deletes all the entities of the type.
  * - flush: flushes the entity manager.
+ * - evictFromCache: evicts the entities of the type from the second-level cache.
+ * - readOnly: runs a read-only query in the read replica, if there is one.
  */
 
 @TransactionAttribute(TransactionAttributeType.REQUIRED)
@@ -41,10 +43,17 @@ public abstract class AbstractDao<T extends Serializable> implements Serializabl
 	// The class of the entity
 	private final Class<T> clazz;
 
+	// Number of results per page when a response is read page by page
+	public static final int STREAM_CHUNK_SIZE = 100;
+
 	// The entity manager
 	@PersistenceContext(unitName = "PersistenceUnit")
 	protected EntityManager em;
 
+	// The router to the read replica
+	@EJB
+	protected ReplicaRouter replicaRouter;
+
 	/**
 	 * Constructor with parameters.
 	 * @param clazz the class of the entity.
@@ -65,6 +74,18 @@ public abstract class AbstractDao<T extends Serializable> implements Serializabl
 		return em.find(clazz, id);
 	}
 
+	/**
+	 * Method that gets a reference to an entity by its id, without loading its state.
+	 * Useful to set foreign keys when only the id of the related entity is known.
+	 * @param id the id of the entity.
+	 * @return a reference to the entity with the id.
+	 */
+	// Get a reference to an entity by its id
+	public T getReference(Object id)
+	{
+		return em.getReference(clazz, id);
+	}
+
 	/**
 	 * Method that persists an entity in the database.
 	 * @param entity the entity to be persisted.
@@ -164,4 +185,44 @@ public abstract class AbstractDao<T extends Serializable> implements Serializabl
 	public void clear() {
 		em.clear();
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Method that evicts all the entities of the type from the second-level cache.
+	 * Cached queries over the type are invalidated by the provider when its table is written.
+	 */
+	public void evictFromCache() {
+		try {
+			em.getEntityManagerFactory().getCache().evict(clazz);
+		} catch (Exception e) {
+			logger.error("Error while evicting {} from the second-level cache: {}", clazz.getSimpleName(), e.getMessage());
+		}
+	}
+
+	/**
+	 * Method that runs a read-only query in the read replica, when it is available and recent enough,
+	 * or in the primary database otherwise. If the replica fails, the query is run again in the primary.
+	 * The entities returned by the replica are detached, so the query must fetch whatever the caller reads.
+	 * @param query the query, run with the entity manager it receives.
+	 * @return the result of the query.
+	 */
+	protected <R> R readOnly(Function<EntityManager, R> query) {
+		if (replicaRouter == null || !replicaRouter.isAvailable()) {
+			return query.apply(em);
+		}
+
+		EntityManager replica = null;
+		try {
+			replica = replicaRouter.createEntityManager();
+			return query.apply(replica);
+		} catch (NoResultException | NonUniqueResultException e) {
+			throw e;
+		} catch (PersistenceException e) {
+			replicaRouter.markUnavailable(e);
+			return query.apply(em);
+		} finally {
+			if (replica != null) {
+				replica.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package domcast.finalprojbackend.dao;
+
+import domcast.finalprojbackend.entity.BroadcastOutboxEntity;
+import jakarta.ejb.Stateless;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Data access object for the broadcast outbox
+ * @see BroadcastOutboxEntity
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Stateless
+public class BroadcastOutboxDao extends AbstractDao<BroadcastOutboxEntity> {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(BroadcastOutboxDao.class);
+
+    /**
+     * Default constructor
+     */
+    public BroadcastOutboxDao() {
+        super(BroadcastOutboxEntity.class);
+    }
+
+    /**
+     * Finds the frames published after a given id, in publishing order
+     * @param lastId the id of the last frame already delivered
+     * @param maxResults the maximum number of frames to return
+     * @return the frames published after the given id
+     */
+    public List<BroadcastOutboxEntity> findAfterId(long lastId, int maxResults) {
+        try {
+            return em.createNamedQuery("BroadcastOutbox.findAfterId", BroadcastOutboxEntity.class)
+                    .setParameter("lastId", lastId)
+                    .setMaxResults(maxResults)
+                    .getResultList();
+        } catch (Exception e) {
+            logger.error("Error finding broadcast frames after id {}", lastId, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Finds the frames with the given ids, in publishing order
+     * @param ids the ids of the frames
+     * @return the frames found, which may be fewer than the ids
+     */
+    public List<BroadcastOutboxEntity> findByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        try {
+            return em.createNamedQuery("BroadcastOutbox.findByIds", BroadcastOutboxEntity.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+        } catch (Exception e) {
+            logger.error("Error finding {} broadcast frames by id", ids.size(), e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Finds the id of the last frame published
+     * @return the id of the last frame, or 0 if there are none
+     */
+    public long findMaxId() {
+        try {
+            return em.createNamedQuery("BroadcastOutbox.findMaxId", Long.class)
+                    .getSingleResult();
+        } catch (Exception e) {
+            logger.error("Error finding the id of the last broadcast frame", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Deletes the frames published before a given time
+     * @param before the time before which frames are deleted
+     * @return the number of frames deleted
+     */
+    public int deleteOlderThan(LocalDateTime before) {
+        try {
+            return em.createNamedQuery("BroadcastOutbox.deleteOlderThan")
+                    .setParameter("before", before)
+                    .executeUpdate();
+        } catch (Exception e) {
+            logger.error("Error deleting broadcast frames older than {}", before, e);
+            return 0;
+        }
+    }
+}
@@ -95,37 +95,55 @@ public class ComponentResourceDao extends AbstractDao<ComponentResourceEntity> {
      * @return a list of ComponentResourceEntity objects
      */
     public List<ComponentResourceEntity> getComponentResourcesByCriteria(String name, String brand, long partNumber, String supplier, String orderBy, boolean orderAsc, int pageNumber, int pageSize) {
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<ComponentResourceEntity> cq = cb.createQuery(ComponentResourceEntity.class);
+        // A pure read, served by the read replica when there is one
+        return readOnly(reader -> {
+            CriteriaBuilder cb = reader.getCriteriaBuilder();
+            CriteriaQuery<ComponentResourceEntity> cq = cb.createQuery(ComponentResourceEntity.class);
 
-        Root<ComponentResourceEntity> componentResource = cq.from(ComponentResourceEntity.class);
-        List<Predicate> predicates = new ArrayList<>();
-        if (name != null && !name.isEmpty()) {
-            predicates.add(cb.equal(componentResource.get("name"), name));
-        }
-        if (brand != null && !brand.isEmpty()) {
-            predicates.add(cb.equal(componentResource.get("brand"), brand));
-        }
-        if (partNumber != 0) {
-            predicates.add(cb.equal(componentResource.get("partNumber"), partNumber));
-        }
-        if (supplier != null && !supplier.isEmpty()) {
-            predicates.add(cb.equal(componentResource.get("supplier"), supplier));
-        }
+            Root<ComponentResourceEntity> componentResource = cq.from(ComponentResourceEntity.class);
+            List<Predicate> predicates = new ArrayList<>();
+            if (name != null && !name.isEmpty()) {
+                predicates.add(cb.equal(componentResource.get("name"), name));
+            }
+            if (brand != null && !brand.isEmpty()) {
+                predicates.add(cb.equal(componentResource.get("brand"), brand));
+            }
+            if (partNumber != 0) {
+                predicates.add(cb.equal(componentResource.get("partNumber"), partNumber));
+            }
+            if (supplier != null && !supplier.isEmpty()) {
+                predicates.add(cb.equal(componentResource.get("supplier"), supplier));
+            }
 
-        cq.select(componentResource).where(cb.and(predicates.toArray(new Predicate[0])));
+            cq.select(componentResource).where(cb.and(predicates.toArray(new Predicate[0])));
 
-        if (orderBy != null) {
-            if (orderAsc) {
-                cq.orderBy(cb.asc(componentResource.get(orderBy)));
-            } else {
-                cq.orderBy(cb.desc(componentResource.get(orderBy)));
+            if (orderBy != null) {
+                if (orderAsc) {
+                    cq.orderBy(cb.asc(componentResource.get(orderBy)));
+                } else {
+                    cq.orderBy(cb.desc(componentResource.get(orderBy)));
+                }
             }
-        }
 
-        TypedQuery<ComponentResourceEntity> query = em.createQuery(cq);
-        query.setFirstResult((pageNumber - 1) * pageSize); // Adjust pageNumber to be 0-indexed
-        query.setMaxResults(pageSize);
-        return query.getResultList();
+            TypedQuery<ComponentResourceEntity> query = reader.createQuery(cq);
+            query.setFirstResult((pageNumber - 1) * pageSize); // Adjust pageNumber to be 0-indexed
+            query.setMaxResults(pageSize);
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Finds the distinct names of all component resources.
+     *
+     * @return the names of the component resources, empty on error
+     */
+    public List<String> findAllNames() {
+        logger.info("Finding all component resource names");
+        try {
+            return em.createNamedQuery("ComponentResource.findAllNames", String.class).getResultList();
+        } catch (Exception e) {
+            logger.error("Error while finding all component resource names: {}", e.getMessage());
+            return new ArrayList<>();
+        }
     }
 }
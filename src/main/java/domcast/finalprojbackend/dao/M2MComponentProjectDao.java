@@ -2,12 +2,11 @@ package domcast.finalprojbackend.dao;
 
 import domcast.finalprojbackend.entity.M2MComponentProject;
 import jakarta.ejb.Stateless;
+import jakarta.persistence.PersistenceException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Data access object for the M2MComponentProject entity.
@@ -123,5 +122,106 @@ public class M2MComponentProjectDao extends AbstractDao<M2MComponentProject> {
             logger.error("Error while setting M2MComponentProject as inactive by component id {} and project id {}: {}", componentId, projectId, e.getMessage());
         }
     }
-}
 
+    /**
+     * Method that finds the state of every component resource relationship of a project, active or not.
+     *
+     * @param projectId the id of the project.
+     * @param active    the map to fill with the quantity of each active relationship, by component resource id.
+     * @param inactive  the set to fill with the component resource ids of the inactive relationships.
+     * @throws PersistenceException if an error occurs, as the relationships would be written from a wrong state.
+     */
+    public void findComponentStatesByProjectId(int projectId, Map<Integer, Integer> active, Set<Integer> inactive) {
+        try {
+            for (Object[] row : em.createNamedQuery("M2MComponentProject.findComponentStatesByProjectId", Object[].class)
+                    .setParameter("projectId", projectId)
+                    .getResultList()) {
+                if ((Boolean) row[2]) {
+                    active.put((Integer) row[0], (Integer) row[1]);
+                } else {
+                    inactive.add((Integer) row[0]);
+                }
+            }
+        } catch (PersistenceException e) {
+            logger.error("Error while finding the component resource states for project {}: {}", projectId, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Method that sets many M2MComponentProject as active, with the same quantity, in a single update.
+     *
+     * @param projectId    the id of the project.
+     * @param componentIds the ids of the components.
+     * @param quantity     the quantity of the components in the project.
+     * @return the number of relationships updated.
+     * @throws PersistenceException if an error occurs during the update.
+     */
+    public int setActiveWithQuantityByComponentIdsAndProjectId(int projectId, Collection<Integer> componentIds, int quantity) {
+        if (componentIds == null || componentIds.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return em.createNamedQuery("M2MComponentProject.setActiveWithQuantityByProjectIdAndComponentIds")
+                    .setParameter("projectId", projectId)
+                    .setParameter("componentIds", componentIds)
+                    .setParameter("quantity", quantity)
+                    .executeUpdate();
+        } catch (PersistenceException e) {
+            logger.error("Error while setting {} M2MComponentProject as active for project {}: {}", componentIds.size(), projectId, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Method that sets many M2MComponentProject as inactive in a single update.
+     *
+     * @param projectId    the id of the project.
+     * @param componentIds the ids of the components.
+     * @return the number of relationships updated.
+     * @throws PersistenceException if an error occurs during the update.
+     */
+    public int setInactiveByComponentIdsAndProjectId(int projectId, Collection<Integer> componentIds) {
+        if (componentIds == null || componentIds.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return em.createNamedQuery("M2MComponentProject.setInactiveByProjectIdAndComponentIds")
+                    .setParameter("projectId", projectId)
+                    .setParameter("componentIds", componentIds)
+                    .executeUpdate();
+        } catch (PersistenceException e) {
+            logger.error("Error while setting {} M2MComponentProject as inactive for project {}: {}", componentIds.size(), projectId, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Method that inserts many M2MComponentProject with the same quantity in a single statement,
+     * ignoring the components that do not exist.
+     *
+     * @param projectId    the id of the project.
+     * @param componentIds the ids of the components.
+     * @param quantity     the quantity of the components in the project.
+     * @return the number of relationships inserted.
+     * @throws PersistenceException if an error occurs during the insert.
+     */
+    public int insertForProject(int projectId, Collection<Integer> componentIds, int quantity) {
+        if (componentIds == null || componentIds.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return em.createNamedQuery("M2MComponentProject.insertForProject")
+                    .setParameter("projectId", projectId)
+                    .setParameter("componentIds", componentIds)
+                    .setParameter("quantity", quantity)
+                    .executeUpdate();
+        } catch (PersistenceException e) {
+            logger.error("Error while inserting {} M2MComponentProject for project {}: {}", componentIds.size(), projectId, e.getMessage());
+            throw e;
+        }
+    }
+}
@@ -6,8 +6,7 @@ import jakarta.persistence.PersistenceException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 
 @Stateless
 public class M2MKeywordDao extends AbstractDao<M2MKeyword> {
@@ -82,4 +81,76 @@ public class M2MKeywordDao extends AbstractDao<M2MKeyword> {
         }
     }
 
+
+    /**
+     * Finds the state of every keyword relationship of a project, active or not.
+     *
+     * @param projectId the id of the project
+     * @return whether each related keyword is active, by keyword name
+     * @throws PersistenceException if an error occurs, as the relationships would be written from a wrong state
+     */
+    public Map<String, Boolean> findKeywordStatesByProject(int projectId) {
+        Map<String, Boolean> states = new HashMap<>();
+        try {
+            for (Object[] row : em.createNamedQuery("M2MKeyword.findKeywordStatesByProject", Object[].class)
+                    .setParameter("projectId", projectId)
+                    .getResultList()) {
+                states.put((String) row[0], (Boolean) row[1]);
+            }
+            return states;
+        } catch (PersistenceException e) {
+            logger.error("Error finding the keyword states for project {}: {}", projectId, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Sets many keywords as active or inactive for a project in a single update.
+     *
+     * @param projectId the id of the project
+     * @param names the names of the keywords
+     * @param active the new state of the relationships
+     * @return the number of relationships updated
+     * @throws PersistenceException if an error occurs during the update
+     */
+    public int setKeywordsActiveForProject(int projectId, Collection<String> names, boolean active) {
+        if (names == null || names.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return em.createNamedQuery("M2MKeyword.setKeywordsActiveForProject")
+                    .setParameter("projectId", projectId)
+                    .setParameter("names", names)
+                    .setParameter("active", active)
+                    .executeUpdate();
+        } catch (PersistenceException e) {
+            logger.error("Error setting {} keywords {} for project {}: {}", names.size(), active ? "active" : "inactive", projectId, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Inserts many keyword relationships for a project in a single statement, ignoring the keywords that do not exist.
+     *
+     * @param projectId the id of the project
+     * @param names the names of the keywords
+     * @return the number of relationships inserted
+     * @throws PersistenceException if an error occurs during the insert
+     */
+    public int insertKeywordsForProject(int projectId, Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return em.createNamedQuery("M2MKeyword.insertKeywordsForProject")
+                    .setParameter("projectId", projectId)
+                    .setParameter("names", names)
+                    .executeUpdate();
+        } catch (PersistenceException e) {
+            logger.error("Error inserting {} keywords for project {}: {}", names.size(), projectId, e.getMessage());
+            throw e;
+        }
+    }
 }
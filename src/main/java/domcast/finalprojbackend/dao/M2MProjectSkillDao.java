@@ -2,12 +2,12 @@ package domcast.finalprojbackend.dao;
 
 import domcast.finalprojbackend.entity.M2MProjectSkill;
 import jakarta.ejb.Stateless;
+import jakarta.persistence.PersistenceException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.Serial;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Data Access Object (DAO) class for the project_skill table in the database.
@@ -110,4 +110,73 @@ public class M2MProjectSkillDao extends AbstractDao<M2MProjectSkill> {
             logger.error("Error while setting skill active for project: {}", e.getMessage());
         }
     }
+
+    /**
+     * Method to find the state of every project-skill relationship of a project, active or not.
+     * @param projectId the id of the project
+     * @return whether each related skill is active, by skill id
+     * @throws PersistenceException if an error occurs, as the relationships would be written from a wrong state
+     */
+    public Map<Integer, Boolean> findSkillStatesForProject(int projectId) {
+        Map<Integer, Boolean> states = new HashMap<>();
+        try {
+            for (Object[] row : em.createNamedQuery("M2MProjectSkill.findSkillStatesForProject", Object[].class)
+                    .setParameter("projectId", projectId)
+                    .getResultList()) {
+                states.put((Integer) row[0], (Boolean) row[1]);
+            }
+            return states;
+        } catch (PersistenceException e) {
+            logger.error("Error while finding the skill states for project {}: {}", projectId, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Method to set many project-skill relationships as active or inactive in a single update.
+     * @param projectId the id of the project
+     * @param skillIds the ids of the skills
+     * @param active the new state of the relationships
+     * @return the number of relationships updated
+     * @throws PersistenceException if an error occurs during the update
+     */
+    public int setSkillsActiveForProject(int projectId, Collection<Integer> skillIds, boolean active) {
+        if (skillIds == null || skillIds.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return em.createNamedQuery("M2MProjectSkill.setSkillsActiveForProject")
+                    .setParameter("projectId", projectId)
+                    .setParameter("skillIds", skillIds)
+                    .setParameter("active", active)
+                    .executeUpdate();
+        } catch (PersistenceException e) {
+            logger.error("Error while setting {} skills {} for project {}: {}", skillIds.size(), active ? "active" : "inactive", projectId, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Method to insert many project-skill relationships in a single statement, ignoring the skills that do not exist.
+     * @param projectId the id of the project
+     * @param skillIds the ids of the skills
+     * @return the number of relationships inserted
+     * @throws PersistenceException if an error occurs during the insert
+     */
+    public int insertSkillsForProject(int projectId, Collection<Integer> skillIds) {
+        if (skillIds == null || skillIds.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return em.createNamedQuery("M2MProjectSkill.insertSkillsForProject")
+                    .setParameter("projectId", projectId)
+                    .setParameter("skillIds", skillIds)
+                    .executeUpdate();
+        } catch (PersistenceException e) {
+            logger.error("Error while inserting {} skills for project {}: {}", skillIds.size(), projectId, e.getMessage());
+            throw e;
+        }
+    }
 }
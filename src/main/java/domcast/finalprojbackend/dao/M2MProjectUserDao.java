@@ -1,18 +1,18 @@
 package domcast.finalprojbackend.dao;
 
+import domcast.finalprojbackend.dto.userDto.ProjectUser;
 import domcast.finalprojbackend.entity.M2MComponentProject;
 import domcast.finalprojbackend.entity.M2MProjectUser;
 import domcast.finalprojbackend.entity.ProjectEntity;
+import domcast.finalprojbackend.enums.ProjectUserEnum;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.NonUniqueResultException;
+import jakarta.persistence.PersistenceException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 @Stateless
 public class M2MProjectUserDao extends AbstractDao<M2MProjectUser> {
@@ -148,6 +148,31 @@ public class M2MProjectUserDao extends AbstractDao<M2MProjectUser> {
         }
     }
 
+    /**
+     * Method to remove the pending invitations or applications of many users to a project, in a single statement.
+     *
+     * @param userIds the ids of the users
+     * @param projectId the id of the project
+     * @return the number of invitations or applications removed
+     * @throws PersistenceException if an error occurs during the update
+     */
+    public int removePendingProjectUsers(Collection<Integer> userIds, int projectId) {
+        if (userIds == null || userIds.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            logger.info("Attempting to remove the pending project users with user ids: {} and project id: {}", userIds, projectId);
+            return em.createNamedQuery("M2MProjectUser.removePendingProjectUsers")
+                    .setParameter("userIds", userIds)
+                    .setParameter("projectId", projectId)
+                    .executeUpdate();
+        } catch (PersistenceException e) {
+            logger.error("Error while removing the pending project users with user ids: {} and project id: {}", userIds, projectId, e);
+            throw e;
+        }
+    }
+
     /**
      * Method to get the number of active users in a project.
      *
@@ -172,6 +197,43 @@ public class M2MProjectUserDao extends AbstractDao<M2MProjectUser> {
         }
     }
 
+    /**
+     * Method to get the teams of a page of projects in a single query.
+     * Only the columns of the project user DTO are selected, so neither the users nor the projects are loaded.
+     *
+     * @param projectIds the ids of the projects
+     * @return the team of each project, by project id
+     */
+    public Map<Integer, Set<ProjectUser>> findTeamsOfProjects(Collection<Integer> projectIds) {
+        Map<Integer, Set<ProjectUser>> teams = new HashMap<>();
+
+        if (projectIds == null || projectIds.isEmpty()) {
+            return teams;
+        }
+
+        try {
+            logger.info("Attempting to get the teams of {} projects", projectIds.size());
+            List<Object[]> rows = em.createNamedQuery("M2MProjectUser.findTeamsOfProjects", Object[].class)
+                    .setParameter("projectIds", projectIds)
+                    .getResultList();
+
+            for (Object[] row : rows) {
+                ProjectUser projectUser = new ProjectUser();
+                projectUser.setId((Integer) row[1]);
+                projectUser.setFirstName((String) row[2]);
+                projectUser.setLastName((String) row[3]);
+                projectUser.setRole(((ProjectUserEnum) row[4]).getId());
+
+                teams.computeIfAbsent((Integer) row[0], id -> new HashSet<>()).add(projectUser);
+            }
+
+            return teams;
+        } catch (Exception e) {
+            logger.error("An unexpected error occurred while getting the teams of {} projects", projectIds.size(), e);
+            return teams;
+        }
+    }
+
     /**
      * Method to get the projects that exceed the maximum number of users.
      *
@@ -219,6 +281,24 @@ public class M2MProjectUserDao extends AbstractDao<M2MProjectUser> {
         }
     }
 
+    /**
+     * Method to get the ids of the active and approved users of a project, who may be responsible for its tasks.
+     *
+     * @param projectId the id of the project
+     * @return the ids of the users
+     * @throws PersistenceException if an error occurs during the query
+     */
+    public Set<Integer> findActiveApprovedUserIds(int projectId) {
+        try {
+            return new HashSet<>(em.createNamedQuery("M2MProjectUser.findActiveApprovedUserIds", Integer.class)
+                    .setParameter("projectId", projectId)
+                    .getResultList());
+        } catch (PersistenceException e) {
+            logger.error("Error while finding the active and approved users of project with id: {}", projectId, e);
+            throw e;
+        }
+    }
+
     /**
      * Method to find the project managers in a project.
      *
@@ -293,9 +373,91 @@ public class M2MProjectUserDao extends AbstractDao<M2MProjectUser> {
     public double averageUsersInProjects() {
         logger.info("Getting average number of users in projects");
         try {
-            return (double) em.createNamedQuery("M2MProjectUser.averageActiveUsersAcrossAllProjects").getSingleResult();
+            return readOnly(reader -> (double) reader.createNamedQuery("M2MProjectUser.averageActiveUsersAcrossAllProjects").getSingleResult());
         } catch (NoResultException e) {
             return 0;
         }
     }
+
+    /**
+     * Method to find the relations of the given users with a project, whatever their state.
+     *
+     * @param projectId the id of the project
+     * @param userIds the ids of the users
+     * @return the relations found
+     * @throws PersistenceException if an error occurs while finding the relations
+     */
+    public List<M2MProjectUser> findProjectUsersByUserIds(int projectId, Collection<Integer> userIds) {
+        try {
+            return em.createNamedQuery("M2MProjectUser.findProjectUsersByUserIds", M2MProjectUser.class)
+                    .setParameter("projectId", projectId)
+                    .setParameter("userIds", userIds)
+                    .getResultList();
+        } catch (PersistenceException e) {
+            logger.error("Error finding users with ids {} in project with id: {}", userIds, projectId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Method to find the ids of the users with a relation to a project, whatever their state,
+     * so they are not suggested to it again.
+     *
+     * @param projectId the id of the project
+     * @return the ids of the users
+     * @throws PersistenceException if an error occurs while finding the users
+     */
+    public Set<Integer> findAllUserIdsInProject(int projectId) {
+        try {
+            return new HashSet<>(em.createNamedQuery("M2MProjectUser.findAllUserIdsInProject", Integer.class)
+                    .setParameter("projectId", projectId)
+                    .getResultList());
+        } catch (PersistenceException e) {
+            logger.error("Error finding the users of project with id: {}", projectId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Method to find the ids of the projects a user has a relation with, whatever its state,
+     * so they are not suggested to the user again.
+     *
+     * @param userId the id of the user
+     * @return the ids of the projects
+     * @throws PersistenceException if an error occurs while finding the projects
+     */
+    public Set<Integer> findAllProjectIdsOfUser(int userId) {
+        try {
+            return new HashSet<>(em.createNamedQuery("M2MProjectUser.findAllProjectIdsOfUser", Integer.class)
+                    .setParameter("userId", userId)
+                    .getResultList());
+        } catch (PersistenceException e) {
+            logger.error("Error finding the projects of user with id: {}", userId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Method to find, out of the given users, the ones that are active in a project the user is also active in.
+     *
+     * @param userId the id of the user
+     * @param userIds the ids of the other users
+     * @return the ids of the teammates of the user
+     * @throws PersistenceException if an error occurs while finding the teammates
+     */
+    public Set<Integer> findTeammates(int userId, Collection<Integer> userIds) {
+        if (userIds.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        try {
+            return new HashSet<>(em.createNamedQuery("M2MProjectUser.findTeammates", Integer.class)
+                    .setParameter("userId", userId)
+                    .setParameter("userIds", userIds)
+                    .getResultList());
+        } catch (PersistenceException e) {
+            logger.error("Error finding the teammates of user with id: {}", userId, e);
+            throw e;
+        }
+    }
 }
@@ -2,6 +2,7 @@ package domcast.finalprojbackend.dao;
 
 import domcast.finalprojbackend.entity.M2MTaskDependencies;
 import jakarta.ejb.Stateless;
+import jakarta.persistence.PersistenceException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -26,4 +27,38 @@ public class M2MTaskDependenciesDao extends AbstractDao<M2MTaskDependencies> {
         super(M2MTaskDependencies.class);
     }
 
+    /**
+     * Links the tasks before a task to the tasks after it, in a single statement, so the order between them
+     * survives the removal of the task. Only active tasks are linked, and existing edges are not repeated.
+     * @param taskId the id of the task being removed
+     * @return the number of edges inserted
+     * @throws PersistenceException if an error occurs during the insert
+     */
+    public int relinkAroundTask(int taskId) {
+        try {
+            return em.createNamedQuery("M2MTaskDependencies.relinkAroundTask")
+                    .setParameter("taskId", taskId)
+                    .executeUpdate();
+        } catch (PersistenceException e) {
+            logger.error("Error while relinking the tasks around task {}: {}", taskId, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes every edge from or to a task in a single statement.
+     * @param taskId the id of the task
+     * @return the number of edges deleted
+     * @throws PersistenceException if an error occurs during the delete
+     */
+    public int deleteByTaskId(int taskId) {
+        try {
+            return em.createNamedQuery("M2MTaskDependencies.deleteByTaskId")
+                    .setParameter("taskId", taskId)
+                    .executeUpdate();
+        } catch (PersistenceException e) {
+            logger.error("Error while deleting the edges of task {}: {}", taskId, e.getMessage());
+            throw e;
+        }
+    }
 }
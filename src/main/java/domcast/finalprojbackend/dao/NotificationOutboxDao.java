@@ -0,0 +1,136 @@
+package domcast.finalprojbackend.dao;
+
+import domcast.finalprojbackend.entity.NotificationOutboxEntity;
+import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.persistence.LockModeType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.LockOptions;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data access object for the notification outbox
+ * @see NotificationOutboxEntity
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Stateless
+public class NotificationOutboxDao extends AbstractDao<NotificationOutboxEntity> {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(NotificationOutboxDao.class);
+
+    /**
+     * Default constructor
+     */
+    public NotificationOutboxDao() {
+        super(NotificationOutboxEntity.class);
+    }
+
+    /**
+     * Claims the notifications not yet dispatched, in writing order, for a node to send them.
+     * Runs in its own transaction, so the claim is visible to the other nodes before anything is sent.
+     * The rows are read with SKIP LOCKED, so nodes claiming at the same time get different notifications,
+     * and a claim that is not released, because its node stopped, expires after the lease.
+     * @param owner the id of the node claiming the notifications
+     * @param maxAttempts the number of failed attempts after which a notification is given up
+     * @param leaseSeconds the number of seconds the claim holds
+     * @param maxResults the maximum number of notifications to claim
+     * @return the notifications claimed by the node
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public List<NotificationOutboxEntity> claimPending(String owner, int maxAttempts, long leaseSeconds, int maxResults) {
+        LocalDateTime now = LocalDateTime.now();
+
+        try {
+            List<NotificationOutboxEntity> claimable = em.createNamedQuery("NotificationOutbox.findClaimable", NotificationOutboxEntity.class)
+                    .setParameter("maxAttempts", maxAttempts)
+                    .setParameter("now", now)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .setHint("jakarta.persistence.lock.timeout", LockOptions.SKIP_LOCKED)
+                    .setMaxResults(maxResults)
+                    .getResultList();
+
+            if (claimable.isEmpty()) {
+                return claimable;
+            }
+
+            List<Long> ids = new ArrayList<>(claimable.size());
+            for (NotificationOutboxEntity notification : claimable) {
+                ids.add(notification.getId());
+            }
+
+            em.createNamedQuery("NotificationOutbox.claim")
+                    .setParameter("owner", owner)
+                    .setParameter("until", now.plusSeconds(leaseSeconds))
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+
+            return claimable;
+        } catch (Exception e) {
+            logger.error("Error claiming pending notifications for node {}", owner, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Marks a batch of notifications as dispatched
+     * @param ids the ids of the notifications
+     * @return the number of notifications updated
+     */
+    public int markDispatched(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return em.createNamedQuery("NotificationOutbox.markDispatched")
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+        } catch (Exception e) {
+            logger.error("Error marking {} notifications as dispatched", ids.size(), e);
+            return -1;
+        }
+    }
+
+    /**
+     * Counts a failed attempt for a batch of notifications and releases their claim, so the next drain retries them
+     * @param ids the ids of the notifications
+     * @return the number of notifications updated
+     */
+    public int incrementAttempts(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return em.createNamedQuery("NotificationOutbox.incrementAttempts")
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+        } catch (Exception e) {
+            logger.error("Error counting failed attempts for {} notifications", ids.size(), e);
+            return -1;
+        }
+    }
+
+    /**
+     * Deletes the dispatched notifications written before a given time
+     * @param before the time before which dispatched notifications are deleted
+     * @return the number of notifications deleted
+     */
+    public int deleteDispatchedBefore(LocalDateTime before) {
+        try {
+            return em.createNamedQuery("NotificationOutbox.deleteDispatchedBefore")
+                    .setParameter("before", before)
+                    .executeUpdate();
+        } catch (Exception e) {
+            logger.error("Error deleting dispatched notifications older than {}", before, e);
+            return 0;
+        }
+    }
+}
@@ -1,13 +1,20 @@
 package domcast.finalprojbackend.dao;
 
 import domcast.finalprojbackend.entity.PersonalMessageEntity;
+import domcast.finalprojbackend.enums.MessageAndLogEnum;
 import jakarta.ejb.Stateless;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceException;
+import jakarta.persistence.TypedQuery;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Data access object for personal messages
@@ -73,9 +80,9 @@ public class PersonalMessageDao extends AbstractDao<PersonalMessageEntity> {
         logger.info("Getting all personal messages where the receiver is the user with id {}", userId);
 
         try {
-            return em.createNamedQuery("Message.getAllPersonalMessagesWhereReceiverIs", PersonalMessageEntity.class)
+            return readOnly(reader -> reader.createNamedQuery("Message.getAllPersonalMessagesWhereReceiverIs", PersonalMessageEntity.class)
                     .setParameter("userId", userId)
-                    .getResultList();
+                    .getResultList());
         } catch (Exception e) {
             logger.error("Error while getting personal messages: {}", e.getMessage());
             return new ArrayList<>();
@@ -91,15 +98,75 @@ public class PersonalMessageDao extends AbstractDao<PersonalMessageEntity> {
         logger.info("Getting all personal messages sent by the user with id {}", userId);
 
         try {
-            return em.createNamedQuery("Message.getAllPersonalMessagesSentByUser", PersonalMessageEntity.class)
+            return readOnly(reader -> reader.createNamedQuery("Message.getAllPersonalMessagesSentByUser", PersonalMessageEntity.class)
                     .setParameter("userId", userId)
-                    .getResultList();
+                    .getResultList());
         } catch (Exception e) {
             logger.error("Error while getting personal sent messages: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
 
+    /**
+     * Gets a page of the personal messages where the receiver is the user with the given id, newest first
+     * @param userId the id of the user
+     * @param beforeTimestamp the timestamp of the last message of the previous page, or null for the first page
+     * @param beforeId the id of the last message of the previous page
+     * @param pageSize the maximum number of messages of the page
+     * @return the messages of the page
+     * @throws PersistenceException if an error occurs while reading the messages
+     */
+    public List<PersonalMessageEntity> getPersonalMessagesWhereReceiverIsPage(int userId, LocalDateTime beforeTimestamp, int beforeId, int pageSize) {
+        logger.info("Getting a page of personal messages where the receiver is the user with id {}", userId);
+
+        try {
+            return readOnly(reader -> page(reader, "Message.getAllPersonalMessagesWhereReceiverIs",
+                    "Message.getPersonalMessagesWhereReceiverIsBefore", userId, beforeTimestamp, beforeId, pageSize));
+        } catch (PersistenceException e) {
+            logger.error("Error while getting a page of personal messages: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Gets a page of the personal messages sent by the user with the given id, newest first
+     * @param userId the id of the user
+     * @param beforeTimestamp the timestamp of the last message of the previous page, or null for the first page
+     * @param beforeId the id of the last message of the previous page
+     * @param pageSize the maximum number of messages of the page
+     * @return the messages of the page
+     * @throws PersistenceException if an error occurs while reading the messages
+     */
+    public List<PersonalMessageEntity> getPersonalMessagesSentByUserPage(int userId, LocalDateTime beforeTimestamp, int beforeId, int pageSize) {
+        logger.info("Getting a page of personal messages sent by the user with id {}", userId);
+
+        try {
+            return readOnly(reader -> page(reader, "Message.getAllPersonalMessagesSentByUser",
+                    "Message.getPersonalMessagesSentByUserBefore", userId, beforeTimestamp, beforeId, pageSize));
+        } catch (PersistenceException e) {
+            logger.error("Error while getting a page of personal sent messages: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the first page query, or the query of the page after a message when there is one
+     */
+    private static List<PersonalMessageEntity> page(EntityManager reader, String firstQuery, String beforeQuery, int userId,
+                                                    LocalDateTime beforeTimestamp, int beforeId, int pageSize) {
+        TypedQuery<PersonalMessageEntity> query;
+        if (beforeTimestamp == null) {
+            query = reader.createNamedQuery(firstQuery, PersonalMessageEntity.class);
+        } else {
+            query = reader.createNamedQuery(beforeQuery, PersonalMessageEntity.class)
+                    .setParameter("timestamp", beforeTimestamp)
+                    .setParameter("id", beforeId);
+        }
+        return query.setParameter("userId", userId)
+                .setMaxResults(pageSize)
+                .getResultList();
+    }
+
     /**
      * Marks a personal message as read
      * @param messageId the id of the message
@@ -116,6 +183,52 @@ public class PersonalMessageDao extends AbstractDao<PersonalMessageEntity> {
         }
     }
 
+    /**
+     * Marks as read, in a single statement, all the unread personal messages of a conversation up to a given message
+     * @param receiverId the id of the user who received the messages
+     * @param senderId the id of the user who sent the messages
+     * @param messageId the id of the last message to be marked as read
+     * @return the number of messages marked as read
+     */
+    public int markConversationAsReadUpTo(int receiverId, int senderId, int messageId) {
+        logger.info("Marking personal messages from user {} to user {} as read up to message {}", senderId, receiverId, messageId);
+
+        try {
+            return em.createNamedQuery("Message.markConversationAsReadUpTo")
+                    .setParameter("receiverId", receiverId)
+                    .setParameter("senderId", senderId)
+                    .setParameter("messageId", messageId)
+                    .executeUpdate();
+        } catch (Exception e) {
+            logger.error("Error while marking conversation as read: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Finds, out of the given users, the ones that exchanged personal messages with a user
+     * @param userId the id of the user
+     * @param userIds the ids of the other users
+     * @return the ids of the users with a conversation with the user
+     */
+    public Set<Integer> findConversationPartners(int userId, Collection<Integer> userIds) {
+        logger.info("Finding the conversation partners of user with id {} out of {} users", userId, userIds.size());
+
+        if (userIds.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        try {
+            return new HashSet<>(em.createNamedQuery("Message.findConversationPartners", Integer.class)
+                    .setParameter("userId", userId)
+                    .setParameter("userIds", userIds)
+                    .getResultList());
+        } catch (Exception e) {
+            logger.error("Error while finding the conversation partners of user with id {}: {}", userId, e.getMessage());
+            return new HashSet<>();
+        }
+    }
+
     /**
      * Checks if a user is the receiver of a personal message
      * @param messageId the ID of the message
@@ -154,4 +267,69 @@ public class PersonalMessageDao extends AbstractDao<PersonalMessageEntity> {
             logger.error("Error while setting the invitedTo field to null for personal messages: {}", e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Sets the invitedTo field to null for the personal messages of many receivers invited to a project,
+     * in a single statement
+     * @param userIds the ids of the receivers
+     * @param projectId the id of the project
+     */
+    public void setInvitedToNullForReceivers(Collection<Integer> userIds, int projectId) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+
+        logger.info("Setting the invitedTo field to null for the personal messages of {} users invited to project {}", userIds.size(), projectId);
+
+        try {
+            em.createNamedQuery("Message.setInvitedToNullForReceivers")
+                    .setParameter("userIds", userIds)
+                    .setParameter("projectId", projectId)
+                    .executeUpdate();
+        } catch (Exception e) {
+            logger.error("Error while setting the invitedTo field to null for personal messages: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Finds the next chunk of notifications that can be purged, in ascending id order.
+     * Notifications are the personal messages created by the system, the ones with a pending invitation are kept.
+     * @param afterId the id after which the chunk starts
+     * @param cutoff the time before which the notifications are purged
+     * @param limit the maximum number of ids
+     * @return the ids of the purgeable notifications
+     */
+    public List<Integer> findPurgeableNotificationIds(int afterId, LocalDateTime cutoff, int limit) {
+        try {
+            return em.createNamedQuery("Message.findPurgeableNotificationIds", Integer.class)
+                    .setParameter("afterId", afterId)
+                    .setParameter("personalType", MessageAndLogEnum.EMAIL)
+                    .setParameter("cutoff", cutoff)
+                    .setMaxResults(limit)
+                    .getResultList();
+        } catch (Exception e) {
+            logger.error("Error while finding purgeable notifications after id {}: {}", afterId, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Deletes a chunk of personal messages
+     * @param ids the ids of the messages to be deleted
+     * @return the number of messages deleted, or -1 if an error occurs
+     */
+    public int deletePersonalMessagesByIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return em.createNamedQuery("Message.deletePersonalMessagesByIds")
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+        } catch (Exception e) {
+            logger.error("Error while deleting {} personal messages: {}", ids.size(), e.getMessage());
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package domcast.finalprojbackend.dao;
+
+import domcast.finalprojbackend.entity.ProjectChangeEntity;
+import domcast.finalprojbackend.enums.ProjectChangeKindEnum;
+import jakarta.ejb.Stateless;
+import jakarta.persistence.NoResultException;
+import jakarta.persistence.PersistenceException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Data access object for the change versions of the projects and the changes made at each version
+ * @see ProjectChangeEntity
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Stateless
+public class ProjectChangeDao extends AbstractDao<ProjectChangeEntity> {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(ProjectChangeDao.class);
+
+    /**
+     * Default constructor
+     */
+    public ProjectChangeDao() {
+        super(ProjectChangeEntity.class);
+    }
+
+    /**
+     * Increases the change version of a project, locking its row until the transaction ends,
+     * so concurrent changes to the same project get consecutive versions
+     * @param projectId the id of the project
+     * @return the new change version
+     * @throws PersistenceException if the version cannot be increased
+     */
+    public long incrementChangeVersion(int projectId) throws PersistenceException {
+        try {
+            int updated = em.createNamedQuery("Project.incrementChangeVersion")
+                    .setParameter("projectId", projectId)
+                    .executeUpdate();
+
+            if (updated == 0) {
+                throw new PersistenceException("Project not found with id " + projectId);
+            }
+
+            return em.createNamedQuery("Project.findChangeVersion", Long.class)
+                    .setParameter("projectId", projectId)
+                    .getSingleResult();
+        } catch (PersistenceException e) {
+            logger.error("Error increasing the change version of project {}", projectId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Finds the change version of a project
+     * @param projectId the id of the project
+     * @return the change version, or -1 if the project does not exist
+     */
+    public long findChangeVersion(int projectId) {
+        try {
+            return em.createNamedQuery("Project.findChangeVersion", Long.class)
+                    .setParameter("projectId", projectId)
+                    .getSingleResult();
+        } catch (NoResultException e) {
+            logger.info("Project not found with id {} while finding its change version", projectId);
+            return -1;
+        }
+    }
+
+    /**
+     * Finds the versions a copy of a project depends on: its change version and the sum of the profile versions
+     * of its users, whose names and photos are shown in the project
+     * @param projectId the id of the project
+     * @return the change version and the sum of the profile versions, or null if the project does not exist
+     */
+    public long[] findTagVersions(int projectId) {
+        try {
+            Object[] row = em.createNamedQuery("Project.findTagVersions", Object[].class)
+                    .setParameter("projectId", projectId)
+                    .getSingleResult();
+            return new long[]{((Number) row[0]).longValue(), ((Number) row[1]).longValue()};
+        } catch (NoResultException e) {
+            logger.info("Project not found with id {} while finding its tag versions", projectId);
+            return null;
+        }
+    }
+
+    /**
+     * Records the changes made to a project at a change version
+     * @param projectId the id of the project
+     * @param version the change version
+     * @param kind what changed
+     * @param entityIds the ids of the tasks, users or records changed, or 0 for the basic information and the relations
+     * @throws PersistenceException if the changes cannot be recorded
+     */
+    public void persistChanges(int projectId, long version, ProjectChangeKindEnum kind, Collection<Integer> entityIds) throws PersistenceException {
+        try {
+            for (int entityId : entityIds) {
+                em.persist(new ProjectChangeEntity(projectId, version, kind, entityId));
+            }
+        } catch (PersistenceException e) {
+            logger.error("Error recording {} changes of project {} at version {}", kind, projectId, version, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Finds what changed in a project after a change version
+     * @param projectId the id of the project
+     * @param version the change version after which the changes are found
+     * @return the ids changed after the version, by kind of change
+     * @throws PersistenceException if the changes cannot be found
+     */
+    public Map<ProjectChangeKindEnum, Set<Integer>> findChangesSince(int projectId, long version) throws PersistenceException {
+        Map<ProjectChangeKindEnum, Set<Integer>> changes = new EnumMap<>(ProjectChangeKindEnum.class);
+
+        try {
+            List<Object[]> rows = em.createNamedQuery("ProjectChange.findChangesSince", Object[].class)
+                    .setParameter("projectId", projectId)
+                    .setParameter("version", version)
+                    .getResultList();
+
+            for (Object[] row : rows) {
+                changes.computeIfAbsent((ProjectChangeKindEnum) row[0], kind -> new HashSet<>()).add((Integer) row[1]);
+            }
+        } catch (PersistenceException e) {
+            logger.error("Error finding the changes of project {} since version {}", projectId, version, e);
+            throw e;
+        }
+
+        return changes;
+    }
+
+    /**
+     * Finds the oldest change version of a project still recorded, older ones were purged
+     * @param projectId the id of the project
+     * @return the oldest change version recorded, or null if none is
+     * @throws PersistenceException if the version cannot be found
+     */
+    public Long findOldestVersion(int projectId) throws PersistenceException {
+        try {
+            return em.createNamedQuery("ProjectChange.findOldestVersion", Long.class)
+                    .setParameter("projectId", projectId)
+                    .getSingleResult();
+        } catch (PersistenceException e) {
+            logger.error("Error finding the oldest change version of project {}", projectId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Finds the next chunk of changes that can be purged, in ascending id order
+     * @param afterId the id after which the chunk starts
+     * @param cutoff the time before which the changes are purged
+     * @param limit the maximum number of ids
+     * @return the ids of the purgeable changes
+     */
+    public List<Integer> findPurgeableChangeIds(int afterId, LocalDateTime cutoff, int limit) {
+        try {
+            return em.createNamedQuery("ProjectChange.findPurgeableChangeIds", Integer.class)
+                    .setParameter("afterId", afterId)
+                    .setParameter("cutoff", cutoff)
+                    .setMaxResults(limit)
+                    .getResultList();
+        } catch (Exception e) {
+            logger.error("Error while finding purgeable project changes after id {}: {}", afterId, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Deletes a chunk of changes
+     * @param ids the ids of the changes to be deleted
+     * @return the number of changes deleted, or -1 if an error occurs
+     */
+    public int deleteChangesByIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return em.createNamedQuery("ProjectChange.deleteChangesByIds")
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+        } catch (Exception e) {
+            logger.error("Error while deleting {} project changes: {}", ids.size(), e.getMessage());
+            return -1;
+        }
+    }
+}
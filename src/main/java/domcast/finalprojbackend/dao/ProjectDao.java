@@ -1,22 +1,26 @@
 package domcast.finalprojbackend.dao;
 
-import domcast.finalprojbackend.dto.projectDto.ProjectEntitiesList;
+import domcast.finalprojbackend.dto.projectDto.ProjectPreview;
+import domcast.finalprojbackend.dto.projectDto.ProjectPreviewsList;
+import domcast.finalprojbackend.entity.LabEntity;
 import domcast.finalprojbackend.entity.M2MKeyword;
 import domcast.finalprojbackend.entity.M2MProjectSkill;
 import domcast.finalprojbackend.entity.M2MProjectUser;
 import domcast.finalprojbackend.entity.ProjectEntity;
+import domcast.finalprojbackend.enums.LabEnum;
 import domcast.finalprojbackend.enums.ProjectStateEnum;
 import jakarta.ejb.Stateless;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 @Stateless
 public class ProjectDao extends AbstractDao<ProjectEntity> {
@@ -105,47 +109,175 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
         }
     }
 
-    public ProjectEntitiesList getProjectsByCriteria(int userId, String name, int lab, int state, String keyword, int skill, int maxUsers, String orderBy, boolean orderAsc, int pageNumber, int pageSize) {
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-
-        // Main query to get projects
-        CriteriaQuery<ProjectEntity> cq = cb.createQuery(ProjectEntity.class);
-        Root<ProjectEntity> project = cq.from(ProjectEntity.class);
-        List<Predicate> mainPredicates = buildPredicates(cb, project, userId, name, lab, state, keyword, skill);
-
-        cq.select(project).where(cb.and(mainPredicates.toArray(new Predicate[0])));
-        applyOrder(cq, cb, project, orderBy, orderAsc, maxUsers);
+    public ProjectPreviewsList getProjectsByCriteria(int userId, String name, int lab, int state, String keyword, int skill, int maxUsers, String orderBy, boolean orderAsc, int pageNumber, int pageSize) {
+        try {
+            // A pure read, served by the read replica when there is one
+            return readOnly(reader -> {
+                List<ProjectPreview> projects = new ArrayList<>();
+                for (Tuple row : createPreviewsQuery(reader, userId, name, lab, state, keyword, skill, maxUsers, orderBy, orderAsc, (pageNumber - 1) * pageSize, pageSize).getResultList()) {
+                    projects.add(tupleToProjectPreview(row));
+                }
 
-        TypedQuery<ProjectEntity> query = em.createQuery(cq);
-        query.setFirstResult((pageNumber - 1) * pageSize);
-        query.setMaxResults(pageSize);
+                Long totalProjects = createCountQuery(reader, userId, name, lab, state, keyword, skill).getSingleResult();
 
-        List<ProjectEntity> projects = new ArrayList<>();
-        try {
-            projects = query.getResultList();
+                return new ProjectPreviewsList(projects, totalProjects);
+            });
         } catch (NoResultException e) {
             logger.error("No projects found with the given criteria", e);
         } catch (PersistenceException e) {
             logger.error("Database error while getting projects by criteria", e);
         }
 
-        // Count query for total number of projects
+        return new ProjectPreviewsList(new ArrayList<>(), 0L);
+    }
+
+    /**
+     * Counts the projects that match the criteria.
+     *
+     * @param userId the id of the user
+     * @param name the name of the project
+     * @param lab the id of the lab
+     * @param state the id of the state
+     * @param keyword the keyword
+     * @param skill the id of the skill
+     * @return the number of projects that match the criteria, 0 on error
+     */
+    public long countProjectsByCriteria(int userId, String name, int lab, int state, String keyword, int skill) {
+        try {
+            return readOnly(reader -> createCountQuery(reader, userId, name, lab, state, keyword, skill).getSingleResult());
+        } catch (PersistenceException e) {
+            logger.error("Database error while counting projects by criteria", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Gets a chunk of the projects that match the criteria, as previews without the team,
+     * so large pages are read a chunk at a time instead of all at once.
+     *
+     * @param userId the id of the user
+     * @param name the name of the project
+     * @param lab the id of the lab
+     * @param state the id of the state
+     * @param keyword the keyword
+     * @param skill the id of the skill
+     * @param maxUsers the maximum number of users per project
+     * @param orderBy the order by
+     * @param orderAsc the order asc
+     * @param firstResult the position of the first project of the chunk, in the whole result
+     * @param maxResults the size of the chunk
+     * @return the previews of the chunk
+     * @throws PersistenceException if an error occurs while getting the projects
+     */
+    public List<ProjectPreview> getProjectPreviewsChunk(int userId, String name, int lab, int state, String keyword, int skill, int maxUsers, String orderBy, boolean orderAsc, int firstResult, int maxResults) {
+        try {
+            // A pure read, served by the read replica when there is one
+            return readOnly(reader -> {
+                List<ProjectPreview> projects = new ArrayList<>(maxResults);
+                for (Tuple row : createPreviewsQuery(reader, userId, name, lab, state, keyword, skill, maxUsers, orderBy, orderAsc, firstResult, maxResults).getResultList()) {
+                    projects.add(tupleToProjectPreview(row));
+                }
+                return projects;
+            });
+        } catch (PersistenceException e) {
+            logger.error("Database error while getting a chunk of projects by criteria", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Creates the query for a range of project previews that match the criteria,
+     * projecting the preview columns instead of loading the project entities.
+     */
+    private TypedQuery<Tuple> createPreviewsQuery(EntityManager reader, int userId, String name, int lab, int state, String keyword, int skill, int maxUsers, String orderBy, boolean orderAsc, int firstResult, int maxResults) {
+        CriteriaBuilder cb = reader.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<ProjectEntity> project = cq.from(ProjectEntity.class);
+        List<Predicate> mainPredicates = buildPredicates(cb, project, userId, name, lab, state, keyword, skill);
+
+        selectPreviewColumns(cq, cb, project);
+        cq.where(cb.and(mainPredicates.toArray(new Predicate[0])));
+        applyOrder(cq, cb, project, orderBy, orderAsc, maxUsers);
+
+        TypedQuery<Tuple> query = reader.createQuery(cq);
+        query.setFirstResult(firstResult);
+        query.setMaxResults(maxResults);
+        return query;
+    }
+
+    /**
+     * Creates the query for the total number of projects that match the criteria.
+     */
+    private TypedQuery<Long> createCountQuery(EntityManager reader, int userId, String name, int lab, int state, String keyword, int skill) {
+        CriteriaBuilder cb = reader.getCriteriaBuilder();
+
         CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
         Root<ProjectEntity> countRoot = countQuery.from(ProjectEntity.class);
         List<Predicate> countPredicates = buildPredicates(cb, countRoot, userId, name, lab, state, keyword, skill);
 
         countQuery.select(cb.count(countRoot)).where(cb.and(countPredicates.toArray(new Predicate[0])));
+        return reader.createQuery(countQuery);
+    }
 
-        Long totalProjects = 0L;
-        try {
-            totalProjects = em.createQuery(countQuery).getSingleResult();
-        } catch (NoResultException e) {
-            logger.error("No projects found with the given criteria", e);
-        } catch (PersistenceException e) {
-            logger.error("Database error while counting projects by criteria", e);
+    /**
+     * Selects the columns of a project preview: id, name, description, lab, state, maximum members
+     * and the number of active members, counted by a correlated subquery.
+     * The team is not selected, it is fetched for the whole page by M2MProjectUserDao.findTeamsOfProjects.
+     *
+     * @param cq the tuple query
+     * @param cb the criteria builder
+     * @param project the project root of the query
+     */
+    private void selectPreviewColumns(CriteriaQuery<Tuple> cq, CriteriaBuilder cb, Root<ProjectEntity> project) {
+        Join<ProjectEntity, LabEntity> lab = project.join("lab", JoinType.LEFT);
+
+        Subquery<Long> activeMembers = cq.subquery(Long.class);
+        Root<M2MProjectUser> projectUser = activeMembers.from(M2MProjectUser.class);
+        activeMembers.select(cb.count(projectUser));
+        activeMembers.where(cb.and(
+                cb.equal(projectUser.get("project"), project),
+                cb.isTrue(projectUser.get("active"))
+        ));
+
+        cq.multiselect(
+                project.get("id").alias("id"),
+                project.get("name").alias("name"),
+                project.get("description").alias("description"),
+                lab.get("city").alias("city"),
+                project.get("state").alias("state"),
+                project.get("maxMembers").alias("maxMembers"),
+                activeMembers.alias("activeMembers")
+        );
+    }
+
+    /**
+     * Converts a row selected by selectPreviewColumns to a project preview, without the team.
+     *
+     * @param row the selected row
+     * @return the project preview
+     */
+    private ProjectPreview tupleToProjectPreview(Tuple row) {
+        ProjectPreview projectPreview = new ProjectPreview();
+        projectPreview.setId(row.get("id", Integer.class));
+        projectPreview.setName(row.get("name", String.class));
+        projectPreview.setDescription(row.get("description", String.class));
+
+        LabEnum city = row.get("city", LabEnum.class);
+        if (city != null) {
+            projectPreview.setLabId(city.getId());
+        }
+
+        ProjectStateEnum projectState = row.get("state", ProjectStateEnum.class);
+        if (projectState != null) {
+            projectPreview.setState(ProjectStateEnum.getProjectStateValue(projectState));
         }
 
-        return new ProjectEntitiesList(projects, totalProjects);
+        Long activeMembers = row.get("activeMembers", Long.class);
+        int vacancies = row.get("maxMembers", Integer.class) - (activeMembers == null ? 0 : activeMembers.intValue());
+        projectPreview.setVacancies(Math.max(vacancies, 0));
+
+        return projectPreview;
     }
 
     private List<Predicate> buildPredicates(CriteriaBuilder cb, Root<ProjectEntity> root, int userId, String name, int lab, int state, String keyword, int skill) {
@@ -185,7 +317,7 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
         return predicates;
     }
 
-    private void applyOrder(CriteriaQuery<ProjectEntity> cq, CriteriaBuilder cb, Root<ProjectEntity> root, String orderBy, boolean orderAsc, int maxUsers) {
+    private void applyOrder(CriteriaQuery<?> cq, CriteriaBuilder cb, Root<ProjectEntity> root, String orderBy, boolean orderAsc, int maxUsers) {
         if (orderBy != null && !orderBy.isEmpty()) {
             switch (orderBy) {
                 case "state" -> {
@@ -244,7 +376,7 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
      */
     public int getNumberOfProjects() {
         try {
-            return ((Number) em.createNamedQuery("Project.getNumberOfProjects").getSingleResult()).intValue();
+            return readOnly(reader -> ((Number) reader.createNamedQuery("Project.getNumberOfProjects").getSingleResult()).intValue());
         } catch (NoResultException e) {
             logger.error("No projects found", e);
             return 0;
@@ -270,6 +402,26 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
         }
     }
 
+    /**
+     * Gets a page of the names of all projects, in alphabetical order. Project names are unique,
+     * so each page starts right after the last name of the previous one.
+     * @param after the last name of the previous page, or null for the first page
+     * @param pageSize the size of the page
+     * @return the names of the page
+     * @throws PersistenceException if an error occurs while getting the names
+     */
+    public List<String> getProjectsNamesPage(String after, int pageSize) {
+        try {
+            TypedQuery<String> query = after == null
+                    ? em.createNamedQuery("Project.getProjectsNamesFirst", String.class)
+                    : em.createNamedQuery("Project.getProjectsNamesAfter", String.class).setParameter("after", after);
+            return query.setMaxResults(pageSize).getResultList();
+        } catch (PersistenceException e) {
+            logger.error("Database error while getting a page of project names", e);
+            throw e;
+        }
+    }
+
     /**
      * Checks if a project is canceled.
      *
@@ -313,9 +465,9 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
     public int numberOfProjectsPerLab(int labId) {
         logger.info("Getting number of projects per lab with id {}", labId);
         try {
-            return ((Number) em.createNamedQuery("Project.numberOfProjectsPerLab")
+            return readOnly(reader -> ((Number) reader.createNamedQuery("Project.numberOfProjectsPerLab")
                     .setParameter("labId", labId)
-                    .getSingleResult()).intValue();
+                    .getSingleResult()).intValue());
         } catch (NoResultException e) {
             return 0;
         }
@@ -330,9 +482,9 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
     public int numberOfApprovedProjectsByLab(int labId) {
         logger.info("Getting number of approved projects by lab with id {}", labId);
         try {
-            return ((Number) em.createNamedQuery("Project.getNumberOfApprovedProjectsByLab")
+            return readOnly(reader -> ((Number) reader.createNamedQuery("Project.getNumberOfApprovedProjectsByLab")
                     .setParameter("labId", labId)
-                    .getSingleResult()).intValue();
+                    .getSingleResult()).intValue());
         } catch (NoResultException e) {
             return 0;
         }
@@ -347,9 +499,9 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
     public int numberOfFinishedProjectsByLab(int labId) {
         logger.info("Getting number of finished projects by lab with id {}", labId);
         try {
-            return ((Number) em.createNamedQuery("Project.getNumberOfFinishedProjectsByLab")
+            return readOnly(reader -> ((Number) reader.createNamedQuery("Project.getNumberOfFinishedProjectsByLab")
                     .setParameter("labId", labId)
-                    .getSingleResult()).intValue();
+                    .getSingleResult()).intValue());
         } catch (NoResultException e) {
             return 0;
         }
@@ -364,9 +516,9 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
     public int numberOfCanceledProjectsByLab(int labId) {
         logger.info("Getting number of canceled projects by lab with id {}", labId);
         try {
-            return ((Number) em.createNamedQuery("Project.getNumberOfCanceledProjectsByLab")
+            return readOnly(reader -> ((Number) reader.createNamedQuery("Project.getNumberOfCanceledProjectsByLab")
                     .setParameter("labId", labId)
-                    .getSingleResult()).intValue();
+                    .getSingleResult()).intValue());
         } catch (NoResultException e) {
             return 0;
         }
@@ -379,22 +531,107 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
     public double getAverageExecutionTime() {
         logger.info("Getting average execution time of projects");
         try {
-            return (double) em.createNamedQuery("Project.averageExecutionTime").getSingleResult();
+            return readOnly(reader -> (double) reader.createNamedQuery("Project.averageExecutionTime").getSingleResult());
         } catch (NoResultException e) {
             return 0;
         }
     }
 
     /**
-     * Gets all projects that are ready.
-     * @return the list of projects that are ready
+     * Gets the previews of all projects that are ready, without their teams.
+     * @return the previews of the projects that are ready
      */
-    public List<ProjectEntity> getReadyProjects() {
+    public List<ProjectPreview> getReadyProjectPreviews() {
         logger.info("Getting all projects that are ready");
+
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<ProjectEntity> project = cq.from(ProjectEntity.class);
+
+        selectPreviewColumns(cq, cb, project);
+        cq.where(cb.equal(project.get("state"), ProjectStateEnum.READY));
+
+        List<ProjectPreview> projects = new ArrayList<>();
         try {
-            return em.createNamedQuery("Project.findAllReadyProjects", ProjectEntity.class).getResultList();
+            for (Tuple row : em.createQuery(cq).getResultList()) {
+                projects.add(tupleToProjectPreview(row));
+            }
         } catch (NoResultException e) {
             return new ArrayList<>();
         }
+
+        return projects;
+    }
+
+    /**
+     * Finds the highest id of the projects, to walk them in ranges of ids.
+     *
+     * @return the highest id, or 0 if there are no projects
+     */
+    public int findMaxId() {
+        return em.createNamedQuery("Project.findMaxId", Integer.class).getSingleResult();
+    }
+
+    /**
+     * Finds the lab of the projects in a range of ids that may be matched, the ones open to new members.
+     *
+     * @param fromId the first id of the range
+     * @param toId the last id of the range
+     * @return the id of the lab of each project, 0 if it has none, by project id
+     * @throws PersistenceException if an error occurs during the query
+     */
+    public Map<Integer, Integer> findMatchableLabs(int fromId, int toId) {
+        Map<Integer, Integer> labs = new HashMap<>();
+        for (Object[] row : rangeQuery("Project.findOpenLabsInRange", fromId, toId)) {
+            labs.put((Integer) row[0], row[1] != null ? ((LabEnum) row[1]).getId() : 0);
+        }
+        return labs;
+    }
+
+    /**
+     * Finds the active skills of the projects in a range of ids.
+     *
+     * @param fromId the first id of the range
+     * @param toId the last id of the range
+     * @return the ids of the skills of each project, by project id
+     * @throws PersistenceException if an error occurs during the query
+     */
+    public Map<Integer, Set<Integer>> findSkillIds(int fromId, int toId) {
+        Map<Integer, Set<Integer>> skills = new HashMap<>();
+        for (Object[] row : rangeQuery("Project.findSkillIdsInRange", fromId, toId)) {
+            skills.computeIfAbsent((Integer) row[0], id -> new HashSet<>()).add((Integer) row[1]);
+        }
+        return skills;
+    }
+
+    /**
+     * Finds the names of the active keywords of the projects in a range of ids.
+     *
+     * @param fromId the first id of the range
+     * @param toId the last id of the range
+     * @return the names of the keywords of each project, by project id
+     * @throws PersistenceException if an error occurs during the query
+     */
+    public Map<Integer, Set<String>> findKeywordNames(int fromId, int toId) {
+        Map<Integer, Set<String>> names = new HashMap<>();
+        for (Object[] row : rangeQuery("Project.findKeywordNamesInRange", fromId, toId)) {
+            names.computeIfAbsent((Integer) row[0], id -> new HashSet<>()).add((String) row[1]);
+        }
+        return names;
+    }
+
+    /**
+     * Runs a named query over a range of ids
+     */
+    private List<Object[]> rangeQuery(String name, int fromId, int toId) {
+        try {
+            return em.createNamedQuery(name, Object[].class)
+                    .setParameter("fromId", fromId)
+                    .setParameter("toId", toId)
+                    .getResultList();
+        } catch (PersistenceException e) {
+            logger.error("Error running {} for ids {} to {}", name, fromId, toId, e);
+            throw e;
+        }
     }
 }
@@ -3,9 +3,11 @@ package domcast.finalprojbackend.dao;
 import domcast.finalprojbackend.entity.ProjectMessageEntity;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.PersistenceException;
+import jakarta.persistence.TypedQuery;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -45,6 +47,30 @@ public class ProjectMessageDao extends AbstractDao<ProjectMessageEntity> {
         }
     }
 
+    /**
+     * Persists a batch of project message entities in the current transaction, with a single flush at the end
+     * @param entities the entities to be persisted
+     * @return the persisted entities, with their generated ids
+     * @throws PersistenceException if an error occurs during the persist operation
+     */
+    public List<ProjectMessageEntity> persistProjectMessages(List<ProjectMessageEntity> entities) throws PersistenceException {
+        logger.info("Persisting batch of {} project messages", entities.size());
+
+        try {
+            for (ProjectMessageEntity entity : entities) {
+                em.persist(entity);
+            }
+            em.flush(); // One flush for the whole batch
+            return entities;
+        } catch (PersistenceException e) {
+            logger.error("Error while persisting batch of project messages: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Unexpected error: {}", e.getMessage());
+            throw new PersistenceException("Unexpected error during batch persist operation", e);
+        }
+    }
+
     /**
      * Counts the number of unread project messages for a user
      * @param projectId the id of the project
@@ -73,12 +99,44 @@ public class ProjectMessageDao extends AbstractDao<ProjectMessageEntity> {
         logger.info("Getting all project messages where the project is the one with id {}", projectId);
 
         try {
-            return em.createNamedQuery("Message.getAllProjectMessagesWhereProjectIs", ProjectMessageEntity.class)
+            return readOnly(reader -> reader.createNamedQuery("Message.getAllProjectMessagesWhereProjectIs", ProjectMessageEntity.class)
                     .setParameter("projectId", projectId)
-                    .getResultList();
+                    .getResultList());
         } catch (Exception e) {
             logger.error("Error while getting all project messages where the project is the one with id {}: {}", projectId, e.getMessage());
             return new ArrayList<>();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets a page of the project messages where the project is the one with the given id, newest first
+     * @param projectId the id of the project
+     * @param beforeTimestamp the timestamp of the last message of the previous page, or null for the first page
+     * @param beforeId the id of the last message of the previous page
+     * @param pageSize the maximum number of messages of the page
+     * @return the messages of the page
+     * @throws PersistenceException if an error occurs while reading the messages
+     */
+    public List<ProjectMessageEntity> getProjectMessagesWhereProjectIsPage(int projectId, LocalDateTime beforeTimestamp, int beforeId, int pageSize) {
+        logger.info("Getting a page of project messages where the project is the one with id {}", projectId);
+
+        try {
+            return readOnly(reader -> {
+                TypedQuery<ProjectMessageEntity> query;
+                if (beforeTimestamp == null) {
+                    query = reader.createNamedQuery("Message.getAllProjectMessagesWhereProjectIs", ProjectMessageEntity.class);
+                } else {
+                    query = reader.createNamedQuery("Message.getProjectMessagesWhereProjectIsBefore", ProjectMessageEntity.class)
+                            .setParameter("timestamp", beforeTimestamp)
+                            .setParameter("id", beforeId);
+                }
+                return query.setParameter("projectId", projectId)
+                        .setMaxResults(pageSize)
+                        .getResultList();
+            });
+        } catch (PersistenceException e) {
+            logger.error("Error while getting a page of project messages where the project is the one with id {}: {}", projectId, e.getMessage());
+            throw e;
+        }
+    }
+}
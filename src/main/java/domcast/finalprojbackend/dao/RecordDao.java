@@ -5,10 +5,12 @@ import domcast.finalprojbackend.enums.MessageAndLogEnum;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.NonUniqueResultException;
+import jakarta.persistence.PersistenceException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -79,4 +81,25 @@ public class RecordDao extends AbstractDao<RecordEntity> {
         }
     }
 
+    /**
+     * Finds the records of a project with the given ids, oldest first.
+     *
+     * @param ids the ids of the records
+     * @param projectId the project id
+     * @return the records found
+     * @throws PersistenceException if an error occurs while finding the records
+     */
+    public List<RecordEntity> findRecordsByIdsAndProject(Collection<Integer> ids, int projectId) {
+        logger.info("Getting {} records by id in project id {}", ids.size(), projectId);
+        try {
+            return em.createNamedQuery("Record.findRecordsByIdsAndProject", RecordEntity.class)
+                    .setParameter("ids", ids)
+                    .setParameter("projectId", projectId)
+                    .getResultList();
+        } catch (PersistenceException e) {
+            logger.error("Error getting records by id in project id {}", projectId, e);
+            throw e;
+        }
+    }
+
 }
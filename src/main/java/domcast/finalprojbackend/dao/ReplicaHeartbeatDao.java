@@ -0,0 +1,64 @@
+package domcast.finalprojbackend.dao;
+
+import domcast.finalprojbackend.entity.ReplicaHeartbeatEntity;
+import jakarta.ejb.Stateless;
+import jakarta.persistence.EntityExistsException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data access object for the replica heartbeat, always written in the primary database
+ * @see ReplicaHeartbeatEntity
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Stateless
+public class ReplicaHeartbeatDao extends AbstractDao<ReplicaHeartbeatEntity> {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(ReplicaHeartbeatDao.class);
+
+    /**
+     * Default constructor
+     */
+    public ReplicaHeartbeatDao() {
+        super(ReplicaHeartbeatEntity.class);
+    }
+
+    /**
+     * Writes a heartbeat in the primary database, creating its row if needed.
+     * The row is updated first, so only the first beat of all the nodes inserts it. A node losing the race to
+     * insert it gets a duplicate key and loses this beat only, the next one updates the row.
+     * @param beat the time of the heartbeat
+     * @return true if the heartbeat was written
+     */
+    public boolean beat(LocalDateTime beat) {
+        try {
+            if (updateBeat(beat) > 0) {
+                return true;
+            }
+
+            ReplicaHeartbeatEntity heartbeat = new ReplicaHeartbeatEntity();
+            heartbeat.setBeat(beat);
+            em.persist(heartbeat);
+            em.flush();
+            return true;
+        } catch (EntityExistsException | ConstraintViolationException e) {
+            logger.info("Replica heartbeat row created by another node, the next beat updates it");
+            return false;
+        } catch (Exception e) {
+            logger.error("Error writing the replica heartbeat", e);
+            return false;
+        }
+    }
+
+    private int updateBeat(LocalDateTime beat) {
+        return em.createNamedQuery("ReplicaHeartbeat.beat")
+                .setParameter("beat", beat)
+                .setParameter("id", ReplicaHeartbeatEntity.ID)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,192 @@
+package domcast.finalprojbackend.dao;
+
+import domcast.finalprojbackend.entity.ReplicaHeartbeatEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.ejb.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Singleton bean that routes the read-only DAO queries to a read replica of the database.
+ * The replica is an extra, resource-local persistence context over the same entities, without the jta-data-source of
+ * the primary unit, configured with the system properties prefixed with domcast.replica., without the prefix, for example:
+ * - domcast.replica.jakarta.persistence.nonJtaDataSource=java:jboss/datasources/ReplicaDS
+ * - domcast.replica.jakarta.persistence.jdbc.url=jdbc:h2:mem:replica, for a local embedded database.
+ * Without them, every query goes to the primary database.
+ * A heartbeat is written in the primary database every 5 seconds and read back from the replica; while the
+ * replica is more than domcast.replica.max-staleness-seconds (default 10) behind, or failing, the queries
+ * fall back to the primary database.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Singleton
+@Startup
+@Lock(LockType.READ)
+public class ReplicaRouter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(ReplicaRouter.class);
+
+    public static final String PROPERTY_PREFIX = "domcast.replica.";
+    public static final String MAX_STALENESS_PROPERTY = PROPERTY_PREFIX + "max-staleness-seconds";
+
+    // Name of the persistence unit the replica context is created from
+    private static final String PERSISTENCE_UNIT = "PersistenceUnit";
+
+    @EJB
+    private ReplicaHeartbeatDao replicaHeartbeatDao;
+
+    private transient EntityManagerFactory replicaFactory;
+
+    private long maxStalenessSeconds = 10;
+
+    private volatile boolean available = false;
+
+    // Time of the last heartbeat written in the primary database
+    private volatile LocalDateTime lastBeat;
+
+    /**
+     * Default constructor
+     */
+    public ReplicaRouter() {
+    }
+
+    /**
+     * Creates the replica persistence context, if one is configured
+     */
+    @PostConstruct
+    public void init() {
+        maxStalenessSeconds = Long.getLong(MAX_STALENESS_PROPERTY, maxStalenessSeconds);
+
+        Map<String, Object> properties = new HashMap<>();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(PROPERTY_PREFIX) && !name.equals(MAX_STALENESS_PROPERTY)) {
+                properties.put(name.substring(PROPERTY_PREFIX.length()), System.getProperty(name));
+            }
+        }
+
+        if (properties.isEmpty()) {
+            logger.info("No read replica configured, every query goes to the primary database");
+            return;
+        }
+
+        // The replica is only read, its schema is managed by the primary. The unit is the JTA one of the primary,
+        // whose jta-data-source would win over the replica's, so it is cleared
+        properties.put("jakarta.persistence.transactionType", "RESOURCE_LOCAL");
+        properties.put("jakarta.persistence.jtaDataSource", null);
+        properties.putIfAbsent("jakarta.persistence.schema-generation.database.action", "none");
+        properties.putIfAbsent("hibernate.hbm2ddl.auto", "none");
+
+        try {
+            replicaFactory = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT, properties);
+            logger.info("Read replica configured, with a maximum staleness of {} seconds", maxStalenessSeconds);
+        } catch (Exception e) {
+            logger.error("Error creating the read replica persistence context, every query goes to the primary database", e);
+        }
+    }
+
+    /**
+     * Closes the replica persistence context
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (replicaFactory != null && replicaFactory.isOpen()) {
+            replicaFactory.close();
+        }
+    }
+
+    /**
+     * Writes a heartbeat in the primary database and checks how far behind the replica is
+     */
+    @Schedule(second = "*/5", minute = "*", hour = "*", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void heartbeat() {
+        if (replicaFactory == null) {
+            return;
+        }
+
+        LocalDateTime beat = LocalDateTime.now();
+        try {
+            if (replicaHeartbeatDao.beat(beat)) {
+                lastBeat = beat;
+            }
+        } catch (EJBException e) {
+            // The transaction of a beat that lost the race to create the row rolls back, only that beat is lost
+            logger.warn("Replica heartbeat not written: {}", e.getMessage());
+        }
+
+        checkReplica();
+    }
+
+    /**
+     * Checks if the replica is reachable and recent enough to be read
+     */
+    void checkReplica() {
+        if (lastBeat == null) {
+            return;
+        }
+
+        boolean wasAvailable = available;
+        EntityManager replica = null;
+        try {
+            replica = replicaFactory.createEntityManager();
+            ReplicaHeartbeatEntity heartbeat = replica.find(ReplicaHeartbeatEntity.class, ReplicaHeartbeatEntity.ID);
+            long staleness = heartbeat == null ? Long.MAX_VALUE : Duration.between(heartbeat.getBeat(), lastBeat).getSeconds();
+            available = staleness <= maxStalenessSeconds;
+
+            if (!available && wasAvailable) {
+                logger.warn("Read replica is {} seconds behind, queries go to the primary database", staleness);
+            }
+        } catch (Exception e) {
+            available = false;
+            if (wasAvailable) {
+                logger.error("Read replica unreachable, queries go to the primary database", e);
+            }
+        } finally {
+            if (replica != null) {
+                replica.close();
+            }
+        }
+
+        if (available && !wasAvailable) {
+            logger.info("Read replica is up to date, read-only queries go to the replica");
+        }
+    }
+
+    /**
+     * Checks if the read-only queries can go to the replica
+     * @return true if the replica is configured, reachable and recent enough
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Creates an entity manager over the replica, to be closed by the caller
+     * @return the replica entity manager
+     */
+    public EntityManager createEntityManager() {
+        return replicaFactory.createEntityManager();
+    }
+
+    /**
+     * Stops routing queries to the replica until the next heartbeat finds it healthy
+     * @param cause the error of the replica
+     */
+    public void markUnavailable(Exception cause) {
+        if (available) {
+            available = false;
+            logger.error("Read replica failed, queries go to the primary database until the next heartbeat", cause);
+        }
+    }
+}
@@ -4,12 +4,12 @@ import domcast.finalprojbackend.entity.SessionTokenEntity;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.NonUniqueResultException;
+import jakarta.persistence.PersistenceException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * Data access object for session token entity
@@ -194,5 +194,128 @@ public class SessionTokenDao extends ValidationTokenDao {
             return false;
         }
     }
-}
 
+    /**
+     * Finds the last access of every active session
+     * @return the last access of each active session token
+     */
+    public Map<String, LocalDateTime> findActiveSessionsLastAccess() {
+        logger.info("Finding the last access of the active sessions");
+        Map<String, LocalDateTime> lastAccesses = new HashMap<>();
+        try {
+            List<Object[]> rows = em.createNamedQuery("SessionToken.findActiveSessionsLastAccess", Object[].class)
+                    .getResultList();
+            for (Object[] row : rows) {
+                lastAccesses.put((String) row[0], (LocalDateTime) row[1]);
+            }
+        } catch (Exception e) {
+            logger.error("Error finding the last access of the active sessions", e);
+        }
+        return lastAccesses;
+    }
+
+    /**
+     * Finds, among a set of session tokens, the active ones not accessed since a given time
+     * @param tokens the session tokens to be checked
+     * @param idleSince the time since which the sessions must not have been accessed
+     * @return the idle session tokens
+     */
+    public List<String> findIdleSessionTokens(Collection<String> tokens, LocalDateTime idleSince) {
+        if (tokens == null || tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        try {
+            return em.createNamedQuery("SessionToken.findIdleSessionTokens", String.class)
+                    .setParameter("tokens", tokens)
+                    .setParameter("idleSince", idleSince)
+                    .getResultList();
+        } catch (Exception e) {
+            logger.error("Error finding idle sessions among {} session tokens", tokens.size(), e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Logs out a batch of sessions in a single update, setting them inactive and their logout time to now
+     * @param tokens the session tokens to be logged out
+     * @return the number of sessions logged out, or -1 if an error occurs
+     */
+    public int logoutSessions(Collection<String> tokens) {
+        if (tokens == null || tokens.isEmpty()) {
+            return 0;
+        }
+
+        logger.info("Logging out {} sessions", tokens.size());
+        try {
+            return em.createNamedQuery("SessionToken.logoutSessions")
+                    .setParameter("tokens", tokens)
+                    .executeUpdate();
+        } catch (Exception e) {
+            logger.error("Error logging out {} sessions", tokens.size(), e);
+            return -1;
+        }
+    }
+
+    /**
+     * Sets the last access of a batch of active sessions, unless they have a later one
+     * @param tokens the session tokens to be updated
+     * @param lastAccess the last access to be set
+     * @return the number of sessions updated, or -1 if an error occurs
+     */
+    public int setLastAccessForTokens(Collection<String> tokens, LocalDateTime lastAccess) {
+        if (tokens == null || tokens.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return em.createNamedQuery("SessionToken.setLastAccessForTokens")
+                    .setParameter("tokens", tokens)
+                    .setParameter("lastAccess", lastAccess)
+                    .executeUpdate();
+        } catch (Exception e) {
+            logger.error("Error setting the last access of {} sessions", tokens.size(), e);
+            return -1;
+        }
+    }
+
+    /**
+     * Finds the next chunk of session tokens that can be purged, in ascending id order.
+     * A session token can be purged if it is inactive and was logged out, or last accessed, before the cutoff.
+     * @param afterId the id after which the chunk starts
+     * @param cutoff the time before which the sessions are purged
+     * @param limit the maximum number of ids
+     * @return the ids of the purgeable session tokens
+     */
+    public List<Integer> findPurgeableSessionIds(int afterId, LocalDateTime cutoff, int limit) {
+        try {
+            return em.createNamedQuery("SessionToken.findPurgeableSessionIds", Integer.class)
+                    .setParameter("afterId", afterId)
+                    .setParameter("cutoff", cutoff)
+                    .setMaxResults(limit)
+                    .getResultList();
+        } catch (Exception e) {
+            logger.error("Error finding purgeable session tokens after id {}", afterId, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Finds the signed session tokens logged out since a given time
+     * @param prefix the prefix of the signed session tokens
+     * @param since the time since which the sessions were logged out
+     * @return the signed session tokens logged out since the given time
+     * @throws PersistenceException if an error occurs, as an empty result would leave the tokens valid
+     */
+    public List<String> findSignedTokensLoggedOutSince(String prefix, LocalDateTime since) {
+        try {
+            return em.createNamedQuery("SessionToken.findSignedTokensLoggedOutSince", String.class)
+                    .setParameter("prefix", prefix + "%")
+                    .setParameter("since", since)
+                    .getResultList();
+        } catch (PersistenceException e) {
+            logger.error("Error finding the signed session tokens logged out since {}", since, e);
+            throw e;
+        }
+    }
+}
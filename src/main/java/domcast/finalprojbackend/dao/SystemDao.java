@@ -1,10 +1,18 @@
 package domcast.finalprojbackend.dao;
 
-import domcast.finalprojbackend.entity.SystemEntity;
+import domcast.finalprojbackend.dto.statistics.CacheStatistics;
+import domcast.finalprojbackend.entity.*;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.NoResultException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * SystemDao class is responsible for performing database operations related to the SystemEntity.
@@ -16,6 +24,10 @@ public class SystemDao extends AbstractDao<SystemEntity>{
     private static final long serialVersionUID = 1L;
     private static final Logger logger = LogManager.getLogger(SkillDao.class);
 
+    // Entities marked @Cacheable, read on almost every request
+    private static final List<Class<?>> CACHED_ENTITIES = List.of(LabEntity.class, SkillEntity.class, KeywordEntity.class,
+            InterestEntity.class, SystemEntity.class);
+
     /**
      * Default constructor for SystemDao.
      * Calls the super constructor with the SystemEntity class as the parameter.
@@ -98,4 +110,74 @@ public class SystemDao extends AbstractDao<SystemEntity>{
             return 0;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Enables the statistics of the persistence provider, so the second-level cache hits are counted.
+     */
+    public void enableCacheStatistics() {
+        try {
+            em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics().setStatisticsEnabled(true);
+        } catch (Exception e) {
+            logger.error("Error enabling cache statistics", e);
+        }
+    }
+
+    /**
+     * Warns if the entities marked @Cacheable are not cached. The cache is configured by the persistence unit of the
+     * deployment, which needs shared-cache-mode ENABLE_SELECTIVE, hibernate.cache.use_second_level_cache and
+     * hibernate.cache.use_query_cache set to true, and a region factory.
+     * @return true if the second-level cache and the query cache are enabled and every cacheable entity is cached
+     */
+    public boolean verifyCacheConfiguration() {
+        try {
+            SessionFactoryImplementor sessionFactory = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+            boolean configured = sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()
+                    && sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled();
+
+            for (Class<?> cachedEntity : CACHED_ENTITIES) {
+                if (!sessionFactory.getMappingMetamodel().getEntityDescriptor(cachedEntity).canReadFromCache()) {
+                    logger.warn("Entity {} is @Cacheable but not cached", cachedEntity.getSimpleName());
+                    configured = false;
+                }
+            }
+
+            if (!configured) {
+                logger.warn("The second-level cache is not fully enabled: the persistence unit of the deployment must set " +
+                        "shared-cache-mode ENABLE_SELECTIVE, hibernate.cache.use_second_level_cache and hibernate.cache.use_query_cache");
+            }
+            return configured;
+        } catch (Exception e) {
+            logger.error("Error verifying the cache configuration", e);
+            return false;
+        }
+    }
+
+    /**
+     * Retrieves the hit statistics of the second-level cache, for each cached entity and for the query cache.
+     * @return the statistics of each cache region, empty if an error occurs.
+     */
+    public List<CacheStatistics> getCacheStatistics() {
+        List<CacheStatistics> cacheStatistics = new ArrayList<>();
+
+        try {
+            Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+            for (Class<?> cachedEntity : CACHED_ENTITIES) {
+                EntityStatistics entityStatistics = statistics.getEntityStatistics(cachedEntity.getName());
+                cacheStatistics.add(new CacheStatistics(cachedEntity.getSimpleName(),
+                        entityStatistics.getCacheHitCount(),
+                        entityStatistics.getCacheMissCount(),
+                        entityStatistics.getCachePutCount()));
+            }
+
+            cacheStatistics.add(new CacheStatistics("query",
+                    statistics.getQueryCacheHitCount(),
+                    statistics.getQueryCacheMissCount(),
+                    statistics.getQueryCachePutCount()));
+        } catch (Exception e) {
+            logger.error("Error getting cache statistics", e);
+        }
+
+        return cacheStatistics;
+    }
+}
@@ -4,10 +4,11 @@ import domcast.finalprojbackend.entity.TaskEntity;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.NonUniqueResultException;
+import jakarta.persistence.PersistenceException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.List;
+import java.util.*;
 
 /**
  * TaskDao is a Data Access Object (DAO) class for TaskEntity.
@@ -110,6 +111,28 @@ public class TaskDao extends AbstractDao<TaskEntity> {
         }
     }
 
+    /**
+     * Gets a page of the tasks of a project, in the order of their ids
+     * @param projectId the id of the project
+     * @param afterId the id of the last task of the previous page, or 0 for the first page
+     * @param pageSize the maximum number of tasks of the page
+     * @return the tasks of the page
+     * @throws PersistenceException if an error occurs while reading the tasks
+     */
+    public List<TaskEntity> findTasksByProjectIdPage(int projectId, int afterId, int pageSize) {
+        logger.info("Finding a page of tasks by project id {} after task {}", projectId, afterId);
+        try {
+            return em.createNamedQuery("Task.findTasksByProjectIdAfter", TaskEntity.class)
+                    .setParameter("projectId", projectId)
+                    .setParameter("afterId", afterId)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+        } catch (PersistenceException e) {
+            logger.error("Error finding a page of tasks of project with id {}", projectId, e);
+            throw e;
+        }
+    }
+
     public TaskEntity findPresentationTaskInProject(int projectId) {
         logger.info("Finding presentation task in project with id {}", projectId);
         try {
@@ -121,4 +144,76 @@ public class TaskDao extends AbstractDao<TaskEntity> {
             return null;
         }
     }
+
+    /**
+     * Finds the tasks of a project with the given ids, active or not.
+     *
+     * @param ids the ids of the tasks
+     * @param projectId the id of the project
+     * @return the tasks found
+     * @throws PersistenceException if an error occurs while finding the tasks
+     */
+    public List<TaskEntity> findTasksByIdsAndProjectId(Collection<Integer> ids, int projectId) {
+        logger.info("Finding {} tasks by id in project with id {}", ids.size(), projectId);
+        try {
+            return em.createNamedQuery("Task.findTasksByIdsAndProjectId", TaskEntity.class)
+                    .setParameter("ids", ids)
+                    .setParameter("projectId", projectId)
+                    .getResultList();
+        } catch (PersistenceException e) {
+            logger.error("Error finding tasks by id in project with id {}", projectId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Soft deletes a task with a single statement, without loading it.
+     *
+     * @param id the id of the task
+     * @return the number of tasks set inactive
+     * @throws PersistenceException if an error occurs while setting the task inactive
+     */
+    public int setTaskInactive(int id) {
+        logger.info("Setting task {} inactive", id);
+        try {
+            return em.createNamedQuery("Task.setTaskInactive")
+                    .setParameter("id", id)
+                    .executeUpdate();
+        } catch (PersistenceException e) {
+            logger.error("Error setting task {} inactive", id, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Finds the responsibles of the tasks of a project with the given titles, active or not,
+     * as a task is identified by its title, responsible and project.
+     *
+     * @param projectId the id of the project
+     * @param titles the titles of the tasks
+     * @return the ids of the responsibles of the tasks, by title
+     * @throws PersistenceException if an error occurs while finding the tasks
+     */
+    public Map<String, Set<Integer>> findResponsiblesByTitles(int projectId, Collection<String> titles) {
+        Map<String, Set<Integer>> responsibles = new HashMap<>();
+        if (titles == null || titles.isEmpty()) {
+            return responsibles;
+        }
+
+        try {
+            List<Object[]> rows = em.createNamedQuery("Task.findResponsiblesByTitles", Object[].class)
+                    .setParameter("projectId", projectId)
+                    .setParameter("titles", titles)
+                    .getResultList();
+
+            for (Object[] row : rows) {
+                responsibles.computeIfAbsent((String) row[0], title -> new HashSet<>()).add((Integer) row[1]);
+            }
+        } catch (PersistenceException e) {
+            logger.error("Error finding the responsibles of {} task titles in project with id {}", titles.size(), projectId, e);
+            throw e;
+        }
+
+        return responsibles;
+    }
 }
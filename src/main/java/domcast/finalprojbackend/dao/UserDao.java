@@ -1,18 +1,21 @@
 package domcast.finalprojbackend.dao;
 
 import domcast.finalprojbackend.bean.user.UserBean;
+import domcast.finalprojbackend.dto.userDto.LoggedUser;
+import domcast.finalprojbackend.dto.userDto.LoginCredentials;
 import domcast.finalprojbackend.entity.LabEntity;
 import domcast.finalprojbackend.entity.UserEntity;
+import domcast.finalprojbackend.enums.LabEnum;
 import domcast.finalprojbackend.enums.TypeOfUserEnum;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.NoResultException;
+import jakarta.persistence.PersistenceException;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * UserDao is a Data Access Object (DAO) class for UserEntity.
@@ -72,6 +75,94 @@ public class UserDao extends AbstractDao<UserEntity> {
         }
     }
 
+    /**
+     * Finds the credentials of a user by their email, without loading the user entity.
+     *
+     * @param email the email of the user
+     * @return the id, email, password hash and type of the user if found, null otherwise
+     */
+    public LoginCredentials findLoginCredentials(String email) {
+        logger.info("Finding login credentials by email {}", email);
+        try {
+            Object[] row = em.createNamedQuery("User.findLoginCredentials", Object[].class)
+                    .setParameter("email", email)
+                    .getSingleResult();
+            return new LoginCredentials((Integer) row[0], (String) row[1], (String) row[2], (TypeOfUserEnum) row[3]);
+        } catch (NoResultException e) {
+            logger.error("User with email {} not found", email);
+            return null;
+        }
+    }
+
+    /**
+     * Builds the logged user of a user with targeted queries, without loading the user entity and its collections.
+     *
+     * @param id the id of the user
+     * @return the LoggedUser object, without session token, if found, null otherwise
+     */
+    public LoggedUser findLoggedUser(int id) {
+        logger.info("Finding logged user by id {}", id);
+        try {
+            Object[] row = em.createNamedQuery("User.findLoggedUser", Object[].class)
+                    .setParameter("id", id)
+                    .getSingleResult();
+
+            LoggedUser loggedUser = new LoggedUser();
+            loggedUser.setId((Integer) row[0]);
+            loggedUser.setType(((TypeOfUserEnum) row[1]).getValue());
+            loggedUser.setFirstName((String) row[2]);
+            loggedUser.setLastName((String) row[3]);
+            loggedUser.setWorkplace(row[4] != null ? ((LabEnum) row[4]).getValue() : null);
+            loggedUser.setBiography((String) row[5]);
+            loggedUser.setVisible((Boolean) row[6]);
+            loggedUser.setPhoto((String) row[7]);
+            loggedUser.setNickname((String) row[8]);
+            loggedUser.setInterests(new ArrayList<>(em.createNamedQuery("User.findInterestsNames", String.class)
+                    .setParameter("id", id)
+                    .getResultList()));
+            loggedUser.setSkills(new ArrayList<>(em.createNamedQuery("User.findSkillsNames", String.class)
+                    .setParameter("id", id)
+                    .getResultList()));
+
+            return loggedUser;
+        } catch (NoResultException e) {
+            logger.error("User with id {} not found", id);
+            return null;
+        }
+    }
+
+    /**
+     * Gets a reference to a user without loading it, to set it in the entities that belong to the user.
+     *
+     * @param id the id of the user
+     * @return the reference to the user
+     */
+    public UserEntity getReference(int id) {
+        return em.getReference(UserEntity.class, id);
+    }
+
+    /**
+     * Finds the users with the given ids in a single query.
+     *
+     * @param ids the ids of the users
+     * @return the users found, which may be fewer than the ids
+     * @throws PersistenceException if an error occurs during the query
+     */
+    public List<UserEntity> findUsersByIds(Collection<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        try {
+            return em.createNamedQuery("User.findSetOfUsersByListOfIds", UserEntity.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+        } catch (PersistenceException e) {
+            logger.error("Error finding users with ids {}", ids, e);
+            throw e;
+        }
+    }
+
     /**
      * Finds a user by their validation token.
      *
@@ -124,50 +215,53 @@ public class UserDao extends AbstractDao<UserEntity> {
      */
     public List<UserEntity> getUsersByCriteria(String firstName, String lastName, String nickname, int workplace, String orderBy, boolean orderAsc, int pageNumber, int pageSize) {
 
-        CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<UserEntity> cq = cb.createQuery(UserEntity.class);
+        try {
+            // A pure read, served by the read replica when there is one
+            return readOnly(reader -> {
+                CriteriaBuilder cb = reader.getCriteriaBuilder();
+                CriteriaQuery<UserEntity> cq = cb.createQuery(UserEntity.class);
 
-        Root<UserEntity> user = cq.from(UserEntity.class);
-        List<Predicate> predicates = new ArrayList<>();
-        if (firstName != null && !firstName.isEmpty()) {
-            predicates.add(cb.like(user.get("firstName"), "%" + firstName + "%"));
-        }
-        if (lastName != null && !lastName.isEmpty()) {
-            predicates.add(cb.like(user.get("lastName"), "%" + lastName + "%"));
-        }
-        if (nickname != null && !nickname.isEmpty()) {
-            predicates.add(cb.like(user.get("nickname"), "%" + nickname + "%"));
-        }
-        if (workplace != 0) {
-            predicates.add(cb.equal(user.get("workplace").get("id"), workplace));
-        }
+                Root<UserEntity> user = cq.from(UserEntity.class);
+                List<Predicate> predicates = new ArrayList<>();
+                if (firstName != null && !firstName.isEmpty()) {
+                    predicates.add(cb.like(user.get("firstName"), "%" + firstName + "%"));
+                }
+                if (lastName != null && !lastName.isEmpty()) {
+                    predicates.add(cb.like(user.get("lastName"), "%" + lastName + "%"));
+                }
+                if (nickname != null && !nickname.isEmpty()) {
+                    predicates.add(cb.like(user.get("nickname"), "%" + nickname + "%"));
+                }
+                if (workplace != 0) {
+                    predicates.add(cb.equal(user.get("workplace").get("id"), workplace));
+                }
 
-        cq.select(user).where(cb.and(predicates.toArray(new Predicate[0])));
+                cq.select(user).where(cb.and(predicates.toArray(new Predicate[0])));
 
-        if (orderBy != null && !orderBy.isEmpty()) {
-            if (orderBy.equals("lab")) {
-                Join<UserEntity, LabEntity> join = user.join("workplace");
-                if (orderAsc) {
-                    cq.orderBy(cb.asc(join.get("city")));
-                } else {
-                    cq.orderBy(cb.desc(join.get("city")));
+                if (orderBy != null && !orderBy.isEmpty()) {
+                    if (orderBy.equals("lab")) {
+                        Join<UserEntity, LabEntity> join = user.join("workplace");
+                        if (orderAsc) {
+                            cq.orderBy(cb.asc(join.get("city")));
+                        } else {
+                            cq.orderBy(cb.desc(join.get("city")));
+                        }
+                    } else {
+                        if (orderAsc) {
+                            cq.orderBy(cb.asc(user.get(orderBy)));
+                        } else {
+                            cq.orderBy(cb.desc(user.get(orderBy)));
+                        }
+                    }
                 }
-            } else {
-                if (orderAsc) {
-                    cq.orderBy(cb.asc(user.get(orderBy)));
-                } else {
-                    cq.orderBy(cb.desc(user.get(orderBy)));
-                }
-            }
-        }
 
-        TypedQuery<UserEntity> query = em.createQuery(cq);
-        query.setFirstResult((pageNumber - 1) * pageSize); // Adjust pageNumber to be 0-indexed
-        query.setMaxResults(pageSize);
+                TypedQuery<UserEntity> query = reader.createQuery(cq);
+                query.setFirstResult((pageNumber - 1) * pageSize); // Adjust pageNumber to be 0-indexed
+                query.setMaxResults(pageSize);
 
-        try {
-            return query.getResultList();
-        } catch (Exception e) {
+                return query.getResultList();
+            });
+        } catch (PersistenceException e) {
             logger.error("Error while getting users by criteria", e);
             return new ArrayList<>();
         }
@@ -296,4 +390,101 @@ public class UserDao extends AbstractDao<UserEntity> {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Increases the version of the public profile of a user, so the cached copies of the profile are fetched again.
+     * @param id the id of the user
+     */
+    public void incrementProfileVersion(int id) {
+        logger.info("Increasing the profile version of user with id {}", id);
+        em.createNamedQuery("User.incrementProfileVersion").setParameter("id", id).executeUpdate();
+    }
+
+    /**
+     * Finds the version of the public profile of a user.
+     * @param id the id of the user
+     * @return the profile version, or -1 if the user does not exist
+     */
+    public long findProfileVersion(int id) {
+        try {
+            return em.createNamedQuery("User.findProfileVersion", Long.class)
+                    .setParameter("id", id)
+                    .getSingleResult();
+        } catch (NoResultException e) {
+            logger.info("User with id {} not found while finding the profile version", id);
+            return -1;
+        }
+    }
+
+    /**
+     * Finds the highest id of the users, to walk them in ranges of ids.
+     *
+     * @return the highest id, or 0 if there are no users
+     */
+    public int findMaxId() {
+        return em.createNamedQuery("User.findMaxId", Integer.class).getSingleResult();
+    }
+
+    /**
+     * Finds the lab of the users in a range of ids that may be matched, the visible and confirmed ones.
+     *
+     * @param fromId the first id of the range
+     * @param toId the last id of the range
+     * @return the id of the lab of each user, 0 if it has none, by user id
+     * @throws PersistenceException if an error occurs during the query
+     */
+    public Map<Integer, Integer> findMatchableLabs(int fromId, int toId) {
+        Map<Integer, Integer> labs = new HashMap<>();
+        for (Object[] row : rangeQuery("User.findMatchableLabsInRange", fromId, toId)) {
+            labs.put((Integer) row[0], row[1] != null ? ((LabEnum) row[1]).getId() : 0);
+        }
+        return labs;
+    }
+
+    /**
+     * Finds the active skills of the users in a range of ids.
+     *
+     * @param fromId the first id of the range
+     * @param toId the last id of the range
+     * @return the ids of the skills of each user, by user id
+     * @throws PersistenceException if an error occurs during the query
+     */
+    public Map<Integer, Set<Integer>> findSkillIds(int fromId, int toId) {
+        Map<Integer, Set<Integer>> skills = new HashMap<>();
+        for (Object[] row : rangeQuery("User.findSkillIdsInRange", fromId, toId)) {
+            skills.computeIfAbsent((Integer) row[0], id -> new HashSet<>()).add((Integer) row[1]);
+        }
+        return skills;
+    }
+
+    /**
+     * Finds the names of the active interests of the users in a range of ids.
+     *
+     * @param fromId the first id of the range
+     * @param toId the last id of the range
+     * @return the names of the interests of each user, by user id
+     * @throws PersistenceException if an error occurs during the query
+     */
+    public Map<Integer, Set<String>> findInterestNames(int fromId, int toId) {
+        Map<Integer, Set<String>> names = new HashMap<>();
+        for (Object[] row : rangeQuery("User.findInterestNamesInRange", fromId, toId)) {
+            names.computeIfAbsent((Integer) row[0], id -> new HashSet<>()).add((String) row[1]);
+        }
+        return names;
+    }
+
+    /**
+     * Runs a named query over a range of ids
+     */
+    private List<Object[]> rangeQuery(String name, int fromId, int toId) {
+        try {
+            return em.createNamedQuery(name, Object[].class)
+                    .setParameter("fromId", fromId)
+                    .setParameter("toId", toId)
+                    .getResultList();
+        } catch (PersistenceException e) {
+            logger.error("Error running {} for ids {} to {}", name, fromId, toId, e);
+            throw e;
+        }
+    }
+}
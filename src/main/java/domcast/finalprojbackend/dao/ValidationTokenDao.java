@@ -8,6 +8,10 @@ import jakarta.persistence.NonUniqueResultException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * This class is responsible for handling operations related to validation tokens.
  * It extends the AbstractDao class to inherit common database operations.
@@ -106,4 +110,45 @@ public class ValidationTokenDao extends AbstractDao<ValidationTokenEntity> {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Finds the next chunk of validation tokens that can be purged, in ascending id order.
+     * A validation token can be purged if it was created before the cutoff and is inactive or expired before it.
+     * @param afterId the id after which the chunk starts
+     * @param cutoff the time before which the tokens are purged
+     * @param limit the maximum number of ids
+     * @return the ids of the purgeable validation tokens
+     */
+    public List<Integer> findPurgeableValidationTokenIds(int afterId, LocalDateTime cutoff, int limit) {
+        try {
+            return em.createNamedQuery("Token.findPurgeableValidationTokenIds", Integer.class)
+                    .setParameter("afterId", afterId)
+                    .setParameter("cutoff", cutoff)
+                    .setMaxResults(limit)
+                    .getResultList();
+        } catch (Exception e) {
+            logger.error("Error finding purgeable validation tokens after id {}", afterId, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Deletes a chunk of tokens, either validation or session tokens
+     * @param ids the ids of the tokens to be deleted
+     * @return the number of tokens deleted, or -1 if an error occurs
+     */
+    public int deleteTokensByIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return em.createNamedQuery("Token.deleteTokensByIds")
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+        } catch (Exception e) {
+            logger.error("Error deleting {} tokens", ids.size(), e);
+            return -1;
+        }
+    }
+}
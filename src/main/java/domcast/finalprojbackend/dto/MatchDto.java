@@ -0,0 +1,92 @@
+package domcast.finalprojbackend.dto;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.io.Serializable;
+
+/**
+ * DTO class for a user that matches a project, or a project that matches a user.
+ * The attributes are the following:
+ * - id: the id of the matching user or project.
+ * - score: how well it matches, higher is better.
+ * - sharedSkills: the number of skills in common.
+ * - sharedInterests: the number of interests of the user that are keywords of the project.
+ * - sameLab: if the user works in the lab of the project.
+ *
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@XmlRootElement
+public class MatchDto implements Serializable {
+
+    @XmlElement
+    private int id;
+
+    @XmlElement
+    private int score;
+
+    @XmlElement
+    private int sharedSkills;
+
+    @XmlElement
+    private int sharedInterests;
+
+    @XmlElement
+    private boolean sameLab;
+
+    // Default constructor
+    public MatchDto() {
+    }
+
+    // Constructor with all the attributes
+    public MatchDto(int id, int score, int sharedSkills, int sharedInterests, boolean sameLab) {
+        this.id = id;
+        this.score = score;
+        this.sharedSkills = sharedSkills;
+        this.sharedInterests = sharedInterests;
+        this.sameLab = sameLab;
+    }
+
+    // Getters and setters
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+
+    public int getSharedSkills() {
+        return sharedSkills;
+    }
+
+    public void setSharedSkills(int sharedSkills) {
+        this.sharedSkills = sharedSkills;
+    }
+
+    public int getSharedInterests() {
+        return sharedInterests;
+    }
+
+    public void setSharedInterests(int sharedInterests) {
+        this.sharedInterests = sharedInterests;
+    }
+
+    public boolean isSameLab() {
+        return sameLab;
+    }
+
+    public void setSameLab(boolean sameLab) {
+        this.sameLab = sameLab;
+    }
+}
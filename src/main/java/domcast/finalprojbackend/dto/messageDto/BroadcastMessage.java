@@ -0,0 +1,144 @@
+package domcast.finalprojbackend.dto.messageDto;
+
+import java.io.Serializable;
+
+/**
+ * Data transfer object for a websocket frame that must reach the sessions of a user, a project or a token,
+ * on whichever application node they are open.
+ * The attributes are the following:
+ * - channel: the websocket endpoint and the kind of target of the frame.
+ * - targetId: the ID of the user or project the frame is sent to.
+ * - token: the session token the frame is sent to, for the SESSION_NOTIFICATION and SESSION_LOGOUT channels.
+ * - payload: the frame to be sent, already serialized.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+public class BroadcastMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Channels a frame can be broadcast on
+     */
+    public enum Channel {
+        // Personal messages endpoint, all sessions of a user
+        USER,
+        // Project chat endpoint, all sessions of a project
+        PROJECT,
+        // Notifications endpoint, all sessions of a user
+        NOTIFICATION,
+        // Notifications endpoint, a single session token
+        SESSION_NOTIFICATION,
+        // Notifications endpoint, a single session token that is sent the frame and closed
+        SESSION_LOGOUT
+    }
+
+    private Channel channel;
+    private int targetId;
+    private String token;
+    private String payload;
+
+    /**
+     * Default constructor
+     */
+    public BroadcastMessage() {
+    }
+
+    /**
+     * Constructor with all parameters
+     * @param channel the channel of the frame
+     * @param targetId the ID of the user or project the frame is sent to
+     * @param token the session token the frame is sent to, or null
+     * @param payload the frame to be sent
+     */
+    public BroadcastMessage(Channel channel, int targetId, String token, String payload) {
+        this.channel = channel;
+        this.targetId = targetId;
+        this.token = token;
+        this.payload = payload;
+    }
+
+    /**
+     * Creates a frame for the personal message sessions of a user
+     * @param userId the ID of the user
+     * @param payload the frame to be sent
+     * @return the broadcast message
+     */
+    public static BroadcastMessage toUser(int userId, String payload) {
+        return new BroadcastMessage(Channel.USER, userId, null, payload);
+    }
+
+    /**
+     * Creates a frame for the chat sessions of a project
+     * @param projectId the ID of the project
+     * @param payload the frame to be sent
+     * @return the broadcast message
+     */
+    public static BroadcastMessage toProject(int projectId, String payload) {
+        return new BroadcastMessage(Channel.PROJECT, projectId, null, payload);
+    }
+
+    /**
+     * Creates a frame for the notification sessions of a user
+     * @param userId the ID of the user
+     * @param payload the frame to be sent
+     * @return the broadcast message
+     */
+    public static BroadcastMessage toUserNotifications(int userId, String payload) {
+        return new BroadcastMessage(Channel.NOTIFICATION, userId, null, payload);
+    }
+
+    /**
+     * Creates a frame for the notification session of a token
+     * @param token the session token
+     * @param payload the frame to be sent
+     * @return the broadcast message
+     */
+    public static BroadcastMessage toSessionNotifications(String token, String payload) {
+        return new BroadcastMessage(Channel.SESSION_NOTIFICATION, 0, token, payload);
+    }
+
+    /**
+     * Creates a frame for the notification session of a token that has been logged out, which is closed after it
+     * @param token the session token
+     * @param payload the frame to be sent
+     * @return the broadcast message
+     */
+    public static BroadcastMessage toSessionLogout(String token, String payload) {
+        return new BroadcastMessage(Channel.SESSION_LOGOUT, 0, token, payload);
+    }
+
+    // Getters and setters
+
+    public Channel getChannel() {
+        return channel;
+    }
+
+    public void setChannel(Channel channel) {
+        this.channel = channel;
+    }
+
+    public int getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(int targetId) {
+        this.targetId = targetId;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+}
@@ -12,6 +12,7 @@ import java.time.LocalDateTime;
  * Contains all the attributes of the project notification table in the database and their getters and setters.
  * The attributes are the following:
  * - projectId: the ID of the project.
+ * - dedupId: the id of the outbox entry that delivered the notification, for the client to drop repeated deliveries.
  * The class also contains the necessary annotations to work with the database.
  * Extends the PersonalMessage class.
  * @see PersonalMessage
@@ -26,6 +27,9 @@ public class ProjectNotification extends PersonalMessage implements Serializable
     @XmlElement
     private int projectId;
 
+    @XmlElement
+    private String dedupId;
+
     /**
      * Default constructor
      */
@@ -57,4 +61,12 @@ public class ProjectNotification extends PersonalMessage implements Serializable
         this.projectId = projectId;
     }
 
+    public String getDedupId() {
+        return dedupId;
+    }
+
+    public void setDedupId(String dedupId) {
+        this.dedupId = dedupId;
+    }
+
 }
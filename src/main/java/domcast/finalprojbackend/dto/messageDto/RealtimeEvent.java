@@ -0,0 +1,113 @@
+package domcast.finalprojbackend.dto.messageDto;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Data transfer object for the ephemeral events sent through the websockets.
+ * These events are never persisted.
+ * The attributes are the following:
+ * - type: the type of the event (typing, presence, read or version).
+ * - userId: the ID of the user that originated the event.
+ * - projectId: the ID of the project, for events in a project chat.
+ * - messageId: the ID of the last message read, for read receipts.
+ * - onlineUsers: the IDs of the online users, for presence answers.
+ * - version: the new change version of the project, for version hints.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@XmlRootElement
+public class RealtimeEvent implements Serializable {
+
+    public static final String TYPING = "typing";
+    public static final String PRESENCE = "presence";
+    public static final String READ = "read";
+    public static final String VERSION = "version";
+
+    @XmlElement
+    private String type;
+
+    @XmlElement
+    private int userId;
+
+    @XmlElement
+    private int projectId;
+
+    @XmlElement
+    private int messageId;
+
+    @XmlElement
+    private List<Integer> onlineUsers;
+
+    @XmlElement
+    private long version;
+
+    /**
+     * Default constructor
+     */
+    public RealtimeEvent() {
+    }
+
+    /**
+     * Constructor with the type and the user that originated the event
+     * @param type the type of the event
+     * @param userId the ID of the user that originated the event
+     */
+    public RealtimeEvent(String type, int userId) {
+        this.type = type;
+        this.userId = userId;
+    }
+
+    // Getters and setters
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public int getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(int projectId) {
+        this.projectId = projectId;
+    }
+
+    public int getMessageId() {
+        return messageId;
+    }
+
+    public void setMessageId(int messageId) {
+        this.messageId = messageId;
+    }
+
+    public List<Integer> getOnlineUsers() {
+        return onlineUsers;
+    }
+
+    public void setOnlineUsers(List<Integer> onlineUsers) {
+        this.onlineUsers = onlineUsers;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
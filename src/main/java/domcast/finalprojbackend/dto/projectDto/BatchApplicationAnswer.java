@@ -0,0 +1,54 @@
+package domcast.finalprojbackend.dto.projectDto;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * DTO class to answer many applications to a project at once.
+ * The attributes are the following:
+ * - accepted: the ids of the users whose applications are accepted.
+ * - rejected: the ids of the users whose applications are rejected.
+ *
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@XmlRootElement
+public class BatchApplicationAnswer implements Serializable {
+
+    @XmlElement
+    private Set<Integer> accepted;
+
+    @XmlElement
+    private Set<Integer> rejected;
+
+    // Default constructor
+    public BatchApplicationAnswer() {
+    }
+
+    // Constructor with all the attributes
+    public BatchApplicationAnswer(Set<Integer> accepted, Set<Integer> rejected) {
+        this.accepted = accepted;
+        this.rejected = rejected;
+    }
+
+    // Getters and setters
+
+    public Set<Integer> getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(Set<Integer> accepted) {
+        this.accepted = accepted;
+    }
+
+    public Set<Integer> getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(Set<Integer> rejected) {
+        this.rejected = rejected;
+    }
+}
@@ -0,0 +1,54 @@
+package domcast.finalprojbackend.dto.projectDto;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * DTO class to invite many users to a project at once, all with the same role.
+ * The attributes are the following:
+ * - userIds: the ids of the users to invite.
+ * - role: the role of the users in the project, as in ProjectUserEnum.
+ *
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@XmlRootElement
+public class BatchInvitation implements Serializable {
+
+    @XmlElement
+    private Set<Integer> userIds;
+
+    @XmlElement
+    private int role;
+
+    // Default constructor
+    public BatchInvitation() {
+    }
+
+    // Constructor with all the attributes
+    public BatchInvitation(Set<Integer> userIds, int role) {
+        this.userIds = userIds;
+        this.role = role;
+    }
+
+    // Getters and setters
+
+    public Set<Integer> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(Set<Integer> userIds) {
+        this.userIds = userIds;
+    }
+
+    public int getRole() {
+        return role;
+    }
+
+    public void setRole(int role) {
+        this.role = role;
+    }
+}
@@ -0,0 +1,286 @@
+package domcast.finalprojbackend.dto.projectDto;
+
+import domcast.finalprojbackend.dto.KeywordDto;
+import domcast.finalprojbackend.dto.RecordDto;
+import domcast.finalprojbackend.dto.componentResourceDto.CRPreview;
+import domcast.finalprojbackend.dto.skillDto.SkillToProject;
+import domcast.finalprojbackend.dto.taskDto.ChartTask;
+import domcast.finalprojbackend.dto.userDto.InvitedOrCandidate;
+import domcast.finalprojbackend.dto.userDto.ProjectUser;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Data Transfer Object (DTO) class to send what changed in a project since a change version to the frontend,
+ * instead of the whole project and its tasks.
+ * The attributes are the following:
+ * - projectId: the id of the project.
+ * - version: the change version of the project the changes are up to, to be sent back in the next request.
+ * - fullRefresh: true if the changes since the requested version were purged, so the whole project must be fetched.
+ * - changed: the kinds of changes made, as in ProjectChangeKindEnum.
+ * - name, description, labId, state, projectedStartDate, deadline and maxMembers: the basic information,
+ *   only set if it changed.
+ * - tasks and removedTasks: the tasks changed, and the ids of the ones deleted.
+ * - members, invited, candidates and removedMembers: the users whose place in the project changed,
+ *   and the ids of the ones no longer in it.
+ * - records: the new records of the project.
+ * - keywords, skills and resources: the whole relation, only set if it changed.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@XmlRootElement
+public class ProjectChanges implements Serializable {
+
+    @XmlElement
+    private int projectId;
+
+    @XmlElement
+    private long version;
+
+    @XmlElement
+    private boolean fullRefresh;
+
+    @XmlElement
+    private Set<String> changed = new HashSet<>();
+
+    @XmlElement
+    private String name;
+
+    @XmlElement
+    private String description;
+
+    @XmlElement
+    private int labId;
+
+    @XmlElement
+    private int state;
+
+    @XmlElement
+    private LocalDateTime projectedStartDate;
+
+    @XmlElement
+    private LocalDateTime deadline;
+
+    @XmlElement
+    private int maxMembers;
+
+    @XmlElement
+    private Set<ChartTask> tasks = new HashSet<>();
+
+    @XmlElement
+    private Set<Integer> removedTasks = new HashSet<>();
+
+    @XmlElement
+    private Set<ProjectUser> members = new HashSet<>();
+
+    @XmlElement
+    private List<InvitedOrCandidate> invited = new ArrayList<>();
+
+    @XmlElement
+    private List<InvitedOrCandidate> candidates = new ArrayList<>();
+
+    @XmlElement
+    private Set<Integer> removedMembers = new HashSet<>();
+
+    @XmlElement
+    private List<RecordDto> records = new ArrayList<>();
+
+    @XmlElement
+    private Set<KeywordDto> keywords;
+
+    @XmlElement
+    private Set<SkillToProject> skills;
+
+    @XmlElement
+    private Set<CRPreview> resources;
+
+    /**
+     * Empty constructor
+     */
+    public ProjectChanges() {
+    }
+
+    /**
+     * Constructor with the id of the project and the change version the changes are up to
+     * @param projectId the id of the project
+     * @param version the change version of the project
+     */
+    public ProjectChanges(int projectId, long version) {
+        this.projectId = projectId;
+        this.version = version;
+    }
+
+    // Getters and setters
+
+    public int getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(int projectId) {
+        this.projectId = projectId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isFullRefresh() {
+        return fullRefresh;
+    }
+
+    public void setFullRefresh(boolean fullRefresh) {
+        this.fullRefresh = fullRefresh;
+    }
+
+    public Set<String> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(Set<String> changed) {
+        this.changed = changed;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public int getLabId() {
+        return labId;
+    }
+
+    public void setLabId(int labId) {
+        this.labId = labId;
+    }
+
+    public int getState() {
+        return state;
+    }
+
+    public void setState(int state) {
+        this.state = state;
+    }
+
+    public LocalDateTime getProjectedStartDate() {
+        return projectedStartDate;
+    }
+
+    public void setProjectedStartDate(LocalDateTime projectedStartDate) {
+        this.projectedStartDate = projectedStartDate;
+    }
+
+    public LocalDateTime getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(LocalDateTime deadline) {
+        this.deadline = deadline;
+    }
+
+    public int getMaxMembers() {
+        return maxMembers;
+    }
+
+    public void setMaxMembers(int maxMembers) {
+        this.maxMembers = maxMembers;
+    }
+
+    public Set<ChartTask> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(Set<ChartTask> tasks) {
+        this.tasks = tasks;
+    }
+
+    public Set<Integer> getRemovedTasks() {
+        return removedTasks;
+    }
+
+    public void setRemovedTasks(Set<Integer> removedTasks) {
+        this.removedTasks = removedTasks;
+    }
+
+    public Set<ProjectUser> getMembers() {
+        return members;
+    }
+
+    public void setMembers(Set<ProjectUser> members) {
+        this.members = members;
+    }
+
+    public List<InvitedOrCandidate> getInvited() {
+        return invited;
+    }
+
+    public void setInvited(List<InvitedOrCandidate> invited) {
+        this.invited = invited;
+    }
+
+    public List<InvitedOrCandidate> getCandidates() {
+        return candidates;
+    }
+
+    public void setCandidates(List<InvitedOrCandidate> candidates) {
+        this.candidates = candidates;
+    }
+
+    public Set<Integer> getRemovedMembers() {
+        return removedMembers;
+    }
+
+    public void setRemovedMembers(Set<Integer> removedMembers) {
+        this.removedMembers = removedMembers;
+    }
+
+    public List<RecordDto> getRecords() {
+        return records;
+    }
+
+    public void setRecords(List<RecordDto> records) {
+        this.records = records;
+    }
+
+    public Set<KeywordDto> getKeywords() {
+        return keywords;
+    }
+
+    public void setKeywords(Set<KeywordDto> keywords) {
+        this.keywords = keywords;
+    }
+
+    public Set<SkillToProject> getSkills() {
+        return skills;
+    }
+
+    public void setSkills(Set<SkillToProject> skills) {
+        this.skills = skills;
+    }
+
+    public Set<CRPreview> getResources() {
+        return resources;
+    }
+
+    public void setResources(Set<CRPreview> resources) {
+        this.resources = resources;
+    }
+}
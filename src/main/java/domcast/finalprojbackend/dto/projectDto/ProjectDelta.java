@@ -0,0 +1,201 @@
+package domcast.finalprojbackend.dto.projectDto;
+
+import domcast.finalprojbackend.dto.componentResourceDto.CRQuantity;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Data Transfer Object (DTO) class to send the changes made by an edit of a project to the frontend,
+ * instead of the whole project.
+ * The basic fields only hold a value if their name is in the changed fields.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@XmlRootElement
+public class ProjectDelta implements Serializable {
+
+    @XmlElement
+    private int projectId;
+
+    @XmlElement
+    private Set<String> changedFields = new HashSet<>();
+
+    @XmlElement
+    private String name;
+
+    @XmlElement
+    private String description;
+
+    @XmlElement
+    private int labId;
+
+    @XmlElement
+    private LocalDateTime projectedStartDate;
+
+    @XmlElement
+    private LocalDateTime deadline;
+
+    @XmlElement
+    private Set<Integer> addedSkills = new HashSet<>();
+
+    @XmlElement
+    private Set<Integer> removedSkills = new HashSet<>();
+
+    @XmlElement
+    private Set<String> addedKeywords = new HashSet<>();
+
+    @XmlElement
+    private Set<String> removedKeywords = new HashSet<>();
+
+    @XmlElement
+    private Set<CRQuantity> addedResources = new HashSet<>();
+
+    @XmlElement
+    private Set<CRQuantity> changedResources = new HashSet<>();
+
+    @XmlElement
+    private Set<Integer> removedResources = new HashSet<>();
+
+    /**
+     * Empty constructor
+     */
+    public ProjectDelta() {
+    }
+
+    /**
+     * Constructor with the id of the project
+     * @param projectId the id of the project
+     */
+    public ProjectDelta(int projectId) {
+        this.projectId = projectId;
+    }
+
+    /**
+     * Checks if the edit changed anything
+     * @return true if there are changes
+     */
+    public boolean hasChanges() {
+        return !changedFields.isEmpty() || !addedSkills.isEmpty() || !removedSkills.isEmpty()
+                || !addedKeywords.isEmpty() || !removedKeywords.isEmpty()
+                || !addedResources.isEmpty() || !changedResources.isEmpty() || !removedResources.isEmpty();
+    }
+
+    // Getters and setters
+
+    public int getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(int projectId) {
+        this.projectId = projectId;
+    }
+
+    public Set<String> getChangedFields() {
+        return changedFields;
+    }
+
+    public void setChangedFields(Set<String> changedFields) {
+        this.changedFields = changedFields;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public int getLabId() {
+        return labId;
+    }
+
+    public void setLabId(int labId) {
+        this.labId = labId;
+    }
+
+    public LocalDateTime getProjectedStartDate() {
+        return projectedStartDate;
+    }
+
+    public void setProjectedStartDate(LocalDateTime projectedStartDate) {
+        this.projectedStartDate = projectedStartDate;
+    }
+
+    public LocalDateTime getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(LocalDateTime deadline) {
+        this.deadline = deadline;
+    }
+
+    public Set<Integer> getAddedSkills() {
+        return addedSkills;
+    }
+
+    public void setAddedSkills(Set<Integer> addedSkills) {
+        this.addedSkills = addedSkills;
+    }
+
+    public Set<Integer> getRemovedSkills() {
+        return removedSkills;
+    }
+
+    public void setRemovedSkills(Set<Integer> removedSkills) {
+        this.removedSkills = removedSkills;
+    }
+
+    public Set<String> getAddedKeywords() {
+        return addedKeywords;
+    }
+
+    public void setAddedKeywords(Set<String> addedKeywords) {
+        this.addedKeywords = addedKeywords;
+    }
+
+    public Set<String> getRemovedKeywords() {
+        return removedKeywords;
+    }
+
+    public void setRemovedKeywords(Set<String> removedKeywords) {
+        this.removedKeywords = removedKeywords;
+    }
+
+    public Set<CRQuantity> getAddedResources() {
+        return addedResources;
+    }
+
+    public void setAddedResources(Set<CRQuantity> addedResources) {
+        this.addedResources = addedResources;
+    }
+
+    public Set<CRQuantity> getChangedResources() {
+        return changedResources;
+    }
+
+    public void setChangedResources(Set<CRQuantity> changedResources) {
+        this.changedResources = changedResources;
+    }
+
+    public Set<Integer> getRemovedResources() {
+        return removedResources;
+    }
+
+    public void setRemovedResources(Set<Integer> removedResources) {
+        this.removedResources = removedResources;
+    }
+}
@@ -0,0 +1,90 @@
+package domcast.finalprojbackend.dto.statistics;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.io.Serializable;
+
+/**
+ * Data transfer object with the hit statistics of one second-level cache region.
+ * The attributes are the following:
+ * - region: the name of the cached entity, or "query" for the query cache.
+ * - hits: the number of lookups served by the cache.
+ * - misses: the number of lookups that went to the database.
+ * - puts: the number of entries stored in the cache.
+ * - hitRatio: the share of lookups served by the cache, between 0 and 1.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@XmlRootElement
+public class CacheStatistics implements Serializable {
+
+    @XmlElement
+    private String region;
+
+    @XmlElement
+    private long hits;
+
+    @XmlElement
+    private long misses;
+
+    @XmlElement
+    private long puts;
+
+    @XmlElement
+    private double hitRatio;
+
+    public CacheStatistics() {
+        super();
+    }
+
+    public CacheStatistics(String region, long hits, long misses, long puts) {
+        this.region = region;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.hitRatio = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    // Getters and setters
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    public void setPuts(long puts) {
+        this.puts = puts;
+    }
+
+    public double getHitRatio() {
+        return hitRatio;
+    }
+
+    public void setHitRatio(double hitRatio) {
+        this.hitRatio = hitRatio;
+    }
+}
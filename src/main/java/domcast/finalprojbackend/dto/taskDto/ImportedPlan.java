@@ -0,0 +1,68 @@
+package domcast.finalprojbackend.dto.taskDto;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO class for the result of importing a project plan.
+ * The attributes are the following:
+ * - projectId: the id of the project.
+ * - taskIds: the id given to each task of the plan, by its key.
+ * - tasks: the tasks created, in an order where each task comes after its dependencies.
+ *
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@XmlRootElement
+public class ImportedPlan implements Serializable {
+
+    @XmlElement
+    private int projectId;
+
+    @XmlElement
+    private Map<String, Integer> taskIds;
+
+    @XmlElement
+    private List<ChartTask> tasks;
+
+    // Default constructor
+    public ImportedPlan() {
+    }
+
+    // Constructor with all the attributes
+    public ImportedPlan(int projectId, Map<String, Integer> taskIds, List<ChartTask> tasks) {
+        this.projectId = projectId;
+        this.taskIds = taskIds;
+        this.tasks = tasks;
+    }
+
+    // Getters and setters
+
+    public int getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(int projectId) {
+        this.projectId = projectId;
+    }
+
+    public Map<String, Integer> getTaskIds() {
+        return taskIds;
+    }
+
+    public void setTaskIds(Map<String, Integer> taskIds) {
+        this.taskIds = taskIds;
+    }
+
+    public List<ChartTask> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<ChartTask> tasks) {
+        this.tasks = tasks;
+    }
+}
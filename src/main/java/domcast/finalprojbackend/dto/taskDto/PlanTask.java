@@ -0,0 +1,122 @@
+package domcast.finalprojbackend.dto.taskDto;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * DTO class for a task of a project plan imported in bulk, from a JSON array or a CSV file.
+ * The dependencies refer to other tasks of the same plan by their key, so the whole plan is sent at once.
+ * The attributes are the following:
+ * - key: the symbolic reference of the task in the plan, its title if missing.
+ * - title: the title of the task.
+ * - description: the description of the task.
+ * - projectedStartDate: the projected start date of the task.
+ * - deadline: the deadline of the task.
+ * - responsibleId: the responsible for the task.
+ * - otherExecutors: the other users that are executors of the task.
+ * - dependencies: the keys of the tasks of the plan that this task depends on.
+ *
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@XmlRootElement
+public class PlanTask implements Serializable {
+
+    @XmlElement
+    private String key;
+
+    @XmlElement
+    private String title;
+
+    @XmlElement
+    private String description;
+
+    @XmlElement
+    private LocalDateTime projectedStartDate;
+
+    @XmlElement
+    private LocalDateTime deadline;
+
+    @XmlElement
+    private int responsibleId;
+
+    @XmlElement
+    private Set<String> otherExecutors;
+
+    @XmlElement
+    private Set<String> dependencies;
+
+    // Default constructor
+    public PlanTask() {
+    }
+
+    // Getters and setters
+
+    public String getKey() {
+        return key != null && !key.isBlank() ? key.trim() : (title != null ? title.trim() : null);
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDateTime getProjectedStartDate() {
+        return projectedStartDate;
+    }
+
+    public void setProjectedStartDate(LocalDateTime projectedStartDate) {
+        this.projectedStartDate = projectedStartDate;
+    }
+
+    public LocalDateTime getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(LocalDateTime deadline) {
+        this.deadline = deadline;
+    }
+
+    public int getResponsibleId() {
+        return responsibleId;
+    }
+
+    public void setResponsibleId(int responsibleId) {
+        this.responsibleId = responsibleId;
+    }
+
+    public Set<String> getOtherExecutors() {
+        return otherExecutors;
+    }
+
+    public void setOtherExecutors(Set<String> otherExecutors) {
+        this.otherExecutors = otherExecutors;
+    }
+
+    public Set<String> getDependencies() {
+        return dependencies;
+    }
+
+    public void setDependencies(Set<String> dependencies) {
+        this.dependencies = dependencies;
+    }
+}
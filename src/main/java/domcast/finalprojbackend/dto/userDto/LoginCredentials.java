@@ -0,0 +1,71 @@
+package domcast.finalprojbackend.dto.userDto;
+
+import domcast.finalprojbackend.enums.TypeOfUserEnum;
+
+/**
+ * Data Transfer Object (DTO) class with the credentials of a user checked in the login.
+ * It includes only the id, email, password hash and type of the user, so the login does not load the user entity.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+public class LoginCredentials {
+
+    private int id;
+    private String email;
+    private String password;
+    private TypeOfUserEnum type;
+
+    /**
+     * Empty constructor
+     */
+    public LoginCredentials() {
+    }
+
+    /**
+     * Constructor with the credentials of the user.
+     * @param id Id of the user.
+     * @param email Email of the user.
+     * @param password Password hash of the user.
+     * @param type Type of the user.
+     */
+    public LoginCredentials(int id, String email, String password, TypeOfUserEnum type) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.type = type;
+    }
+
+    // Getters and Setters
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public TypeOfUserEnum getType() {
+        return type;
+    }
+
+    public void setType(TypeOfUserEnum type) {
+        this.type = type;
+    }
+}
@@ -0,0 +1,117 @@
+package domcast.finalprojbackend.entity;
+
+import domcast.finalprojbackend.dto.messageDto.BroadcastMessage;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class for the broadcast_outbox table in the database.
+ * Each row is a websocket frame published by one application node, that every node polls
+ * and delivers to the sessions it holds.
+ * The attributes are the following:
+ * - id: the id of the frame, increasing in publishing order.
+ * - channel: the channel of the frame.
+ * - targetId: the id of the user or project the frame is sent to.
+ * - token: the session token the frame is sent to, if any.
+ * - payload: the serialized frame.
+ * - originNode: the id of the node that published the frame.
+ * - createdAt: the timestamp of the frame.
+ * The class also contains the necessary annotations to work with the database.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Entity
+@Table(name = "broadcast_outbox")
+
+@NamedQuery(name = "BroadcastOutbox.findAfterId",
+        query = "SELECT b FROM BroadcastOutboxEntity b WHERE b.id > :lastId ORDER BY b.id ASC")
+@NamedQuery(name = "BroadcastOutbox.findByIds",
+        query = "SELECT b FROM BroadcastOutboxEntity b WHERE b.id IN :ids ORDER BY b.id ASC")
+@NamedQuery(name = "BroadcastOutbox.findMaxId",
+        query = "SELECT COALESCE(MAX(b.id), 0) FROM BroadcastOutboxEntity b")
+@NamedQuery(name = "BroadcastOutbox.deleteOlderThan",
+        query = "DELETE FROM BroadcastOutboxEntity b WHERE b.createdAt < :before")
+
+public class BroadcastOutboxEntity implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, unique = true, updatable = false)
+    private long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel", nullable = false, updatable = false)
+    private BroadcastMessage.Channel channel;
+
+    @Column(name = "target_id", nullable = false, updatable = false)
+    private int targetId;
+
+    @Column(name = "token", updatable = false)
+    private String token;
+
+    @Column(name = "payload", nullable = false, updatable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "origin_node", nullable = false, updatable = false)
+    private String originNode;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Default constructor
+    public BroadcastOutboxEntity() {
+    }
+
+    // Getters and setters
+
+    public long getId() {
+        return id;
+    }
+
+    public BroadcastMessage.Channel getChannel() {
+        return channel;
+    }
+
+    public void setChannel(BroadcastMessage.Channel channel) {
+        this.channel = channel;
+    }
+
+    public int getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(int targetId) {
+        this.targetId = targetId;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public String getOriginNode() {
+        return originNode;
+    }
+
+    public void setOriginNode(String originNode) {
+        this.originNode = originNode;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -28,7 +28,9 @@ import java.util.Set;
  */
 
 @Entity
-@Table(name = "component_resource")
+@Table(name = "component_resource", indexes = {
+        @Index(name = "idx_component_resource_name_brand", columnList = "name, brand")
+})
 
 @NamedQuery(name = "ComponentResource.doesCRExistByNameAndBrand",
         query = "SELECT CASE WHEN COUNT(c) > 0 THEN TRUE ELSE FALSE END FROM ComponentResourceEntity c WHERE c.name = :name AND c.brand = :brand")
@@ -36,6 +38,8 @@ import java.util.Set;
         query = "SELECT c FROM ComponentResourceEntity c WHERE c.name = :name AND c.brand = :brand")
 @NamedQuery(name = "ComponentResource.findCREntityById",
         query = "SELECT c FROM ComponentResourceEntity c WHERE c.id = :id")
+@NamedQuery(name = "ComponentResource.findAllNames",
+        query = "SELECT DISTINCT c.name FROM ComponentResourceEntity c")
 @NamedQuery(name = "ComponentResource.findM2MComponentProjectByProjectIdAndComponentId",
         query = "SELECT m FROM M2MComponentProject m WHERE m.project.id = :projectId AND m.componentResource.id = :componentId")
 
@@ -21,12 +21,17 @@ import java.util.Set;
  */
 
 @Entity
+@Cacheable
 @Table(name = "interest")
 
-@NamedQuery(name = "Interest.findInterestByName", query = "SELECT i FROM InterestEntity i WHERE i.name = :name")
-@NamedQuery(name = "Interest.findInterestsByListOfNames", query = "SELECT i FROM InterestEntity i WHERE i.name IN :names")
-@NamedQuery(name = "Interest.findAllInterests", query = "SELECT i FROM InterestEntity i ORDER BY i.name ASC")
-@NamedQuery(name = "Interest.findAllInterestsNames", query = "SELECT i.name FROM InterestEntity i ORDER BY i.name ASC")
+@NamedQuery(name = "Interest.findInterestByName", query = "SELECT i FROM InterestEntity i WHERE i.name = :name",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
+@NamedQuery(name = "Interest.findInterestsByListOfNames", query = "SELECT i FROM InterestEntity i WHERE i.name IN :names",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
+@NamedQuery(name = "Interest.findAllInterests", query = "SELECT i FROM InterestEntity i ORDER BY i.name ASC",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
+@NamedQuery(name = "Interest.findAllInterestsNames", query = "SELECT i.name FROM InterestEntity i ORDER BY i.name ASC",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
 
 public class InterestEntity implements Serializable {
     private static final long serialVersionUID = 1L;
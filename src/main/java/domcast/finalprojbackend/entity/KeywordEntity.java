@@ -7,10 +7,13 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
 @Table(name = "keyword")
 
-@NamedQuery(name = "Keyword.findKeywordByName", query = "SELECT k FROM KeywordEntity k WHERE k.name = :name")
-@NamedQuery(name = "Keyword.findAllKeywordsNames", query = "SELECT k.name FROM KeywordEntity k ORDER BY k.name ASC")
+@NamedQuery(name = "Keyword.findKeywordByName", query = "SELECT k FROM KeywordEntity k WHERE k.name = :name",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
+@NamedQuery(name = "Keyword.findAllKeywordsNames", query = "SELECT k.name FROM KeywordEntity k ORDER BY k.name ASC",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
 @NamedQuery(name = "Keyword.findKewyordById", query = "SELECT k FROM KeywordEntity k WHERE k.id = :id")
 
 
@@ -19,9 +19,11 @@ import java.util.Set;
  *  @author Pedro Domingos
  */
 @Entity
+@Cacheable
 @Table(name = "lab")
 
-@NamedQuery(name = "Lab.findLabByCity", query = "SELECT l FROM LabEntity l WHERE l.city = :city")
+@NamedQuery(name = "Lab.findLabByCity", query = "SELECT l FROM LabEntity l WHERE l.city = :city",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
 
 public class LabEntity implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -32,6 +32,14 @@ import java.io.Serializable;
         query = "UPDATE M2MComponentProject m SET m.active = true WHERE m.project.id = :projectId AND m.componentResource.id = :componentId")
 @NamedQuery(name = "M2MComponentProject.setInactiveByProjectIdAndComponentId",
         query = "UPDATE M2MComponentProject m SET m.active = false WHERE m.project.id = :projectId AND m.componentResource.id = :componentId")
+@NamedQuery(name = "M2MComponentProject.findComponentStatesByProjectId",
+        query = "SELECT m.componentResource.id, m.quantity, m.active FROM M2MComponentProject m WHERE m.project.id = :projectId")
+@NamedQuery(name = "M2MComponentProject.setActiveWithQuantityByProjectIdAndComponentIds",
+        query = "UPDATE M2MComponentProject m SET m.active = true, m.quantity = :quantity WHERE m.project.id = :projectId AND m.componentResource.id IN :componentIds")
+@NamedQuery(name = "M2MComponentProject.setInactiveByProjectIdAndComponentIds",
+        query = "UPDATE M2MComponentProject m SET m.active = false WHERE m.project.id = :projectId AND m.componentResource.id IN :componentIds")
+@NamedQuery(name = "M2MComponentProject.insertForProject",
+        query = "INSERT INTO M2MComponentProject (project, componentResource, quantity, active) SELECT p, c, :quantity, true FROM ProjectEntity p, ComponentResourceEntity c WHERE p.id = :projectId AND c.id IN :componentIds")
 
 
 public class M2MComponentProject implements Serializable {
@@ -24,6 +24,9 @@ import java.io.Serializable;
 @NamedQuery(name = "M2MKeyword.findAllKeywordsByProject", query = "SELECT k.keyword FROM M2MKeyword k WHERE k.project.id = :projectId")
 @NamedQuery(name = "M2MKeyword.setKeywordActiveForProject", query = "UPDATE M2MKeyword k SET k.active = true WHERE k.project.id = :projectId AND k.keyword.id = :keywordId")
 @NamedQuery(name = "M2MKeyword.setKeywordInactiveForProject", query = "UPDATE M2MKeyword k SET k.active = false WHERE k.project.id = :projectId AND k.keyword.id = :keywordId")
+@NamedQuery(name = "M2MKeyword.findKeywordStatesByProject", query = "SELECT k.keyword.name, k.active FROM M2MKeyword k WHERE k.project.id = :projectId")
+@NamedQuery(name = "M2MKeyword.setKeywordsActiveForProject", query = "UPDATE M2MKeyword k SET k.active = :active WHERE k.project.id = :projectId AND k.keyword.id IN (SELECT kw.id FROM KeywordEntity kw WHERE kw.name IN :names)")
+@NamedQuery(name = "M2MKeyword.insertKeywordsForProject", query = "INSERT INTO M2MKeyword (project, keyword, active) SELECT p, kw, true FROM ProjectEntity p, KeywordEntity kw WHERE p.id = :projectId AND kw.name IN :names")
 
 public class M2MKeyword implements Serializable {
 
@@ -25,6 +25,9 @@ import java.io.Serializable;
 @NamedQuery(name = "M2MProjectSkill.findAllforProject", query = "SELECT ps FROM M2MProjectSkill ps WHERE ps.project.id = :projectId")
 @NamedQuery(name = "M2MProjectSkill.setSkillInactiveForProject", query = "UPDATE M2MProjectSkill ps SET ps.active = false WHERE ps.project.id = :projectId AND ps.skill.id = :skillId")
 @NamedQuery(name = "M2MProjectSkill.setSkillActiveForProject", query = "UPDATE M2MProjectSkill ps SET ps.active = true WHERE ps.project.id = :projectId AND ps.skill.id = :skillId")
+@NamedQuery(name = "M2MProjectSkill.findSkillStatesForProject", query = "SELECT ps.skill.id, ps.active FROM M2MProjectSkill ps WHERE ps.project.id = :projectId")
+@NamedQuery(name = "M2MProjectSkill.setSkillsActiveForProject", query = "UPDATE M2MProjectSkill ps SET ps.active = :active WHERE ps.project.id = :projectId AND ps.skill.id IN :skillIds")
+@NamedQuery(name = "M2MProjectSkill.insertSkillsForProject", query = "INSERT INTO M2MProjectSkill (project, skill, active) SELECT p, s, true FROM ProjectEntity p, SkillEntity s WHERE p.id = :projectId AND s.id IN :skillIds")
 
 public class M2MProjectSkill implements Serializable {
     private static final long serialVersionUID = 1L;
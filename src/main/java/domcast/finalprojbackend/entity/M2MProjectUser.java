@@ -23,7 +23,10 @@ import java.io.Serializable;
  */
 
 @Entity
-@Table(name = "project_user")
+@Table(name = "project_user", indexes = {
+        @Index(name = "idx_project_user_project_user_state", columnList = "project_id, user_id, active, approved"),
+        @Index(name = "idx_project_user_user_active", columnList = "user_id, active")
+})
 
 @NamedQuery(name = "M2MProjectUser.isUserActiveAndApprovedInProject",
         query = "SELECT pu FROM M2MProjectUser pu WHERE pu.user.id = :userId AND pu.project.id = :projectId AND pu.approved = true AND pu.active = true")
@@ -42,18 +45,33 @@ import java.io.Serializable;
         query = "SELECT pu.user.id FROM M2MProjectUser pu WHERE pu.project.id = :projectId AND pu.role = 300")
 @NamedQuery(name = "M2MProjectUser.removeProjectUser",
         query = "DELETE FROM M2MProjectUser pu WHERE pu.user.id = :userId AND pu.project.id = :projectId")
+@NamedQuery(name = "M2MProjectUser.removePendingProjectUsers",
+        query = "DELETE FROM M2MProjectUser pu WHERE pu.user.id IN :userIds AND pu.project.id = :projectId AND pu.active = false")
 @NamedQuery(name = "M2MProjectUser.getNumberOfActiveUsersInProject",
         query = "SELECT COUNT(pu) FROM M2MProjectUser pu WHERE pu.project.id = :projectId AND pu.active = true")
 @NamedQuery(name = "M2MProjectUser.getProjectsExceedingMaxUsers",
         query = "SELECT pu.project FROM M2MProjectUser pu WHERE pu.active = true GROUP BY pu.project HAVING COUNT(pu) > :number")
+@NamedQuery(name = "M2MProjectUser.findActiveApprovedUserIds",
+        query = "SELECT pu.user.id FROM M2MProjectUser pu WHERE pu.project.id = :projectId AND pu.approved = true AND pu.active = true")
 @NamedQuery(name = "M2MProjectUser.getUsersInProject",
         query = "SELECT pu.user.id FROM M2MProjectUser pu WHERE pu.project.id = :projectId AND pu.active = true")
+@NamedQuery(name = "M2MProjectUser.findAllUserIdsInProject",
+        query = "SELECT pu.user.id FROM M2MProjectUser pu WHERE pu.project.id = :projectId")
+@NamedQuery(name = "M2MProjectUser.findAllProjectIdsOfUser",
+        query = "SELECT pu.project.id FROM M2MProjectUser pu WHERE pu.user.id = :userId")
+@NamedQuery(name = "M2MProjectUser.findTeammates",
+        query = "SELECT DISTINCT other.user.id FROM M2MProjectUser own, M2MProjectUser other WHERE own.user.id = :userId AND own.active = true " +
+                "AND other.project.id = own.project.id AND other.active = true AND other.user.id IN :userIds")
 @NamedQuery(name = "M2MProjectUser.findProjectManagers",
         query = "SELECT pu FROM M2MProjectUser pu WHERE pu.project.id = :projectId AND (pu.role = 200 OR pu.role = 300) AND pu.active = true")
 @NamedQuery(name = "M2MProjectUser.findInvitedUsers",
         query = "SELECT pu FROM M2MProjectUser pu WHERE pu.project.id = :projectId AND pu.invited = true")
 @NamedQuery(name = "M2MProjectUser.findCandidates",
         query = "SELECT pu FROM M2MProjectUser pu WHERE pu.project.id = :projectId AND pu.role = 400")
+@NamedQuery(name = "M2MProjectUser.findProjectUsersByUserIds",
+        query = "SELECT pu FROM M2MProjectUser pu WHERE pu.project.id = :projectId AND pu.user.id IN :userIds")
+@NamedQuery(name = "M2MProjectUser.findTeamsOfProjects",
+        query = "SELECT pu.project.id, u.id, u.firstName, u.lastName, pu.role FROM M2MProjectUser pu JOIN pu.user u WHERE pu.project.id IN :projectIds")
 @NamedQuery(name = "M2MProjectUser.averageActiveUsersAcrossAllProjects",
         query = "SELECT CAST(COUNT(pu) AS double) / COUNT(DISTINCT pu.project) FROM M2MProjectUser pu WHERE pu.active = true")
 
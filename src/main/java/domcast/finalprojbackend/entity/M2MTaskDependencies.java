@@ -12,12 +12,22 @@ import java.io.Serializable;
  * - id: the id of the task relationship with other tasks.
  * - task: the task of the task relationship with other tasks.
  * - dependentTask: the dependent task of the task relationship with other tasks.
+ * Each relationship is an edge of the graph of the tasks of a project, from the task to the dependent task.
  * The class also contains the necessary annotations to work with the database.
  * @author José Castro
  * @author Pedro Domingos
  */
 @Entity
 @Table(name = "task_dependencies")
+@NamedQuery(name = "M2MTaskDependencies.relinkAroundTask",
+        query = "INSERT INTO M2MTaskDependencies (task, dependentTask) " +
+                "SELECT DISTINCT incoming.task, outgoing.dependentTask FROM M2MTaskDependencies incoming, M2MTaskDependencies outgoing " +
+                "WHERE incoming.dependentTask.id = :taskId AND outgoing.task.id = :taskId " +
+                "AND incoming.task.id <> outgoing.dependentTask.id " +
+                "AND incoming.task.active = true AND outgoing.dependentTask.active = true " +
+                "AND NOT EXISTS (SELECT d.id FROM M2MTaskDependencies d WHERE d.task = incoming.task AND d.dependentTask = outgoing.dependentTask)")
+@NamedQuery(name = "M2MTaskDependencies.deleteByTaskId",
+        query = "DELETE FROM M2MTaskDependencies d WHERE d.task.id = :taskId OR d.dependentTask.id = :taskId")
 
 public class M2MTaskDependencies implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -22,7 +22,10 @@ import java.time.LocalDateTime;
  */
 
 @Entity
-@Table(name="message")
+@Table(name="message", indexes = {
+        @Index(name = "idx_message_receiver_read_timestamp", columnList = "receiverUserId, 'read', timestamp"),
+        @Index(name = "idx_message_sender_timestamp", columnList = "sender_id, timestamp")
+})
 //@NamedQuery(name="Message.findMessagesBetweenUsers", query="SELECT m FROM MessageEntity m WHERE m.sender.id = :sender AND m.receiver.id = :receiver OR m.sender.id = :receiver AND m.receiver.id = :sender ORDER BY m.timestamp ASC")
 @NamedQuery(name="Message.findMessageById", query="SELECT m FROM MessageEntity m WHERE m.id = :id")
 //@NamedQuery(name="Message.findMessagesUnreadForUser", query="SELECT m FROM MessageEntity m WHERE m.receiver.id = :username AND m.read = false")
@@ -0,0 +1,142 @@
+package domcast.finalprojbackend.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class for the notification_outbox table in the database.
+ * Each row is a notification written in the same transaction as the workflow that emits it,
+ * and sent to the user's sessions by the NotificationDispatcherBean after the commit.
+ * The attributes are the following:
+ * - id: the id of the entry, increasing in writing order.
+ * - dedupId: the unique id sent with the notification, so clients can drop repeated deliveries.
+ * - receiverId: the id of the user the notification is sent to.
+ * - payload: the serialized notification.
+ * - createdAt: the timestamp of the entry.
+ * - dispatched: whether the notification has been sent.
+ * - attempts: the number of failed attempts to send the notification.
+ * - claimedBy: the node that claimed the notification to send it.
+ * - claimedUntil: the time until which the claim holds, after which another node may send the notification.
+ * The class also contains the necessary annotations to work with the database.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Entity
+@Table(name = "notification_outbox")
+
+@NamedQuery(name = "NotificationOutbox.findClaimable",
+        query = "SELECT n FROM NotificationOutboxEntity n WHERE n.dispatched = false AND n.attempts < :maxAttempts " +
+                "AND (n.claimedUntil IS NULL OR n.claimedUntil < :now) ORDER BY n.id ASC")
+@NamedQuery(name = "NotificationOutbox.claim",
+        query = "UPDATE NotificationOutboxEntity n SET n.claimedBy = :owner, n.claimedUntil = :until WHERE n.id IN :ids")
+@NamedQuery(name = "NotificationOutbox.markDispatched",
+        query = "UPDATE NotificationOutboxEntity n SET n.dispatched = true WHERE n.id IN :ids")
+@NamedQuery(name = "NotificationOutbox.incrementAttempts",
+        query = "UPDATE NotificationOutboxEntity n SET n.attempts = n.attempts + 1, n.claimedUntil = NULL WHERE n.id IN :ids")
+@NamedQuery(name = "NotificationOutbox.deleteDispatchedBefore",
+        query = "DELETE FROM NotificationOutboxEntity n WHERE n.dispatched = true AND n.createdAt < :before")
+
+public class NotificationOutboxEntity implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, unique = true, updatable = false)
+    private long id;
+
+    @Column(name = "dedup_id", nullable = false, unique = true, updatable = false, length = 36)
+    private String dedupId;
+
+    @Column(name = "receiver_id", nullable = false, updatable = false)
+    private int receiverId;
+
+    @Column(name = "payload", nullable = false, updatable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "dispatched", nullable = false)
+    private boolean dispatched = false;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    // Default constructor
+    public NotificationOutboxEntity() {
+    }
+
+    // Getters and setters
+
+    public long getId() {
+        return id;
+    }
+
+    public String getDedupId() {
+        return dedupId;
+    }
+
+    public void setDedupId(String dedupId) {
+        this.dedupId = dedupId;
+    }
+
+    public int getReceiverId() {
+        return receiverId;
+    }
+
+    public void setReceiverId(int receiverId) {
+        this.receiverId = receiverId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public boolean isDispatched() {
+        return dispatched;
+    }
+
+    public void setDispatched(boolean dispatched) {
+        this.dispatched = dispatched;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public LocalDateTime getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public void setClaimedUntil(LocalDateTime claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+}
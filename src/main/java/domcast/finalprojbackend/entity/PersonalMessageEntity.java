@@ -25,15 +25,32 @@ import java.io.Serializable;
 @NamedQuery(name="Message.countUnreadPersonalMessagesForUser",
         query="SELECT COUNT(m) FROM PersonalMessageEntity m WHERE m.receiver.id = :userId AND m.read = false")
 @NamedQuery(name="Message.getAllPersonalMessagesWhereReceiverIs",
-        query="SELECT m FROM PersonalMessageEntity m WHERE m.receiver.id = :userId ORDER BY m.timestamp DESC")
+        query="SELECT m FROM PersonalMessageEntity m WHERE m.receiver.id = :userId ORDER BY m.timestamp DESC, m.id DESC")
+@NamedQuery(name="Message.getPersonalMessagesWhereReceiverIsBefore",
+        query="SELECT m FROM PersonalMessageEntity m WHERE m.receiver.id = :userId " +
+                "AND (m.timestamp < :timestamp OR (m.timestamp = :timestamp AND m.id < :id)) ORDER BY m.timestamp DESC, m.id DESC")
 @NamedQuery(name="Message.getAllPersonalMessagesSentByUser",
-        query="SELECT m FROM PersonalMessageEntity m WHERE m.sender.id = :userId ORDER BY m.timestamp DESC")
+        query="SELECT m FROM PersonalMessageEntity m WHERE m.sender.id = :userId ORDER BY m.timestamp DESC, m.id DESC")
+@NamedQuery(name="Message.getPersonalMessagesSentByUserBefore",
+        query="SELECT m FROM PersonalMessageEntity m WHERE m.sender.id = :userId " +
+                "AND (m.timestamp < :timestamp OR (m.timestamp = :timestamp AND m.id < :id)) ORDER BY m.timestamp DESC, m.id DESC")
 @NamedQuery(name="Message.markPersonalMessageAsRead",
         query="UPDATE PersonalMessageEntity m SET m.read = true WHERE m.id = :messageId")
+@NamedQuery(name="Message.markConversationAsReadUpTo",
+        query="UPDATE PersonalMessageEntity m SET m.read = true WHERE m.receiver.id = :receiverId AND m.sender.id = :senderId AND m.id <= :messageId AND m.read = false")
+@NamedQuery(name="Message.findConversationPartners",
+        query="SELECT DISTINCT CASE WHEN m.sender.id = :userId THEN m.receiver.id ELSE m.sender.id END FROM PersonalMessageEntity m " +
+                "WHERE (m.sender.id = :userId AND m.receiver.id IN :userIds) OR (m.receiver.id = :userId AND m.sender.id IN :userIds)")
 @NamedQuery(name="Message.isUserReceiverOfPersonalMessage",
         query="SELECT COUNT(m) FROM PersonalMessageEntity m WHERE m.id = :messageId AND m.receiver.id = :userId")
 @NamedQuery(name="Message.setInvitedToNullMessageWhereReceiverIsAndInvitedToIs",
         query="UPDATE PersonalMessageEntity m SET m.invitedTo = null WHERE m.receiver.id = :userId AND m.invitedTo = :projectId")
+@NamedQuery(name="Message.setInvitedToNullForReceivers",
+        query="UPDATE PersonalMessageEntity m SET m.invitedTo = null WHERE m.receiver.id IN :userIds AND m.invitedTo = :projectId")
+@NamedQuery(name="Message.findPurgeableNotificationIds",
+        query="SELECT m.id FROM PersonalMessageEntity m WHERE m.id > :afterId AND m.type <> :personalType AND m.invitedTo IS NULL AND m.timestamp < :cutoff ORDER BY m.id")
+@NamedQuery(name="Message.deletePersonalMessagesByIds",
+        query="DELETE FROM PersonalMessageEntity m WHERE m.id IN :ids")
 
 public class PersonalMessageEntity extends MessageEntity implements Serializable {
     private static final long serialVersionUID = 1L;
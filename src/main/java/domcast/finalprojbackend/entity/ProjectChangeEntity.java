@@ -0,0 +1,125 @@
+package domcast.finalprojbackend.entity;
+
+import domcast.finalprojbackend.enums.ProjectChangeKindEnum;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class for the project_change table in the database.
+ * Each row is something changed in a project at a change version, so the clients can fetch only
+ * what changed since the version they have.
+ * The attributes are the following:
+ * - id: the id of the change.
+ * - projectId: the id of the project.
+ * - version: the change version of the project the change was made at.
+ * - kind: what changed, a task, a member, a record, the basic information or a relation of the project.
+ * - entityId: the id of the task, user or record changed, or 0 for the basic information and the relations.
+ * - changeTime: the timestamp of the change.
+ * The class also contains the necessary annotations to work with the database.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Entity
+@Table(name = "project_change", indexes = {
+        @Index(name = "idx_project_change_version", columnList = "project_id, version")
+})
+
+@NamedQuery(name = "ProjectChange.findChangesSince",
+        query = "SELECT c.kind, c.entityId FROM ProjectChangeEntity c WHERE c.projectId = :projectId AND c.version > :version")
+@NamedQuery(name = "ProjectChange.findOldestVersion",
+        query = "SELECT MIN(c.version) FROM ProjectChangeEntity c WHERE c.projectId = :projectId")
+@NamedQuery(name = "ProjectChange.findPurgeableChangeIds",
+        query = "SELECT c.id FROM ProjectChangeEntity c WHERE c.id > :afterId AND c.changeTime < :cutoff ORDER BY c.id ASC")
+@NamedQuery(name = "ProjectChange.deleteChangesByIds",
+        query = "DELETE FROM ProjectChangeEntity c WHERE c.id IN :ids")
+
+public class ProjectChangeEntity implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, unique = true, updatable = false)
+    private int id;
+
+    @Column(name = "project_id", nullable = false, updatable = false)
+    private int projectId;
+
+    @Column(name = "version", nullable = false, updatable = false)
+    private long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, updatable = false)
+    private ProjectChangeKindEnum kind;
+
+    @Column(name = "entity_id", nullable = false, updatable = false)
+    private int entityId;
+
+    @Column(name = "change_time", nullable = false, updatable = false)
+    private LocalDateTime changeTime = LocalDateTime.now();
+
+    // Default constructor
+    public ProjectChangeEntity() {
+    }
+
+    /**
+     * Constructor with the change
+     * @param projectId the id of the project
+     * @param version the change version of the project
+     * @param kind what changed
+     * @param entityId the id of the task, user or record changed, or 0
+     */
+    public ProjectChangeEntity(int projectId, long version, ProjectChangeKindEnum kind, int entityId) {
+        this.projectId = projectId;
+        this.version = version;
+        this.kind = kind;
+        this.entityId = entityId;
+    }
+
+    // Getters and setters
+
+    public int getId() {
+        return id;
+    }
+
+    public int getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(int projectId) {
+        this.projectId = projectId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public ProjectChangeKindEnum getKind() {
+        return kind;
+    }
+
+    public void setKind(ProjectChangeKindEnum kind) {
+        this.kind = kind;
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(int entityId) {
+        this.entityId = entityId;
+    }
+
+    public LocalDateTime getChangeTime() {
+        return changeTime;
+    }
+
+    public void setChangeTime(LocalDateTime changeTime) {
+        this.changeTime = changeTime;
+    }
+}
@@ -29,6 +29,7 @@ import java.util.Set;
  * - groupMessages: the group messages of the project.
  * - componentResources: the component resources of the project.
  * - tasks: the tasks take part of the execution plan of the project.
+ * - changeVersion: increased with every change to the project, its tasks, members, records or relations.
  * The class also contains the necessary annotations to work with the database.
  * @author José Castro
  * @author Pedro Domingos
@@ -40,6 +41,8 @@ import java.util.Set;
 @NamedQuery(name = "Project.removeUserFromProject", query = "DELETE FROM M2MProjectUser pu WHERE pu.project.id = :projectId AND pu.user.id = :userId")
 @NamedQuery(name= "Project.getNumberOfProjects", query = "SELECT COUNT(p) FROM ProjectEntity p")
 @NamedQuery(name= "Project.getProjectsNames", query = "SELECT p.name FROM ProjectEntity p")
+@NamedQuery(name= "Project.getProjectsNamesFirst", query = "SELECT p.name FROM ProjectEntity p ORDER BY p.name")
+@NamedQuery(name= "Project.getProjectsNamesAfter", query = "SELECT p.name FROM ProjectEntity p WHERE p.name > :after ORDER BY p.name")
 @NamedQuery(name= "Project.isProjectCanceledOrFinished", query = "SELECT p.state FROM ProjectEntity p WHERE p.id = :projectId AND p.state = 600 OR p.state = 500")
 @NamedQuery(name= "Project.isProjectReady", query = "SELECT p.state FROM ProjectEntity p WHERE p.id = :projectId AND p.state = 200")
 @NamedQuery(name= "Project.numberOfProjectsPerLab", query = "SELECT COUNT(p) FROM ProjectEntity p WHERE p.lab.id = :labId")
@@ -48,6 +51,13 @@ import java.util.Set;
 @NamedQuery(name= "Project.getNumberOfCanceledProjectsByLab", query = "SELECT COUNT(p) FROM ProjectEntity p WHERE p.lab.id = :labId AND p.state = 600")
 @NamedQuery(name = "Project.averageExecutionTime", query = "SELECT AVG(FUNCTION('DATEDIFF', p.realEndDate, p.creationDate)) FROM ProjectEntity p WHERE p.realEndDate IS NOT NULL")
 @NamedQuery(name = "Project.findAllReadyProjects", query = "SELECT p FROM ProjectEntity p WHERE p.state = 200")
+@NamedQuery(name = "Project.incrementChangeVersion", query = "UPDATE ProjectEntity p SET p.changeVersion = p.changeVersion + 1 WHERE p.id = :projectId")
+@NamedQuery(name = "Project.findChangeVersion", query = "SELECT p.changeVersion FROM ProjectEntity p WHERE p.id = :projectId")
+@NamedQuery(name = "Project.findMaxId", query = "SELECT COALESCE(MAX(p.id), 0) FROM ProjectEntity p")
+@NamedQuery(name = "Project.findOpenLabsInRange", query = "SELECT p.id, l.city FROM ProjectEntity p LEFT JOIN p.lab l WHERE p.id BETWEEN :fromId AND :toId AND p.state IN (100, 300, 400)")
+@NamedQuery(name = "Project.findSkillIdsInRange", query = "SELECT ps.project.id, ps.skill.id FROM M2MProjectSkill ps WHERE ps.project.id BETWEEN :fromId AND :toId AND ps.active = true")
+@NamedQuery(name = "Project.findKeywordNamesInRange", query = "SELECT pk.project.id, pk.keyword.name FROM M2MKeyword pk WHERE pk.project.id BETWEEN :fromId AND :toId AND pk.active = true")
+@NamedQuery(name = "Project.findTagVersions", query = "SELECT p.changeVersion, COALESCE(SUM(u.profileVersion), 0L) FROM ProjectEntity p LEFT JOIN p.projectUsers pu LEFT JOIN pu.user u WHERE p.id = :projectId GROUP BY p.changeVersion")
 public class ProjectEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -130,6 +140,10 @@ public class ProjectEntity implements Serializable {
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<RecordEntity> records = new HashSet<>();
 
+    // Change version of the project, only increased by bulk updates so a stale entity never writes it back
+    @Column(name = "change_version", nullable = false, updatable = false)
+    private long changeVersion = 0;
+
     // Default constructor
     public ProjectEntity() {
     }
@@ -311,4 +325,12 @@ public class ProjectEntity implements Serializable {
     public void setRecords(Set<RecordEntity> records) {
         this.records = records;
     }
+
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    public void setChangeVersion(long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
 }
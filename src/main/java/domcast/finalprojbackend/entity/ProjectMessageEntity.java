@@ -24,7 +24,10 @@ import java.io.Serializable;
 @NamedQuery(name="Message.countUnreadProjectMessagesForUser",
         query="SELECT COUNT(m) FROM ProjectMessageEntity m WHERE m.project.id = :projectId AND m.read = false")
 @NamedQuery(name="Message.getAllProjectMessagesWhereProjectIs",
-        query="SELECT m FROM ProjectMessageEntity m WHERE m.project.id = :projectId ORDER BY m.timestamp DESC")
+        query="SELECT m FROM ProjectMessageEntity m WHERE m.project.id = :projectId ORDER BY m.timestamp DESC, m.id DESC")
+@NamedQuery(name="Message.getProjectMessagesWhereProjectIsBefore",
+        query="SELECT m FROM ProjectMessageEntity m WHERE m.project.id = :projectId " +
+                "AND (m.timestamp < :timestamp OR (m.timestamp = :timestamp AND m.id < :id)) ORDER BY m.timestamp DESC, m.id DESC")
 
 public class ProjectMessageEntity extends MessageEntity implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -23,12 +23,16 @@ import java.time.LocalDateTime;
  * @author Pedro Domingos
  */
 @Entity
-@Table(name = "record")
+@Table(name = "record", indexes = {
+        @Index(name = "idx_record_project_timestamp", columnList = "project_id, timestamp")
+})
 
 @NamedQuery(name = "Record.DoesRecordExist",
             query = "SELECT r FROM RecordEntity r WHERE r.project.id = :projectId AND r.author.id = :authorId AND r.type = :type AND r.timestamp BETWEEN :startTimestamp AND :endTimestamp")
 @NamedQuery(name = "Record.getRecordsByProject",
             query = "SELECT r FROM RecordEntity r WHERE r.project.id = :projectId")
+@NamedQuery(name = "Record.findRecordsByIdsAndProject",
+            query = "SELECT r FROM RecordEntity r WHERE r.id IN :ids AND r.project.id = :projectId ORDER BY r.timestamp ASC")
 
 public class RecordEntity implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -0,0 +1,55 @@
+package domcast.finalprojbackend.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class for the replica_heartbeat table in the database.
+ * Its single row is written periodically in the primary database and read back from the read replica,
+ * so the time the replica is behind the primary can be measured.
+ * The attributes are the following:
+ * - id: the id of the heartbeat, always 1.
+ * - beat: the time of the last heartbeat written in the primary database.
+ * The class also contains the necessary annotations to work with the database.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Entity
+@Table(name = "replica_heartbeat")
+
+@NamedQuery(name = "ReplicaHeartbeat.beat",
+        query = "UPDATE ReplicaHeartbeatEntity h SET h.beat = :beat WHERE h.id = :id")
+
+public class ReplicaHeartbeatEntity implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Id of the single heartbeat row
+    public static final int ID = 1;
+
+    @Id
+    @Column(name = "id", nullable = false, unique = true, updatable = false)
+    private int id = ID;
+
+    @Column(name = "beat", nullable = false)
+    private LocalDateTime beat;
+
+    // Default constructor
+    public ReplicaHeartbeatEntity() {
+    }
+
+    // Getters and setters
+
+    public int getId() {
+        return id;
+    }
+
+    public LocalDateTime getBeat() {
+        return beat;
+    }
+
+    public void setBeat(LocalDateTime beat) {
+        this.beat = beat;
+    }
+}
@@ -33,6 +33,18 @@ import java.time.LocalDateTime;
         query = "SELECT s.token FROM SessionTokenEntity s WHERE s.active = true AND s.user.id = :userId")
 @NamedQuery(name = "SessionToken.setLastAccessToNow",
         query = "UPDATE SessionTokenEntity s SET s.lastAccess = CURRENT_TIMESTAMP WHERE s.token = :token")
+@NamedQuery(name = "SessionToken.findActiveSessionsLastAccess",
+        query = "SELECT s.token, s.lastAccess FROM SessionTokenEntity s WHERE s.active = true")
+@NamedQuery(name = "SessionToken.findIdleSessionTokens",
+        query = "SELECT s.token FROM SessionTokenEntity s WHERE s.token IN :tokens AND s.active = true AND s.lastAccess < :idleSince")
+@NamedQuery(name = "SessionToken.logoutSessions",
+        query = "UPDATE SessionTokenEntity s SET s.active = false, s.logoutTime = CURRENT_TIMESTAMP WHERE s.token IN :tokens AND s.active = true")
+@NamedQuery(name = "SessionToken.findPurgeableSessionIds",
+        query = "SELECT s.id FROM SessionTokenEntity s WHERE s.id > :afterId AND s.active = false AND COALESCE(s.logoutTime, s.lastAccess) < :cutoff ORDER BY s.id")
+@NamedQuery(name = "SessionToken.setLastAccessForTokens",
+        query = "UPDATE SessionTokenEntity s SET s.lastAccess = :lastAccess WHERE s.token IN :tokens AND s.active = true AND s.lastAccess < :lastAccess")
+@NamedQuery(name = "SessionToken.findSignedTokensLoggedOutSince",
+        query = "SELECT s.token FROM SessionTokenEntity s WHERE s.logoutTime >= :since AND s.token LIKE :prefix")
 
 public class SessionTokenEntity extends ValidationTokenEntity implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -21,13 +21,18 @@ import java.util.Set;
  */
 
 @Entity
+@Cacheable
 @Table(name = "skill")
 
-@NamedQuery(name = "Skill.findSkillByName", query = "SELECT s FROM SkillEntity s WHERE s.name = :name")
-@NamedQuery(name = "Skill.findSkillsByListOfNames", query = "SELECT s FROM SkillEntity s WHERE s.name IN :names")
+@NamedQuery(name = "Skill.findSkillByName", query = "SELECT s FROM SkillEntity s WHERE s.name = :name",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
+@NamedQuery(name = "Skill.findSkillsByListOfNames", query = "SELECT s FROM SkillEntity s WHERE s.name IN :names",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
 @NamedQuery(name = "Skill.findSkillById", query = "SELECT s FROM SkillEntity s WHERE s.id = :id")
-@NamedQuery(name = "Skill.findSkillsIdsByListOfNames", query = "SELECT s.id FROM SkillEntity s WHERE s.name IN :names")
-@NamedQuery(name = "Skill.findAllSkills", query = "SELECT s FROM SkillEntity s ORDER BY s.name ASC")
+@NamedQuery(name = "Skill.findSkillsIdsByListOfNames", query = "SELECT s.id FROM SkillEntity s WHERE s.name IN :names",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
+@NamedQuery(name = "Skill.findAllSkills", query = "SELECT s FROM SkillEntity s ORDER BY s.name ASC",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
 
 public class SkillEntity implements Serializable {
     private static final long serialVersionUID = 1L;
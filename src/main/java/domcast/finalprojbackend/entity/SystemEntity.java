@@ -9,11 +9,14 @@ import java.io.Serializable;
  * It contains information about the system such as timeout and maximum users that can be part of a project.
  */
 @Entity
+@Cacheable
 @Table(name = "system_variables")
 
 @NamedQuery(name = "System.numberOfSystemVariables", query = "SELECT COUNT(s) FROM SystemEntity s")
-@NamedQuery(name = "System.getSessionTimeout", query = "SELECT s.sessionTimeout FROM SystemEntity s")
-@NamedQuery(name = "System.getProjectMaxMembers", query = "SELECT s.maxMembers FROM SystemEntity s")
+@NamedQuery(name = "System.getSessionTimeout", query = "SELECT s.sessionTimeout FROM SystemEntity s",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
+@NamedQuery(name = "System.getProjectMaxMembers", query = "SELECT s.maxMembers FROM SystemEntity s",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
 @NamedQuery(name = "System.updateTimeout", query = "UPDATE SystemEntity s SET s.sessionTimeout = :timeout")
 @NamedQuery(name = "System.updateMaxMembers", query = "UPDATE SystemEntity s SET s.maxMembers = :maxMembers")
 
@@ -32,7 +32,9 @@ import java.util.Set;
  */
 
 @Entity
-@Table(name = "task")
+@Table(name = "task", indexes = {
+        @Index(name = "idx_task_project", columnList = "project_id")
+})
 
 @NamedQuery(name = "Task.findTaskByIdAndProjectId",
         query = "SELECT t FROM TaskEntity t WHERE t.id = :id AND t.projectId.id = :projectId")
@@ -42,8 +44,16 @@ import java.util.Set;
         query = "SELECT t FROM TaskEntity t WHERE t.id = :id")
 @NamedQuery(name = "Task.findTaskByProjectId",
         query = "SELECT t FROM TaskEntity t WHERE t.projectId.id = :projectId")
+@NamedQuery(name = "Task.findTasksByProjectIdAfter",
+        query = "SELECT t FROM TaskEntity t WHERE t.projectId.id = :projectId AND t.id > :afterId ORDER BY t.id")
 @NamedQuery(name = "Task.findPresentationTaskInProject",
         query = "SELECT t FROM TaskEntity t WHERE t.projectId.id = :projectId AND LOWER(t.title) = 'presentation'")
+@NamedQuery(name = "Task.findTasksByIdsAndProjectId",
+        query = "SELECT t FROM TaskEntity t WHERE t.id IN :ids AND t.projectId.id = :projectId")
+@NamedQuery(name = "Task.findResponsiblesByTitles",
+        query = "SELECT t.title, t.responsible.id FROM TaskEntity t WHERE t.projectId.id = :projectId AND t.title IN :titles")
+@NamedQuery(name = "Task.setTaskInactive",
+        query = "UPDATE TaskEntity t SET t.active = false WHERE t.id = :id AND t.active = true")
 
 public class TaskEntity implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -29,6 +29,7 @@ import java.util.Set;
  * - receivedMessages: the messages received by the user.
  * - interests: the interests of the user.
  * - skills: the skills of the user.
+ * - profileVersion: increased with every change to the public profile of the user.
  * The class also contains the necessary annotations to work with the database.
  * @author José Castro
  * @author Pedro Domingos
@@ -39,16 +40,26 @@ import java.util.Set;
 
 @NamedQuery(name = "User.findUserById", query = "SELECT u FROM UserEntity u WHERE u.id = :id")
 @NamedQuery(name = "User.findUserByEmail", query = "SELECT u FROM UserEntity u WHERE u.email = :email")
+@NamedQuery(name = "User.findLoginCredentials", query = "SELECT u.id, u.email, u.password, u.type FROM UserEntity u WHERE u.email = :email")
+@NamedQuery(name = "User.findLoggedUser", query = "SELECT u.id, u.type, u.firstName, u.lastName, w.city, u.biography, u.visible, u.photo, u.nickname FROM UserEntity u LEFT JOIN u.workplace w WHERE u.id = :id")
+@NamedQuery(name = "User.findInterestsNames", query = "SELECT ui.interest.name FROM M2MUserInterest ui WHERE ui.user.id = :id")
+@NamedQuery(name = "User.findSkillsNames", query = "SELECT us.skill.name FROM M2MUserSkill us WHERE us.user.id = :id")
 @NamedQuery(name = "User.findUserByValidationToken", query = "SELECT u FROM UserEntity u JOIN u.validationTokens vt WHERE vt.token = :token")
 @NamedQuery(name = "User.findUserByActiveValidationOrSessionToken", query = "SELECT u FROM UserEntity u JOIN u.validationTokens vt JOIN u.sessionTokens st WHERE (vt.token = :token AND vt.active = true) OR (st.token = :token AND st.active = true)")
 @NamedQuery(name = "User.getUserPassword", query = "SELECT u.password FROM UserEntity u WHERE u.id = :id")
 @NamedQuery(name = "User.setUserPassword", query = "UPDATE UserEntity u SET u.password = :password WHERE u.id = :id")
-@NamedQuery(name = "User.setUserType", query = "UPDATE UserEntity u SET u.type = :type WHERE u.id = :id")
+@NamedQuery(name = "User.setUserType", query = "UPDATE UserEntity u SET u.type = :type, u.profileVersion = u.profileVersion + 1 WHERE u.id = :id")
 @NamedQuery(name = "User.getUserType", query = "SELECT u.type FROM UserEntity u WHERE u.id = :id")
 @NamedQuery(name = "User.isUserAdminByToken", query = "SELECT u FROM UserEntity u JOIN u.sessionTokens st WHERE st.token = :token AND u.type = domcast.finalprojbackend.enums.TypeOfUserEnum.ADMIN")
 @NamedQuery(name = "User.existsByFirstAndLastName", query = "SELECT COUNT(u) FROM UserEntity u WHERE u.firstName = :firstName AND u.lastName = :lastName")
 @NamedQuery(name = "User.isUserAdminById", query = "SELECT COUNT(u) FROM UserEntity u WHERE u.id = :id AND u.type = 300")
 @NamedQuery(name= "User.findSetOfUsersByListOfIds", query = "SELECT u FROM UserEntity u WHERE u.id IN :ids")
+@NamedQuery(name = "User.incrementProfileVersion", query = "UPDATE UserEntity u SET u.profileVersion = u.profileVersion + 1 WHERE u.id = :id")
+@NamedQuery(name = "User.findProfileVersion", query = "SELECT u.profileVersion FROM UserEntity u WHERE u.id = :id")
+@NamedQuery(name = "User.findMaxId", query = "SELECT COALESCE(MAX(u.id), 0) FROM UserEntity u")
+@NamedQuery(name = "User.findMatchableLabsInRange", query = "SELECT u.id, w.city FROM UserEntity u LEFT JOIN u.workplace w WHERE u.id BETWEEN :fromId AND :toId AND u.visible = true AND u.type <> 100")
+@NamedQuery(name = "User.findSkillIdsInRange", query = "SELECT us.user.id, us.skill.id FROM M2MUserSkill us WHERE us.user.id BETWEEN :fromId AND :toId AND us.active = true")
+@NamedQuery(name = "User.findInterestNamesInRange", query = "SELECT ui.user.id, ui.interest.name FROM M2MUserInterest ui WHERE ui.user.id BETWEEN :fromId AND :toId AND ui.active = true")
 
 public class UserEntity implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -133,6 +144,9 @@ public class UserEntity implements Serializable {
     @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<RecordEntity> records = new HashSet<>();
 
+    // Version of the public profile, only increased by bulk updates so a stale entity never writes it back
+    @Column(name = "profile_version", nullable = false, updatable = false)
+    private long profileVersion = 0;
 
     // Validation method to check if the user is confirmed
     // If the user is confirmed, the first name, last name, and workplace must not be null
@@ -326,5 +340,13 @@ public class UserEntity implements Serializable {
     public void setRecords(Set<RecordEntity> records) {
         this.records = records;
     }
+
+    public long getProfileVersion() {
+        return profileVersion;
+    }
+
+    public void setProfileVersion(long profileVersion) {
+        this.profileVersion = profileVersion;
+    }
 }
 
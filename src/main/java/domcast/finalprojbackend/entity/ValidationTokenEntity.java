@@ -21,7 +21,11 @@ import java.time.LocalDateTime;
 
 
 @Entity
-@Table(name = "tokens")
+@Table(name = "tokens", indexes = {
+        @Index(name = "idx_tokens_user_active", columnList = "user_id, active"),
+        @Index(name = "idx_tokens_active_last_access", columnList = "active, lastAccess"),
+        @Index(name = "idx_tokens_logout_time", columnList = "logout_time")
+})
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "token_type")
 
@@ -29,6 +33,9 @@ import java.time.LocalDateTime;
 @NamedQuery(name = "Token.isTokenValid", query = "SELECT COUNT(t) FROM ValidationTokenEntity t WHERE t.token = :token AND t.expirationTime > CURRENT_TIMESTAMP")
 @NamedQuery(name = "Token.isTokenActiveAndUserNotConfirmed", query = "SELECT COUNT(t) FROM ValidationTokenEntity t WHERE t.token = :token AND t.active = true AND t.user.type = 100")
 @NamedQuery(name = "Token.findUserByToken", query = "SELECT t.user FROM ValidationTokenEntity t WHERE t.token = :token AND t.active = true")
+@NamedQuery(name = "Token.findPurgeableValidationTokenIds",
+        query = "SELECT t.id FROM ValidationTokenEntity t WHERE TYPE(t) = ValidationTokenEntity AND t.id > :afterId AND t.creationTime < :cutoff AND (t.active = false OR t.expirationTime < :cutoff) ORDER BY t.id")
+@NamedQuery(name = "Token.deleteTokensByIds", query = "DELETE FROM ValidationTokenEntity t WHERE t.id IN :ids")
 
 public class ValidationTokenEntity implements Serializable {
     private static final long serialVersionUID = 1L;
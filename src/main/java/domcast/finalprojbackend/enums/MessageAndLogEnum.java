@@ -37,7 +37,8 @@ public enum MessageAndLogEnum implements ConvertibleToEnumDTO {
     TASK_EDITED (16, "task edited"),
     TASK_DELETED (17, "task deleted"),
     EMAIL (18, "email"),
-    ANNOTATION (19, "annotation");
+    ANNOTATION (19, "annotation"),
+    TASKS_IMPORTED (20, "tasks imported");
 
     // The id of the topic
     private final int id;
@@ -0,0 +1,37 @@
+package domcast.finalprojbackend.enums;
+
+/**
+ * Enum class that represents the kinds of changes made to a project, recorded with its change version.
+ * The values are the kinds of changes.
+ * The value of the kind, sent to the clients in the changes of a project.
+ * The constructor of the enum class.
+ * The getter of the value of the kind.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+
+public enum ProjectChangeKindEnum {
+
+    // The values are the kinds of changes.
+    INFO ("info"),
+    TASK ("task"),
+    MEMBER ("member"),
+    RECORD ("record"),
+    SKILLS ("skills"),
+    KEYWORDS ("keywords"),
+    RESOURCES ("resources");
+
+    // The value of the kind.
+    private final String value;
+
+    // Constructor with parameters
+    ProjectChangeKindEnum(String value) {
+        this.value = value;
+    }
+
+    // Getter
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,50 @@
+package domcast.finalprojbackend.enums;
+
+/**
+ * Enum class that represents the categories of names completed by the typeahead.
+ * The values are the categories.
+ * The value of the category, used in the typeahead query.
+ * The constructor of the enum class.
+ * The getter of the value of the category.
+ * The method that returns the category by its value.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+
+public enum TypeaheadCategoryEnum {
+
+    // The values are the categories.
+    PROJECT ("project"),
+    KEYWORD ("keyword"),
+    SKILL ("skill"),
+    INTEREST ("interest"),
+    COMPONENT ("component");
+
+    // The value of the category.
+    private final String value;
+
+    // Constructor with parameters
+    TypeaheadCategoryEnum(String value) {
+        this.value = value;
+    }
+
+    // Getter
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Method that returns the category by its value, ignoring case.
+     * @param value the category's value
+     * @return the category
+     */
+    public static TypeaheadCategoryEnum fromValue(String value) {
+        for (TypeaheadCategoryEnum category : TypeaheadCategoryEnum.values()) {
+            if (category.getValue().equalsIgnoreCase(value)) {
+                return category;
+            }
+        }
+        throw new IllegalArgumentException("Invalid TypeaheadCategoryEnum value: " + value);
+    }
+}
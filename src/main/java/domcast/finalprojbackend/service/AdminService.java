@@ -205,4 +205,44 @@ public class AdminService {
         return response;
     }
 
+    /**
+     * Gets the hit statistics of the second-level cache of the reference data.
+     * @param token the session token of the admin user
+     * @param id the id of the admin user
+     * @return a response with the statistics of each cache region
+     */
+    @GET
+    @Path("/cache-statistics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getCacheStatistics(@HeaderParam("token") String token, @HeaderParam("id") int id, @Context HttpServletRequest request) {
+        String ipAddress = request.getRemoteAddr();
+        logger.info("User with IP address {} is trying to get cache statistics", ipAddress);
+
+        Response response;
+
+        if (!authenticationAndAuthorization.isTokenActiveAndFromUserId(token, id)) {
+            response = Response.status(401).entity("Unauthorized").build();
+            logger.info("Unauthorized user tried to get cache statistics");
+            return response;
+        }
+
+        if (!authenticationAndAuthorization.isUserAdminById(id)) {
+            response = Response.status(401).entity("Unauthorized").build();
+            logger.info("User is not an admin and tried to get cache statistics");
+            return response;
+        }
+
+        tokenBean.setLastAccessToNow(token);
+
+        try {
+            response = Response.status(200).entity(systemBean.getCacheStatistics()).build();
+            logger.info("Cache statistics retrieved successfully");
+        } catch (Exception e) {
+            response = Response.status(500).entity("Internal server error").build();
+            logger.error("Error getting cache statistics", e);
+        }
+
+        return response;
+    }
+
 }
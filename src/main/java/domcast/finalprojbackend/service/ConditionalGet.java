@@ -0,0 +1,39 @@
+package domcast.finalprojbackend.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read whose response carries an entity tag, so a client sending it back in If-None-Match
+ * gets a 304 Not Modified before the resource method runs, while the entity is unchanged.
+ * The id of the entity is read from a query parameter, and the user from the token and a header,
+ * as the resource method does.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+
+    // What the response is built from
+    Source value();
+
+    // Query parameter with the id of the project or of the user
+    String idParam() default "id";
+
+    // Header with the id of the user making the request
+    String userHeader() default "id";
+
+    // Whether only the active members of the project may read it
+    boolean membersOnly() default false;
+
+    /**
+     * The entities whose versions tag the responses
+     */
+    enum Source {
+        PROJECT,
+        PROFILE
+    }
+}
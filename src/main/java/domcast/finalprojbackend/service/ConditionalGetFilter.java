@@ -0,0 +1,174 @@
+package domcast.finalprojbackend.service;
+
+import domcast.finalprojbackend.bean.AuthenticationAndAuthorization;
+import domcast.finalprojbackend.bean.DataValidator;
+import domcast.finalprojbackend.bean.EntityTagBean;
+import domcast.finalprojbackend.bean.user.TokenBean;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.Method;
+
+/**
+ * Filter that answers the reads marked with @ConditionalGet with a 304 Not Modified, before the resource method
+ * runs, when the client already has the current copy, so an unchanged project, task list or profile is never
+ * built nor serialized again.
+ * The entity tag is found before the resource method runs, and added to its successful response, so a change
+ * made while the response is built only costs the client one more full read.
+ * The 304 is only sent to a client who may read the entity, otherwise the resource method answers as usual.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Provider
+public class ConditionalGetFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final Logger logger = LogManager.getLogger(ConditionalGetFilter.class);
+
+    // Request property with the entity tag found before the resource method ran
+    static final String TAG_PROPERTY = ConditionalGetFilter.class.getName() + ".tag";
+
+    // The copies are private to the user, and must be revalidated before being used
+    static final String CACHE_CONTROL = "private, no-cache";
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Inject
+    private EntityTagBean entityTagBean;
+
+    @Inject
+    private AuthenticationAndAuthorization authenticationAndAuthorization;
+
+    @Inject
+    private DataValidator dataValidator;
+
+    @Inject
+    private TokenBean tokenBean;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        if (!HttpMethod.GET.equals(requestContext.getMethod())) {
+            return;
+        }
+
+        Method method = resourceInfo.getResourceMethod();
+        ConditionalGet conditional = method != null ? method.getAnnotation(ConditionalGet.class) : null;
+        if (conditional == null) {
+            return;
+        }
+
+        int id = parseId(requestContext.getUriInfo().getQueryParameters().getFirst(conditional.idParam()));
+        if (!dataValidator.isIdValid(id)) {
+            return;
+        }
+
+        String tag;
+        try {
+            tag = conditional.value() == ConditionalGet.Source.PROJECT ? entityTagBean.projectTag(id) : entityTagBean.profileTag(id);
+        } catch (RuntimeException e) {
+            logger.error("Error finding the entity tag of {} with id {}: {}", conditional.value(), id, e.getMessage());
+            return;
+        }
+
+        if (tag == null) {
+            return;
+        }
+
+        requestContext.setProperty(TAG_PROPERTY, tag);
+
+        if (!matches(requestContext.getHeaderString(HttpHeaders.IF_NONE_MATCH), tag)) {
+            return;
+        }
+
+        String token = requestContext.getHeaderString("token");
+        int userId = parseId(requestContext.getHeaderString(conditional.userHeader()));
+
+        try {
+            if (!authenticationAndAuthorization.isTokenActiveAndFromUserId(token, userId)
+                    || (conditional.membersOnly() && !authenticationAndAuthorization.isUserMemberOfTheProjectAndActive(userId, id))) {
+                return;
+            }
+        } catch (RuntimeException e) {
+            logger.error("Error checking if user with id {} may read {} with id {}: {}", userId, conditional.value(), id, e.getMessage());
+            return;
+        }
+
+        tokenBean.setLastAccessToNow(token);
+
+        logger.info("User with id {} already has the current copy of {} with id {}", userId, conditional.value(), id);
+        requestContext.abortWith(Response.notModified(new EntityTag(tag, true))
+                .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+                .build());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        Object tag = requestContext.getProperty(TAG_PROPERTY);
+
+        if (tag == null || responseContext.getStatus() != Response.Status.OK.getStatusCode()) {
+            return;
+        }
+
+        responseContext.getHeaders().putSingle(HttpHeaders.ETAG, new EntityTag((String) tag, true));
+        responseContext.getHeaders().putSingle(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+    }
+
+    /**
+     * Checks if an If-None-Match header holds an entity tag, compared weakly, as the copies are not byte for byte
+     * @param ifNoneMatch the value of the header
+     * @param tag the current entity tag
+     * @return true if the client has the current copy
+     */
+    public static boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1);
+            }
+            if (value.equals(tag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Parses an id from a header or a query parameter
+     * @return the id, or 0 if it is missing or not a number, as for an absent @HeaderParam
+     */
+    private static int parseId(String value) {
+        if (value == null) {
+            return 0;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package domcast.finalprojbackend.service;
 
 import domcast.finalprojbackend.bean.DataValidator;
+import domcast.finalprojbackend.bean.JsonSerializationBean;
 import domcast.finalprojbackend.bean.MessageBean;
 import domcast.finalprojbackend.bean.AuthenticationAndAuthorization;
 import domcast.finalprojbackend.bean.user.TokenBean;
+import domcast.finalprojbackend.dao.AbstractDao;
 import domcast.finalprojbackend.dto.messageDto.NewMessage;
 import domcast.finalprojbackend.dto.messageDto.PersonalMessage;
 import domcast.finalprojbackend.dto.messageDto.ProjectMessage;
@@ -13,6 +15,7 @@ import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -35,6 +38,9 @@ public class MessageService {
     @Inject
     private TokenBean tokenBean;
 
+    @Inject
+    private JsonSerializationBean jsonSerializationBean;
+
     @GET
     @Path("personal-received")
     @Produces(MediaType.APPLICATION_JSON)
@@ -61,12 +67,16 @@ public class MessageService {
 
         tokenBean.setLastAccessToNow(token);
 
-        List<PersonalMessage> messages;
-
+        // The first page is read now, so errors get their status; the others are read as the response is sent
         try {
-            messages = messageBean.getAllPersonalMessagesWhereReceiverIs(id);
-            logger.info("User with ip address {} got his received messages", ipAddress);
+            List<PersonalMessage> firstPage = messageBean.getPersonalMessagesWhereReceiverIsPage(id, null);
+            StreamingOutput messages = jsonSerializationBean.streamPages(PersonalMessage.class, firstPage, AbstractDao.STREAM_CHUNK_SIZE,
+                    last -> messageBean.getPersonalMessagesWhereReceiverIsPage(id, last));
+            logger.info("User with ip address {} is getting his received messages", ipAddress);
             response = Response.status(200).entity(messages).build();
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid request while getting personal received messages: {}", e.getMessage());
+            response = Response.status(400).entity("Invalid id").build();
         } catch (Exception e) {
             logger.error("Error while getting personal received messages: {}", e.getMessage());
             response = Response.status(500).entity("Error while getting personal messages").build();
@@ -101,12 +111,15 @@ public class MessageService {
 
         tokenBean.setLastAccessToNow(token);
 
-        List<PersonalMessage> messages;
-
         try {
-            messages = messageBean.getAllPersonalMessagesSentByUser(id);
-            logger.info("User with ip address {} got his sent messages", ipAddress);
+            List<PersonalMessage> firstPage = messageBean.getPersonalMessagesSentByUserPage(id, null);
+            StreamingOutput messages = jsonSerializationBean.streamPages(PersonalMessage.class, firstPage, AbstractDao.STREAM_CHUNK_SIZE,
+                    last -> messageBean.getPersonalMessagesSentByUserPage(id, last));
+            logger.info("User with ip address {} is getting his sent messages", ipAddress);
             response = Response.status(200).entity(messages).build();
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid request while getting personal sent messages: {}", e.getMessage());
+            response = Response.status(400).entity("Invalid id").build();
         } catch (Exception e) {
             logger.error("Error while getting personal sent messages: {}", e.getMessage());
             response = Response.status(500).entity("Error while getting personal sent messages").build();
@@ -149,12 +162,15 @@ public class MessageService {
 
         tokenBean.setLastAccessToNow(token);
 
-        List<ProjectMessage> messages;
-
         try {
-            messages = messageBean.getAllProjectMessagesWhereProjectIs(projectId);
-            logger.info("User with ip address {} got the project's messages for project with id {}", ipAddress, projectId);
+            List<ProjectMessage> firstPage = messageBean.getProjectMessagesWhereProjectIsPage(projectId, null);
+            StreamingOutput messages = jsonSerializationBean.streamPages(ProjectMessage.class, firstPage, AbstractDao.STREAM_CHUNK_SIZE,
+                    last -> messageBean.getProjectMessagesWhereProjectIsPage(projectId, last));
+            logger.info("User with ip address {} is getting the project's messages for project with id {}", ipAddress, projectId);
             response = Response.status(200).entity(messages).build();
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid request while getting project messages for project with id {}: {}", projectId, e.getMessage());
+            response = Response.status(400).entity("Invalid id").build();
         } catch (Exception e) {
             logger.error("Error while getting project messages for project with id {}: {}", projectId, e.getMessage());
             response = Response.status(500).entity("Error while getting project messages").build();
@@ -165,6 +181,7 @@ public class MessageService {
 
     @GET
     @Path("/count-personal-unread")
+    @RateLimit(requests = 10, seconds = 10)
     @Produces(MediaType.APPLICATION_JSON)
     public Response countUnreadPersonalMessages(@HeaderParam("token") String token,
                                      @HeaderParam("id") int id,
@@ -205,6 +222,7 @@ public class MessageService {
 
     @GET
     @Path("/count-project-unread")
+    @RateLimit(requests = 10, seconds = 10)
     @Produces(MediaType.APPLICATION_JSON)
     public Response countUnreadProjectMessages(@HeaderParam("token") String token,
                                       @HeaderParam("id") int id,
@@ -304,6 +322,48 @@ public class MessageService {
         return response;
     }
 
+    @PUT
+    @Path("/mark-conversation-read")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response markConversationAsRead(@HeaderParam("token") String token,
+                                           @HeaderParam("id") int id,
+                                           @QueryParam("sender") int senderId,
+                                           @QueryParam("upTo") int messageId,
+                                           @Context HttpServletRequest request) {
+        String ipAddress = request.getRemoteAddr();
+        logger.info("User with ip address {} is trying to mark a conversation as read", ipAddress);
+
+        Response response;
+
+        // Check if the user's, sender's and message's ids are valid
+        if (!dataValidator.isIdValid(id) || !dataValidator.isIdValid(senderId) || !dataValidator.isIdValid(messageId)) {
+            response = Response.status(400).entity("Invalid id").build();
+            logger.info("User with session token {} tried to mark a conversation as read but has an invalid id", token);
+            return response;
+        }
+
+        // Check if the user is correctly authenticated and authorized
+        if (!authenticationAndAuthorization.isTokenActiveAndFromUserId(token, id)) {
+            response = Response.status(401).entity("Unauthorized").build();
+            logger.info("User with session token {} tried to mark a conversation as read but is unauthorized", token);
+            return response;
+        }
+
+        tokenBean.setLastAccessToNow(token);
+
+        // Only the messages received by the user are updated, so no further authorization is needed
+        try {
+            int markedAsRead = messageBean.markConversationAsReadUpTo(id, senderId, messageId);
+            logger.info("User with ip address {} marked {} personal messages as read", ipAddress, markedAsRead);
+            response = Response.status(200).entity(markedAsRead).build();
+        } catch (Exception e) {
+            logger.error("Error while marking a conversation as read: {}", e.getMessage());
+            response = Response.status(500).entity("Error while marking a conversation as read").build();
+        }
+
+        return response;
+    }
+
     @POST
     @Path("/")
     @Consumes(MediaType.APPLICATION_JSON)
@@ -9,16 +9,36 @@ import jakarta.ws.rs.ext.Provider;
 @Provider
 public class ObjectMapperContextResolver implements ContextResolver<ObjectMapper> {
 
+    // Built once per class loader, so Jackson's serializer caches survive across requests and resolver instances
+    private static final ObjectMapper SHARED_MAPPER = createMapper();
+
     private final ObjectMapper mapper;
 
     public ObjectMapperContextResolver() {
-        mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper = SHARED_MAPPER;
     }
 
     @Override
     public ObjectMapper getContext(Class<?> type) {
         return mapper;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the application wide, pre-configured object mapper
+     * @return the shared object mapper
+     */
+    public static ObjectMapper sharedMapper() {
+        return SHARED_MAPPER;
+    }
+
+    /**
+     * Creates the object mapper with the application's date and time configuration
+     * @return the configured object mapper
+     */
+    private static ObjectMapper createMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return objectMapper;
+    }
+}
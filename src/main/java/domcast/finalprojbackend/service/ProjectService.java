@@ -1,16 +1,22 @@
 package domcast.finalprojbackend.service;
 
+import domcast.finalprojbackend.bean.BlockingWorkBean;
 import domcast.finalprojbackend.bean.ComponentResourceBean;
 import domcast.finalprojbackend.bean.DataValidator;
+import domcast.finalprojbackend.bean.JsonSerializationBean;
+import domcast.finalprojbackend.bean.MatchingBean;
 import domcast.finalprojbackend.bean.SkillBean;
 import domcast.finalprojbackend.bean.project.ProjectBean;
+import domcast.finalprojbackend.bean.project.ProjectEditBean;
 import domcast.finalprojbackend.bean.AuthenticationAndAuthorization;
 import domcast.finalprojbackend.bean.user.TokenBean;
 import domcast.finalprojbackend.bean.user.UserBean;
+import domcast.finalprojbackend.dao.AbstractDao;
 import domcast.finalprojbackend.dto.componentResourceDto.DetailedCR;
 import domcast.finalprojbackend.dto.projectDto.*;
 import domcast.finalprojbackend.dto.skillDto.SkillDto;
 import domcast.finalprojbackend.dto.EnumDTO;
+import domcast.finalprojbackend.dto.MatchDto;
 import domcast.finalprojbackend.dto.userDto.ProjectTeam;
 import domcast.finalprojbackend.enums.ProjectStateEnum;
 import domcast.finalprojbackend.enums.ProjectUserEnum;
@@ -20,9 +26,12 @@ import jakarta.inject.Inject;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jboss.resteasy.plugins.providers.multipart.MultipartFormDataInput;
@@ -30,7 +39,9 @@ import org.jboss.resteasy.plugins.providers.multipart.MultipartFormDataInput;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Path("/project")
 public class ProjectService {
@@ -43,6 +54,9 @@ public class ProjectService {
     @Inject
     private ProjectBean projectBean;
 
+    @Inject
+    private ProjectEditBean projectEditBean;
+
     @Inject
     private DataValidator dataValidator;
 
@@ -58,6 +72,15 @@ public class ProjectService {
     @Inject
     private TokenBean tokenBean;
 
+    @Inject
+    private BlockingWorkBean blockingWorkBean;
+
+    @Inject
+    private JsonSerializationBean jsonSerializationBean;
+
+    @Inject
+    private MatchingBean matchingBean;
+
     /**
      * Method to create a new project.
      *
@@ -223,6 +246,91 @@ public class ProjectService {
 
     }
 
+    /**
+     * Method to edit a project by difference, writing only what changed.
+     * Takes the same data as the full edit, but returns only the changes made to the project.
+     *
+     * @param token the session token
+     * @param id the id of the user
+     * @param projectId the id of the project
+     * @param input the input data
+     * @param request the HTTP request
+     * @return the response with the changes made to the project
+     */
+    @PATCH
+    @Path("")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Transactional
+    public Response patchProject (@HeaderParam("token") String token, @HeaderParam("id") int id, @QueryParam("id") int projectId, MultipartFormDataInput input, @Context HttpServletRequest request) {
+        String ipAddress = request.getRemoteAddr();
+        logger.info("User with token {} and id {} is patching a project from IP address {}", token, id, ipAddress);
+
+        Response response;
+
+        if (!dataValidator.isIdValid(id) || !dataValidator.isIdValid(projectId)) {
+            response = Response.status(400).entity("Invalid id").build();
+            logger.info("User with session token {} tried to patch a project with invalid id {}", token, id);
+            return response;
+        }
+
+        if (!authenticationAndAuthorization.isTokenActiveAndFromUserId(token, id)) {
+            response = Response.status(401).entity("Unauthorized").build();
+            logger.info("User with session token {} tried to patch a project but is not authorized", token);
+            return response;
+        }
+
+        if (!authenticationAndAuthorization.ableToEditProject(projectId)) {
+            response = Response.status(401).entity("Unauthorized: Project is not in a state that can be edited").build();
+            logger.info("User with session token {} tried to patch a project but the project is not in a state that can be edited", token);
+            return response;
+        }
+
+        if (!authenticationAndAuthorization.isUserMemberOfTheProjectAndActive(id, projectId)) {
+            response = Response.status(401).entity("Unauthorized").build();
+            logger.info("User with session token {} tried to patch a project but is not a member of the project", token);
+            return response;
+        }
+
+        tokenBean.setLastAccessToNow(token);
+
+        if (!input.getFormDataMap().containsKey("project") && !input.getFormDataMap().containsKey("components") && !input.getFormDataMap().containsKey("skills")) {
+            response = Response.status(400).entity("Missing project data").build();
+            logger.info("User with session token {} tried to patch a project but the project data is missing", token);
+            return response;
+        }
+
+        Set<DetailedCR> cRDtos = null;
+        ArrayList<SkillDto> newSkills = null;
+        EditProject editProject = null;
+
+        try {
+            if (input.getFormDataMap().containsKey("project")) {
+                editProject = projectBean.extractEditProjectDto(input);
+            }
+
+            if (input.getFormDataMap().containsKey("components")) {
+                cRDtos = componentResourceBean.extractCRDtos(input);
+            }
+            if (input.getFormDataMap().containsKey("skills")) {
+                newSkills = skillBean.extractNewSkills(input);
+            }
+
+            ProjectDelta delta = projectEditBean.editProject(editProject, projectId, cRDtos, newSkills);
+
+            response = Response.status(200).entity(delta).build();
+            logger.info("User with session token {} and id {} patched the project with id {}", token, id, projectId);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid data patching project with id {}: {}", projectId, e.getMessage());
+            response = Response.status(400).entity("Invalid project data").build();
+        } catch (Exception e) {
+            logger.error("Error patching project with id {}: {}", projectId, e.getMessage());
+            response = Response.status(500).entity("Error editing project").build();
+        }
+
+        return response;
+    }
+
     /**
      * Method to get the possible states of a project.
      * @param request the HTTP request
@@ -484,40 +592,65 @@ public class ProjectService {
      * @param pageNumber the page number
      * @param pageSize the page size
      * @param request the HTTP request
-     * @return the response with the projects
+     * @param asyncResponse the response, resumed with the projects
      */
     @GET
     @Path("")
+    @RateLimit(requests = 20, seconds = 10)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getProjectsByCriteria(@QueryParam("userId") int userId,
-                                          @QueryParam("name") String name,
-                                          @QueryParam("lab") int labId,
-                                          @QueryParam("state") int stateId,
-                                          @QueryParam("keyword") String keyword,
-                                          @QueryParam("skill") int skill,
-                                          @QueryParam("orderBy") String orderBy,
-                                          @QueryParam("orderAsc") boolean orderAsc,
-                                          @QueryParam("pageNumber") int pageNumber,
-                                          @QueryParam("pageSize") int pageSize,
-                                          @Context HttpServletRequest request) {
+    public void getProjectsByCriteria(@QueryParam("userId") int userId,
+                                      @QueryParam("name") String name,
+                                      @QueryParam("lab") int labId,
+                                      @QueryParam("state") int stateId,
+                                      @QueryParam("keyword") String keyword,
+                                      @QueryParam("skill") int skill,
+                                      @QueryParam("orderBy") String orderBy,
+                                      @QueryParam("orderAsc") boolean orderAsc,
+                                      @QueryParam("pageNumber") int pageNumber,
+                                      @QueryParam("pageSize") int pageSize,
+                                      @Context HttpServletRequest request,
+                                      @Suspended AsyncResponse asyncResponse) {
 
         String ipAddress = request.getRemoteAddr();
-        logger.info("User with IP address {} is trying to get projects by criteria", ipAddress);
-
-        Response response;
 
-        ProjectPreviewsList projects;
+        blockingWorkBean.respond(asyncResponse, () -> {
+            logger.info("User with IP address {} is trying to get projects by criteria", ipAddress);
+
+            Response response;
+
+            ProjectPreviewsList projects;
+
+            try {
+                if (projectBean.isPageStreamed(pageSize)) {
+                    // Large pages are written as the response is sent, with the same fields as a built page; the total
+                    // and the first chunk are read now, so errors get their status, and the other chunks as the body is written
+                    long totalProjects = projectBean.countProjectsByCriteria(userId, name, labId, stateId, keyword, skill, orderBy, pageNumber, pageSize);
+                    List<ProjectPreview> firstChunk = projectBean.getProjectsByCriteriaChunk(userId, name, labId, stateId, keyword, skill, orderBy, orderAsc, pageNumber, pageSize, 0);
+                    AtomicInteger read = new AtomicInteger(firstChunk.size());
+                    StreamingOutput page = jsonSerializationBean.streamObjectWithPages(Map.of("totalProjects", totalProjects), "projects", ProjectPreview.class,
+                            firstChunk, AbstractDao.STREAM_CHUNK_SIZE, last -> blockingWorkBean.read(() -> {
+                                List<ProjectPreview> chunk = projectBean.getProjectsByCriteriaChunk(userId, name, labId, stateId, keyword, skill, orderBy, orderAsc, pageNumber, pageSize, read.get());
+                                read.addAndGet(chunk.size());
+                                return chunk;
+                            }));
+                    response = Response.status(200).entity(page).build();
+                    logger.info("User with IP address {} is getting a page of {} projects by criteria, out of {}", ipAddress, pageSize, totalProjects);
+                    return response;
+                }
 
-        try {
-            projects = projectBean.getProjectsByCriteria(userId, name, labId, stateId, keyword, skill, orderBy, orderAsc, pageNumber, pageSize);
-            response = Response.status(200).entity(projects).build();
-            logger.info("User with IP address {} got {} projects by criteria", ipAddress, projects.getTotalProjects());
-        } catch (IllegalArgumentException e) {
-            response = Response.status(400).entity(e.getMessage()).build();
-            logger.info("User with IP address {} tried to get projects by criteria unsuccessfully", ipAddress);
-        }
+                projects = projectBean.getProjectsByCriteria(userId, name, labId, stateId, keyword, skill, orderBy, orderAsc, pageNumber, pageSize);
+                response = Response.status(200).entity(projects).build();
+                logger.info("User with IP address {} got {} projects by criteria", ipAddress, projects.getTotalProjects());
+            } catch (IllegalArgumentException e) {
+                response = Response.status(400).entity(e.getMessage()).build();
+                logger.info("User with IP address {} tried to get projects by criteria unsuccessfully", ipAddress);
+            } catch (RuntimeException e) {
+                logger.error("Error getting projects by criteria: {}", e.getMessage());
+                response = Response.status(500).entity("Error getting projects by criteria").build();
+            }
 
-        return response;
+            return response;
+        });
     }
 
     /**
@@ -809,9 +942,131 @@ public class ProjectService {
 
     }
 
+    /**
+     * Method to invite many users to a project at once, all with the same role.
+     * The batch is invited whole or not at all.
+     *
+     * @param token the session token
+     * @param userId the id of the user
+     * @param projectId the id of the project
+     * @param batchInvitation the ids of the users to invite and their role
+     * @param request the HTTP request
+     * @return the response, with the ids of the users invited
+     */
+    @PUT
+    @Path("/invite-batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response inviteUsersToProject(@HeaderParam("token") String token,
+                                         @HeaderParam("id") int userId,
+                                         @QueryParam("projectId") int projectId,
+                                         BatchInvitation batchInvitation,
+                                         @Context HttpServletRequest request) {
+
+        String ipAddress = request.getRemoteAddr();
+        logger.info("User with session token {} and id {} is trying to invite users to the project with id {} from IP address {}", token, userId, projectId, ipAddress);
+
+        // Check if the user's and project's ids are valid
+        if (!dataValidator.isIdValid(userId) || !dataValidator.isIdValid(projectId) || batchInvitation == null) {
+            logger.info("User with session token {} tried to invite users to the project, but the ids are invalid", token);
+            return Response.status(400).entity("Invalid id").build();
+        }
+
+        if (!authenticationAndAuthorization.ableToEditProject(projectId)) {
+            logger.info("User with session token {} tried to invite users to the project but the project is not in a state that can be edited", token);
+            return Response.status(401).entity("Unauthorized: Project is not in a state that can be edited").build();
+        }
+
+        if (!authenticationAndAuthorization.isTokenActiveAndFromUserId(token, userId) ||
+                !authenticationAndAuthorization.isUserManagerInProject(userId, projectId)) {
+            logger.info("User with session token {} tried to invite users to the project but is not authorized", token);
+            return Response.status(401).entity("Unauthorized").build();
+        }
+
+        tokenBean.setLastAccessToNow(token);
+
+        Response response;
+
+        try {
+            Set<Integer> invited = projectBean.inviteUsersToProject(projectId, batchInvitation.getUserIds(), batchInvitation.getRole(), userId);
+            response = Response.status(200).entity(invited).build();
+            logger.info("User with session token {} and id {} successfully invited {} users to the project with id {}", token, userId, invited.size(), projectId);
+        } catch (IllegalArgumentException e) {
+            logger.info("User with session token {} and id {} could not invite users to the project with id {}: {}", token, userId, projectId, e.getMessage());
+            response = Response.status(400).entity(e.getMessage()).build();
+        } catch (Exception e) {
+            logger.error("Error while inviting users to the project with id {}: {}", projectId, e.getMessage());
+            response = Response.status(500).entity("Error while inviting the users to the project").build();
+        }
+
+        return response;
+
+    }
+
+    /**
+     * Method to answer many applications to a project at once.
+     * The batch is answered whole or not at all.
+     *
+     * @param token the session token
+     * @param adminId the id of the manager answering the applications
+     * @param projectId the id of the project
+     * @param answers the ids of the applicants accepted and rejected
+     * @param request the HTTP request
+     * @return the response
+     */
+    @PUT
+    @Path("/answer-applications")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response answerApplications(@HeaderParam("token") String token,
+                                       @HeaderParam("id") int adminId,
+                                       @QueryParam("projectId") int projectId,
+                                       BatchApplicationAnswer answers,
+                                       @Context HttpServletRequest request) {
+
+        String ipAddress = request.getRemoteAddr();
+        logger.info("User with session token {} and id {} is trying to answer applications to the project with id {} from IP address {}", token, adminId, projectId, ipAddress);
+
+        // Check if the user's and project's ids are valid
+        if (!dataValidator.isIdValid(adminId) || !dataValidator.isIdValid(projectId) || answers == null) {
+            logger.info("User with session token {} tried to answer applications to the project, but the ids are invalid", token);
+            return Response.status(400).entity("Invalid id").build();
+        }
+
+        if (!authenticationAndAuthorization.ableToEditProject(projectId)) {
+            logger.info("User with session token {} tried to answer applications to the project but the project is not in a state that can be edited", token);
+            return Response.status(401).entity("Unauthorized: Project is not in a state that can be edited").build();
+        }
+
+        if (!authenticationAndAuthorization.isTokenActiveAndFromUserId(token, adminId) ||
+                !authenticationAndAuthorization.isUserManagerInProject(adminId, projectId)) {
+            logger.info("User with session token {} tried to answer applications to the project but is not authorized", token);
+            return Response.status(401).entity("Unauthorized").build();
+        }
+
+        tokenBean.setLastAccessToNow(token);
+
+        Response response;
+
+        try {
+            int answered = projectBean.answerApplications(projectId, answers.getAccepted(), answers.getRejected());
+            response = Response.status(200).entity(answered + " applications to the project with id " + projectId + " successfully answered").build();
+            logger.info("User with session token {} and id {} successfully answered {} applications to the project with id {}", token, adminId, answered, projectId);
+        } catch (IllegalArgumentException e) {
+            logger.info("User with session token {} and id {} could not answer applications to the project with id {}: {}", token, adminId, projectId, e.getMessage());
+            response = Response.status(400).entity(e.getMessage()).build();
+        } catch (Exception e) {
+            logger.error("Error while answering applications to the project with id {}: {}", projectId, e.getMessage());
+            response = Response.status(500).entity("Error while answering the applications to the project").build();
+        }
+
+        return response;
+
+    }
+
     @GET
     @Path("private")
     @Produces(MediaType.APPLICATION_JSON)
+    @ConditionalGet(value = ConditionalGet.Source.PROJECT, membersOnly = true)
     public Response getProject(@HeaderParam("token") String token,
                                @HeaderParam("id") int userId,
                                @QueryParam("id") int projectId,
@@ -858,9 +1113,68 @@ public class ProjectService {
         return response;
     }
 
+    /**
+     * Method to get what changed in a project since a change version, instead of the whole project.
+     * The version to send in the next request is returned with the changes, and sent in the version hints
+     * of the project chat.
+     *
+     * @param token the session token
+     * @param userId the id of the user
+     * @param projectId the id of the project
+     * @param since the change version the client has
+     * @param request the HTTP request
+     * @return the response with the changes since the version
+     */
+    @GET
+    @Path("/changes")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getProjectChanges(@HeaderParam("token") String token,
+                                      @HeaderParam("id") int userId,
+                                      @QueryParam("id") int projectId,
+                                      @QueryParam("since") long since,
+                                      @Context HttpServletRequest request) {
+
+        String ipAddress = request.getRemoteAddr();
+        logger.info("User with IP address {} is trying to get the changes of the project with id {} since version {}", ipAddress, projectId, since);
+
+        Response response;
+
+        if (!dataValidator.isIdValid(userId) || !dataValidator.isIdValid(projectId)) {
+            response = Response.status(400).entity("Invalid id").build();
+            logger.info("User with session token {} tried to get the changes of the project with invalid id {}", token, projectId);
+            return response;
+        }
+
+        if (!authenticationAndAuthorization.isTokenActiveAndFromUserId(token, userId)) {
+            response = Response.status(401).entity("Unauthorized").build();
+            logger.info("User with session token {} tried to get the changes of the project but is not authorized", token);
+            return response;
+        }
+
+        if (!authenticationAndAuthorization.isUserMemberOfTheProjectAndActive(userId, projectId)) {
+            response = Response.status(401).entity("Unauthorized").build();
+            logger.info("User with session token {} tried to get the changes of the project but is not a member of the project", token);
+            return response;
+        }
+
+        tokenBean.setLastAccessToNow(token);
+
+        try {
+            ProjectChanges changes = projectBean.getChangesSince(projectId, since);
+            response = Response.status(200).entity(changes).build();
+            logger.info("User with session token {} and id {} got the changes of the project with id {} up to version {}", token, userId, projectId, changes.getVersion());
+        } catch (Exception e) {
+            logger.error("Error getting the changes of the project with id {}: {}", projectId, e.getMessage());
+            response = Response.status(500).entity("Error getting the changes of the project").build();
+        }
+
+        return response;
+    }
+
     @GET
     @Path("public")
     @Produces(MediaType.APPLICATION_JSON)
+    @ConditionalGet(ConditionalGet.Source.PROJECT)
     public Response getPublicProject(@HeaderParam("token") String token,
                                      @HeaderParam("id") int userId,
                                      @QueryParam("id") int projectId,
@@ -989,9 +1303,12 @@ public class ProjectService {
 
         try {
             logger.info("User with IP address {} is getting the project names", ipAddress);
-            List<String> projectNames = projectBean.getProjectsNames();
+            // The first page is read now, so errors get their status; the others are read as the response is sent
+            List<String> firstPage = projectBean.getProjectsNamesPage(null);
+            StreamingOutput projectNames = jsonSerializationBean.streamPages(String.class, firstPage, AbstractDao.STREAM_CHUNK_SIZE,
+                    last -> blockingWorkBean.read(() -> projectBean.getProjectsNamesPage(last)));
             response = Response.status(200).entity(projectNames).build();
-            logger.info("User with IP address {} successfully got the project names", ipAddress);
+            logger.info("User with IP address {} is streaming the project names", ipAddress);
         } catch (Exception e) {
             logger.error("Error getting the project names: {}", e.getMessage());
             response = Response.status(500).entity("Error getting the project names").build();
@@ -1098,4 +1415,100 @@ public class ProjectService {
         return response;
     }
 
+    /**
+     * Method to get the users that best match a project, by their skills, interests and lab.
+     * The users that already have a relation to the project are left out.
+     *
+     * @param token the session token
+     * @param userId the id of the manager asking for the users
+     * @param projectId the id of the project
+     * @param limit the maximum number of users, 0 for the default
+     * @param request the HTTP request
+     * @return the response
+     */
+    @GET
+    @Path("/matching-users")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getUsersMatchingProject(@HeaderParam("token") String token,
+                                            @HeaderParam("id") int userId,
+                                            @QueryParam("projectId") int projectId,
+                                            @QueryParam("limit") int limit,
+                                            @Context HttpServletRequest request) {
+
+        String ipAddress = request.getRemoteAddr();
+        logger.info("User with session token {} and id {} is trying to get the users matching the project with id {} from IP address {}", token, userId, projectId, ipAddress);
+
+        if (!dataValidator.isIdValid(userId) || !dataValidator.isIdValid(projectId)) {
+            logger.info("User with session token {} tried to get the users matching the project with invalid id", token);
+            return Response.status(400).entity("Invalid id").build();
+        }
+
+        if (!authenticationAndAuthorization.isTokenActiveAndFromUserId(token, userId) ||
+                !authenticationAndAuthorization.isUserManagerInProject(userId, projectId)) {
+            logger.info("User with session token {} tried to get the users matching the project but is not authorized", token);
+            return Response.status(401).entity("Unauthorized").build();
+        }
+
+        tokenBean.setLastAccessToNow(token);
+
+        Response response;
+
+        try {
+            List<MatchDto> matches = matchingBean.findUsersMatchingProject(projectId, limit);
+            response = Response.status(200).entity(matches).build();
+            logger.info("User with session token {} and id {} got {} users matching the project with id {}", token, userId, matches.size(), projectId);
+        } catch (Exception e) {
+            logger.error("Error getting the users matching the project with id {}: {}", projectId, e.getMessage());
+            response = Response.status(500).entity("Error getting the users matching the project").build();
+        }
+
+        return response;
+    }
+
+    /**
+     * Method to get the projects that best match the logged user, by their skills, keywords and lab.
+     * Only projects open to new members are suggested, leaving out those the user already has a relation to.
+     *
+     * @param token the session token
+     * @param userId the id of the user
+     * @param limit the maximum number of projects, 0 for the default
+     * @param request the HTTP request
+     * @return the response
+     */
+    @GET
+    @Path("/matching-projects")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getProjectsMatchingUser(@HeaderParam("token") String token,
+                                            @HeaderParam("id") int userId,
+                                            @QueryParam("limit") int limit,
+                                            @Context HttpServletRequest request) {
+
+        String ipAddress = request.getRemoteAddr();
+        logger.info("User with session token {} and id {} is trying to get the projects matching them from IP address {}", token, userId, ipAddress);
+
+        if (!dataValidator.isIdValid(userId)) {
+            logger.info("User with session token {} tried to get the matching projects with invalid id", token);
+            return Response.status(400).entity("Invalid id").build();
+        }
+
+        if (!authenticationAndAuthorization.isTokenActiveAndFromUserId(token, userId)) {
+            logger.info("User with session token {} tried to get the matching projects but is not authorized", token);
+            return Response.status(401).entity("Unauthorized").build();
+        }
+
+        tokenBean.setLastAccessToNow(token);
+
+        Response response;
+
+        try {
+            List<MatchDto> matches = matchingBean.findProjectsMatchingUser(userId, limit);
+            response = Response.status(200).entity(matches).build();
+            logger.info("User with session token {} and id {} got {} matching projects", token, userId, matches.size());
+        } catch (Exception e) {
+            logger.error("Error getting the projects matching the user with id {}: {}", userId, e.getMessage());
+            response = Response.status(500).entity("Error getting the matching projects").build();
+        }
+
+        return response;
+    }
 }
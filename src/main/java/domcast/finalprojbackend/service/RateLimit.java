@@ -0,0 +1,30 @@
+package domcast.finalprojbackend.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Rate limit of a resource method, or of every method of a resource class.
+ * Each client may make a burst of requests, refilled evenly over the given seconds.
+ * Clients are identified by their session token once it is validated, or by their IP address otherwise.
+ * Endpoints used before logging in, like the login, set byIp, so a client is always identified by its IP address.
+ * The limit of a path can be overridden with the domcast.ratelimit.{path} system property, as "requests/seconds",
+ * for example -Ddomcast.ratelimit./message/count-personal-unread=5/10.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimit {
+
+    // Maximum number of requests in a burst
+    int requests();
+
+    // Seconds it takes to refill a full burst
+    int seconds() default 1;
+
+    // Identify the clients by their IP address even when they send a token
+    boolean byIp() default false;
+}
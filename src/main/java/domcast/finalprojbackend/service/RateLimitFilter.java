@@ -0,0 +1,217 @@
+package domcast.finalprojbackend.service;
+
+import domcast.finalprojbackend.bean.AuthenticationAndAuthorization;
+import jakarta.inject.Inject;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter that limits the rate of requests of each client to each endpoint, before the resource method runs.
+ * Clients are identified by their session token once it is validated, and by their IP address otherwise, so a
+ * made-up token never gets a fresh bucket. A token not validated yet is charged to the IP bucket first, and only
+ * checked if that bucket lets the request through, so a throttled client never reaches the token check.
+ * Endpoints whose @RateLimit sets byIp, like the login, always identify
+ * clients by their IP address. The limit of an endpoint comes from its @RateLimit annotation, from the
+ * domcast.ratelimit.{path} system property, or from the default domcast.ratelimit.default (100/10).
+ * Throttled requests get a 429 response with a Retry-After header.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+@Provider
+public class RateLimitFilter implements ContainerRequestFilter {
+
+    private static final Logger logger = LogManager.getLogger(RateLimitFilter.class);
+
+    public static final String PROPERTY_PREFIX = "domcast.ratelimit.";
+    public static final String DEFAULT_PROPERTY = PROPERTY_PREFIX + "default";
+
+    // Shared by every filter instance, so the buckets survive the provider's lifecycle
+    private static final TokenBucketLimiter LIMITER = new TokenBucketLimiter();
+    private static final ConcurrentHashMap<Method, TokenBucketLimiter.Limit> LIMITS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Method, Boolean> BY_IP = new ConcurrentHashMap<>();
+
+    // Tokens found active, with the time until which they are trusted without checking again
+    private static final ConcurrentHashMap<String, Long> VALIDATED_TOKENS = new ConcurrentHashMap<>();
+    private static final long VALIDATION_TTL_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final int VALIDATED_TOKENS_SWEEP_SIZE = 10000;
+
+    @Inject
+    private AuthenticationAndAuthorization authenticationAndAuthorization;
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Context
+    private HttpServletRequest request;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        Method method = resourceInfo.getResourceMethod();
+        if (method == null) {
+            return;
+        }
+
+        TokenBucketLimiter.Limit limit = LIMITS.get(method);
+        if (limit == null) {
+            limit = LIMITS.computeIfAbsent(method, m -> resolveLimit(m, resourceInfo.getResourceClass()));
+        }
+
+        boolean byIp = BY_IP.computeIfAbsent(method, m -> isByIp(m, resourceInfo.getResourceClass()));
+        long now = LIMITER.now();
+        String token = requestContext.getHeaderString("token");
+        String ip = "ip:" + request.getRemoteAddr();
+
+        long wait;
+        if (byIp || token == null || token.isEmpty()) {
+            wait = LIMITER.tryAcquire(limit.getName() + '|' + ip, limit, now);
+        } else if (isTrusted(token, now)) {
+            wait = LIMITER.tryAcquire(limit.getName() + "|token:" + token, limit, now);
+        } else {
+            // The request is counted as one of the IP, and the token only checked once the IP bucket allows it
+            wait = LIMITER.tryAcquire(limit.getName() + '|' + ip, limit, now);
+            if (wait == 0) {
+                validate(token, now);
+            }
+        }
+
+        if (wait > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+            logger.warn("Too many requests to {} from {}, retry after {} seconds", limit.getName(), request.getRemoteAddr(), retryAfter);
+            requestContext.abortWith(Response.status(Response.Status.TOO_MANY_REQUESTS)
+                    .header("Retry-After", retryAfter)
+                    .entity("Too many requests")
+                    .build());
+        }
+    }
+
+    /**
+     * Checks if a session token was found active recently enough to identify the client without checking it again
+     * @param token the session token sent by the client
+     * @param now the current time of the limiter
+     * @return true if the token is trusted
+     */
+    private static boolean isTrusted(String token, long now) {
+        Long trustedUntil = VALIDATED_TOKENS.get(token);
+        return trustedUntil != null && trustedUntil - now > 0;
+    }
+
+    /**
+     * Checks if a session token is active, so the next requests with it are identified by it
+     * @param token the session token sent by the client
+     * @param now the current time of the limiter
+     */
+    private void validate(String token, long now) {
+        if (!authenticationAndAuthorization.isSessionTokenActive(token)) {
+            VALIDATED_TOKENS.remove(token);
+            return;
+        }
+
+        // Only active tokens are kept, so the map is bounded by the sessions, and swept of the stale ones
+        if (VALIDATED_TOKENS.size() >= VALIDATED_TOKENS_SWEEP_SIZE) {
+            VALIDATED_TOKENS.values().removeIf(until -> until - now <= 0);
+        }
+        VALIDATED_TOKENS.put(token, now + VALIDATION_TTL_NANOS);
+    }
+
+    /**
+     * Checks if the @RateLimit of a resource method, or of its class, identifies clients by their IP address
+     */
+    static boolean isByIp(Method method, Class<?> resourceClass) {
+        RateLimit annotation = method.getAnnotation(RateLimit.class);
+        if (annotation == null && resourceClass != null) {
+            annotation = resourceClass.getAnnotation(RateLimit.class);
+        }
+        return annotation != null && annotation.byIp();
+    }
+
+    /**
+     * Resolves the limit of a resource method, from the system properties or from its annotations
+     * @param method the resource method
+     * @param resourceClass the resource class
+     * @return the limit of the method
+     */
+    static TokenBucketLimiter.Limit resolveLimit(Method method, Class<?> resourceClass) {
+        String path = pathOf(method, resourceClass);
+        String name = httpMethodOf(method) + " " + path;
+
+        String configured = System.getProperty(PROPERTY_PREFIX + path);
+        if (configured != null) {
+            TokenBucketLimiter.Limit limit = parseLimit(name, configured);
+            if (limit != null) {
+                return limit;
+            }
+        }
+
+        RateLimit annotation = method.getAnnotation(RateLimit.class);
+        if (annotation == null && resourceClass != null) {
+            annotation = resourceClass.getAnnotation(RateLimit.class);
+        }
+        if (annotation != null) {
+            return new TokenBucketLimiter.Limit(name, annotation.requests(), annotation.seconds());
+        }
+
+        TokenBucketLimiter.Limit limit = parseLimit(name, System.getProperty(DEFAULT_PROPERTY, "100/10"));
+        return limit != null ? limit : new TokenBucketLimiter.Limit(name, 100, 10);
+    }
+
+    /**
+     * Parses a limit in the form "requests/seconds"
+     * @return the limit, or null if the value is invalid
+     */
+    private static TokenBucketLimiter.Limit parseLimit(String name, String value) {
+        try {
+            String[] parts = value.trim().split("/");
+            return new TokenBucketLimiter.Limit(name, Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        } catch (RuntimeException e) {
+            logger.error("Invalid rate limit {} for {}, expected requests/seconds", value, name);
+            return null;
+        }
+    }
+
+    /**
+     * Joins the @Path of the resource class and of the method, as in "/message/count-personal-unread"
+     */
+    private static String pathOf(Method method, Class<?> resourceClass) {
+        StringBuilder path = new StringBuilder();
+        Class<?> declaringClass = resourceClass != null ? resourceClass : method.getDeclaringClass();
+
+        for (Path part : new Path[]{declaringClass.getAnnotation(Path.class), method.getAnnotation(Path.class)}) {
+            if (part != null && !part.value().isEmpty()) {
+                path.append('/').append(part.value());
+            }
+        }
+
+        String normalized = path.toString().replaceAll("/+", "/");
+        if (normalized.length() > 1 && normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized.isEmpty() ? "/" : normalized;
+    }
+
+    /**
+     * Finds the HTTP method of a resource method, as GET for a method annotated with @GET
+     */
+    private static String httpMethodOf(Method method) {
+        for (Annotation annotation : method.getAnnotations()) {
+            HttpMethod httpMethod = annotation.annotationType().getAnnotation(HttpMethod.class);
+            if (httpMethod != null) {
+                return httpMethod.value();
+            }
+        }
+        return "ANY";
+    }
+}
@@ -1,13 +1,18 @@
 package domcast.finalprojbackend.service;
 
 import domcast.finalprojbackend.bean.DataValidator;
+import domcast.finalprojbackend.bean.JsonSerializationBean;
+import domcast.finalprojbackend.bean.task.PlanImportBean;
 import domcast.finalprojbackend.bean.task.TaskBean;
 import domcast.finalprojbackend.bean.AuthenticationAndAuthorization;
 import domcast.finalprojbackend.bean.user.TokenBean;
+import domcast.finalprojbackend.dao.AbstractDao;
 import domcast.finalprojbackend.dto.taskDto.ChartTask;
 import domcast.finalprojbackend.dto.taskDto.DetailedTask;
 import domcast.finalprojbackend.dto.taskDto.EditTask;
+import domcast.finalprojbackend.dto.taskDto.ImportedPlan;
 import domcast.finalprojbackend.dto.taskDto.NewTask;
+import domcast.finalprojbackend.dto.taskDto.PlanTask;
 import domcast.finalprojbackend.dto.EnumDTO;
 import domcast.finalprojbackend.enums.TaskStateEnum;
 import domcast.finalprojbackend.enums.util.EnumUtil;
@@ -17,9 +22,11 @@ import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.InputStream;
 import java.util.List;
 
 @Path("/task")
@@ -30,6 +37,9 @@ public class TaskService  {
     @Inject
     private TaskBean taskBean;
 
+    @Inject
+    private PlanImportBean planImportBean;
+
     @Inject
     private DataValidator dataValidator;
 
@@ -39,6 +49,9 @@ public class TaskService  {
     @Inject
     private TokenBean tokenBean;
 
+    @Inject
+    private JsonSerializationBean jsonSerializationBean;
+
     /**
      * Creates a new task based on the new task passed as parameter.
      * The method validates the data, registers the data in the database and returns the created task.
@@ -94,6 +107,67 @@ public class TaskService  {
         return response;
     }
 
+    /**
+     * Imports a plan of new tasks into a project, sent as a JSON array or as a CSV file,
+     * whose dependencies name other tasks of the plan by key.
+     * The whole plan is validated before any task is created, so it is either imported whole or not at all.
+     * @param token the token of the user importing the plan.
+     * @param userId the id of the user importing the plan.
+     * @param projectId the id of the project the tasks are imported into.
+     * @param contentType the type of the plan, application/json or text/csv.
+     * @param body the plan.
+     * @return the ids given to the keys of the plan and the created tasks, if imported successfully.
+     */
+    @POST
+    @Path("/import")
+    @Consumes({MediaType.APPLICATION_JSON, "text/csv"})
+    @Produces(MediaType.APPLICATION_JSON)
+    @RateLimit(requests = 5, seconds = 60)
+    public Response importPlan(@HeaderParam("token") String token, @HeaderParam("id") int userId, @QueryParam("projectId") int projectId, @HeaderParam("Content-Type") String contentType, InputStream body, @Context HttpServletRequest request) {
+        String ipAddress = request.getRemoteAddr();
+        logger.info("User with token {} is importing a plan into project with id {} from IP address {}", token, projectId, ipAddress);
+
+        // Check if the ids are valid
+        if (!dataValidator.isIdValid(userId) || !dataValidator.isIdValid(projectId)) {
+            logger.info("User with session token {} tried to import a plan unsuccessfully", token);
+            return Response.status(400).entity("Invalid id").build();
+        }
+
+        if (!authenticationAndAuthorization.ableToEditProject(projectId)) {
+            logger.info("User with session token {} tried to import a plan unsuccessfully", token);
+            return Response.status(401).entity("Project is not able to be edited").build();
+        }
+
+        // Check if the user is authorized to create tasks in the project
+        if (!authenticationAndAuthorization.isTokenActiveAndFromUserId(token, userId) ||
+                !authenticationAndAuthorization.isUserMemberOfTheProjectAndActive(userId, projectId)) {
+            logger.info("User with session token {} tried to import a plan unsuccessfully", token);
+            return Response.status(401).entity("Unauthorized").build();
+        }
+
+        tokenBean.setLastAccessToNow(token);
+
+        boolean csv = contentType != null && contentType.toLowerCase().startsWith("text/csv");
+
+        Response response;
+
+        // Read the plan outside of a transaction, then import it in one
+        try {
+            List<PlanTask> plan = planImportBean.readPlan(body, csv);
+            ImportedPlan importedPlan = planImportBean.importPlan(projectId, userId, plan);
+            logger.info("User with session token {} imported {} tasks from IP address {}", token, importedPlan.getTaskIds().size(), ipAddress);
+            response = Response.status(201).entity(importedPlan).build();
+        } catch (IllegalArgumentException e) {
+            logger.error("Error importing plan: {}", e.getMessage());
+            response = Response.status(400).entity(e.getMessage()).build();
+        } catch (RuntimeException e) {
+            logger.error("Error importing plan", e);
+            response = Response.status(500).entity("Error importing plan").build();
+        }
+
+        return response;
+    }
+
     /**
      * Gets the detailed information of a task based on the task id passed as parameter.
      * The method validates the data, gets the task from the database and returns the detailed task.
@@ -204,6 +278,7 @@ public class TaskService  {
     @GET
     @Path("")
     @Produces(MediaType.APPLICATION_JSON)
+    @ConditionalGet(value = ConditionalGet.Source.PROJECT, idParam = "projectId", membersOnly = true)
     public Response getTasks(@HeaderParam("token") String token, @HeaderParam("id") int userId, @QueryParam("projectId") int projectId, @Context HttpServletRequest request) {
         String ipAddress = request.getRemoteAddr();
         logger.info("User with token {} is getting the tasks of the project with id {} from IP address {}", token, projectId, ipAddress);
@@ -224,19 +299,20 @@ public class TaskService  {
         tokenBean.setLastAccessToNow(token);
 
         Response response;
-        List<ChartTask> chartTasks;
 
-        // Get the tasks
+        // Get the first page of tasks now, so errors get their status; the others are read as the response is sent
         try {
-            chartTasks = taskBean.findTaskByProjectId(projectId);
-            logger.info("User with session token {} got the tasks of the project with id {} from IP address {}", token, projectId, ipAddress);
+            List<ChartTask> firstPage = taskBean.getTasksByProjectIdPage(projectId, null);
+            StreamingOutput chartTasks = jsonSerializationBean.streamPages(ChartTask.class, firstPage, AbstractDao.STREAM_CHUNK_SIZE,
+                    last -> taskBean.getTasksByProjectIdPage(projectId, last));
+            logger.info("User with session token {} is getting the tasks of the project with id {} from IP address {}", token, projectId, ipAddress);
             response = Response.status(200).entity(chartTasks).build();
         } catch (IllegalArgumentException e) {
             logger.error("Error getting tasks", e);
             response = Response.status(400).entity(e.getMessage()).build();
         } catch (RuntimeException e) {
             logger.error("Error getting tasks", e);
-            response = Response.status(500).entity(e.getMessage()).build();
+            response = Response.status(500).entity("Error getting tasks").build();
         }
 
         return response;
@@ -0,0 +1,108 @@
+package domcast.finalprojbackend.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token buckets, one per key.
+ * Each bucket is a single AtomicLong holding the time at which it will be full again (the generic cell rate
+ * algorithm), so a request costs one map lookup and one compare-and-set, without locks or refill threads.
+ * Full buckets hold no information and are dropped periodically, so idle clients do not accumulate.
+ * @author José Castro
+ * @author Pedro Domingos
+ */
+public class TokenBucketLimiter {
+
+    // Interval between the removals of the full buckets
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    // Time origin, so the bucket times start at zero and never overflow
+    private final long origin = System.nanoTime();
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextSweep = new AtomicLong(SWEEP_INTERVAL_NANOS);
+
+    /**
+     * Rate limit in the form used by the buckets
+     */
+    public static final class Limit {
+
+        private final String name;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+
+        /**
+         * Creates a limit of a burst of requests, refilled evenly over the given seconds
+         * @param name the name of the limit, part of the key of its buckets
+         * @param requests the maximum number of requests in a burst
+         * @param seconds the seconds it takes to refill a full burst
+         */
+        public Limit(String name, int requests, int seconds) {
+            if (requests < 1 || seconds < 1) {
+                throw new IllegalArgumentException("Invalid rate limit: " + requests + "/" + seconds);
+            }
+            this.name = name;
+            this.intervalNanos = TimeUnit.SECONDS.toNanos(seconds) / requests;
+            this.toleranceNanos = intervalNanos * (requests - 1);
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Current time of the limiter
+     * @return the nanoseconds since the limiter was created
+     */
+    public long now() {
+        return System.nanoTime() - origin;
+    }
+
+    /**
+     * Takes a token from the bucket of a key
+     * @param key the key of the bucket
+     * @param limit the limit of the bucket
+     * @param now the current time of the limiter
+     * @return 0 if the request is allowed, or the nanoseconds to wait until it would be
+     */
+    public long tryAcquire(String key, Limit limit, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong());
+        }
+
+        while (true) {
+            long fullAt = bucket.get();
+            long start = Math.max(fullAt, now);
+            long wait = start - now - limit.toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, start + limit.intervalNanos)) {
+                sweepIfDue(now);
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Number of buckets in use
+     * @return the number of buckets
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Drops the full buckets, at most once per sweep interval
+     */
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now >= due && nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) {
+            buckets.values().removeIf(bucket -> bucket.get() <= now);
+        }
+    }
+}
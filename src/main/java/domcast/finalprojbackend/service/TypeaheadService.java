@@ -0,0 +1,65 @@
+package domcast.finalprojbackend.service;
+
+import domcast.finalprojbackend.bean.TypeaheadBean;
+import domcast.finalprojbackend.enums.TypeaheadCategoryEnum;
+import jakarta.inject.Inject;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+@Path("/typeahead")
+public class TypeaheadService {
+
+    private static final Logger logger = LogManager.getLogger(TypeaheadService.class);
+
+    // Longest prefix completed, longer ones cannot match any name shorter than it
+    private static final int MAX_PREFIX_LENGTH = 100;
+
+    @Inject
+    private TypeaheadBean typeaheadBean;
+
+    /**
+     * Completes a prefix with the names of a category, or of every category.
+     * @param prefix the prefix typed by the user
+     * @param type the category: project, keyword, skill, interest or component; every category if absent
+     * @param limit the maximum number of names per category, 10 by default and 50 at most
+     * @param request the HTTP request
+     * @return the list of names of the category, or the lists of names by category
+     */
+    @GET
+    @Path("")
+    @RateLimit(requests = 30, seconds = 10, byIp = true)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response complete(@QueryParam("q") String prefix,
+                             @QueryParam("type") String type,
+                             @QueryParam("limit") int limit,
+                             @Context HttpServletRequest request) {
+        String ipAddress = request.getRemoteAddr();
+
+        if (prefix == null || prefix.isBlank() || prefix.length() > MAX_PREFIX_LENGTH) {
+            logger.info("User with ip address {} tried to complete an invalid prefix", ipAddress);
+            return Response.status(400).entity("Invalid prefix").build();
+        }
+
+        if (type == null || type.isEmpty()) {
+            return Response.status(200).entity(typeaheadBean.completeAll(prefix, limit)).build();
+        }
+
+        TypeaheadCategoryEnum category;
+        try {
+            category = TypeaheadCategoryEnum.fromValue(type);
+        } catch (IllegalArgumentException e) {
+            logger.info("User with ip address {} tried to complete names of invalid type {}", ipAddress, type);
+            return Response.status(400).entity("Invalid type").build();
+        }
+
+        return Response.status(200).entity(typeaheadBean.complete(category, prefix, limit)).build();
+    }
+}
@@ -1,5 +1,6 @@
 package domcast.finalprojbackend.service;
 
+import domcast.finalprojbackend.bean.BlockingWorkBean;
 import domcast.finalprojbackend.bean.DataValidator;
 import domcast.finalprojbackend.bean.InterestBean;
 import domcast.finalprojbackend.bean.SkillBean;
@@ -15,6 +16,8 @@ import jakarta.inject.Inject;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
@@ -55,6 +58,9 @@ public class UserService {
     @Inject
     private TokenBean tokenBean;
 
+    @Inject
+    private BlockingWorkBean blockingWorkBean;
+
     /**
      * Registers a new user.
      *
@@ -64,6 +70,7 @@ public class UserService {
      */
     @POST
     @Path("")
+    @RateLimit(requests = 10, seconds = 60, byIp = true)
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     public Response registerUser(FirstRegistration user, @Context HttpServletRequest request) {
@@ -92,6 +99,7 @@ public class UserService {
      */
     @POST
     @Path("/confirm")
+    @RateLimit(requests = 10, seconds = 60, byIp = true)
     @Consumes(MediaType.MULTIPART_FORM_DATA)
     public Response confirmUser(MultipartFormDataInput input, @Context HttpServletRequest request) {
         String ipAddress = request.getRemoteAddr();
@@ -152,29 +160,34 @@ public class UserService {
      *
      * @param userToLogin The user to log in.
      * @param request     The HTTP request.
-     * @return A response indicating the result of the operation.
+     * @param asyncResponse The response, resumed with the result of the operation.
      */
     @POST
     @Path("/login")
+    @RateLimit(requests = 10, seconds = 60, byIp = true)
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response login(Login userToLogin, @Context HttpServletRequest request) {
+    public void login(Login userToLogin, @Context HttpServletRequest request, @Suspended AsyncResponse asyncResponse) {
         String ipAddress = request.getRemoteAddr();
-        logger.info("User with IP address {} is trying to login", ipAddress);
 
-        Response response;
-        LoggedUser loggedUser;
+        // Hashing the password is blocking work
+        blockingWorkBean.respond(asyncResponse, () -> {
+            logger.info("User with IP address {} is trying to login", ipAddress);
 
-        try {
-            loggedUser = userBean.login(userToLogin, ipAddress);
-            response = Response.status(200).entity(loggedUser).build();
-            logger.info("User with IP address {} logged in successfully with email {}", ipAddress, userToLogin.getEmail());
-        } catch (Exception e) {
-            response = Response.status(400).entity("Error logging in").build();
-            logger.info("User with IP address {} tried to login unsuccessfully with email {}", ipAddress, userToLogin.getEmail());
-        }
+            Response response;
+            LoggedUser loggedUser;
 
-        return response;
+            try {
+                loggedUser = userBean.login(userToLogin, ipAddress);
+                response = Response.status(200).entity(loggedUser).build();
+                logger.info("User with IP address {} logged in successfully with email {}", ipAddress, userToLogin.getEmail());
+            } catch (Exception e) {
+                response = Response.status(400).entity("Error logging in").build();
+                logger.info("User with IP address {} tried to login unsuccessfully with email {}", ipAddress, userToLogin.getEmail());
+            }
+
+            return response;
+        });
     }
 
     /**
@@ -228,6 +241,7 @@ public class UserService {
      */
     @POST
     @Path("/recover-password")
+    @RateLimit(requests = 5, seconds = 60, byIp = true)
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.TEXT_PLAIN)
     public Response recoverPassword(@HeaderParam("email") String email, @Context HttpServletRequest request) {
@@ -257,6 +271,7 @@ public class UserService {
      */
     @PUT
     @Path("/reset-password")
+    @RateLimit(requests = 10, seconds = 60, byIp = true)
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     public Response resetPassword(@HeaderParam("token") String validationToken, String password, @Context HttpServletRequest request) {
@@ -514,6 +529,7 @@ public class UserService {
     @Path("/public-profile")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
+    @ConditionalGet(value = ConditionalGet.Source.PROFILE, userHeader = "loggedId")
     public Response getPublicProfile(@HeaderParam("token") String sessionToken,
                                      @HeaderParam("loggedId") int userId,
                                      @QueryParam("id") int id,
@@ -1,5 +1,6 @@
 package domcast.finalprojbackend.websocket;
 
+import domcast.finalprojbackend.bean.BlockingWorkBean;
 import domcast.finalprojbackend.bean.DataValidator;
 import domcast.finalprojbackend.bean.MessageBean;
 import domcast.finalprojbackend.bean.user.TokenBean;
@@ -24,6 +25,9 @@ public class NotificationWS {
     @EJB
     private MessageBean messageBean;
 
+    @EJB
+    private BlockingWorkBean blockingWorkBean;
+
     @EJB
     private UserBean userBean;
 
@@ -59,13 +63,37 @@ public class NotificationWS {
 
         if (session != null){
             try {
-                session.getBasicRemote().sendText(msg);
+                // Serialized on the session, sends also come from the blocking work threads
+                synchronized (session) {
+                    session.getBasicRemote().sendText(msg);
+                }
                 logger.info("Notification sent to user with token {}", token);
             } catch (IOException e) {
                 logger.error("Something went wrong sending notification to user with token {}", token);
             }
         }
     }
+    /**
+     * Sends the logout notification to the session of a token and closes it, if it is open on this node
+     * @param token the token of the session logged out
+     * @param msg the logout notification
+     */
+    public void logout(String token, String msg) {
+        Session session = sessions.get(token);
+
+        if (session == null) {
+            return;
+        }
+
+        send(token, msg);
+
+        try {
+            session.close(new CloseReason(CloseReason.CloseCodes.NORMAL_CLOSURE, "Session expired"));
+        } catch (IOException e) {
+            logger.error("Error closing notification session of logged out token {}", token, e);
+        }
+    }
+
     @OnOpen
     public void toDoOnOpen(Session session, @PathParam("token") String token) {
 
@@ -115,6 +143,15 @@ public class NotificationWS {
 
         String token = session.getPathParameters().get("token");
 
+        // Finding the user reaches the database, so it runs as blocking work
+        blockingWorkBean.execute(() -> notifyUserOfToken(token));
+    }
+
+    /**
+     * Sends the notifications of the user of a session token
+     * @param token the session token
+     */
+    private void notifyUserOfToken(String token) {
         UserEntity userToNotify;
 
         try {
@@ -131,7 +168,7 @@ public class NotificationWS {
 
         int userId = userToNotify.getId();
         
-        messageBean.sendNotification(userId, sessions);
+        messageBean.sendNotification(userId);
     }
 
     public HashMap<String, Session> getSessions() {
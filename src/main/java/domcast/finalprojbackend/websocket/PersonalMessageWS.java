@@ -1,11 +1,20 @@
 package domcast.finalprojbackend.websocket;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import domcast.finalprojbackend.bean.BlockingWorkBean;
 import domcast.finalprojbackend.bean.DataValidator;
+import domcast.finalprojbackend.bean.JsonSerializationBean;
 import domcast.finalprojbackend.bean.MessageBean;
+import domcast.finalprojbackend.bean.PresenceBean;
 import domcast.finalprojbackend.bean.user.TokenBean;
 import domcast.finalprojbackend.bean.user.UserBean;
 import domcast.finalprojbackend.dao.SessionTokenDao;
 import domcast.finalprojbackend.dao.UserDao;
+import domcast.finalprojbackend.dto.messageDto.RealtimeEvent;
+import domcast.finalprojbackend.entity.UserEntity;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Singleton;
 import jakarta.websocket.*;
@@ -15,7 +24,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
+import java.util.*;
 
 @Singleton
 @ServerEndpoint("/websocket/messages/{token}")
@@ -23,6 +33,9 @@ public class PersonalMessageWS {
     @EJB
     private MessageBean messageBean;
 
+    @EJB
+    private BlockingWorkBean blockingWorkBean;
+
     @EJB
     private UserBean userBean;
 
@@ -38,11 +51,31 @@ public class PersonalMessageWS {
     @EJB
     private SessionTokenDao tokenDao;
 
+    @EJB
+    private PresenceBean presenceBean;
+
+    @EJB
+    private JsonSerializationBean jsonSerializationBean;
+
 
     private static final Logger logger = LogManager.getLogger(PersonalMessageWS.class);
 
+    private static final Gson GSON = new Gson();
+
+    // Key of the user id cached on each session when it is opened
+    public static final String USER_ID_PROPERTY = "userId";
+
+    // Event sent by the clients only to keep their presence alive
+    public static final String HEARTBEAT = "heartbeat";
+
+    // Largest number of users a presence query may ask for
+    private static final int MAX_PRESENCE_USERS = 200;
+
     private final HashMap<String, Session> sessions = new HashMap<String, Session>();
 
+    // Index of the tokens of the open sessions, by user
+    private final HashMap<Integer, Set<String>> userTokens = new HashMap<>();
+
     /**
      * Sends a message to a user
      * @param token the token of the user to send the message to
@@ -55,13 +88,38 @@ public class PersonalMessageWS {
 
         if (session != null){
             try {
-                session.getBasicRemote().sendText(msg);
+                // The basic remote allows one send at a time, and handlers in worker threads send too
+                synchronized (session) {
+                    session.getBasicRemote().sendText(msg);
+                }
                 logger.info("Message sent to: {}", token);
             } catch (IOException e) {
                 logger.error("Something went wrong!");
             }
         }
     }
+
+    /**
+     * Sends an already serialized message as a binary frame, avoiding the intermediate String
+     * The buffer is sent synchronously, so a pooled buffer from JsonSerializationBean can be passed directly
+     * @param token the token of the user to send the message to
+     * @param buffer the serialized message to be sent
+     */
+    public void sendBinary(String token, ByteBuffer buffer) {
+        Session session = sessions.get(token);
+
+        if (session != null) {
+            try {
+                synchronized (session) {
+                    session.getBasicRemote().sendBinary(buffer);
+                }
+                logger.info("Binary message sent to user with token: {}", token);
+            } catch (IOException e) {
+                logger.error("Something went wrong sending binary message to user with token: {}", token);
+            }
+        }
+    }
+
     @OnOpen
     public void toDoOnOpen(Session session, @PathParam("token") String token){
 
@@ -92,7 +150,31 @@ public class PersonalMessageWS {
             return;
         }
 
+        UserEntity user;
+
+        try {
+            user = tokenBean.findUserByToken(token);
+        } catch (Exception e) {
+            logger.error("Error finding user by token");
+            user = null;
+        }
+
+        if (user == null) {
+            logger.error("User not found by token while opening personal messages session");
+            try {
+                session.close(new CloseReason(CloseReason.CloseCodes.NORMAL_CLOSURE, "User not found"));
+            } catch (IOException e) {
+                logger.error("Error closing session due to user not found", e);
+            }
+            return;
+        }
+
+        // Cache the user on the session, so incoming events need no lookups
+        session.getUserProperties().put(USER_ID_PROPERTY, user.getId());
+
         sessions.put(token, session);
+        userTokens.computeIfAbsent(user.getId(), id -> new HashSet<>()).add(token);
+        presenceBean.touch(user.getId());
 
         logger.info("Session added, there are {} sessions open", sessions.size());
     }
@@ -103,89 +185,163 @@ public class PersonalMessageWS {
 
         sessions.entrySet().removeIf(entry -> entry.getValue().equals(session));
 
+        Integer userId = (Integer) session.getUserProperties().get(USER_ID_PROPERTY);
+        if (userId != null) {
+            Set<String> tokens = userTokens.get(userId);
+            if (tokens != null) {
+                tokens.remove(session.getPathParameters().get("token"));
+                if (tokens.isEmpty()) {
+                    userTokens.remove(userId);
+                    presenceBean.remove(userId);
+                }
+            }
+        }
+
         logger.info("Session removed from personal messages, there still are {} sessions open", sessions.size());
     }
 
     @OnMessage
     public void toDoOnMessage(Session session, String msg) {
 
-        logger.info("Message received: {}", msg);
-        /*String token = session.getPathParameters().get("token");
+        // The user was resolved once, when the session was opened
+        Integer userId = (Integer) session.getUserProperties().get(USER_ID_PROPERTY);
 
-        UserEntity userSender;
+        if (userId == null) {
+            logger.error("User not found in personal messages session");
+            return;
+        }
+
+        // Any event from the user keeps the presence alive
+        presenceBean.touch(userId);
+
+        String type;
+        JsonObject jsonObject;
 
         try {
-            userSender = tokenBean.findUserByToken(token);
-        } catch (Exception e) {
-            logger.error("Error finding user by token");
+            jsonObject = GSON.fromJson(msg, JsonObject.class);
+            type = jsonObject.get("type").getAsString();
+        } catch (JsonSyntaxException | NullPointerException | IllegalStateException e) {
+            logger.error("Error parsing event in personal messages session");
             return;
         }
 
-        if (userSender == null) {
-            logger.error("User not found by token");
+        if (HEARTBEAT.equals(type)) {
+            logger.debug("Heartbeat received from user {}", userId);
             return;
         }
 
-        int receiverId = Integer.parseInt(session.getPathParameters().get("receiver"));
-        UserEntity userReceiver;
+        // The other events may reach the database, so they run as blocking work
+        blockingWorkBean.execute(() -> handleEvent(session, userId, type, jsonObject));
+    }
 
+    /**
+     * Handles an event sent by the user
+     * @param session the session that sent the event
+     * @param userId the id of the user that sent the event
+     * @param type the type of the event
+     * @param jsonObject the event
+     */
+    private void handleEvent(Session session, int userId, String type, JsonObject jsonObject) {
         try {
-            userReceiver = userDao.findUserById(receiverId);
+            switch (type) {
+                case RealtimeEvent.PRESENCE -> answerPresence(session, userId, jsonObject);
+                case RealtimeEvent.TYPING -> forwardTyping(userId, jsonObject.get("receiver").getAsInt());
+                case RealtimeEvent.READ -> markConversationAsRead(userId, jsonObject.get("sender").getAsInt(), jsonObject.get("upTo").getAsInt());
+                default -> logger.info("Unknown event type {} received from user {}", type, userId);
+            }
+        } catch (NullPointerException | IllegalStateException | UnsupportedOperationException | NumberFormatException e) {
+            logger.error("Invalid {} event received from user {}", type, userId);
         } catch (Exception e) {
-            logger.error("Error finding user by id");
-            return;
+            logger.error("Error handling {} event from user {}", type, userId, e);
         }
+    }
 
-        if (userReceiver == null) {
-            logger.error("User not found by id");
-            return;
+    /**
+     * Answers a presence query with the users that are online, out of the ones requested that the user may see:
+     * the ones with a conversation with the user or sharing a project with the user
+     * @param session the session that sent the query
+     * @param userId the id of the user that sent the query
+     * @param query the query, with the ids of the users in the "users" array
+     */
+    private void answerPresence(Session session, int userId, JsonObject query) throws IOException {
+        List<Integer> requested = new ArrayList<>();
+        JsonArray users = query.getAsJsonArray("users");
+
+        if (users != null) {
+            for (int i = 0; i < users.size() && requested.size() < MAX_PRESENCE_USERS; i++) {
+                requested.add(users.get(i).getAsInt());
+            }
         }
 
-        int senderId = userSender.getId();
-        String content;
-        String subject;
+        // Filtered in memory first, so only the online users are checked in the database
+        List<Integer> online = presenceBean.onlineUsers(requested);
+        Set<Integer> visible = messageBean.findVisibleContacts(userId, online);
+        online.removeIf(id -> !visible.contains(id));
 
-        Gson gson = new Gson();
-        try {
-            JsonObject jsonObject = gson.fromJson(msg, JsonObject.class);
-            subject = jsonObject.get("subject").getAsString();
-            content = jsonObject.get("content").getAsString();
-        } catch (JsonSyntaxException e) {
-            logger.error("Error parsing message content");
-            return;
-        }
+        RealtimeEvent event = new RealtimeEvent(RealtimeEvent.PRESENCE, userId);
+        event.setOnlineUsers(online);
 
+        String answer = jsonSerializationBean.writeRealtimeEvent(event);
 
-        PersonalMessage message;
+        // Runs in a worker thread, outside the lock of the endpoint, so the send is serialized on the session
+        synchronized (session) {
+            session.getBasicRemote().sendText(answer);
+        }
+    }
 
-        try {
-            message = messageBean.persistPersonalMessage(subject, content, userSender, userReceiver, null);
-        } catch (Exception e) {
-            logger.error("Error persisting message");
+    /**
+     * Forwards a typing event to the receiver, unless the same typing state was forwarded recently
+     * or the users have no conversation
+     * @param userId the id of the user that is typing
+     * @param receiverId the id of the user that is receiving the message
+     */
+    private void forwardTyping(int userId, int receiverId) throws IOException {
+        if (!presenceBean.startTyping(userId, "user:" + receiverId)) {
             return;
         }
 
-        if (message == null) {
-            logger.error("Message not persisted");
+        // Checked after the typing state, so only the first event of a burst reaches the database
+        if (!messageBean.hasConversation(userId, receiverId)) {
+            logger.info("Typing event from user {} to user {} not forwarded, they have no conversation", userId, receiverId);
             return;
         }
 
-        ObjectMapperContextResolver contextResolver = new ObjectMapperContextResolver();
-        ObjectMapper objectMapper = contextResolver.getContext(null);
+        messageBean.sendEventToUser(receiverId, jsonSerializationBean.writeRealtimeEvent(new RealtimeEvent(RealtimeEvent.TYPING, userId)));
+    }
 
-        String jsonMessage;
-        try {
-            jsonMessage = objectMapper.writeValueAsString(message);
-        } catch (JsonProcessingException e) {
-            logger.error("Error serializing message", e);
+    /**
+     * Marks a conversation as read up to a message and sends a read receipt to the sender of the messages
+     * @param userId the id of the user that read the messages
+     * @param senderId the id of the user that sent the messages
+     * @param messageId the id of the last message read
+     */
+    private void markConversationAsRead(int userId, int senderId, int messageId) throws IOException {
+        // Only a receipt for messages of the sender that were actually read is sent
+        if (messageBean.markConversationAsReadUpTo(userId, senderId, messageId) == 0) {
             return;
         }
 
-        // Send the message to all active sessions of the sender
-        messageBean.sendToUser(senderId, jsonMessage, sessions);
+        RealtimeEvent event = new RealtimeEvent(RealtimeEvent.READ, userId);
+        event.setMessageId(messageId);
 
-        // Send the message to all active sessions of the receiver
-        messageBean.sendToUser(receiverId, jsonMessage, sessions);*/
+        messageBean.sendEventToUser(senderId, jsonSerializationBean.writeRealtimeEvent(event));
+    }
+
+    /**
+     * Sends a message to all the personal message sessions of a user, using the per-user session index
+     * @param userId the id of the user
+     * @param msg the message to be sent
+     */
+    public void sendToUserSessions(int userId, String msg) {
+        Set<String> tokens = userTokens.get(userId);
+
+        if (tokens == null) {
+            return;
+        }
+
+        for (String token : tokens) {
+            send(token, msg);
+        }
     }
 
     public HashMap<String, Session> getSessions() {
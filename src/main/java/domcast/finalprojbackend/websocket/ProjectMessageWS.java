@@ -1,20 +1,22 @@
 package domcast.finalprojbackend.websocket;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
+import domcast.finalprojbackend.bean.AuthenticationAndAuthorization;
+import domcast.finalprojbackend.bean.ChatIngestionBean;
 import domcast.finalprojbackend.bean.DataValidator;
+import domcast.finalprojbackend.bean.JsonSerializationBean;
 import domcast.finalprojbackend.bean.MessageBean;
+import domcast.finalprojbackend.bean.PresenceBean;
 import domcast.finalprojbackend.bean.user.TokenBean;
 import domcast.finalprojbackend.bean.user.UserBean;
 import domcast.finalprojbackend.dao.ProjectDao;
 import domcast.finalprojbackend.dao.SessionTokenDao;
-import domcast.finalprojbackend.dto.messageDto.ProjectMessage;
+import domcast.finalprojbackend.dto.messageDto.RealtimeEvent;
+import domcast.finalprojbackend.dto.userDto.MessageUser;
 import domcast.finalprojbackend.entity.ProjectEntity;
 import domcast.finalprojbackend.entity.UserEntity;
-import domcast.finalprojbackend.service.ObjectMapperContextResolver;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Singleton;
 import jakarta.websocket.*;
@@ -24,7 +26,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
 
 @Singleton
 @ServerEndpoint("/websocket/project-chat/{token}/{projectId}")
@@ -47,30 +52,87 @@ public class ProjectMessageWS {
     @EJB
     private SessionTokenDao tokenDao;
 
+    @EJB
+    private ChatIngestionBean chatIngestionBean;
+
+    @EJB
+    private PresenceBean presenceBean;
+
+    @EJB
+    private JsonSerializationBean jsonSerializationBean;
+
+    @EJB
+    private AuthenticationAndAuthorization authenticationAndAuthorization;
+
 
     private static final Logger logger = LogManager.getLogger(ProjectMessageWS.class);
 
+    private static final Gson GSON = new Gson();
+
+    // Keys of the values cached on each session when it is opened
+    public static final String SENDER_PROPERTY = "sender";
+    public static final String PROJECT_ID_PROPERTY = "projectId";
+    public static final String ALLOWED_UNTIL_PROPERTY = "allowedUntil";
+
+    // How long a successful check of the token and the membership of a sender is trusted before it is repeated
+    public static final long ALLOWED_TTL_MILLIS = 30_000;
+
+    // Open sessions, by token and project, so the chats of one token in different projects do not replace each other
     private final HashMap<String, Session> sessions = new HashMap<String, Session>();
 
+    // Index of the open sessions, by project
+    private final HashMap<Integer, Set<Session>> projectSessions = new HashMap<>();
+
     /**
-     * Sends a message to a project chat
-     * @param token the token of the user to send the message to
+     * Builds the key of a session in the sessions map
+     * @param token the token of the session
+     * @param projectId the id of the project of the session
+     * @return the key of the session
+     */
+    private static String sessionKey(String token, int projectId) {
+        return token + "/" + projectId;
+    }
+
+    /**
+     * Sends a message to a project chat session
+     * @param session the session to send the message to
      * @param msg the message to be sent
      */
-    public void send(String token, String msg){
-        Session session = sessions.get(token);
+    private void send(Session session, String msg){
+        logger.info("Sending message in project chat for project: {}", session.getUserProperties().get(PROJECT_ID_PROPERTY));
+
+        try {
+            // One send at a time per session, the basic remote does not allow concurrent sends
+            synchronized (session) {
+                session.getBasicRemote().sendText(msg);
+            }
+        } catch (IOException e) {
+            logger.error("Something went wrong sending message in project chat.");
+        }
+    }
 
-        logger.info("Sending message to user with token in project chat for project: {}", token);
+    /**
+     * Sends an already serialized message as a binary frame, avoiding the intermediate String
+     * The buffer is sent synchronously, so a pooled buffer from JsonSerializationBean can be passed directly
+     * @param token the token of the user to send the message to
+     * @param projectId the id of the project chat the user is in
+     * @param buffer the serialized message to be sent
+     */
+    public void sendBinary(String token, int projectId, ByteBuffer buffer) {
+        Session session = sessions.get(sessionKey(token, projectId));
 
-        if (session != null){
+        if (session != null) {
             try {
-                session.getBasicRemote().sendText(msg);
-                logger.info("Message sent to user with token in project chat for project: {}", token);
+                synchronized (session) {
+                    session.getBasicRemote().sendBinary(buffer);
+                }
+                logger.info("Binary message sent to user in chat of project {} with token: {}", projectId, token);
             } catch (IOException e) {
-                logger.error("Something went wrong sending message in project chat.");
+                logger.error("Something went wrong sending binary message to user in chat of project {} with token: {}", projectId, token);
             }
         }
     }
+
     @OnOpen
     public void toDoOnOpen(Session session, @PathParam("token") String token, @PathParam("projectId") int projectId) {
 
@@ -79,7 +141,8 @@ public class ProjectMessageWS {
         boolean authenticated;
 
         try {
-            authenticated = dataValidator.isTokenValidForWebSocket(token, sessions);
+            authenticated = dataValidator.isTokenValidForWebSocket(token, sessions)
+                    && !sessions.containsKey(sessionKey(token, projectId));
         } catch (Exception e) {
             logger.error("Error validating token");
 
@@ -101,7 +164,41 @@ public class ProjectMessageWS {
             return;
         }
 
-        sessions.put(token, session);
+        UserEntity user;
+
+        try {
+            user = tokenBean.findUserByToken(token);
+        } catch (Exception e) {
+            logger.error("Error finding user by token");
+            user = null;
+        }
+
+        ProjectEntity project;
+
+        try {
+            project = projectDao.findProjectById(projectId);
+        } catch (Exception e) {
+            logger.error("Error finding project by id");
+            project = null;
+        }
+
+        if (user == null || project == null) {
+            logger.error("User or project not found while opening project chat for project {}", projectId);
+            try {
+                session.close(new CloseReason(CloseReason.CloseCodes.NORMAL_CLOSURE, "User or project not found"));
+            } catch (IOException e) {
+                logger.error("Error closing session due to user or project not found", e);
+            }
+            return;
+        }
+
+        // Cache the sender identity and the project on the session, so incoming messages need no lookups
+        session.getUserProperties().put(SENDER_PROPERTY, userBean.entityToMessageUser(user));
+        session.getUserProperties().put(PROJECT_ID_PROPERTY, projectId);
+        session.getUserProperties().put(ALLOWED_UNTIL_PROPERTY, System.currentTimeMillis() + ALLOWED_TTL_MILLIS);
+
+        sessions.put(sessionKey(token, projectId), session);
+        projectSessions.computeIfAbsent(projectId, id -> new HashSet<>()).add(session);
 
         logger.info("Session added, there are {} sessions open for project {}", sessions.size(), projectId);
     }
@@ -112,81 +209,145 @@ public class ProjectMessageWS {
 
         sessions.entrySet().removeIf(entry -> entry.getValue().equals(session));
 
+        Integer projectId = (Integer) session.getUserProperties().get(PROJECT_ID_PROPERTY);
+        if (projectId != null) {
+            Set<Session> projectChat = projectSessions.get(projectId);
+            if (projectChat != null) {
+                projectChat.remove(session);
+                if (projectChat.isEmpty()) {
+                    projectSessions.remove(projectId);
+                }
+            }
+        }
+
         logger.info("Session removed, there still are {} sessions open for project {}", sessions.size(), session.getPathParameters().get("projectId"));
     }
 
     @OnMessage
     public void toDoOnMessage(Session session, String msg){
 
-        String token = session.getPathParameters().get("token");
-
-        UserEntity userSender;
+        // The sender and the project were resolved once, when the session was opened
+        MessageUser sender = (MessageUser) session.getUserProperties().get(SENDER_PROPERTY);
+        Integer projectId = (Integer) session.getUserProperties().get(PROJECT_ID_PROPERTY);
 
-        try {
-            userSender = tokenBean.findUserByToken(token);
-        } catch (Exception e) {
-            logger.error("Error finding user by token");
+        if (sender == null || projectId == null) {
+            logger.error("Sender or project not found in project chat session");
             return;
         }
 
-        if (userSender == null) {
-            logger.error("User not found by token");
+        // The session may have been logged out or expired, or the sender removed from the project, since it was opened
+        if (!isSenderStillAllowed(session, sender.getId(), projectId)) {
+            logger.info("Closing project chat session of user {} for project {}, no longer allowed", sender.getId(), projectId);
+            try {
+                session.close(new CloseReason(CloseReason.CloseCodes.VIOLATED_POLICY, "Session ended or not a member"));
+            } catch (IOException e) {
+                logger.error("Error closing project chat session no longer allowed", e);
+            }
             return;
         }
 
-        int projectId = Integer.parseInt(session.getPathParameters().get("projectId"));
-        ProjectEntity projectReceiver;
+        String content;
 
         try {
-            projectReceiver = projectDao.findProjectById(projectId);
-        } catch (Exception e) {
-            logger.error("Error finding project by id");
+            JsonObject jsonObject = GSON.fromJson(msg, JsonObject.class);
+
+            // Typing events are ephemeral, they are only forwarded to the other members in the chat
+            if (jsonObject.has("type") && RealtimeEvent.TYPING.equals(jsonObject.get("type").getAsString())) {
+                forwardTyping(sender.getId(), projectId);
+                return;
+            }
+
+            content = jsonObject.get("content").getAsString();
+        } catch (JsonSyntaxException | NullPointerException | IllegalStateException e) {
+            logger.error("Error parsing message content");
             return;
         }
 
-        if (projectReceiver == null) {
-            logger.error("Project not found by id");
-            return;
+        try {
+            chatIngestionBean.enqueue(projectId, sender, content);
+        } catch (Exception e) {
+            logger.error("Error queueing message in project chat for project {}", projectId, e);
         }
+    }
 
-        int senderId = userSender.getId();
-        String content;
+    /**
+     * Checks if the token of a project chat session is still active and from the sender, and the sender still an
+     * active member of the project
+     * A successful check is cached on the session for ALLOWED_TTL_MILLIS, so the lines sent in the meantime
+     * reach neither the token nor the membership queries
+     * @param session the project chat session
+     * @param senderId the id of the sender
+     * @param projectId the id of the project
+     * @return boolean value indicating if the sender can still post to the project chat
+     */
+    private boolean isSenderStillAllowed(Session session, int senderId, int projectId) {
+        long now = System.currentTimeMillis();
+        Long allowedUntil = (Long) session.getUserProperties().get(ALLOWED_UNTIL_PROPERTY);
+
+        if (allowedUntil != null && now < allowedUntil) {
+            return true;
+        }
 
-        Gson gson = new Gson();
+        String token = session.getPathParameters().get("token");
+        boolean allowed;
         try {
-            JsonObject jsonObject = gson.fromJson(msg, JsonObject.class);
-            content = jsonObject.get("content").getAsString();
-        } catch (JsonSyntaxException e) {
-            logger.error("Error parsing message content");
+            allowed = authenticationAndAuthorization.isTokenActiveAndFromUserId(token, senderId)
+                    && authenticationAndAuthorization.isUserMemberOfTheProjectAndActive(senderId, projectId);
+        } catch (Exception e) {
+            logger.error("Error checking if user {} can still post to project chat {}", senderId, projectId, e);
+            allowed = false;
+        }
+
+        if (allowed) {
+            session.getUserProperties().put(ALLOWED_UNTIL_PROPERTY, now + ALLOWED_TTL_MILLIS);
+        } else {
+            session.getUserProperties().remove(ALLOWED_UNTIL_PROPERTY);
+        }
+        return allowed;
+    }
+
+    /**
+     * Forwards a typing event to the sessions in a project chat, unless the same typing state was forwarded recently
+     * @param userId the id of the user that is typing
+     * @param projectId the id of the project
+     */
+    private void forwardTyping(int userId, int projectId) {
+        presenceBean.touch(userId);
+
+        if (!presenceBean.startTyping(userId, "project:" + projectId)) {
             return;
         }
 
-        ProjectMessage message;
+        RealtimeEvent event = new RealtimeEvent(RealtimeEvent.TYPING, userId);
+        event.setProjectId(projectId);
 
+        String jsonEvent;
         try {
-            message = messageBean.persistGroupMessage(content, userSender, projectReceiver);
+            jsonEvent = jsonSerializationBean.writeRealtimeEvent(event);
         } catch (Exception e) {
-            logger.error("Error persisting message in project chat", e);
+            logger.error("Error serializing typing event for project {}", projectId, e);
             return;
         }
 
-        if (message == null) {
-            logger.error("Message not persisted in project chat");
-            return;
-        }
+        // Ephemeral, so only delivered on this node; the sessions of the typing user also receive it and ignore it by its userId
+        messageBean.sendEventToProject(projectId, jsonEvent);
+    }
 
-        ObjectMapperContextResolver contextResolver = new ObjectMapperContextResolver();
-        ObjectMapper objectMapper = contextResolver.getContext(null);
+    /**
+     * Sends a message to every session open for a project chat, using the per-project session index
+     * @param projectId the id of the project
+     * @param msg the message to be sent
+     */
+    public void broadcastToProject(int projectId, String msg) {
+        Set<Session> projectChat = projectSessions.get(projectId);
 
-        String jsonMessage;
-        try {
-            jsonMessage = objectMapper.writeValueAsString(message);
-        } catch (JsonProcessingException e) {
-            logger.error("Error serializing message", e);
+        if (projectChat == null || projectChat.isEmpty()) {
+            logger.info("No sessions open for project chat of project {}", projectId);
             return;
         }
 
-        // Send the message to all active sessions of the receiver
-        messageBean.sendToProject(projectId, jsonMessage, sessions);
+        for (Session session : projectChat) {
+            send(session, msg);
+        }
     }
 }
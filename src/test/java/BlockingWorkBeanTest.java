@@ -0,0 +1,184 @@
+import domcast.finalprojbackend.bean.BlockingWorkBean;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for BlockingWorkBean.
+ * Load test of the maximum number of requests in flight, with a container pool of 16 threads handling
+ * 400 requests that each block for 50 ms, in the platform and in the managed execution modes.
+ * The managed executor of the container is stood in for by a pool of 64 platform threads, like a managed
+ * executor not configured with virtual threads, and there are fewer datasource permits than its threads.
+ */
+public class BlockingWorkBeanTest {
+
+    private static final int CONTAINER_THREADS = 16;
+    private static final int MANAGED_THREADS = 64;
+    private static final int REQUESTS = 400;
+    private static final int PERMITS = 32;
+
+    private final BlockingWorkBean blockingWorkBean = new BlockingWorkBean();
+
+    private ManagedExecutorService managedExecutor;
+
+    private ExecutorService managedThreads;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        managedThreads = Executors.newFixedThreadPool(MANAGED_THREADS);
+
+        managedExecutor = mock(ManagedExecutorService.class);
+        doAnswer(invocation -> {
+            managedThreads.execute(invocation.getArgument(0));
+            return null;
+        }).when(managedExecutor).execute(any(Runnable.class));
+
+        Field field = BlockingWorkBean.class.getDeclaredField("managedExecutor");
+        field.setAccessible(true);
+        field.set(blockingWorkBean, managedExecutor);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        managedThreads.shutdownNow();
+        System.clearProperty(BlockingWorkBean.MODE_PROPERTY);
+        System.clearProperty(BlockingWorkBean.PERMITS_PROPERTY);
+    }
+
+    private void init(String mode) {
+        System.setProperty(BlockingWorkBean.MODE_PROPERTY, mode);
+        System.setProperty(BlockingWorkBean.PERMITS_PROPERTY, String.valueOf(PERMITS));
+        blockingWorkBean.init();
+    }
+
+    /**
+     * Result of a load run: the most requests in flight, and the most holding a datasource permit
+     */
+    private record LoadResult(int maxInFlight, int maxHoldingPermit) {
+    }
+
+    private LoadResult runLoad() throws InterruptedException {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger holdingPermit = new AtomicInteger();
+        AtomicInteger maxHoldingPermit = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+        ExecutorService container = Executors.newFixedThreadPool(CONTAINER_THREADS);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            container.execute(() -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                blockingWorkBean.execute(() -> {
+                    maxHoldingPermit.accumulateAndGet(holdingPermit.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    holdingPermit.decrementAndGet();
+                    inFlight.decrementAndGet();
+                    done.countDown();
+                });
+            });
+        }
+
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        container.shutdown();
+        return new LoadResult(maxInFlight.get(), maxHoldingPermit.get());
+    }
+
+    /**
+     * In the platform mode, the requests in flight are capped by the container pool.
+     */
+    @Test
+    public void testPlatformMode_InFlightCappedByContainerPool() throws InterruptedException {
+        init("platform");
+        assertFalse(blockingWorkBean.isOffloaded());
+
+        LoadResult result = runLoad();
+
+        assertTrue(result.maxInFlight() <= CONTAINER_THREADS);
+    }
+
+    /**
+     * In the managed mode, the requests in flight are no longer capped by the container pool,
+     * but the ones using the datasource are capped by the permits, below the threads of the managed executor.
+     * A managed executor of platform threads is detected as such.
+     */
+    @Test
+    public void testManagedMode_InFlightBeyondContainerPoolCappedByPermits() throws InterruptedException {
+        init(BlockingWorkBean.MANAGED);
+        assertTrue(blockingWorkBean.isOffloaded());
+        assertFalse(blockingWorkBean.runsOnVirtualThreads());
+
+        LoadResult result = runLoad();
+
+        assertTrue(result.maxInFlight() > CONTAINER_THREADS);
+        assertTrue(result.maxHoldingPermit() > CONTAINER_THREADS);
+        assertTrue(result.maxHoldingPermit() <= PERMITS);
+    }
+
+    /**
+     * A request the managed executor refuses is answered with a 503 instead of running without a permit.
+     */
+    @Test
+    public void testRespond_RejectedRequestGets503() {
+        init(BlockingWorkBean.MANAGED);
+        doThrow(new RejectedExecutionException()).when(managedExecutor).execute(any(Runnable.class));
+        AsyncResponse asyncResponse = mock(AsyncResponse.class);
+        AtomicInteger ran = new AtomicInteger();
+
+        blockingWorkBean.respond(asyncResponse, () -> {
+            ran.incrementAndGet();
+            return Response.ok().build();
+        });
+
+        assertEquals(0, ran.get());
+        verify(asyncResponse).resume(argThat((Object response) -> response instanceof Response && ((Response) response).getStatus() == 503));
+    }
+
+    /**
+     * Websocket work the managed executor refuses runs in the calling thread, still holding a permit.
+     */
+    @Test
+    public void testExecute_RejectedWorkRunsHoldingPermit() throws Exception {
+        System.setProperty(BlockingWorkBean.PERMITS_PROPERTY, "1");
+        System.setProperty(BlockingWorkBean.MODE_PROPERTY, BlockingWorkBean.MANAGED);
+        blockingWorkBean.init();
+        doThrow(new RejectedExecutionException()).when(managedExecutor).execute(any(Runnable.class));
+
+        // The work can only see the single permit taken if it holds it
+        AtomicInteger heldByWork = new AtomicInteger(-1);
+        blockingWorkBean.execute(() -> heldByWork.set(availablePermits()));
+
+        assertEquals(0, heldByWork.get());
+        assertEquals(1, availablePermits());
+    }
+
+    private int availablePermits() {
+        try {
+            Field field = BlockingWorkBean.class.getDeclaredField("datasourcePermits");
+            field.setAccessible(true);
+            return ((Semaphore) field.get(blockingWorkBean)).availablePermits();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
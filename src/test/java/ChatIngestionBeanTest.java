@@ -0,0 +1,138 @@
+import domcast.finalprojbackend.bean.ChatIngestionBean;
+import domcast.finalprojbackend.bean.JsonSerializationBean;
+import domcast.finalprojbackend.bean.MessageBean;
+import domcast.finalprojbackend.dto.messageDto.ProjectMessage;
+import domcast.finalprojbackend.dto.userDto.MessageUser;
+import jakarta.ejb.TimerConfig;
+import jakarta.ejb.TimerService;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ChatIngestionBean.
+ */
+public class ChatIngestionBeanTest {
+
+    @InjectMocks
+    private ChatIngestionBean chatIngestionBean;
+
+    @Mock
+    private MessageBean messageBean;
+
+    @Mock
+    private JsonSerializationBean jsonSerializationBean;
+
+    @Mock
+    private TimerService timerService;
+
+    private MessageUser sender;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        sender = new MessageUser();
+        sender.setId(1);
+        when(messageBean.persistGroupMessages(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(jsonSerializationBean.writeProjectMessage(any(ProjectMessage.class))).thenReturn("{}");
+    }
+
+    /**
+     * Messages queued within the same window must schedule a single flush.
+     */
+    @Test
+    public void testEnqueue_SchedulesSingleFlush() {
+        chatIngestionBean.enqueue(1, sender, "first");
+        chatIngestionBean.enqueue(1, sender, "second");
+
+        verify(timerService, times(1)).createSingleActionTimer(anyLong(), any(TimerConfig.class));
+    }
+
+    /**
+     * Test case for failure scenario of enqueue method.
+     */
+    @Test
+    public void testEnqueue_Failure() {
+        assertThrows(IllegalArgumentException.class, () -> chatIngestionBean.enqueue(1, sender, " "));
+        assertThrows(IllegalArgumentException.class, () -> chatIngestionBean.enqueue(1, null, "content"));
+        verifyNoInteractions(timerService);
+    }
+
+    /**
+     * A flush must persist the queued messages in one batch and broadcast each one to its project.
+     */
+    @Test
+    public void testFlush_PersistsBatchAndBroadcasts() {
+        chatIngestionBean.enqueue(1, sender, "first");
+        chatIngestionBean.enqueue(2, sender, "second");
+
+        chatIngestionBean.flush(null);
+
+        verify(messageBean, times(1)).persistGroupMessages(argThat(list -> list.size() == 2));
+        verify(messageBean).sendToProject(eq(1), anyString());
+        verify(messageBean).sendToProject(eq(2), anyString());
+    }
+
+    /**
+     * When the batch fails, the messages must be persisted one by one and only the persisted ones broadcast.
+     */
+    @Test
+    public void testFlush_FallsBackToSingleMessages() {
+        when(messageBean.persistGroupMessages(anyList()))
+                .thenThrow(new PersistenceException())
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new PersistenceException());
+
+        chatIngestionBean.enqueue(1, sender, "first");
+        chatIngestionBean.enqueue(2, sender, "second");
+
+        chatIngestionBean.flush(null);
+
+        verify(messageBean, times(3)).persistGroupMessages(anyList());
+        verify(messageBean, times(1)).sendToProject(eq(1), anyString());
+        verify(messageBean, never()).sendToProject(eq(2), anyString());
+    }
+
+    /**
+     * A flush must allow the next queued message to schedule a new flush.
+     */
+    @Test
+    public void testFlush_AllowsNextSchedule() {
+        chatIngestionBean.enqueue(1, sender, "first");
+        chatIngestionBean.flush(null);
+        chatIngestionBean.enqueue(1, sender, "second");
+
+        verify(timerService, times(2)).createSingleActionTimer(anyLong(), any(TimerConfig.class));
+    }
+
+    /**
+     * A message queued while a flush drains must be drained by the same flush, without scheduling another one.
+     */
+    @Test
+    public void testFlush_DrainsMessagesQueuedWhileFlushing() {
+        when(messageBean.persistGroupMessages(anyList()))
+                .thenAnswer(invocation -> {
+                    chatIngestionBean.enqueue(2, sender, "second");
+                    return invocation.getArgument(0);
+                })
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        chatIngestionBean.enqueue(1, sender, "first");
+        chatIngestionBean.flush(null);
+
+        verify(timerService, times(1)).createSingleActionTimer(anyLong(), any(TimerConfig.class));
+        verify(messageBean, times(2)).persistGroupMessages(anyList());
+        verify(messageBean).sendToProject(eq(2), anyString());
+    }
+}
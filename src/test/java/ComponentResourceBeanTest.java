@@ -1,4 +1,5 @@
 import domcast.finalprojbackend.bean.ComponentResourceBean;
+import domcast.finalprojbackend.bean.TypeaheadBean;
 import domcast.finalprojbackend.bean.DataValidator;
 import domcast.finalprojbackend.dao.ComponentResourceDao;
 import domcast.finalprojbackend.dao.M2MComponentProjectDao;
@@ -28,6 +29,9 @@ public class ComponentResourceBeanTest {
     @InjectMocks
     private ComponentResourceBean componentResourceBean;
 
+    @Mock
+    private TypeaheadBean typeaheadBean;
+
     @Mock
     private DataValidator dataValidator;
 
@@ -0,0 +1,71 @@
+import domcast.finalprojbackend.bean.EntityTagBean;
+import domcast.finalprojbackend.dao.ProjectChangeDao;
+import domcast.finalprojbackend.dao.UserDao;
+import domcast.finalprojbackend.service.ConditionalGetFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for EntityTagBean and the If-None-Match comparison of the ConditionalGetFilter.
+ */
+public class EntityTagBeanTest {
+
+    @InjectMocks
+    private EntityTagBean entityTagBean;
+
+    @Mock
+    private ProjectChangeDao projectChangeDao;
+
+    @Mock
+    private UserDao userDao;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    /**
+     * The project tag changes with the change version and with the profiles of the users.
+     */
+    @Test
+    public void testProjectTag_ChangesWithVersions() {
+        when(projectChangeDao.findTagVersions(1)).thenReturn(new long[]{4, 7});
+        String before = entityTagBean.projectTag(1);
+
+        when(projectChangeDao.findTagVersions(1)).thenReturn(new long[]{4, 8});
+        String after = entityTagBean.projectTag(1);
+
+        assertEquals("p1-4-7", before);
+        assertNotEquals(before, after);
+    }
+
+    /**
+     * Entities that do not exist have no tag, so their reads are never answered with a 304.
+     */
+    @Test
+    public void testTags_NullWhenNotFound() {
+        when(projectChangeDao.findTagVersions(2)).thenReturn(null);
+        when(userDao.findProfileVersion(3)).thenReturn(-1L);
+
+        assertNull(entityTagBean.projectTag(2));
+        assertNull(entityTagBean.profileTag(3));
+    }
+
+    /**
+     * The tags sent back by the clients are compared weakly, in any position of the header.
+     */
+    @Test
+    public void testMatches_ComparesWeakly() {
+        assertTrue(ConditionalGetFilter.matches("W/\"u3-2\"", "u3-2"));
+        assertTrue(ConditionalGetFilter.matches("\"p1-0-0\", W/\"u3-2\"", "u3-2"));
+        assertTrue(ConditionalGetFilter.matches("*", "u3-2"));
+        assertFalse(ConditionalGetFilter.matches("W/\"u3-1\"", "u3-2"));
+        assertFalse(ConditionalGetFilter.matches(null, "u3-2"));
+    }
+}
@@ -0,0 +1,114 @@
+import domcast.finalprojbackend.bean.startup.IndexVerifier;
+import domcast.finalprojbackend.entity.*;
+import jakarta.persistence.Index;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for IndexVerifier.
+ * Checks, without a database, that the columns filtered by the hot named queries lead a declared index,
+ * so none of them needs a full scan once the schema is created from the entities.
+ */
+public class IndexVerifierTest {
+
+    private final Map<String, List<Index>> declaredIndexes = IndexVerifier.declaredIndexes(List.of(
+            ValidationTokenEntity.class,
+            SessionTokenEntity.class,
+            M2MProjectUser.class,
+            MessageEntity.class,
+            PersonalMessageEntity.class,
+            TaskEntity.class,
+            RecordEntity.class,
+            ComponentResourceEntity.class
+    ));
+
+    private void assertIndexed(String table, String... columns) {
+        List<Index> indexes = declaredIndexes.get(table);
+        assertNotNull(indexes, "No indexes declared on " + table);
+
+        List<String> expected = List.of(columns);
+        boolean covered = indexes.stream()
+                .map(IndexVerifier::columns)
+                .anyMatch(declared -> declared.size() >= expected.size() && declared.subList(0, expected.size()).equals(expected));
+
+        assertTrue(covered, "No index on " + table + " starts with " + expected);
+    }
+
+    /**
+     * SessionToken.findActiveSessionTokensByUserId filters by user and active flag.
+     */
+    @Test
+    public void testSessionTokensByUser_UsesIndex() {
+        assertIndexed("tokens", "user_id", "active");
+    }
+
+    /**
+     * SessionToken.findActiveSessionsExceededTimeout filters by active flag and last access.
+     */
+    @Test
+    public void testExpiredSessions_UsesIndex() {
+        assertIndexed("tokens", "active", "lastaccess");
+    }
+
+    /**
+     * SessionToken.findSignedTokensLoggedOutSince filters by logout time.
+     */
+    @Test
+    public void testLoggedOutSessions_UsesIndex() {
+        assertIndexed("tokens", "logout_time");
+    }
+
+    /**
+     * The project user queries filter by project and user, and then by the active and approved flags.
+     */
+    @Test
+    public void testProjectUser_UsesIndex() {
+        assertIndexed("project_user", "project_id", "user_id", "active", "approved");
+        assertIndexed("project_user", "project_id");
+    }
+
+    /**
+     * The personal message queries filter by receiver and read flag, ordered by timestamp.
+     */
+    @Test
+    public void testMessagesByReceiver_UsesIndex() {
+        assertIndexed("message", "receiveruserid", "read", "timestamp");
+    }
+
+    /**
+     * Task.findTaskByProjectId filters by project.
+     */
+    @Test
+    public void testTasksByProject_UsesIndex() {
+        assertIndexed("task", "project_id");
+    }
+
+    /**
+     * The record queries filter by project and timestamp.
+     */
+    @Test
+    public void testRecordsByProject_UsesIndex() {
+        assertIndexed("record", "project_id", "timestamp");
+    }
+
+    /**
+     * ComponentResource.findCREntityByNameAndBrand filters by name and brand.
+     */
+    @Test
+    public void testComponentResourceByNameAndBrand_UsesIndex() {
+        assertIndexed("component_resource", "name", "brand");
+    }
+
+    /**
+     * Index names must be unique across the schema.
+     */
+    @Test
+    public void testIndexNames_AreUnique() {
+        List<String> names = declaredIndexes.values().stream().flatMap(List::stream).map(Index::name).toList();
+        assertEquals(names.size(), names.stream().distinct().count());
+    }
+}
@@ -1,5 +1,7 @@
 import domcast.finalprojbackend.bean.DataValidator;
+import domcast.finalprojbackend.bean.TypeaheadBean;
 import domcast.finalprojbackend.bean.InterestBean;
+import domcast.finalprojbackend.bean.MatchingBean;
 import domcast.finalprojbackend.dao.InterestDao;
 import domcast.finalprojbackend.dao.UserDao;
 import domcast.finalprojbackend.dto.interestDto.InterestDto;
@@ -28,6 +30,9 @@ public class InterestBeanTest {
     @InjectMocks
     private InterestBean interestBean;
 
+    @Mock
+    private TypeaheadBean typeaheadBean;
+
     @Mock
     private InterestEntity interestEntity;
 
@@ -40,6 +45,9 @@ public class InterestBeanTest {
     @Mock
     private DataValidator dataValidator;
 
+    @Mock
+    private MatchingBean matchingBean;
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
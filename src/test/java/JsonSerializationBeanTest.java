@@ -0,0 +1,212 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import domcast.finalprojbackend.bean.JsonSerializationBean;
+import domcast.finalprojbackend.dto.messageDto.ProjectMessage;
+import domcast.finalprojbackend.dto.projectDto.ProjectPreview;
+import domcast.finalprojbackend.service.ObjectMapperContextResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Test class for JsonSerializationBean.
+ */
+public class JsonSerializationBeanTest {
+
+    private JsonSerializationBean jsonSerializationBean;
+
+    @BeforeEach
+    public void setup() {
+        jsonSerializationBean = new JsonSerializationBean();
+        jsonSerializationBean.init();
+    }
+
+    /**
+     * Test case for success scenario of writeProjectMessage method.
+     * Dates must be written as ISO strings, not as timestamps.
+     */
+    @Test
+    public void testWriteProjectMessage_Success() throws Exception {
+        ProjectMessage message = new ProjectMessage(1, "Hello", null, 2, LocalDateTime.of(2024, 5, 1, 10, 30));
+
+        String json = jsonSerializationBean.writeProjectMessage(message);
+
+        assertTrue(json.contains("\"content\":\"Hello\""));
+        assertTrue(json.contains("\"projectId\":2"));
+        assertTrue(json.contains("2024-05-01T10:30"));
+    }
+
+    /**
+     * Test case for success scenario of writeToPooledBuffer method.
+     * The pooled buffer must hold the same bytes as the String serialization.
+     */
+    @Test
+    public void testWriteToPooledBuffer_Success() throws Exception {
+        ProjectMessage message = new ProjectMessage(1, "Hello", null, 2, LocalDateTime.of(2024, 5, 1, 10, 30));
+
+        ByteBuffer buffer = jsonSerializationBean.writeToPooledBuffer(message);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+
+        assertEquals(jsonSerializationBean.writeProjectMessage(message), new String(bytes, StandardCharsets.UTF_8));
+        assertTrue(buffer.isReadOnly());
+    }
+
+    /**
+     * Test case for failure scenario of writeToPooledBuffer method.
+     */
+    @Test
+    public void testWriteToPooledBuffer_Failure() {
+        assertThrows(IllegalArgumentException.class, () -> jsonSerializationBean.writeToPooledBuffer(null));
+    }
+
+    /**
+     * The pooled buffer must be reset between consecutive calls on the same thread.
+     */
+    @Test
+    public void testWriteToPooledBuffer_ResetsBuffer() throws IOException {
+        ByteBuffer first = jsonSerializationBean.writeToPooledBuffer(new ProjectMessage(1, "a", null, 2, LocalDateTime.of(2024, 5, 1, 10, 30)));
+        int firstLength = first.remaining();
+        ByteBuffer second = jsonSerializationBean.writeToPooledBuffer(new ProjectMessage(1, "abc", null, 2, LocalDateTime.of(2024, 5, 1, 10, 30)));
+
+        assertEquals(firstLength + 2, second.remaining());
+    }
+
+    /**
+     * Measures the bytes allocated per message before and after the cached writers.
+     * Before, each message built its own object mapper, like the websockets did with new ObjectMapperContextResolver().
+     * After, the pre-built writer is reused, and the pooled buffer also skips the String.
+     */
+    @Test
+    public void testWriteProjectMessage_AllocationPerMessage() throws Exception {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        ProjectMessage message = new ProjectMessage(1, "Hello", null, 2, LocalDateTime.of(2024, 5, 1, 10, 30));
+
+        long before = allocatedPerMessage(threads, () -> {
+            ObjectMapper mapper = new ObjectMapper();
+            mapper.registerModule(new JavaTimeModule());
+            mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+            mapper.writeValueAsString(message);
+        });
+        long cached = allocatedPerMessage(threads, () -> jsonSerializationBean.writeProjectMessage(message));
+        long pooled = allocatedPerMessage(threads, () -> jsonSerializationBean.writeToPooledBuffer(message));
+
+        String measured = "Bytes per message: before " + before + ", cached writer " + cached + ", pooled buffer " + pooled;
+        assertTrue(cached * 10 < before, measured);
+        assertTrue(pooled * 10 < before, measured);
+    }
+
+    private interface Serialization {
+        void run() throws Exception;
+    }
+
+    /**
+     * Returns the average bytes the current thread allocates per run, measured after a warm up
+     */
+    private static long allocatedPerMessage(com.sun.management.ThreadMXBean threads, Serialization serialization) throws Exception {
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < 2_000; i++) {
+            serialization.run();
+        }
+
+        int iterations = 2_000;
+        long start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            serialization.run();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - start) / iterations;
+    }
+
+    /**
+     * A streamed list must hold the same JSON as the serialized list.
+     */
+    @Test
+    public void testStreamPages_Success() throws IOException {
+        List<ProjectMessage> messages = List.of(
+                new ProjectMessage(1, "Hello", null, 2, LocalDateTime.of(2024, 5, 1, 10, 30)),
+                new ProjectMessage(2, "World", null, 2, LocalDateTime.of(2024, 5, 1, 10, 31)));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        jsonSerializationBean.streamPages(ProjectMessage.class, messages, 100, last -> List.of()).write(output);
+
+        assertEquals(ObjectMapperContextResolver.sharedMapper().writeValueAsString(messages), output.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A streamed page must hold its plain fields and every chunk of its array.
+     */
+    @Test
+    public void testStreamObjectWithPages_Success() throws IOException {
+        List<ProjectPreview> firstChunk = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            ProjectPreview preview = new ProjectPreview();
+            preview.setId(i);
+            firstChunk.add(preview);
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        jsonSerializationBean.streamObjectWithPages(Map.of("totalProjects", 250L), "projects", ProjectPreview.class, firstChunk, 100, last -> {
+            List<ProjectPreview> chunk = new ArrayList<>();
+            for (int i = last.getId() + 1; i <= 150; i++) {
+                ProjectPreview preview = new ProjectPreview();
+                preview.setId(i);
+                chunk.add(preview);
+            }
+            return chunk;
+        }).write(output);
+
+        JsonNode page = ObjectMapperContextResolver.sharedMapper().readTree(output.toByteArray());
+        assertEquals(250, page.get("totalProjects").asLong());
+        assertEquals(150, page.get("projects").size());
+        assertEquals(150, page.get("projects").get(149).get("id").asInt());
+    }
+
+    /**
+     * A stream whose next page fails must not be closed into valid JSON, so the client sees the error.
+     */
+    @Test
+    public void testStreamPages_FailureLeavesBodyIncomplete() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThrows(IOException.class, () -> jsonSerializationBean.streamPages(String.class, List.of("first"), 1, last -> {
+            throw new IllegalStateException("Connection lost");
+        }).write(output));
+
+        assertFalse(output.toString(StandardCharsets.UTF_8).endsWith("]"));
+    }
+
+    /**
+     * A paged stream must write the first page, then read each next page after the last element, until one is not full.
+     */
+    @Test
+    public void testStreamPages_ReadsUntilPageNotFull() throws IOException {
+        List<Integer> afters = new ArrayList<>();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        jsonSerializationBean.streamPages(Integer.class, List.of(1, 2, 3), 3, last -> {
+            afters.add(last);
+            return last < 6 ? List.of(last + 1, last + 2, last + 3) : List.of(7);
+        }).write(output);
+
+        assertEquals("[1,2,3,4,5,6,7]", output.toString(StandardCharsets.UTF_8));
+        assertEquals(List.of(3, 6), afters);
+    }
+}
@@ -1,4 +1,5 @@
 import domcast.finalprojbackend.bean.InterestBean;
+import domcast.finalprojbackend.bean.TypeaheadBean;
 import domcast.finalprojbackend.bean.KeywordBean;
 import domcast.finalprojbackend.dao.KeywordDao;
 import domcast.finalprojbackend.dto.KeywordDto;
@@ -15,6 +16,9 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class KeywordBeanTest {
@@ -22,6 +26,9 @@ public class KeywordBeanTest {
     @InjectMocks
     KeywordBean keywordBean;
 
+    @Mock
+    private TypeaheadBean typeaheadBean;
+
     @Mock
     KeywordDao keywordDao;
 
@@ -49,6 +56,23 @@ public class KeywordBeanTest {
         assertFalse(result.isEmpty());
     }
 
+    /**
+     * Test case for createAndGetKeywords method: the keyword cache is only evicted when a keyword is created.
+     */
+    @Test
+    public void testCreateAndGetKeywords_EvictsCacheOnlyWhenCreated() {
+        Set<String> keywords = new HashSet<>();
+        keywords.add("test");
+
+        when(keywordDao.findKeywordByName("test")).thenReturn(new KeywordEntity());
+        keywordBean.createAndGetKeywords(keywords);
+        verify(keywordDao, never()).evictFromCache();
+
+        when(keywordDao.findKeywordByName("test")).thenReturn(null);
+        keywordBean.createAndGetKeywords(keywords);
+        verify(keywordDao, times(1)).evictFromCache();
+    }
+
     /**
      * Test case for failure scenario of createAndGetKeywords method.
      */
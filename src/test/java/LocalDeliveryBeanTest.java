@@ -0,0 +1,104 @@
+import domcast.finalprojbackend.bean.broadcast.LocalDeliveryBean;
+import domcast.finalprojbackend.dao.SessionTokenDao;
+import domcast.finalprojbackend.dto.messageDto.BroadcastMessage;
+import domcast.finalprojbackend.websocket.NotificationWS;
+import domcast.finalprojbackend.websocket.PersonalMessageWS;
+import domcast.finalprojbackend.websocket.ProjectMessageWS;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.HashMap;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for LocalDeliveryBean.
+ */
+public class LocalDeliveryBeanTest {
+
+    @InjectMocks
+    private LocalDeliveryBean localDeliveryBean;
+
+    @Mock
+    private PersonalMessageWS personalMessageWS;
+
+    @Mock
+    private ProjectMessageWS projectMessageWS;
+
+    @Mock
+    private NotificationWS notificationWS;
+
+    @Mock
+    private SessionTokenDao sessionTokenDao;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    /**
+     * A frame for a user must be delivered to the personal message sessions of that user.
+     */
+    @Test
+    public void testDeliver_User() {
+        localDeliveryBean.deliver(BroadcastMessage.toUser(1, "{}"));
+
+        verify(personalMessageWS).sendToUserSessions(1, "{}");
+        verifyNoInteractions(projectMessageWS, notificationWS);
+    }
+
+    /**
+     * A frame for a project must be delivered to the chat sessions of that project.
+     */
+    @Test
+    public void testDeliver_Project() {
+        localDeliveryBean.deliver(BroadcastMessage.toProject(2, "{}"));
+
+        verify(projectMessageWS).broadcastToProject(2, "{}");
+        verifyNoInteractions(personalMessageWS, notificationWS);
+    }
+
+    /**
+     * A notification for a user must only be sent to the tokens with a session open on this node.
+     */
+    @Test
+    public void testDeliver_UserNotifications_OnlyLocalSessions() {
+        HashMap<String, Session> sessions = new HashMap<>();
+        sessions.put("local", mock(Session.class));
+        when(notificationWS.getSessions()).thenReturn(sessions);
+        when(sessionTokenDao.findActiveSessionTokensByUserId(3)).thenReturn(List.of("local", "remote"));
+
+        localDeliveryBean.deliver(BroadcastMessage.toUserNotifications(3, NotificationWS.NOTIFICATION));
+
+        verify(notificationWS).send("local", NotificationWS.NOTIFICATION);
+        verify(notificationWS, never()).send("remote", NotificationWS.NOTIFICATION);
+    }
+
+    /**
+     * A logout must reach the notification session of its token, through the bus like any other frame.
+     */
+    @Test
+    public void testDeliver_SessionLogout() {
+        localDeliveryBean.deliver(BroadcastMessage.toSessionLogout("expired", NotificationWS.LOGOUT));
+
+        verify(notificationWS).logout("expired", NotificationWS.LOGOUT);
+        verifyNoInteractions(personalMessageWS, projectMessageWS);
+    }
+
+    /**
+     * A frame without payload must not be delivered.
+     */
+    @Test
+    public void testDeliver_InvalidMessage() {
+        localDeliveryBean.deliver(new BroadcastMessage(BroadcastMessage.Channel.USER, 1, null, null));
+
+        verify(personalMessageWS, never()).sendToUserSessions(anyInt(), anyString());
+    }
+}
@@ -0,0 +1,46 @@
+import domcast.finalprojbackend.bean.task.M2MTaskDependenciesBean;
+import domcast.finalprojbackend.dao.M2MTaskDependenciesDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for M2MTaskDependenciesBean.
+ */
+public class M2MTaskDependenciesBeanTest {
+
+    @InjectMocks
+    private M2MTaskDependenciesBean m2MTaskDependenciesBean;
+
+    @Mock
+    private M2MTaskDependenciesDao m2MTaskDependenciesDao;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    /**
+     * A task is removed from the graph with two statements, whatever its number of edges,
+     * relinking its neighbours before its edges are deleted.
+     */
+    @Test
+    public void testRemoveTaskFromGraph_RelinksThenDeletes() {
+        when(m2MTaskDependenciesDao.relinkAroundTask(7)).thenReturn(12);
+        when(m2MTaskDependenciesDao.deleteByTaskId(7)).thenReturn(40);
+
+        int deleted = m2MTaskDependenciesBean.removeTaskFromGraph(7);
+
+        assertEquals(40, deleted);
+        InOrder inOrder = inOrder(m2MTaskDependenciesDao);
+        inOrder.verify(m2MTaskDependenciesDao).relinkAroundTask(7);
+        inOrder.verify(m2MTaskDependenciesDao).deleteByTaskId(7);
+        verifyNoMoreInteractions(m2MTaskDependenciesDao);
+    }
+}
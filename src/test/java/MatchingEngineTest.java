@@ -0,0 +1,104 @@
+import domcast.finalprojbackend.bean.IdBitmap;
+import domcast.finalprojbackend.bean.MatchingEngine;
+import domcast.finalprojbackend.bean.MatchingIndex;
+import domcast.finalprojbackend.dto.MatchDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for MatchingEngine, the engine behind the MatchingBean, and the bitmaps and indexes it is built on.
+ */
+public class MatchingEngineTest {
+
+    /**
+     * A chunk must keep its ids whether it is held as an array or as a bitmap, in both directions.
+     */
+    @Test
+    public void testIdBitmap_ConvertsBetweenArrayAndBitmap() {
+        IdBitmap bitmap = IdBitmap.of(70000, 3, 1);
+        for (int id = 100; id < 5100; id++) {
+            bitmap.add(id);
+        }
+
+        assertEquals(5003, bitmap.cardinality());
+        assertFalse(bitmap.add(4000));
+        assertTrue(bitmap.contains(1) && bitmap.contains(5099) && bitmap.contains(70000));
+        assertFalse(bitmap.contains(2) || bitmap.contains(5100));
+
+        for (int id = 100; id < 5100; id++) {
+            assertTrue(bitmap.remove(id));
+        }
+
+        assertArrayEquals(new int[]{1, 3, 70000}, bitmap.toArray());
+        assertFalse(bitmap.remove(100));
+        assertFalse(bitmap.contains(-1));
+    }
+
+    /**
+     * Putting the attributes of an entity must replace the previous ones in every posting.
+     */
+    @Test
+    public void testMatchingIndex_PutReplacesAttributes() {
+        MatchingIndex index = new MatchingIndex();
+        index.put(1, List.of(10, 20));
+        index.put(2, List.of(20));
+        index.put(1, List.of(20, 30));
+
+        assertFalse(index.has(10, 1));
+        assertEquals(0, index.frequency(10));
+        assertEquals(2, index.frequency(20));
+        assertArrayEquals(new int[]{20, 30}, index.attributesOf(1));
+
+        index.remove(2);
+        assertEquals(1, index.size());
+        assertEquals(1, index.frequency(20));
+    }
+
+    /**
+     * Users must be ranked by shared skills, then shared interests, then the lab, leaving out the excluded and
+     * not eligible ones, and interests must match keywords ignoring the case.
+     */
+    @Test
+    public void testUsersMatchingProject_RanksAndFilters() {
+        MatchingEngine engine = new MatchingEngine();
+        engine.putProject(1, true, 2, List.of(10, 11), List.of("Robotics"));
+        engine.putUser(5, true, 0, List.of(10, 11), List.of());
+        engine.putUser(6, true, 2, List.of(10), List.of("robotics "));
+        engine.putUser(7, true, 1, List.of(10), List.of());
+        engine.putUser(8, false, 2, List.of(10, 11), List.of("Robotics"));
+        engine.putUser(9, true, 2, List.of(10, 11), List.of("Robotics"));
+
+        List<MatchDto> matches = engine.usersMatchingProject(1, Set.of(9), 10);
+
+        assertEquals(List.of(5, 6, 7), matches.stream().map(MatchDto::getId).toList());
+        assertEquals(2 * MatchingEngine.SKILL_WEIGHT, matches.get(0).getScore());
+        assertEquals(MatchingEngine.SKILL_WEIGHT + MatchingEngine.TERM_WEIGHT + MatchingEngine.LAB_WEIGHT, matches.get(1).getScore());
+        assertTrue(matches.get(1).isSameLab());
+        assertEquals(1, matches.get(1).getSharedInterests());
+
+        assertEquals(List.of(5), engine.usersMatchingProject(1, Set.of(9), 1).stream().map(MatchDto::getId).toList());
+    }
+
+    /**
+     * Only open projects must be suggested, and a project that closes must stop being suggested.
+     */
+    @Test
+    public void testProjectsMatchingUser_OnlyOpenProjects() {
+        MatchingEngine engine = new MatchingEngine();
+        engine.putUser(5, true, 1, List.of(10), List.of("IoT"));
+        engine.putProject(1, true, 1, List.of(10), List.of());
+        engine.putProject(2, true, 0, List.of(), List.of("iot"));
+        engine.putProject(3, false, 1, List.of(10), List.of("IoT"));
+
+        assertEquals(List.of(1, 2), engine.projectsMatchingUser(5, Set.of(), 10).stream().map(MatchDto::getId).toList());
+
+        engine.putProject(1, false, 1, List.of(10), List.of());
+
+        assertEquals(List.of(2), engine.projectsMatchingUser(5, Set.of(), 10).stream().map(MatchDto::getId).toList());
+        assertTrue(engine.usersMatchingProject(1, Set.of(), 10).isEmpty());
+    }
+}
@@ -0,0 +1,151 @@
+import domcast.finalprojbackend.bean.NotificationDispatcherBean;
+import domcast.finalprojbackend.bean.broadcast.BroadcastBean;
+import domcast.finalprojbackend.dao.NotificationOutboxDao;
+import domcast.finalprojbackend.dto.messageDto.BroadcastMessage;
+import domcast.finalprojbackend.entity.NotificationOutboxEntity;
+import jakarta.ejb.TimerConfig;
+import jakarta.ejb.TimerService;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for NotificationDispatcherBean.
+ */
+public class NotificationDispatcherBeanTest {
+
+    @InjectMocks
+    private NotificationDispatcherBean notificationDispatcherBean;
+
+    @Mock
+    private NotificationOutboxDao notificationOutboxDao;
+
+    @Mock
+    private BroadcastBean broadcastBean;
+
+    @Mock
+    private TimerService timerService;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionRegistry;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private NotificationOutboxEntity outboxEntry(long id, int receiverId) throws Exception {
+        NotificationOutboxEntity entry = new NotificationOutboxEntity();
+        Field idField = NotificationOutboxEntity.class.getDeclaredField("id");
+        idField.setAccessible(true);
+        idField.set(entry, id);
+        entry.setDedupId("dedup-" + id);
+        entry.setReceiverId(receiverId);
+        entry.setPayload("{}");
+        return entry;
+    }
+
+    /**
+     * Several notifications written before the timer expires must request a single timer.
+     */
+    @Test
+    public void testRequestDispatch_SchedulesSingleTimer() {
+        notificationDispatcherBean.requestDispatch();
+        notificationDispatcherBean.requestDispatch();
+
+        verify(timerService, times(1)).createSingleActionTimer(anyLong(), any(TimerConfig.class));
+    }
+
+    /**
+     * The pending notifications must be published and marked as dispatched in one update.
+     */
+    @Test
+    public void testDrain_PublishesAndMarksBatch() throws Exception {
+        when(notificationOutboxDao.claimPending(anyString(), anyInt(), anyLong(), anyInt()))
+                .thenReturn(new ArrayList<>(List.of(outboxEntry(1, 10), outboxEntry(2, 20))));
+
+        notificationDispatcherBean.onTimeout(null);
+
+        verify(broadcastBean, times(2)).publish(any(BroadcastMessage.class));
+        verify(notificationOutboxDao).markDispatched(List.of(1L, 2L));
+        verify(notificationOutboxDao).incrementAttempts(List.of());
+    }
+
+    /**
+     * A notification that fails to be published must stay pending, with one more failed attempt.
+     */
+    @Test
+    public void testDrain_CountsFailedAttempts() throws Exception {
+        when(notificationOutboxDao.claimPending(anyString(), anyInt(), anyLong(), anyInt()))
+                .thenReturn(new ArrayList<>(List.of(outboxEntry(1, 10), outboxEntry(2, 20))));
+        doNothing().doThrow(new IllegalArgumentException()).when(broadcastBean).publish(any(BroadcastMessage.class));
+
+        notificationDispatcherBean.sweep();
+
+        verify(notificationOutboxDao).markDispatched(List.of(1L));
+        verify(notificationOutboxDao).incrementAttempts(List.of(2L));
+    }
+
+    /**
+     * After a drain, a new notification must be able to request a new timer.
+     */
+    @Test
+    public void testDrain_AllowsNewRequest() {
+        when(notificationOutboxDao.claimPending(anyString(), anyInt(), anyLong(), anyInt())).thenReturn(new ArrayList<>());
+
+        notificationDispatcherBean.requestDispatch();
+        notificationDispatcherBean.onTimeout(null);
+        notificationDispatcherBean.requestDispatch();
+
+        verify(timerService, times(2)).createSingleActionTimer(anyLong(), any(TimerConfig.class));
+        verify(broadcastBean, never()).publish(any(BroadcastMessage.class));
+    }
+
+    /**
+     * If the workflow that requested a dispatch rolls back, its timer is never created, so a new request must create one.
+     */
+    @Test
+    public void testRequestDispatch_RolledBackRequestAllowsNewRequest() {
+        when(transactionRegistry.getTransactionKey()).thenReturn(new Object());
+
+        notificationDispatcherBean.requestDispatch();
+
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionRegistry).registerInterposedSynchronization(synchronization.capture());
+        synchronization.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+
+        notificationDispatcherBean.requestDispatch();
+
+        verify(timerService, times(2)).createSingleActionTimer(anyLong(), any(TimerConfig.class));
+    }
+
+    /**
+     * Each drain must claim its batch under the same node id, so other nodes skip the claimed notifications.
+     */
+    @Test
+    public void testDrain_ClaimsBatchesForThisNode() throws Exception {
+        when(notificationOutboxDao.claimPending(anyString(), anyInt(), anyLong(), anyInt()))
+                .thenReturn(new ArrayList<>(List.of(outboxEntry(1, 10))));
+
+        notificationDispatcherBean.sweep();
+        notificationDispatcherBean.sweep();
+
+        ArgumentCaptor<String> owner = ArgumentCaptor.forClass(String.class);
+        verify(notificationOutboxDao, times(2)).claimPending(owner.capture(), anyInt(), anyLong(), anyInt());
+        assertEquals(owner.getAllValues().get(0), owner.getAllValues().get(1));
+    }
+}
@@ -0,0 +1,86 @@
+import domcast.finalprojbackend.bean.broadcast.LocalDeliveryBean;
+import domcast.finalprojbackend.bean.broadcast.OutboxBroadcastBus;
+import domcast.finalprojbackend.dao.BroadcastOutboxDao;
+import domcast.finalprojbackend.dto.messageDto.BroadcastMessage;
+import domcast.finalprojbackend.entity.BroadcastOutboxEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for OutboxBroadcastBus.
+ */
+public class OutboxBroadcastBusTest {
+
+    @InjectMocks
+    private OutboxBroadcastBus outboxBroadcastBus;
+
+    @Mock
+    private BroadcastOutboxDao broadcastOutboxDao;
+
+    @Mock
+    private LocalDeliveryBean localDeliveryBean;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+
+        when(broadcastOutboxDao.findMaxId()).thenReturn(10L);
+        when(broadcastOutboxDao.findAfterId(anyLong(), anyInt())).thenReturn(new ArrayList<>());
+        when(broadcastOutboxDao.findByIds(anyCollection())).thenReturn(new ArrayList<>());
+        outboxBroadcastBus.activate();
+    }
+
+    private BroadcastOutboxEntity frame(long id) throws Exception {
+        BroadcastOutboxEntity frame = new BroadcastOutboxEntity();
+        Field idField = BroadcastOutboxEntity.class.getDeclaredField("id");
+        idField.setAccessible(true);
+        idField.set(frame, id);
+        frame.setChannel(BroadcastMessage.Channel.USER);
+        frame.setTargetId((int) id);
+        frame.setPayload("{}");
+        return frame;
+    }
+
+    /**
+     * A frame committed after a higher id was polled must still be delivered, once, however far behind it is.
+     */
+    @Test
+    public void testPoll_DeliversLateCommittedFrameOnce() throws Exception {
+        when(broadcastOutboxDao.findAfterId(10L, 500)).thenReturn(new ArrayList<>(List.of(frame(11), frame(300))));
+        outboxBroadcastBus.poll();
+
+        when(broadcastOutboxDao.findByIds(anyCollection())).thenReturn(new ArrayList<>(List.of(frame(12))));
+        outboxBroadcastBus.poll();
+        outboxBroadcastBus.poll();
+
+        ArgumentCaptor<BroadcastMessage> delivered = ArgumentCaptor.forClass(BroadcastMessage.class);
+        verify(localDeliveryBean, times(3)).deliver(delivered.capture());
+        assertEquals(List.of(11, 300, 12), delivered.getAllValues().stream().map(BroadcastMessage::getTargetId).toList());
+    }
+
+    /**
+     * Without gaps, the poll only reads the rows after the last one delivered.
+     */
+    @Test
+    public void testPoll_NoGapsNoLookup() throws Exception {
+        when(broadcastOutboxDao.findAfterId(10L, 500)).thenReturn(new ArrayList<>(List.of(frame(11), frame(12))));
+        outboxBroadcastBus.poll();
+        outboxBroadcastBus.poll();
+
+        verify(broadcastOutboxDao, never()).findByIds(anyCollection());
+        verify(broadcastOutboxDao).findAfterId(12L, 500);
+        verify(localDeliveryBean, times(2)).deliver(any(BroadcastMessage.class));
+    }
+}
@@ -0,0 +1,179 @@
+import domcast.finalprojbackend.bean.DataValidator;
+import domcast.finalprojbackend.bean.JsonSerializationBean;
+import domcast.finalprojbackend.bean.MessageBean;
+import domcast.finalprojbackend.bean.project.ProjectBean;
+import domcast.finalprojbackend.bean.project.ProjectVersionBean;
+import domcast.finalprojbackend.bean.task.PlanCsvReader;
+import domcast.finalprojbackend.bean.task.PlanImportBean;
+import domcast.finalprojbackend.bean.task.TaskBean;
+import domcast.finalprojbackend.dao.M2MProjectUserDao;
+import domcast.finalprojbackend.dao.ProjectDao;
+import domcast.finalprojbackend.dao.TaskDao;
+import domcast.finalprojbackend.dao.UserDao;
+import domcast.finalprojbackend.dto.taskDto.PlanTask;
+import domcast.finalprojbackend.entity.ProjectEntity;
+import domcast.finalprojbackend.entity.TaskEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for PlanImportBean and the PlanCsvReader.
+ */
+public class PlanImportBeanTest {
+
+    // Start of the tasks of the plans, a week from now so they are not in the past
+    private static final LocalDateTime START = LocalDate.now().plusDays(7).atStartOfDay();
+
+    @InjectMocks
+    private PlanImportBean planImportBean;
+
+    @Mock
+    private DataValidator dataValidator;
+
+    @Mock
+    private ProjectDao projectDao;
+
+    @Mock
+    private TaskDao taskDao;
+
+    @Mock
+    private UserDao userDao;
+
+    @Mock
+    private M2MProjectUserDao m2MProjectUserDao;
+
+    @Mock
+    private ProjectBean projectBean;
+
+    @Mock
+    private TaskBean taskBean;
+
+    @Mock
+    private MessageBean messageBean;
+
+    @Mock
+    private ProjectVersionBean projectVersionBean;
+
+    @Mock
+    private JsonSerializationBean jsonSerializationBean;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+
+        when(dataValidator.isIdValid(anyInt())).thenReturn(true);
+        when(projectDao.findProjectById(1)).thenReturn(new ProjectEntity());
+        when(m2MProjectUserDao.findActiveApprovedUserIds(1)).thenReturn(Set.of(5));
+        when(taskDao.findResponsiblesByTitles(eq(1), any())).thenReturn(Map.of());
+
+        TaskEntity presentationTask = new TaskEntity();
+        presentationTask.setProjectedStartDate(START.plusDays(30));
+        when(taskDao.findPresentationTaskInProject(1)).thenReturn(presentationTask);
+    }
+
+    /**
+     * The rows are read in any column order, with quoted fields holding separators and line breaks.
+     */
+    @Test
+    public void testCsvReader_QuotedFieldsAndLists() throws Exception {
+        String csv = "\uFEFFtitle,key,projectedStartDate,deadline,responsibleId,dependencies,description\n"
+                + "Design,d,2026-01-01,2026-01-10,5,,\"Sketch, then \"\"review\"\"\nand sign off\"\r\n"
+                + "Build,b,2026-01-10T09:00,2026-02-01,5,d; ,\n";
+
+        List<PlanTask> tasks = new ArrayList<>();
+        int count = PlanCsvReader.read(new StringReader(csv), tasks::add);
+
+        assertEquals(2, count);
+        assertEquals("Sketch, then \"review\"\nand sign off", tasks.get(0).getDescription());
+        assertEquals(LocalDateTime.of(2026, 1, 1, 0, 0), tasks.get(0).getProjectedStartDate());
+        assertEquals(LocalDateTime.of(2026, 1, 10, 9, 0), tasks.get(1).getProjectedStartDate());
+        assertEquals(Set.of("d"), tasks.get(1).getDependencies());
+        assertEquals(5, tasks.get(1).getResponsibleId());
+    }
+
+    /**
+     * The tasks come after their dependencies, and a cycle is reported with the tasks in it.
+     */
+    @Test
+    public void testOrderByDependencies_OrdersAndDetectsCycles() {
+        Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+        dependencies.put("c", Set.of("a", "b"));
+        dependencies.put("a", Set.of());
+        dependencies.put("b", Set.of("a"));
+
+        assertEquals(List.of("a", "b", "c"), PlanImportBean.orderByDependencies(dependencies));
+
+        dependencies.put("a", Set.of("c"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> PlanImportBean.orderByDependencies(dependencies));
+        assertTrue(e.getMessage().contains("cycle"));
+    }
+
+    /**
+     * A plan naming a task that is not in it is rejected before any task is persisted.
+     */
+    @Test
+    public void testImportPlan_UnknownDependency() {
+        PlanTask task = planTask("b", 5, "missing");
+
+        assertThrows(IllegalArgumentException.class, () -> planImportBean.importPlan(1, 5, List.of(task)));
+        verify(taskDao, never()).persist(any());
+        verifyNoInteractions(messageBean);
+    }
+
+    /**
+     * A plan giving a task to someone who is not an active member of the project is rejected.
+     */
+    @Test
+    public void testImportPlan_ResponsibleNotMember() {
+        PlanTask task = planTask("a", 9);
+
+        assertThrows(IllegalArgumentException.class, () -> planImportBean.importPlan(1, 5, List.of(task)));
+        verify(taskDao, never()).persist(any());
+    }
+
+    /**
+     * A plan task must follow the rules of a task created on its own: a description, a start that is not in the past,
+     * and a deadline before the presentation of the project.
+     */
+    @Test
+    public void testImportPlan_TaskMandatoryDataRules() {
+        PlanTask noDescription = planTask("a", 5);
+        noDescription.setDescription(" ");
+
+        PlanTask inThePast = planTask("a", 5);
+        inThePast.setProjectedStartDate(LocalDate.now().minusDays(1).atStartOfDay());
+
+        PlanTask afterPresentation = planTask("a", 5);
+        afterPresentation.setDeadline(START.plusDays(30));
+
+        for (PlanTask task : List.of(noDescription, inThePast, afterPresentation)) {
+            assertThrows(IllegalArgumentException.class, () -> planImportBean.importPlan(1, 5, List.of(task)));
+        }
+        verify(taskDao, never()).persist(any());
+    }
+
+    /**
+     * Builds a task of a plan, lasting one day
+    private static PlanTask planTask(String key, int responsibleId, String... dependencies) {
+        PlanTask task = new PlanTask();
+        task.setKey(key);
+        task.setTitle("Task " + key);
+        task.setDescription("Description of task " + key);
+        task.setProjectedStartDate(START);
+        task.setDeadline(START.plusDays(1));
+        task.setResponsibleId(responsibleId);
+        task.setDependencies(new HashSet<>(Arrays.asList(dependencies)));
+        return task;
+    }
+}
@@ -0,0 +1,82 @@
+import domcast.finalprojbackend.bean.PrefixIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PrefixIndex, the index behind the TypeaheadBean.
+ */
+public class PrefixIndexTest {
+
+    private final PrefixIndex index = PrefixIndex.of(List.of("Smart Home Hub", "Solar Tracker", "smartwatch", "Água Limpa", "Robot Arm"));
+
+    /**
+     * Names must be matched at their start ignoring case and accents, those before the ones matched at a word.
+     */
+    @Test
+    public void testComplete_MatchesStartThenWords() {
+        assertEquals(List.of("Smart Home Hub", "smartwatch"), index.complete("SMART", 10));
+        assertEquals(List.of("Água Limpa"), index.complete("agua", 10));
+        assertEquals(List.of("Smart Home Hub"), index.complete("home", 10));
+        assertEquals(List.of("Smart Home Hub", "smartwatch", "Solar Tracker"), index.complete("s", 10));
+        assertTrue(index.complete("xyz", 10).isEmpty());
+    }
+
+    /**
+     * The number of names returned must be capped by the limit.
+     */
+    @Test
+    public void testComplete_RespectsLimit() {
+        assertEquals(1, index.complete("s", 1).size());
+        assertTrue(index.complete("s", 0).isEmpty());
+        assertTrue(index.complete("   ", 10).isEmpty());
+    }
+
+    /**
+     * Added and removed names must be reflected by the new index, without changing the previous one.
+     */
+    @Test
+    public void testWithAndWithout_ReturnNewIndexes() {
+        PrefixIndex added = index.with("Robot Vacuum");
+        assertEquals(List.of("Robot Arm", "Robot Vacuum"), added.complete("robot", 10));
+        assertEquals(List.of("Robot Arm"), index.complete("robot", 10));
+
+        assertSame(added, added.with("robot vacuum"));
+
+        PrefixIndex removed = added.without("Robot Arm");
+        assertEquals(List.of("Robot Vacuum"), removed.complete("robot", 10));
+        assertEquals(5, removed.size());
+    }
+
+    /**
+     * Microbenchmark: a completion over 50 000 names must stay in microseconds.
+     */
+    @Test
+    public void testComplete_MicrosecondLatency() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            names.add("Project " + Integer.toString(i, 36) + " sensor network " + i);
+        }
+        PrefixIndex large = PrefixIndex.of(names);
+        String[] prefixes = {"proj", "project a", "sens", "network 12", "project 1z"};
+
+        // Warm up, so the measure is taken on compiled code
+        for (int i = 0; i < 200_000; i++) {
+            large.complete(prefixes[i % prefixes.length], 10);
+        }
+
+        int iterations = 200_000;
+        long found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            found += large.complete(prefixes[i % prefixes.length], 10).size();
+        }
+        double micros = (System.nanoTime() - start) / 1000.0 / iterations;
+
+        assertTrue(found > 0);
+        assertTrue(micros < 50, "Completion took " + micros + " us");
+    }
+}
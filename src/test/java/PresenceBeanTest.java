@@ -0,0 +1,78 @@
+import domcast.finalprojbackend.bean.PresenceBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PresenceBean.
+ */
+public class PresenceBeanTest {
+
+    private PresenceBean presenceBean;
+
+    @BeforeEach
+    public void setup() {
+        presenceBean = new PresenceBean();
+    }
+
+    /**
+     * Test case for success scenario of touch and isOnline methods.
+     */
+    @Test
+    public void testTouch_MarksUserOnline() {
+        presenceBean.touch(1);
+
+        assertTrue(presenceBean.isOnline(1));
+        assertFalse(presenceBean.isOnline(2));
+    }
+
+    /**
+     * Test case for remove method.
+     */
+    @Test
+    public void testRemove_MarksUserOffline() {
+        presenceBean.touch(1);
+        presenceBean.remove(1);
+
+        assertFalse(presenceBean.isOnline(1));
+    }
+
+    /**
+     * Test case for onlineUsers method, including null input.
+     */
+    @Test
+    public void testOnlineUsers() {
+        presenceBean.touch(1);
+        presenceBean.touch(3);
+
+        assertEquals(List.of(1, 3), presenceBean.onlineUsers(List.of(1, 2, 3)));
+        assertTrue(presenceBean.onlineUsers(null).isEmpty());
+    }
+
+    /**
+     * A typing state must only be reported once while it is alive, and separately per conversation.
+     */
+    @Test
+    public void testStartTyping_DeduplicatesWithinTtl() {
+        assertTrue(presenceBean.startTyping(1, "user:2"));
+        assertFalse(presenceBean.startTyping(1, "user:2"));
+        assertTrue(presenceBean.startTyping(1, "project:7"));
+    }
+
+    /**
+     * Purging must keep the states that are still alive.
+     */
+    @Test
+    public void testPurgeExpired_KeepsAliveStates() {
+        presenceBean.touch(1);
+        presenceBean.startTyping(1, "user:2");
+
+        presenceBean.purgeExpired();
+
+        assertTrue(presenceBean.isOnline(1));
+        assertFalse(presenceBean.startTyping(1, "user:2"));
+    }
+}
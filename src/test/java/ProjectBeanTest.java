@@ -2,6 +2,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import domcast.finalprojbackend.bean.*;
 import domcast.finalprojbackend.bean.project.ProjectBean;
+import domcast.finalprojbackend.bean.project.ProjectVersionBean;
 import domcast.finalprojbackend.bean.task.TaskBean;
 import domcast.finalprojbackend.bean.user.UserBean;
 import domcast.finalprojbackend.dao.*;
@@ -9,6 +10,7 @@ import domcast.finalprojbackend.dto.componentResourceDto.DetailedCR;
 import domcast.finalprojbackend.dto.projectDto.DetailedProject;
 import domcast.finalprojbackend.dto.projectDto.EditProject;
 import domcast.finalprojbackend.dto.projectDto.NewProjectDto;
+import domcast.finalprojbackend.dto.projectDto.ProjectChanges;
 import domcast.finalprojbackend.dto.projectDto.ProjectPreview;
 import domcast.finalprojbackend.dto.skillDto.SkillDto;
 import domcast.finalprojbackend.dto.taskDto.ChartTask;
@@ -17,8 +19,10 @@ import domcast.finalprojbackend.dto.userDto.ProjectUser;
 import domcast.finalprojbackend.entity.LabEntity;
 import domcast.finalprojbackend.entity.M2MProjectUser;
 import domcast.finalprojbackend.entity.ProjectEntity;
+import domcast.finalprojbackend.entity.TaskEntity;
 import domcast.finalprojbackend.entity.UserEntity;
 import domcast.finalprojbackend.enums.LabEnum;
+import domcast.finalprojbackend.enums.ProjectChangeKindEnum;
 import domcast.finalprojbackend.enums.ProjectStateEnum;
 import domcast.finalprojbackend.enums.ProjectUserEnum;
 import domcast.finalprojbackend.service.ObjectMapperContextResolver;
@@ -43,6 +47,9 @@ public class ProjectBeanTest {
     @InjectMocks
     private ProjectBean projectBean;
 
+    @Mock
+    private TypeaheadBean typeaheadBean;
+
     @Mock
     private ProjectDao projectDao;
 
@@ -94,6 +101,24 @@ public class ProjectBeanTest {
     @Mock
     private InputPart part;
 
+    @Mock
+    private ProjectVersionBean projectVersionBean;
+
+    @Mock
+    private ProjectChangeDao projectChangeDao;
+
+    @Mock
+    private TaskDao taskDao;
+
+    @Mock
+    private MessageBean messageBean;
+
+    @Mock
+    private PersonalMessageDao personalMessageDao;
+
+    @Mock
+    private MatchingBean matchingBean;
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
@@ -620,6 +645,23 @@ public class ProjectBeanTest {
         assertThrows(RuntimeException.class, () -> projectBean.getProjectsByCriteria(userId, name, lab, state, keyword, skill, orderBy, orderAsc, pageNumber, pageSize));
     }
 
+    /**
+     * Test for getProjectsByCriteriaChunk method: a chunk is read from its position in the whole result,
+     * and no chunk is read past the end of the page.
+     */
+    @Test
+    public void testGetProjectsByCriteriaChunk_StopsAtPageEnd() {
+        when(dataValidator.validateSearchCriteria(0, "name", 2, 250)).thenReturn(true);
+        when(dataValidator.isOrderByValidForProject("name")).thenReturn(true);
+        when(systemBean.getProjectMaxUsers()).thenReturn(10);
+        when(projectDao.getProjectPreviewsChunk(0, null, 0, 0, "", 0, 10, "name", true, 450, 50)).thenReturn(new ArrayList<>(List.of(new ProjectPreview())));
+
+        assertEquals(1, projectBean.getProjectsByCriteriaChunk(0, null, 0, 0, null, 0, "name", true, 2, 250, 200).size());
+        assertTrue(projectBean.getProjectsByCriteriaChunk(0, null, 0, 0, null, 0, "name", true, 2, 250, 250).isEmpty());
+
+        verify(projectDao, times(1)).getProjectPreviewsChunk(anyInt(), any(), anyInt(), anyInt(), any(), anyInt(), anyInt(), any(), anyBoolean(), anyInt(), anyInt());
+    }
+
     /**
      * Test for getProjectsByCriteria method when the criteria is successfully retrieved.
      * The test is expected to pass.
@@ -657,6 +699,36 @@ public class ProjectBeanTest {
         assertEquals(1, result.getProjectUsers().size());
     }
 
+    /**
+     * Test for findAllReadyProjects method when ready projects exist.
+     * The previews are projected and their teams fetched with one query for all of them.
+     */
+    @Test
+    public void testFindAllReadyProjects_AddsTeamsInOneQuery() {
+        // Arrange
+        ProjectPreview first = new ProjectPreview();
+        first.setId(1);
+        ProjectPreview second = new ProjectPreview();
+        second.setId(2);
+        when(projectDao.getReadyProjectPreviews()).thenReturn(new ArrayList<>(List.of(first, second)));
+
+        ProjectUser projectUser = new ProjectUser();
+        projectUser.setId(10);
+        Map<Integer, Set<ProjectUser>> teams = new HashMap<>();
+        teams.put(1, new HashSet<>(Set.of(projectUser)));
+        when(m2MProjectUserDao.findTeamsOfProjects(List.of(1, 2))).thenReturn(teams);
+
+        // Act
+        List<ProjectPreview> result = projectBean.findAllReadyProjects();
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(0).getProjectUsers().size());
+        assertNull(result.get(1).getProjectUsers());
+        verify(m2MProjectUserDao, times(1)).findTeamsOfProjects(anyCollection());
+        verify(m2MProjectUserDao, never()).getNumberOfActiveUsersInProject(anyInt());
+    }
+
     /**
      * Test for projectEntityToProjectPreview method when the ProjectEntity is null.
      * The test is expected to throw an IllegalArgumentException.
@@ -713,4 +785,157 @@ public class ProjectBeanTest {
         assertThrows(IllegalArgumentException.class, () -> projectBean.removeUserFromProject(projectId, userId, removed));
     }
 
-}
\ No newline at end of file
+    /**
+     * Test for getChangesSince method when the client is already at the current version.
+     * No change is looked up.
+     */
+    @Test
+    public void testGetChangesSince_UpToDate() {
+        when(dataValidator.isIdValid(1)).thenReturn(true);
+        when(projectChangeDao.findChangeVersion(1)).thenReturn(5L);
+
+        ProjectChanges result = projectBean.getChangesSince(1, 5);
+
+        assertEquals(5, result.getVersion());
+        assertFalse(result.isFullRefresh());
+        assertTrue(result.getChanged().isEmpty());
+        verify(projectChangeDao, never()).findChangesSince(anyInt(), anyLong());
+    }
+
+    /**
+     * Test for getChangesSince method when the changes since the version were purged.
+     * A full refresh is expected.
+     */
+    @Test
+    public void testGetChangesSince_PurgedNeedsFullRefresh() {
+        when(dataValidator.isIdValid(1)).thenReturn(true);
+        when(projectChangeDao.findChangeVersion(1)).thenReturn(9L);
+        when(projectChangeDao.findOldestVersion(1)).thenReturn(6L);
+
+        ProjectChanges result = projectBean.getChangesSince(1, 3);
+
+        assertTrue(result.isFullRefresh());
+        verify(projectChangeDao, never()).findChangesSince(anyInt(), anyLong());
+    }
+
+    /**
+     * Test for getChangesSince method when a task changed and another was deleted.
+     * The changed task is returned and the deleted one by id.
+     */
+    @Test
+    public void testGetChangesSince_ChangedAndDeletedTasks() {
+        when(dataValidator.isIdValid(1)).thenReturn(true);
+        when(projectChangeDao.findChangeVersion(1)).thenReturn(4L);
+        when(projectChangeDao.findOldestVersion(1)).thenReturn(1L);
+        Map<ProjectChangeKindEnum, Set<Integer>> changed = new EnumMap<>(ProjectChangeKindEnum.class);
+        changed.put(ProjectChangeKindEnum.TASK, new HashSet<>(Set.of(10, 11)));
+        when(projectChangeDao.findChangesSince(1, 2)).thenReturn(changed);
+
+        TaskEntity task = new TaskEntity();
+        task.setId(10);
+        task.setActive(true);
+        ChartTask chartTask = new ChartTask();
+        when(taskDao.findTasksByIdsAndProjectId(changed.get(ProjectChangeKindEnum.TASK), 1)).thenReturn(List.of(task));
+        when(taskBean.entityToChartTask(task)).thenReturn(chartTask);
+
+        ProjectChanges result = projectBean.getChangesSince(1, 2);
+
+        assertFalse(result.isFullRefresh());
+        assertEquals(Set.of("task"), result.getChanged());
+        assertEquals(Set.of(chartTask), result.getTasks());
+        assertEquals(Set.of(11), result.getRemovedTasks());
+    }
+
+    /**
+     * Test for answerApplications method when more applicants are accepted than the places left.
+     * No application is answered.
+     */
+    @Test
+    public void testAnswerApplications_NotEnoughPlaces() {
+        when(dataValidator.isIdValid(1)).thenReturn(true);
+        when(projectDao.findProjectById(1)).thenReturn(new ProjectEntity());
+        when(m2MProjectUserDao.findProjectUsersByUserIds(eq(1), any())).thenReturn(List.of(applicant(2), applicant(3)));
+        when(dataValidator.remainingPlacesInProject(1)).thenReturn(1);
+
+        assertThrows(IllegalArgumentException.class, () -> projectBean.answerApplications(1, Set.of(2, 3), Set.of()));
+        verify(m2MProjectUserDao, never()).removePendingProjectUsers(any(), anyInt());
+        verifyNoInteractions(messageBean);
+    }
+
+    /**
+     * Test for answerApplications method accepting and rejecting applicants at once.
+     * The capacity is checked once, the rejected applicants are removed with one statement,
+     * and each applicant gets a single notification.
+     */
+    @Test
+    public void testAnswerApplications_AcceptsAndRejectsInOneBatch() {
+        M2MProjectUser accepted = applicant(2);
+        M2MProjectUser rejected = applicant(3);
+        when(dataValidator.isIdValid(1)).thenReturn(true);
+        when(projectDao.findProjectById(1)).thenReturn(new ProjectEntity());
+        when(m2MProjectUserDao.findProjectUsersByUserIds(eq(1), any())).thenReturn(List.of(accepted, rejected));
+        when(dataValidator.remainingPlacesInProject(1)).thenReturn(5);
+
+        int answered = projectBean.answerApplications(1, Set.of(2), Set.of(3));
+
+        assertEquals(2, answered);
+        assertTrue(accepted.isActive());
+        assertEquals(ProjectUserEnum.PARTICIPANT, accepted.getRole());
+        assertFalse(rejected.isActive());
+        verify(dataValidator, times(1)).remainingPlacesInProject(1);
+        verify(m2MProjectUserDao).removePendingProjectUsers(Set.of(3), 1);
+        verify(personalMessageDao).setInvitedToNullForReceivers(Set.of(2, 3), 1);
+        verify(messageBean).sendMessageToProjectUsers(eq(Set.of(accepted)), any(), eq("APPLICATION_ACCEPTED"), any(), anyInt(), any(), isNull());
+        verify(messageBean).sendMessageToProjectUsers(eq(Set.of(rejected)), any(), eq("APPLICATION_REJECTED"), any(), anyInt(), any(), isNull());
+    }
+
+    /**
+     * Test for answerApplications method when one of the users was invited instead of applying.
+     * A manager cannot accept an invitation on behalf of the invited user, so nothing is answered.
+     */
+    @Test
+    public void testAnswerApplications_InvitationIsNotAnApplication() {
+        M2MProjectUser invited = applicant(2);
+        invited.setInvited(true);
+        when(dataValidator.isIdValid(1)).thenReturn(true);
+        when(projectDao.findProjectById(1)).thenReturn(new ProjectEntity());
+        when(m2MProjectUserDao.findProjectUsersByUserIds(eq(1), any())).thenReturn(List.of(invited, applicant(3)));
+        when(dataValidator.remainingPlacesInProject(1)).thenReturn(5);
+
+        assertThrows(IllegalArgumentException.class, () -> projectBean.answerApplications(1, Set.of(2, 3), Set.of()));
+        assertFalse(invited.isActive());
+        verify(m2MProjectUserDao, never()).removePendingProjectUsers(any(), anyInt());
+        verifyNoInteractions(messageBean);
+    }
+
+    /**
+     * Test for inviteUsersToProject method when one of the users is already a member.
+     * No user is invited.
+     */
+    @Test
+    public void testInviteUsersToProject_AlreadyMember() {
+        M2MProjectUser member = applicant(2);
+        member.setActive(true);
+        when(dataValidator.isIdValid(anyInt())).thenReturn(true);
+        when(projectDao.findProjectById(1)).thenReturn(new ProjectEntity());
+        when(dataValidator.availablePlacesInProject(1)).thenReturn(true);
+        when(m2MProjectUserDao.findProjectUsersByUserIds(eq(1), any())).thenReturn(List.of(member));
+
+        assertThrows(IllegalArgumentException.class, () -> projectBean.inviteUsersToProject(1, Set.of(2, 3), ProjectUserEnum.PARTICIPANT.getId(), 9));
+        verify(m2MProjectUserDao, never()).persist(any());
+        verifyNoInteractions(messageBean);
+    }
+
+    /**
+     * Builds a pending application of a user
+     */
+    private static M2MProjectUser applicant(int userId) {
+        UserEntity user = new UserEntity();
+        user.setId(userId);
+        M2MProjectUser projectUser = new M2MProjectUser();
+        projectUser.setUser(user);
+        projectUser.setRole(ProjectUserEnum.CANDIDATE);
+        projectUser.setActive(false);
+        return projectUser;
+    }
+}
@@ -0,0 +1,188 @@
+import domcast.finalprojbackend.bean.*;
+import domcast.finalprojbackend.bean.project.ProjectEditBean;
+import domcast.finalprojbackend.bean.project.ProjectVersionBean;
+import domcast.finalprojbackend.bean.project.RelationDiff;
+import domcast.finalprojbackend.dao.*;
+import domcast.finalprojbackend.dto.componentResourceDto.CRQuantity;
+import domcast.finalprojbackend.dto.projectDto.EditProject;
+import domcast.finalprojbackend.dto.projectDto.ProjectDelta;
+import domcast.finalprojbackend.entity.ProjectEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ProjectEditBean and RelationDiff.
+ */
+public class ProjectEditBeanTest {
+
+    @InjectMocks
+    private ProjectEditBean projectEditBean;
+
+    @Mock
+    private ProjectDao projectDao;
+
+    @Mock
+    private DataValidator dataValidator;
+
+    @Mock
+    private LabDao labDao;
+
+    @Mock
+    private SkillBean skillBean;
+
+    @Mock
+    private KeywordBean keywordBean;
+
+    @Mock
+    private ComponentResourceBean componentResourceBean;
+
+    @Mock
+    private TypeaheadBean typeaheadBean;
+
+    @Mock
+    private M2MProjectSkillDao m2MProjectSkillDao;
+
+    @Mock
+    private M2MKeywordDao m2MKeywordDao;
+
+    @Mock
+    private M2MComponentProjectDao m2MComponentProjectDao;
+
+    @Mock
+    private ProjectVersionBean projectVersionBean;
+
+    @Mock
+    private MatchingBean matchingBean;
+
+    private ProjectEntity projectEntity;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+
+        projectEntity = new ProjectEntity();
+        projectEntity.setId(1);
+        projectEntity.setName("Project");
+        projectEntity.setDescription("Description");
+
+        when(dataValidator.isIdValid(1)).thenReturn(true);
+        when(projectDao.findProjectById(1)).thenReturn(projectEntity);
+    }
+
+    /**
+     * The relations requested are inserted, reactivated, changed or removed depending on the current ones.
+     */
+    @Test
+    public void testRelationDiff_ClassifiesRelations() {
+        Map<Integer, Integer> active = Map.of(1, 2, 2, 1, 3, 5);
+        Set<Integer> inactive = Set.of(4);
+        Map<Integer, Integer> requested = Map.of(1, 2, 2, 3, 4, 1, 5, 3);
+
+        RelationDiff<Integer> diff = RelationDiff.of(active, inactive, requested);
+
+        assertEquals(Map.of(5, 3), diff.getInserted());
+        assertEquals(Map.of(4, 1), diff.getReactivated());
+        assertEquals(Map.of(2, 3), diff.getChanged());
+        assertEquals(Set.of(3), diff.getRemoved());
+        assertEquals(Map.of(3, Set.of(2, 5)), RelationDiff.byQuantity(Map.of(2, 3, 5, 3)));
+    }
+
+    /**
+     * Requesting the current relations computes no difference.
+     */
+    @Test
+    public void testRelationDiff_EmptyWhenUnchanged() {
+        RelationDiff<String> diff = RelationDiff.of(Map.of("java", true, "old", false), Set.of("java"));
+
+        assertTrue(diff.isEmpty());
+    }
+
+    /**
+     * Editing only the description writes no relation and returns only the description.
+     */
+    @Test
+    public void testEditProject_OnlyChangedFields() {
+        EditProject editProject = new EditProject();
+        editProject.setName("Project");
+        editProject.setDescription("New description");
+
+        ProjectDelta delta = projectEditBean.editProject(editProject, 1, null, null);
+
+        assertEquals(Set.of("description"), delta.getChangedFields());
+        assertEquals("New description", projectEntity.getDescription());
+        assertNull(delta.getName());
+        verify(typeaheadBean, never()).rename(any(), anyString(), anyString());
+        verifyNoInteractions(m2MProjectSkillDao, m2MKeywordDao, m2MComponentProjectDao);
+        verify(projectDao, never()).merge(any());
+    }
+
+    /**
+     * Skills are inserted, reactivated and removed with one statement each.
+     */
+    @Test
+    public void testEditProject_UpdatesSkillsByDifference() {
+        Map<Integer, Boolean> states = new HashMap<>();
+        states.put(1, true);
+        states.put(2, true);
+        states.put(3, false);
+        when(m2MProjectSkillDao.findSkillStatesForProject(1)).thenReturn(states);
+
+        EditProject editProject = new EditProject();
+        editProject.setSkills(Set.of(1, 3, 4));
+
+        ProjectDelta delta = projectEditBean.editProject(editProject, 1, null, null);
+
+        verify(m2MProjectSkillDao).insertSkillsForProject(1, Set.of(4));
+        verify(m2MProjectSkillDao).setSkillsActiveForProject(1, Set.of(3), true);
+        verify(m2MProjectSkillDao).setSkillsActiveForProject(1, Set.of(2), false);
+        assertEquals(Set.of(3, 4), delta.getAddedSkills());
+        assertEquals(Set.of(2), delta.getRemovedSkills());
+    }
+
+    /**
+     * Component resources with the same new quantity are written in a single statement.
+     */
+    @Test
+    public void testEditProject_GroupsResourcesByQuantity() {
+        doAnswer(invocation -> {
+            Map<Integer, Integer> active = invocation.getArgument(1);
+            Set<Integer> inactive = invocation.getArgument(2);
+            active.put(1, 1);
+            active.put(2, 1);
+            active.put(3, 4);
+            inactive.add(5);
+            return null;
+        }).when(m2MComponentProjectDao).findComponentStatesByProjectId(eq(1), anyMap(), anySet());
+
+        EditProject editProject = new EditProject();
+        editProject.setResources(Set.of(new CRQuantity(1, 1), new CRQuantity(2, 2), new CRQuantity(5, 2), new CRQuantity(6, 2)));
+
+        ProjectDelta delta = projectEditBean.editProject(editProject, 1, null, null);
+
+        verify(m2MComponentProjectDao).insertForProject(1, Set.of(6), 2);
+        verify(m2MComponentProjectDao).setActiveWithQuantityByComponentIdsAndProjectId(1, Set.of(2, 5), 2);
+        verify(m2MComponentProjectDao).setInactiveByComponentIdsAndProjectId(1, Set.of(3));
+        assertEquals(Set.of(3), delta.getRemovedResources());
+        assertEquals(1, delta.getChangedResources().size());
+    }
+
+    /**
+     * An unknown project is rejected before anything is written.
+     */
+    @Test
+    public void testEditProject_ProjectNotFound() {
+        when(projectDao.findProjectById(1)).thenReturn(null);
+
+        assertThrows(IllegalArgumentException.class, () -> projectEditBean.editProject(new EditProject(), 1, null, null));
+        verifyNoInteractions(m2MProjectSkillDao, m2MKeywordDao, m2MComponentProjectDao);
+    }
+}
@@ -0,0 +1,129 @@
+import domcast.finalprojbackend.bean.AuthenticationAndAuthorization;
+import domcast.finalprojbackend.bean.ChatIngestionBean;
+import domcast.finalprojbackend.bean.DataValidator;
+import domcast.finalprojbackend.bean.user.TokenBean;
+import domcast.finalprojbackend.bean.user.UserBean;
+import domcast.finalprojbackend.dao.ProjectDao;
+import domcast.finalprojbackend.dto.userDto.MessageUser;
+import domcast.finalprojbackend.entity.ProjectEntity;
+import domcast.finalprojbackend.entity.UserEntity;
+import domcast.finalprojbackend.websocket.ProjectMessageWS;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ProjectMessageWS.
+ */
+public class ProjectMessageWSTest {
+
+    @InjectMocks
+    private ProjectMessageWS projectMessageWS;
+
+    @Mock
+    private UserBean userBean;
+
+    @Mock
+    private TokenBean tokenBean;
+
+    @Mock
+    private ProjectDao projectDao;
+
+    @Mock
+    private DataValidator dataValidator;
+
+    @Mock
+    private ChatIngestionBean chatIngestionBean;
+
+    @Mock
+    private AuthenticationAndAuthorization authenticationAndAuthorization;
+
+    private MessageUser sender;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        sender = new MessageUser();
+        sender.setId(1);
+
+        when(dataValidator.isTokenValidForWebSocket(eq("token"), any())).thenReturn(true);
+        when(tokenBean.findUserByToken("token")).thenReturn(new UserEntity());
+        when(projectDao.findProjectById(anyInt())).thenReturn(new ProjectEntity());
+        when(userBean.entityToMessageUser(any(UserEntity.class))).thenReturn(sender);
+    }
+
+    private Session session(int projectId) {
+        Session session = mock(Session.class);
+        when(session.getUserProperties()).thenReturn(new HashMap<>());
+        when(session.getPathParameters()).thenReturn(Map.of("token", "token", "projectId", String.valueOf(projectId)));
+        when(session.getBasicRemote()).thenReturn(mock(RemoteEndpoint.Basic.class));
+        return session;
+    }
+
+    /**
+     * With one token in the chats of two projects, a message for one project must only reach that project's chat.
+     */
+    @Test
+    public void testBroadcastToProject_SameTokenInTwoProjects() throws Exception {
+        Session projectA = session(1);
+        Session projectB = session(2);
+        projectMessageWS.toDoOnOpen(projectA, "token", 1);
+        projectMessageWS.toDoOnOpen(projectB, "token", 2);
+
+        projectMessageWS.broadcastToProject(1, "for A");
+
+        verify(projectA.getBasicRemote()).sendText("for A");
+        verify(projectB.getBasicRemote(), never()).sendText(anyString());
+    }
+
+    /**
+     * The token and the membership of the sender are checked once per TTL, not for every line.
+     */
+    @Test
+    public void testOnMessage_SenderCheckedOncePerTtl() {
+        Session session = session(1);
+        projectMessageWS.toDoOnOpen(session, "token", 1);
+
+        projectMessageWS.toDoOnMessage(session, "{\"content\":\"one\"}");
+        verifyNoInteractions(authenticationAndAuthorization);
+
+        // Once the check expires it is repeated, and then trusted again
+        session.getUserProperties().put(ProjectMessageWS.ALLOWED_UNTIL_PROPERTY, 0L);
+        when(authenticationAndAuthorization.isTokenActiveAndFromUserId("token", 1)).thenReturn(true);
+        when(authenticationAndAuthorization.isUserMemberOfTheProjectAndActive(1, 1)).thenReturn(true);
+
+        projectMessageWS.toDoOnMessage(session, "{\"content\":\"two\"}");
+        projectMessageWS.toDoOnMessage(session, "{\"content\":\"three\"}");
+
+        verify(authenticationAndAuthorization, times(1)).isUserMemberOfTheProjectAndActive(1, 1);
+        verify(chatIngestionBean, times(3)).enqueue(eq(1), eq(sender), anyString());
+    }
+
+    /**
+     * A sender no longer allowed has the session closed and the line dropped.
+     */
+    @Test
+    public void testOnMessage_SenderNoLongerAllowed() throws Exception {
+        Session session = session(1);
+        projectMessageWS.toDoOnOpen(session, "token", 1);
+        session.getUserProperties().put(ProjectMessageWS.ALLOWED_UNTIL_PROPERTY, 0L);
+        when(authenticationAndAuthorization.isTokenActiveAndFromUserId("token", 1)).thenReturn(true);
+        when(authenticationAndAuthorization.isUserMemberOfTheProjectAndActive(1, 1)).thenReturn(false);
+
+        projectMessageWS.toDoOnMessage(session, "{\"content\":\"one\"}");
+
+        verify(session).close(any());
+        verifyNoInteractions(chatIngestionBean);
+    }
+}
@@ -0,0 +1,127 @@
+import domcast.finalprojbackend.bean.JsonSerializationBean;
+import domcast.finalprojbackend.bean.broadcast.BroadcastBean;
+import domcast.finalprojbackend.bean.project.ProjectVersionBean;
+import domcast.finalprojbackend.dao.ProjectChangeDao;
+import domcast.finalprojbackend.dto.messageDto.BroadcastMessage;
+import domcast.finalprojbackend.dto.messageDto.RealtimeEvent;
+import domcast.finalprojbackend.enums.ProjectChangeKindEnum;
+import jakarta.ejb.SessionContext;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ProjectVersionBean.
+ */
+public class ProjectVersionBeanTest {
+
+    @InjectMocks
+    private ProjectVersionBean projectVersionBean;
+
+    @Mock
+    private ProjectChangeDao projectChangeDao;
+
+    @Mock
+    private BroadcastBean broadcastBean;
+
+    @Mock
+    private JsonSerializationBean jsonSerializationBean;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionRegistry;
+
+    @Mock
+    private SessionContext sessionContext;
+
+    private Map<Object, Object> resources;
+    private List<Synchronization> synchronizations;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        resources = new HashMap<>();
+        synchronizations = new ArrayList<>();
+        when(transactionRegistry.getResource(any())).thenAnswer(invocation -> resources.get(invocation.getArgument(0)));
+        doAnswer(invocation -> resources.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(transactionRegistry).putResource(any(), any());
+        doAnswer(invocation -> synchronizations.add(invocation.getArgument(0)))
+                .when(transactionRegistry).registerInterposedSynchronization(any());
+        when(jsonSerializationBean.writeRealtimeEvent(any(RealtimeEvent.class))).thenReturn("{}");
+        when(sessionContext.getBusinessObject(ProjectVersionBean.class)).thenReturn(projectVersionBean);
+    }
+
+    /**
+     * The changes of a transaction share one version, increased once.
+     */
+    @Test
+    public void testRecordChange_OneVersionPerTransaction() {
+        when(projectChangeDao.incrementChangeVersion(1)).thenReturn(7L);
+
+        long first = projectVersionBean.recordChange(1, ProjectChangeKindEnum.INFO);
+        long second = projectVersionBean.recordChange(1, ProjectChangeKindEnum.TASK, 3);
+
+        assertEquals(7, first);
+        assertEquals(7, second);
+        verify(projectChangeDao, times(1)).incrementChangeVersion(1);
+        verify(projectChangeDao).persistChanges(1, 7, ProjectChangeKindEnum.INFO, List.of(0));
+        verify(projectChangeDao).persistChanges(1, 7, ProjectChangeKindEnum.TASK, List.of(3));
+        assertEquals(1, synchronizations.size());
+    }
+
+    /**
+     * The version hint is sent to the project only once the transaction has committed.
+     */
+    @Test
+    public void testRecordChange_SendsHintAfterCommit() throws Exception {
+        when(projectChangeDao.incrementChangeVersion(2)).thenReturn(4L);
+
+        projectVersionBean.recordChange(2, ProjectChangeKindEnum.MEMBER, 5);
+        synchronizations.get(0).beforeCompletion();
+        verifyNoInteractions(broadcastBean);
+
+        synchronizations.get(0).afterCompletion(Status.STATUS_COMMITTED);
+
+        ArgumentCaptor<RealtimeEvent> event = ArgumentCaptor.forClass(RealtimeEvent.class);
+        verify(jsonSerializationBean).writeRealtimeEvent(event.capture());
+        assertEquals(RealtimeEvent.VERSION, event.getValue().getType());
+        assertEquals(2, event.getValue().getProjectId());
+        assertEquals(4, event.getValue().getVersion());
+        verify(broadcastBean).publish(any(BroadcastMessage.class));
+    }
+
+    /**
+     * A rolled back transaction never announces its version.
+     */
+    @Test
+    public void testRecordChange_NoHintAfterRollback() {
+        when(projectChangeDao.incrementChangeVersion(2)).thenReturn(4L);
+
+        projectVersionBean.recordChange(2, ProjectChangeKindEnum.MEMBER, 5);
+        synchronizations.get(0).beforeCompletion();
+        synchronizations.get(0).afterCompletion(Status.STATUS_ROLLEDBACK);
+
+        verifyNoInteractions(broadcastBean);
+    }
+
+    /**
+     * Recording no entities leaves the version unchanged.
+     */
+    @Test
+    public void testRecordChanges_EmptyDoesNothing() {
+        assertEquals(-1, projectVersionBean.recordChanges(1, ProjectChangeKindEnum.TASK, Set.of()));
+        verifyNoInteractions(projectChangeDao, transactionRegistry);
+    }
+}
@@ -0,0 +1,133 @@
+import domcast.finalprojbackend.bean.AuthenticationAndAuthorization;
+import domcast.finalprojbackend.service.RateLimit;
+import domcast.finalprojbackend.service.RateLimitFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for RateLimitFilter.
+ */
+public class RateLimitFilterTest {
+
+    @Path("/rate-limit-test")
+    public static class TestResource {
+
+        @GET
+        @Path("strict")
+        @RateLimit(requests = 1, seconds = 60)
+        public void strict() {
+        }
+
+        @GET
+        @Path("loose")
+        @RateLimit(requests = 1_000_000, seconds = 1)
+        public void loose() {
+        }
+    }
+
+    @InjectMocks
+    private RateLimitFilter rateLimitFilter;
+
+    @Mock
+    private AuthenticationAndAuthorization authenticationAndAuthorization;
+
+    // Stub only, so the benchmark does not record every call
+    @Mock(stubOnly = true)
+    private ResourceInfo resourceInfo;
+
+    @Mock(stubOnly = true)
+    private HttpServletRequest request;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        doReturn(TestResource.class).when(resourceInfo).getResourceClass();
+    }
+
+    private ContainerRequestContext requestWithToken(String token) {
+        ContainerRequestContext requestContext = mock(ContainerRequestContext.class);
+        when(requestContext.getHeaderString("token")).thenReturn(token);
+        return requestContext;
+    }
+
+    /**
+     * Made-up tokens are charged to the IP bucket before they are checked,
+     * so once the IP is throttled they no longer reach the token check.
+     */
+    @Test
+    public void testFilter_ThrottledIpSkipsTokenCheck() throws Exception {
+        when(resourceInfo.getResourceMethod()).thenReturn(TestResource.class.getMethod("strict"));
+        when(request.getRemoteAddr()).thenReturn("10.0.0.1");
+        when(authenticationAndAuthorization.isSessionTokenActive(anyString())).thenReturn(false);
+
+        ContainerRequestContext first = requestWithToken(UUID.randomUUID().toString());
+        rateLimitFilter.filter(first);
+        verify(first, never()).abortWith(any());
+
+        for (int i = 0; i < 100; i++) {
+            ContainerRequestContext next = requestWithToken(UUID.randomUUID().toString());
+            rateLimitFilter.filter(next);
+            verify(next).abortWith(argThat(response -> response.getStatus() == Response.Status.TOO_MANY_REQUESTS.getStatusCode()));
+        }
+
+        verify(authenticationAndAuthorization, times(1)).isSessionTokenActive(anyString());
+    }
+
+    /**
+     * An active token gets its own bucket after it is checked once.
+     */
+    @Test
+    public void testFilter_ActiveTokenCheckedOnce() throws Exception {
+        when(resourceInfo.getResourceMethod()).thenReturn(TestResource.class.getMethod("loose"));
+        when(request.getRemoteAddr()).thenReturn("10.0.0.2");
+        when(authenticationAndAuthorization.isSessionTokenActive("active")).thenReturn(true);
+
+        for (int i = 0; i < 10; i++) {
+            rateLimitFilter.filter(requestWithToken("active"));
+        }
+
+        verify(authenticationAndAuthorization, times(1)).isSessionTokenActive("active");
+    }
+
+    /**
+     * Microbenchmark: the filter adds only microseconds to a request with a validated token.
+     */
+    @Test
+    public void testFilter_MicrosecondOverhead() throws Exception {
+        when(resourceInfo.getResourceMethod()).thenReturn(TestResource.class.getMethod("loose"));
+        when(request.getRemoteAddr()).thenReturn("10.0.0.3");
+        when(authenticationAndAuthorization.isSessionTokenActive("benchmark")).thenReturn(true);
+        ContainerRequestContext requestContext = mock(ContainerRequestContext.class, withSettings().stubOnly());
+        when(requestContext.getHeaderString("token")).thenReturn("benchmark");
+
+        // Warm up, so the measure is taken on compiled code
+        for (int i = 0; i < 50_000; i++) {
+            rateLimitFilter.filter(requestContext);
+        }
+
+        int iterations = 100_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            rateLimitFilter.filter(requestContext);
+        }
+        double micros = (System.nanoTime() - start) / 1000.0 / iterations;
+
+        verify(authenticationAndAuthorization, times(1)).isSessionTokenActive("benchmark");
+        assertTrue(micros < 50, "Filter took " + micros + " us");
+    }
+}
@@ -0,0 +1,163 @@
+import domcast.finalprojbackend.dao.PersonalMessageDao;
+import domcast.finalprojbackend.dao.ReplicaHeartbeatDao;
+import domcast.finalprojbackend.dao.ReplicaRouter;
+import domcast.finalprojbackend.entity.PersonalMessageEntity;
+import domcast.finalprojbackend.entity.ReplicaHeartbeatEntity;
+import jakarta.ejb.EJBTransactionRolledbackException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the read replica routing: ReplicaRouter, and the read-only queries of the DAOs.
+ */
+public class ReplicaRouterTest {
+
+    @InjectMocks
+    private ReplicaRouter replicaRouter;
+
+    @Mock
+    private ReplicaHeartbeatDao replicaHeartbeatDao;
+
+    @Mock
+    private EntityManagerFactory replicaFactory;
+
+    @InjectMocks
+    private PersonalMessageDao personalMessageDao;
+
+    @Mock
+    private EntityManager em;
+
+    @Mock
+    private ReplicaRouter mockReplicaRouter;
+
+    @Mock
+    private EntityManager replica;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+
+        when(replicaHeartbeatDao.beat(any(LocalDateTime.class))).thenReturn(true);
+        when(replicaFactory.createEntityManager()).thenReturn(replica);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TypedQuery<PersonalMessageEntity> messagesQuery(EntityManager entityManager, List<PersonalMessageEntity> result) {
+        TypedQuery<PersonalMessageEntity> query = mock(TypedQuery.class);
+        when(entityManager.createNamedQuery(anyString(), eq(PersonalMessageEntity.class))).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.getResultList()).thenReturn(result);
+        return query;
+    }
+
+    private ReplicaHeartbeatEntity heartbeat(LocalDateTime beat) {
+        ReplicaHeartbeatEntity heartbeat = new ReplicaHeartbeatEntity();
+        heartbeat.setBeat(beat);
+        return heartbeat;
+    }
+
+    /**
+     * A replica holding the heartbeat just written must be available.
+     */
+    @Test
+    public void testHeartbeat_RecentReplicaIsAvailable() {
+        when(replica.find(eq(ReplicaHeartbeatEntity.class), any())).thenAnswer(invocation -> heartbeat(LocalDateTime.now()));
+
+        replicaRouter.heartbeat();
+
+        assertTrue(replicaRouter.isAvailable());
+        verify(replica).close();
+    }
+
+    /**
+     * A replica behind the primary for longer than the maximum staleness must not be read.
+     */
+    @Test
+    public void testHeartbeat_StaleReplicaIsNotAvailable() {
+        when(replica.find(eq(ReplicaHeartbeatEntity.class), any())).thenReturn(heartbeat(LocalDateTime.now().minusMinutes(1)));
+
+        replicaRouter.heartbeat();
+
+        assertFalse(replicaRouter.isAvailable());
+    }
+
+    /**
+     * A failing replica must not be read.
+     */
+    @Test
+    public void testHeartbeat_UnreachableReplicaIsNotAvailable() {
+        when(replica.find(eq(ReplicaHeartbeatEntity.class), any())).thenThrow(new PersistenceException("Connection refused"));
+
+        replicaRouter.heartbeat();
+
+        assertFalse(replicaRouter.isAvailable());
+    }
+
+    /**
+     * A beat rolled back because another node created the heartbeat row first must not stop the heartbeat.
+     */
+    @Test
+    public void testHeartbeat_RolledBackBeatIsSkipped() {
+        when(replicaHeartbeatDao.beat(any(LocalDateTime.class))).thenThrow(new EJBTransactionRolledbackException("Duplicate key"));
+
+        assertDoesNotThrow(() -> replicaRouter.heartbeat());
+
+        assertFalse(replicaRouter.isAvailable());
+        verifyNoInteractions(replica);
+    }
+
+    /**
+     * Without an available replica, the read-only queries must go to the primary database.
+     */
+    @Test
+    public void testReadOnly_UsesPrimaryWithoutReplica() {
+        when(mockReplicaRouter.isAvailable()).thenReturn(false);
+        messagesQuery(em, List.of(new PersonalMessageEntity()));
+
+        assertEquals(1, personalMessageDao.getAllPersonalMessagesWhereReceiverIs(1).size());
+        verify(mockReplicaRouter, never()).createEntityManager();
+    }
+
+    /**
+     * With an available replica, the read-only queries must go to it, and its entity manager must be closed.
+     */
+    @Test
+    public void testReadOnly_UsesAvailableReplica() {
+        when(mockReplicaRouter.isAvailable()).thenReturn(true);
+        when(mockReplicaRouter.createEntityManager()).thenReturn(replica);
+        messagesQuery(replica, List.of(new PersonalMessageEntity(), new PersonalMessageEntity()));
+
+        assertEquals(2, personalMessageDao.getAllPersonalMessagesWhereReceiverIs(1).size());
+        verify(em, never()).createNamedQuery(anyString(), eq(PersonalMessageEntity.class));
+        verify(replica).close();
+    }
+
+    /**
+     * A query failing in the replica must be run again in the primary database, and the replica left aside.
+     */
+    @Test
+    public void testReadOnly_FallsBackToPrimaryWhenReplicaFails() {
+        when(mockReplicaRouter.isAvailable()).thenReturn(true);
+        when(mockReplicaRouter.createEntityManager()).thenReturn(replica);
+        when(replica.createNamedQuery(anyString(), eq(PersonalMessageEntity.class))).thenThrow(new PersistenceException("Connection reset"));
+        messagesQuery(em, List.of(new PersonalMessageEntity()));
+
+        assertEquals(1, personalMessageDao.getAllPersonalMessagesSentByUser(1).size());
+        verify(mockReplicaRouter).markUnavailable(any(PersistenceException.class));
+        verify(replica).close();
+    }
+}
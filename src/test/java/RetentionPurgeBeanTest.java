@@ -0,0 +1,89 @@
+import domcast.finalprojbackend.bean.RetentionPurgeBean;
+import domcast.finalprojbackend.dao.PersonalMessageDao;
+import domcast.finalprojbackend.dao.ProjectChangeDao;
+import domcast.finalprojbackend.dao.SessionTokenDao;
+import domcast.finalprojbackend.dao.ValidationTokenDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for RetentionPurgeBean.
+ */
+public class RetentionPurgeBeanTest {
+
+    @InjectMocks
+    private RetentionPurgeBean retentionPurgeBean;
+
+    @Mock
+    private ValidationTokenDao validationTokenDao;
+
+    @Mock
+    private SessionTokenDao sessionTokenDao;
+
+    @Mock
+    private PersonalMessageDao personalMessageDao;
+
+    @Mock
+    private ProjectChangeDao projectChangeDao;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        System.setProperty(RetentionPurgeBean.CHUNK_SIZE_PROPERTY, "3");
+        System.setProperty(RetentionPurgeBean.PAUSE_PROPERTY, "0");
+        retentionPurgeBean.init();
+        System.clearProperty(RetentionPurgeBean.CHUNK_SIZE_PROPERTY);
+        System.clearProperty(RetentionPurgeBean.PAUSE_PROPERTY);
+
+        when(validationTokenDao.findPurgeableValidationTokenIds(anyInt(), any(LocalDateTime.class), anyInt())).thenReturn(new ArrayList<>());
+        when(sessionTokenDao.findPurgeableSessionIds(anyInt(), any(LocalDateTime.class), anyInt())).thenReturn(new ArrayList<>());
+        when(personalMessageDao.findPurgeableNotificationIds(anyInt(), any(LocalDateTime.class), anyInt())).thenReturn(new ArrayList<>());
+    }
+
+    private List<Integer> ids(int from, int to) {
+        return new ArrayList<>(IntStream.rangeClosed(from, to).boxed().toList());
+    }
+
+    /**
+     * Each chunk must start after the last id of the previous one, and a partial chunk must end the purge.
+     */
+    @Test
+    public void testPurge_WalksSessionsByKeyset() {
+        when(sessionTokenDao.findPurgeableSessionIds(eq(0), any(LocalDateTime.class), eq(3))).thenReturn(ids(1, 3));
+        when(sessionTokenDao.findPurgeableSessionIds(eq(3), any(LocalDateTime.class), eq(3))).thenReturn(ids(7, 8));
+        when(sessionTokenDao.deleteTokensByIds(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        retentionPurgeBean.purge();
+
+        verify(sessionTokenDao).deleteTokensByIds(List.of(1, 2, 3));
+        verify(sessionTokenDao).deleteTokensByIds(List.of(7, 8));
+        verify(sessionTokenDao, times(2)).findPurgeableSessionIds(anyInt(), any(LocalDateTime.class), anyInt());
+    }
+
+    /**
+     * A failed chunk must stop the purge of its rows, without stopping the purge of the other rows.
+     */
+    @Test
+    public void testPurge_StopsRowsWithFailedChunk() {
+        when(validationTokenDao.findPurgeableValidationTokenIds(anyInt(), any(LocalDateTime.class), anyInt())).thenReturn(ids(1, 3));
+        when(validationTokenDao.deleteTokensByIds(anyList())).thenReturn(-1);
+        when(personalMessageDao.findPurgeableNotificationIds(eq(0), any(LocalDateTime.class), anyInt())).thenReturn(ids(4, 5));
+        when(personalMessageDao.deletePersonalMessagesByIds(anyList())).thenReturn(2);
+
+        retentionPurgeBean.purge();
+
+        verify(validationTokenDao, times(1)).deleteTokensByIds(anyList());
+        verify(personalMessageDao).deletePersonalMessagesByIds(List.of(4, 5));
+    }
+}
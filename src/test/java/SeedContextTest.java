@@ -0,0 +1,115 @@
+import domcast.finalprojbackend.bean.startup.SeedContext;
+import domcast.finalprojbackend.bean.startup.SeedPlan;
+import domcast.finalprojbackend.bean.startup.SeedTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for SeedContext, which makes the synthetic dataset of the SyntheticDataGenerator deterministic.
+ */
+public class SeedContextTest {
+
+    private static final int[] LABS = {1, 2, 3};
+    private static final int[] SKILLS = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+    private static final int[] INTERESTS = {1, 2, 3, 4, 5};
+    private static final int[] KEYWORDS = {1, 2};
+
+    private SeedContext context(long seed) {
+        SeedPlan plan = new SeedPlan(seed, 50, 20, 4, 100, 100, 10, 100);
+        return new SeedContext(plan, 4, Map.of(SeedTable.USER, 10, SeedTable.TASK, 100), LABS, SKILLS, INTERESTS, KEYWORDS, "hash");
+    }
+
+    /**
+     * The same seed must give the same units, and another seed other units.
+     */
+    @Test
+    public void testRandom_SameSeedSameUnits() {
+        assertEquals(context(7).random(SeedTable.MESSAGE, 3).nextLong(), context(7).random(SeedTable.MESSAGE, 3).nextLong());
+        assertNotEquals(context(7).random(SeedTable.MESSAGE, 3).nextLong(), context(7).random(SeedTable.MESSAGE, 4).nextLong());
+        assertNotEquals(context(7).random(SeedTable.MESSAGE, 3).nextLong(), context(8).random(SeedTable.MESSAGE, 3).nextLong());
+
+        for (int project = 0; project < 20; project++) {
+            assertArrayEquals(context(7).members(project), context(7).members(project));
+        }
+    }
+
+    /**
+     * The members of a project must be different synthetic users, no more than the maximum.
+     */
+    @Test
+    public void testMembers_DifferentSyntheticUsers() {
+        SeedContext context = context(7);
+
+        for (int project = 0; project < 20; project++) {
+            int[] members = context.members(project);
+
+            assertTrue(members.length >= 1 && members.length <= 4);
+            assertEquals(members.length, Arrays.stream(members).distinct().count());
+            assertTrue(Arrays.stream(members).allMatch(id -> id > 10 && id <= 60));
+        }
+    }
+
+    /**
+     * The ids of the rows must follow the existing ids without repeating, and the tags of a unit must be different.
+     */
+    @Test
+    public void testIds_AfterExistingAndUnique() {
+        SeedContext context = context(7);
+        assertEquals(11, context.userId(0));
+        assertEquals(60, context.userId(49));
+        assertEquals(1, context.projectId(0));
+
+        Set<Integer> taskIds = new HashSet<>();
+        for (int project = 0; project < 20; project++) {
+            for (int task = 0; task < 4; task++) {
+                assertTrue(taskIds.add(context.taskId(project, task)));
+            }
+        }
+        assertEquals(101, taskIds.stream().min(Integer::compare).orElseThrow());
+
+        for (int user = 0; user < 50; user++) {
+            int[] tags = context.tags(context.random(SeedTable.USER_SKILL, user), SeedTable.USER_SKILL);
+            assertTrue(tags.length >= 1 && tags.length <= SeedContext.MAX_TAGS);
+            assertEquals(tags.length, Arrays.stream(tags).distinct().count());
+        }
+
+        int[] keywords = context.tags(context.random(SeedTable.PROJECT_KEYWORD, 0), SeedTable.PROJECT_KEYWORD);
+        assertTrue(keywords.length <= KEYWORDS.length);
+    }
+
+    /**
+     * The tasks of a project must fit in the project: the presentation at its deadline, the others starting after
+     * the projected start and ending before the presentation, the same for the same seed.
+     */
+    @Test
+    public void testTaskDates_WithinProjectAndBeforePresentation() {
+        SeedContext context = context(7);
+
+        for (int project = 0; project < 20; project++) {
+            SeedContext.Dates dates = context.projectDates(project);
+            assertEquals(dates, context(7).projectDates(project));
+            assertTrue(dates.start().isBefore(dates.end()));
+
+            SplittableRandom random = context.random(SeedTable.TASK, project);
+            for (int row = 0; row < 4; row++) {
+                SeedContext.Dates task = context.taskDates(random, dates, row);
+
+                if (row == 3) {
+                    assertEquals(dates.end(), task.start());
+                    assertEquals(dates.end(), task.end());
+                } else {
+                    assertFalse(task.start().isBefore(dates.start()));
+                    assertTrue(task.start().isBefore(task.end()));
+                    assertTrue(task.end().isBefore(dates.end()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+import domcast.finalprojbackend.bean.MessageBean;
+import domcast.finalprojbackend.bean.user.SessionExpiryBean;
+import domcast.finalprojbackend.bean.user.SignedTokenBean;
+import domcast.finalprojbackend.dao.SessionTokenDao;
+import domcast.finalprojbackend.dao.SystemDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for SessionExpiryBean.
+ */
+public class SessionExpiryBeanTest {
+
+    @InjectMocks
+    private SessionExpiryBean sessionExpiryBean;
+
+    @Mock
+    private SessionTokenDao sessionTokenDao;
+
+    @Mock
+    private SystemDao systemDao;
+
+    @Mock
+    private MessageBean messageBean;
+
+    @Mock
+    private SignedTokenBean signedTokenBean;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    /**
+     * A session accessed within the timeout must not be checked nor logged out.
+     */
+    @Test
+    public void testExpire_KeepsRecentSessions() {
+        sessionExpiryBean.touch("token1");
+
+        sessionExpiryBean.expire();
+
+        verify(sessionTokenDao, never()).findIdleSessionTokens(anyCollection(), any(LocalDateTime.class));
+        verify(sessionTokenDao, never()).logoutSessions(anyCollection());
+    }
+
+    /**
+     * The expired sessions must be logged out in one update, and a failed notification must not stop the others.
+     */
+    @Test
+    public void testExpire_LogsOutExpiredSessionsInOneBatch() {
+        sessionExpiryBean.updateTimeout(0);
+        sessionExpiryBean.touch("token1");
+        sessionExpiryBean.touch("token2");
+        when(sessionTokenDao.findIdleSessionTokens(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(new ArrayList<>(List.of("token1", "token2")));
+        when(sessionTokenDao.logoutSessions(anyCollection())).thenReturn(2);
+        doThrow(new IllegalArgumentException()).when(messageBean).sendLogoutNotification("token1");
+
+        sessionExpiryBean.expire();
+
+        verify(sessionTokenDao, times(1)).logoutSessions(List.of("token1", "token2"));
+        verify(messageBean).sendLogoutNotification("token2");
+    }
+
+    /**
+     * A session logged out by the user must no longer be expired.
+     */
+    @Test
+    public void testExpire_IgnoresForgottenSessions() {
+        sessionExpiryBean.updateTimeout(0);
+        sessionExpiryBean.touch("token1");
+        sessionExpiryBean.forget("token1");
+
+        sessionExpiryBean.expire();
+
+        verify(sessionTokenDao, never()).logoutSessions(anyCollection());
+    }
+
+    /**
+     * The active sessions loaded from the database must be expired from their last access.
+     */
+    @Test
+    public void testReconcile_ExpiresSessionsLoadedFromDatabase() {
+        when(sessionTokenDao.findActiveSessionsLastAccess())
+                .thenReturn(new HashMap<>(Map.of("old", LocalDateTime.now().minusHours(1), "recent", LocalDateTime.now())));
+        when(sessionTokenDao.findIdleSessionTokens(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(new ArrayList<>(List.of("old")));
+        when(sessionTokenDao.logoutSessions(anyCollection())).thenReturn(1);
+
+        sessionExpiryBean.reconcile();
+        sessionExpiryBean.expire();
+
+        verify(sessionTokenDao).findIdleSessionTokens(eq(List.of("old")), any(LocalDateTime.class));
+        verify(sessionTokenDao).logoutSessions(List.of("old"));
+    }
+}
@@ -0,0 +1,170 @@
+import domcast.finalprojbackend.bean.user.SignedTokenBean;
+import domcast.finalprojbackend.dao.SessionTokenDao;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for SignedTokenBean.
+ */
+public class SignedTokenBeanTest {
+
+    @InjectMocks
+    private SignedTokenBean signedTokenBean;
+
+    @Mock
+    private SessionTokenDao sessionTokenDao;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(sessionTokenDao.findSignedTokensLoggedOutSince(anyString(), any(LocalDateTime.class))).thenReturn(new ArrayList<>());
+        signedTokenBean.init();
+    }
+
+    private SignedTokenBean newBean(SessionTokenDao dao) throws Exception {
+        SignedTokenBean bean = new SignedTokenBean();
+        var field = SignedTokenBean.class.getDeclaredField("sessionTokenDao");
+        field.setAccessible(true);
+        field.set(bean, dao);
+        bean.init();
+        return bean;
+    }
+
+    /**
+     * An issued token must be verified in memory, with the user it was issued to.
+     */
+    @Test
+    public void testVerify_IssuedTokenIsValid() {
+        String token = signedTokenBean.issue(42, 200);
+
+        SignedTokenBean.Verification verification = signedTokenBean.verify(token);
+
+        assertTrue(verification.isValid());
+        assertEquals(42, verification.claims().userId());
+        assertEquals(200, verification.claims().userType());
+        assertTrue(token.length() <= 255);
+    }
+
+    /**
+     * A token whose claims were changed must be rejected.
+     */
+    @Test
+    public void testVerify_TamperedTokenIsRejected() {
+        String[] token = signedTokenBean.issue(42, 200).split("\\.");
+        String[] other = signedTokenBean.issue(43, 300).split("\\.");
+
+        String tampered = String.join(".", token[0], token[1], other[2], token[3]);
+        String truncated = String.join(".", token[0], token[1], token[2]);
+
+        assertTrue(signedTokenBean.verify(tampered).isRejected());
+        assertTrue(signedTokenBean.verify(truncated).isRejected());
+    }
+
+    /**
+     * Opaque tokens and tokens signed by another node must be left to the database.
+     */
+    @Test
+    public void testVerify_OpaqueAndForeignTokensAreUnverified() throws Exception {
+        String opaque = Base64.getUrlEncoder().encodeToString(new byte[24]);
+        String foreign = newBean(sessionTokenDao).issue(42, 200);
+
+        assertEquals(SignedTokenBean.Verification.Status.UNVERIFIED, signedTokenBean.verify(opaque).status());
+        assertEquals(SignedTokenBean.Verification.Status.UNVERIFIED, signedTokenBean.verify(foreign).status());
+    }
+
+    /**
+     * Nodes configured with the same keys must verify the tokens of each other.
+     */
+    @Test
+    public void testVerify_ConfiguredKeysAreShared() throws Exception {
+        String secret = Base64.getEncoder().encodeToString(new byte[32]);
+        System.setProperty(SignedTokenBean.KEYS_PROPERTY, "k2:" + secret + ",k1:" + secret);
+        try {
+            String token = newBean(sessionTokenDao).issue(42, 200);
+
+            assertTrue(token.startsWith(SignedTokenBean.PREFIX + "k2."));
+            assertTrue(newBean(sessionTokenDao).verify(token).isValid());
+        } finally {
+            System.clearProperty(SignedTokenBean.KEYS_PROPERTY);
+        }
+    }
+
+    /**
+     * A token logged out in this node must be rejected at once, without touching the other sessions.
+     */
+    @Test
+    public void testRevoke_RejectsLoggedOutToken() {
+        String token = signedTokenBean.issue(42, 200);
+        String other = signedTokenBean.issue(42, 200);
+
+        signedTokenBean.revoke(token);
+
+        assertTrue(signedTokenBean.verify(token).isRejected());
+        assertTrue(signedTokenBean.verify(other).isValid());
+    }
+
+    /**
+     * A token logged out in another node must be rejected after the next sync.
+     */
+    @Test
+    public void testSyncRevocations_RejectsTokensLoggedOutElsewhere() {
+        String token = signedTokenBean.issue(42, 200);
+        when(sessionTokenDao.findSignedTokensLoggedOutSince(anyString(), any(LocalDateTime.class))).thenReturn(List.of(token));
+
+        signedTokenBean.syncRevocations();
+
+        assertTrue(signedTokenBean.verify(token).isRejected());
+    }
+
+    /**
+     * Without a successful sync, the revocations of the other nodes are unknown and the tokens are left to the database.
+     */
+    @Test
+    public void testVerify_UnverifiedWithoutSync() throws Exception {
+        SessionTokenDao failingDao = mock(SessionTokenDao.class);
+        when(failingDao.findSignedTokensLoggedOutSince(anyString(), any(LocalDateTime.class)))
+                .thenThrow(new PersistenceException("Connection refused"));
+        SignedTokenBean bean = newBean(failingDao);
+
+        assertEquals(SignedTokenBean.Verification.Status.UNVERIFIED, bean.verify(bean.issue(42, 200)).status());
+    }
+
+    /**
+     * A verification costs a MAC instead of a query, so it must take a few microseconds.
+     */
+    @Test
+    public void testVerify_MicrosecondLatency() {
+        String[] tokens = new String[100];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = signedTokenBean.issue(i, 200);
+        }
+
+        int iterations = 200_000;
+        int valid = 0;
+        for (int i = 0; i < iterations; i++) {
+            valid += signedTokenBean.verify(tokens[i % tokens.length]).isValid() ? 1 : 0;
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            valid += signedTokenBean.verify(tokens[i % tokens.length]).isValid() ? 1 : 0;
+        }
+        double micros = (System.nanoTime() - start) / 1000.0 / iterations;
+
+        assertEquals(2 * iterations, valid);
+        assertTrue(micros < 50, "Verification took " + micros + " us");
+    }
+}
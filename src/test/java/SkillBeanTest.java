@@ -1,5 +1,7 @@
 import domcast.finalprojbackend.bean.DataValidator;
+import domcast.finalprojbackend.bean.TypeaheadBean;
 import domcast.finalprojbackend.bean.SkillBean;
+import domcast.finalprojbackend.bean.MatchingBean;
 import domcast.finalprojbackend.dao.SkillDao;
 import domcast.finalprojbackend.dao.UserDao;
 import domcast.finalprojbackend.dto.skillDto.SkillDto;
@@ -34,6 +36,9 @@ public class SkillBeanTest {
     @InjectMocks
     private SkillBean skillBean;
 
+    @Mock
+    private TypeaheadBean typeaheadBean;
+
     @Mock
     private UserDao userDao;
 
@@ -43,6 +48,9 @@ public class SkillBeanTest {
     @Mock
     private DataValidator dataValidator;
 
+    @Mock
+    private MatchingBean matchingBean;
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
@@ -1,5 +1,6 @@
 import domcast.finalprojbackend.bean.DataValidator;
 import domcast.finalprojbackend.bean.project.ProjectBean;
+import domcast.finalprojbackend.bean.project.ProjectVersionBean;
 import domcast.finalprojbackend.bean.task.TaskBean;
 import domcast.finalprojbackend.dao.ProjectDao;
 import domcast.finalprojbackend.dao.TaskDao;
@@ -59,6 +60,9 @@ public class TaskBeanTest {
     @Mock
     private TypedQuery<TaskEntity> query;
 
+    @Mock
+    private ProjectVersionBean projectVersionBean;
+
 
     @BeforeEach
     public void setup() {
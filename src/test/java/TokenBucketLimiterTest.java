@@ -0,0 +1,101 @@
+import domcast.finalprojbackend.service.TokenBucketLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TokenBucketLimiter, the buckets behind the RateLimitFilter.
+ */
+public class TokenBucketLimiterTest {
+
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter();
+
+    /**
+     * A full bucket must allow a burst of its size, and then one request per refill interval.
+     */
+    @Test
+    public void testTryAcquire_AllowsBurstThenRefillRate() {
+        TokenBucketLimiter.Limit limit = new TokenBucketLimiter.Limit("GET /message/count-personal-unread", 10, 10);
+        long now = TimeUnit.MINUTES.toNanos(5);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire("client", limit, now));
+        }
+
+        long wait = limiter.tryAcquire("client", limit, now);
+        assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(0, limiter.tryAcquire("client", limit, now + wait));
+        assertTrue(limiter.tryAcquire("client", limit, now + wait) > 0);
+    }
+
+    /**
+     * Each client must have its own bucket.
+     */
+    @Test
+    public void testTryAcquire_SeparatesKeys() {
+        TokenBucketLimiter.Limit limit = new TokenBucketLimiter.Limit("POST /user/login", 1, 60);
+        long now = TimeUnit.MINUTES.toNanos(5);
+
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.1", limit, now));
+        assertTrue(limiter.tryAcquire("ip:10.0.0.1", limit, now) > 0);
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.2", limit, now));
+    }
+
+    /**
+     * Concurrent requests must never get more tokens than the bucket holds.
+     */
+    @Test
+    public void testTryAcquire_ConcurrentRequestsRespectBurst() throws InterruptedException {
+        TokenBucketLimiter.Limit limit = new TokenBucketLimiter.Limit("GET /project", 100, 3600);
+        long now = TimeUnit.MINUTES.toNanos(5);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.tryAcquire("token:shared", limit, now) == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(100, allowed.get());
+    }
+
+    /**
+     * A bucket left idle must refill up to its burst and no further, and many clients must not share tokens.
+     */
+    @Test
+    public void testTryAcquire_RefillsUpToBurstPerKey() {
+        TokenBucketLimiter.Limit limit = new TokenBucketLimiter.Limit("GET /project", 5, 5);
+        long now = TimeUnit.MINUTES.toNanos(5);
+
+        for (int key = 0; key < 1024; key++) {
+            for (int i = 0; i < 5; i++) {
+                assertEquals(0, limiter.tryAcquire("token:" + key, limit, now));
+            }
+            assertTrue(limiter.tryAcquire("token:" + key, limit, now) > 0);
+        }
+
+        long later = now + TimeUnit.HOURS.toNanos(1);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("token:0", limit, later));
+        }
+        assertTrue(limiter.tryAcquire("token:0", limit, later) > 0);
+    }
+}
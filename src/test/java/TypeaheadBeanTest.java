@@ -0,0 +1,118 @@
+import domcast.finalprojbackend.bean.TypeaheadBean;
+import domcast.finalprojbackend.dao.ComponentResourceDao;
+import domcast.finalprojbackend.dao.InterestDao;
+import domcast.finalprojbackend.dao.KeywordDao;
+import domcast.finalprojbackend.dao.ProjectDao;
+import domcast.finalprojbackend.dao.SkillDao;
+import domcast.finalprojbackend.enums.TypeaheadCategoryEnum;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for TypeaheadBean.
+ */
+public class TypeaheadBeanTest {
+
+    @InjectMocks
+    private TypeaheadBean typeaheadBean;
+
+    @Mock
+    private ProjectDao projectDao;
+
+    @Mock
+    private KeywordDao keywordDao;
+
+    @Mock
+    private SkillDao skillDao;
+
+    @Mock
+    private InterestDao interestDao;
+
+    @Mock
+    private ComponentResourceDao componentResourceDao;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionRegistry;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(projectDao.getProjectsNames()).thenReturn(List.of("Apollo"));
+        typeaheadBean.init();
+    }
+
+    /**
+     * Starts a transaction in the mocked registry, keeping its resources in a map
+     * @return the captor of the synchronization registered in the transaction
+     */
+    private ArgumentCaptor<Synchronization> inTransaction() {
+        Map<Object, Object> resources = new HashMap<>();
+        when(transactionRegistry.getTransactionKey()).thenReturn(new Object());
+        when(transactionRegistry.getResource(any())).thenAnswer(invocation -> resources.get(invocation.getArgument(0)));
+        doAnswer(invocation -> resources.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(transactionRegistry).putResource(any(), any());
+        return ArgumentCaptor.forClass(Synchronization.class);
+    }
+
+    /**
+     * A name added in a transaction is only completed once the transaction commits.
+     */
+    @Test
+    public void testAdd_AppliedOnCommit() {
+        ArgumentCaptor<Synchronization> synchronization = inTransaction();
+
+        typeaheadBean.add(TypeaheadCategoryEnum.PROJECT, "Artemis");
+        typeaheadBean.rename(TypeaheadCategoryEnum.PROJECT, "Apollo", "Apollo 11");
+        assertEquals(List.of("Apollo"), typeaheadBean.complete(TypeaheadCategoryEnum.PROJECT, "A", 10));
+
+        verify(transactionRegistry, times(1)).registerInterposedSynchronization(synchronization.capture());
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+
+        assertEquals(List.of("Apollo 11", "Artemis"), typeaheadBean.complete(TypeaheadCategoryEnum.PROJECT, "A", 10));
+    }
+
+    /**
+     * A name added in a transaction that rolls back never reaches the completions.
+     */
+    @Test
+    public void testAdd_DroppedOnRollback() {
+        ArgumentCaptor<Synchronization> synchronization = inTransaction();
+
+        typeaheadBean.add(TypeaheadCategoryEnum.PROJECT, "Artemis");
+
+        verify(transactionRegistry).registerInterposedSynchronization(synchronization.capture());
+        synchronization.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+
+        assertEquals(List.of("Apollo"), typeaheadBean.complete(TypeaheadCategoryEnum.PROJECT, "A", 10));
+    }
+
+    /**
+     * A name committed while a rebuild reads the database is kept in the rebuilt index.
+     */
+    @Test
+    public void testRebuild_KeepsNameCommittedWhileReading() {
+        when(projectDao.getProjectsNames()).thenAnswer(invocation -> {
+            typeaheadBean.add(TypeaheadCategoryEnum.PROJECT, "Artemis");
+            return List.of("Apollo");
+        });
+
+        typeaheadBean.rebuild();
+
+        assertEquals(List.of("Apollo", "Artemis"), typeaheadBean.complete(TypeaheadCategoryEnum.PROJECT, "A", 10));
+    }
+}
@@ -1,6 +1,7 @@
 import domcast.finalprojbackend.bean.DataValidator;
 import domcast.finalprojbackend.bean.InterestBean;
 import domcast.finalprojbackend.bean.SkillBean;
+import domcast.finalprojbackend.bean.MatchingBean;
 import domcast.finalprojbackend.bean.AuthenticationAndAuthorization;
 import domcast.finalprojbackend.bean.user.*;
 import domcast.finalprojbackend.dao.LabDao;
@@ -81,6 +82,9 @@ public class UserBeanTest {
     @Mock
     private SkillBean skillBean; // Mock the SkillBean
 
+    @Mock
+    private MatchingBean matchingBean;
+
     /**
      * Setup method to initialize mocks
      */
@@ -225,28 +229,123 @@ public class UserBeanTest {
         login.setPassword("password");
         String ipAddress = "192.168.0.1";
 
-        UserEntity userEntity = new UserEntity();
-        userEntity.setPassword("hashedPassword");
-        userEntity.setType(TypeOfUserEnum.STANDARD);
-
-        // Create a LabEntity and set it as the workplace of the UserEntity
-        LabEntity labEntity = new LabEntity();
-        labEntity.setCity(LabEnum.LISBOA); // Or any other value from the LabEnum
-        userEntity.setWorkplace(labEntity);
+        LoginCredentials credentials = new LoginCredentials(1, login.getEmail(), "hashedPassword", TypeOfUserEnum.STANDARD);
 
         SessionTokenEntity sessionTokenEntity = new SessionTokenEntity();
+        sessionTokenEntity.setToken("sessionToken");
+
+        LoggedUser loggedUser = new LoggedUser();
+        loggedUser.setId(1);
 
         when(dataValidator.isLoginValid(login)).thenReturn(true);
-        when(userDao.findUserByEmail(login.getEmail())).thenReturn(userEntity);
-        when(authenticationAndAuthorization.checkPassword(login.getPassword(), userEntity.getPassword())).thenReturn(true);
-        when(tokenBean.generateSessionToken(userEntity, ipAddress)).thenReturn(sessionTokenEntity);
-        when(userDao.merge(userEntity)).thenReturn(true);
+        when(userDao.findLoginCredentials(login.getEmail())).thenReturn(credentials);
+        when(authenticationAndAuthorization.checkPassword(login.getPassword(), credentials.getPassword())).thenReturn(true);
+        when(tokenBean.generateSessionToken(1, TypeOfUserEnum.STANDARD, ipAddress)).thenReturn(sessionTokenEntity);
+        when(sessionTokenDao.persist(sessionTokenEntity)).thenReturn(true);
+        when(userDao.findLoggedUser(1)).thenReturn(loggedUser);
 
         // Act
         LoggedUser result = userBean.login(login, ipAddress);
 
         // Assert
         assertNotNull(result);
+        assertEquals("sessionToken", result.getSessionToken());
+    }
+
+    /**
+     * Test method for login
+     * This test checks that the login inserts the session token without loading nor merging the user and its history.
+     */
+    @Test
+    public void testLogin_InsertsTokenWithoutLoadingUser() {
+        // Arrange
+        Login login = new Login();
+        login.setEmail("test@test.com");
+        login.setPassword("password");
+        String ipAddress = "192.168.0.1";
+
+        SessionTokenEntity sessionTokenEntity = new SessionTokenEntity();
+        sessionTokenEntity.setToken("sessionToken");
+
+        when(dataValidator.isLoginValid(login)).thenReturn(true);
+        when(userDao.findLoginCredentials(login.getEmail()))
+                .thenReturn(new LoginCredentials(1, login.getEmail(), "hashedPassword", TypeOfUserEnum.STANDARD));
+        when(authenticationAndAuthorization.checkPassword(anyString(), anyString())).thenReturn(true);
+        when(tokenBean.generateSessionToken(1, TypeOfUserEnum.STANDARD, ipAddress)).thenReturn(sessionTokenEntity);
+        when(sessionTokenDao.persist(sessionTokenEntity)).thenReturn(true);
+        when(userDao.findLoggedUser(1)).thenReturn(new LoggedUser());
+
+        // Act
+        userBean.login(login, ipAddress);
+
+        // Assert
+        verify(sessionTokenDao).persist(sessionTokenEntity);
+        verify(userDao, never()).findUserByEmail(anyString());
+        verify(userDao, never()).merge(any(UserEntity.class));
+    }
+
+    /**
+     * Test method for login
+     * This test checks that a failed insert of the session token fails the login.
+     */
+    @Test
+    public void testLogin_FailsWhenTokenIsNotInserted() {
+        // Arrange
+        Login login = new Login();
+        login.setEmail("test@test.com");
+        login.setPassword("password");
+        String ipAddress = "192.168.0.1";
+
+        SessionTokenEntity sessionTokenEntity = new SessionTokenEntity();
+        sessionTokenEntity.setToken("sessionToken");
+
+        when(dataValidator.isLoginValid(login)).thenReturn(true);
+        when(userDao.findLoginCredentials(login.getEmail()))
+                .thenReturn(new LoginCredentials(1, login.getEmail(), "hashedPassword", TypeOfUserEnum.STANDARD));
+        when(authenticationAndAuthorization.checkPassword(anyString(), anyString())).thenReturn(true);
+        when(tokenBean.generateSessionToken(1, TypeOfUserEnum.STANDARD, ipAddress)).thenReturn(sessionTokenEntity);
+        when(sessionTokenDao.persist(sessionTokenEntity)).thenReturn(false);
+
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> userBean.login(login, ipAddress));
+        verify(userDao, never()).findLoggedUser(anyInt());
+    }
+
+    /**
+     * The login must not depend on the session history of the account: it only reads the credentials and the
+     * logged user projection, and never loads the user entity or its sessions.
+     */
+    @Test
+    public void testLogin_UsesOnlyCredentialsAndLoggedUser() {
+        // Arrange
+        Login login = new Login();
+        login.setEmail("test@test.com");
+        login.setPassword("password");
+        String ipAddress = "192.168.0.1";
+
+        UserEntity userWithHistory = spy(new UserEntity());
+        SessionTokenEntity sessionTokenEntity = new SessionTokenEntity();
+        sessionTokenEntity.setToken("sessionToken");
+
+        when(dataValidator.isLoginValid(login)).thenReturn(true);
+        when(userDao.findUserByEmail(login.getEmail())).thenReturn(userWithHistory);
+        when(userDao.findLoginCredentials(login.getEmail()))
+                .thenReturn(new LoginCredentials(1, login.getEmail(), "hashedPassword", TypeOfUserEnum.STANDARD));
+        when(authenticationAndAuthorization.checkPassword(anyString(), anyString())).thenReturn(true);
+        when(tokenBean.generateSessionToken(1, TypeOfUserEnum.STANDARD, ipAddress)).thenReturn(sessionTokenEntity);
+        when(sessionTokenDao.persist(sessionTokenEntity)).thenReturn(true);
+        when(userDao.findLoggedUser(1)).thenReturn(new LoggedUser());
+
+        // Act
+        LoggedUser loggedUser = userBean.login(login, ipAddress);
+
+        // Assert
+        assertEquals("sessionToken", loggedUser.getSessionToken());
+        verify(userDao).findLoginCredentials(login.getEmail());
+        verify(userDao).findLoggedUser(1);
+        verifyNoMoreInteractions(userDao);
+        verify(userWithHistory, never()).getSessionTokens();
+        verify(sessionTokenDao, never()).merge(any());
     }
 
     /**